@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bean;
+
+import org.fairy.reflect.ReflectIndex;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Processes the bean annotations and generates the {@link ReflectIndex} resource,
+ * so bean scanning at runtime doesn't have to scan through the whole jar.
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+// Every annotation is claimed since composed annotations carrying the indexed ones can have any name
+@SupportedAnnotationTypes("*")
+public class BeanIndexProcessor extends AbstractProcessor {
+
+    private static final List<Class<? extends Annotation>> INDEXED_ANNOTATIONS = Arrays.asList(
+            Service.class,
+            Bean.class,
+            Component.class,
+            Autowired.class
+    );
+
+    private final ReflectIndex.Builder builder = new ReflectIndex.Builder();
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment env) {
+        for (Element element : env.getRootElements()) {
+            this.builder.packageName(this.processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString());
+        }
+
+        for (Class<? extends Annotation> annotation : INDEXED_ANNOTATIONS) {
+            String annotationName = annotation.getName();
+            this.builder.annotation(annotationName);
+
+            for (Element element : env.getElementsAnnotatedWith(annotation)) {
+                switch (element.getKind()) {
+                    case CLASS:
+                    case INTERFACE:
+                    case ENUM:
+                        this.builder.type(annotationName, this.binaryName((TypeElement) element));
+                        break;
+                    case ANNOTATION_TYPE:
+                        this.indexComposed(env, annotationName, (TypeElement) element, new HashSet<>());
+                        break;
+                    case METHOD:
+                        this.builder.method(annotationName, this.binaryName((TypeElement) element.getEnclosingElement()), element.getSimpleName().toString());
+                        break;
+                    case FIELD:
+                        this.builder.field(annotationName, this.binaryName((TypeElement) element.getEnclosingElement()), element.getSimpleName().toString());
+                        break;
+                    default:
+                        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@" + annotation.getSimpleName() + " on unsupported element " + element.getKind() + ", it won't be indexed", element);
+                        break;
+                }
+            }
+        }
+
+        if (env.processingOver()) {
+            try {
+                FileObject resource = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ReflectIndex.RESOURCE);
+
+                try (Writer writer = resource.openWriter(); BufferedWriter bw = new BufferedWriter(writer)) {
+                    this.builder.write(bw);
+                    bw.flush();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot write bean index: " + e.getMessage(), e);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Index a composed annotation and every type carrying it, directly or through further composed annotations,
+     * the same way classpath scanning resolves meta annotations on types
+     */
+    private void indexComposed(RoundEnvironment env, String annotationName, TypeElement annotationType, Set<TypeElement> visited) {
+        if (!visited.add(annotationType)) {
+            return;
+        }
+
+        this.builder.type(annotationName, this.binaryName(annotationType));
+        for (Element element : env.getElementsAnnotatedWith(annotationType)) {
+            switch (element.getKind()) {
+                case CLASS:
+                case INTERFACE:
+                case ENUM:
+                    this.builder.type(annotationName, this.binaryName((TypeElement) element));
+                    break;
+                case ANNOTATION_TYPE:
+                    this.indexComposed(env, annotationName, (TypeElement) element, visited);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private String binaryName(TypeElement element) {
+        return this.processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.fairy.bukkit.util.nms.ItemTagReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identifying an item through {@link ItemTagReader}, against copying the item and walking the tag reflectively twice
+ * like NBTEditor.contains followed by NBTEditor.getString did
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemTagReaderBenchmark {
+
+    private static final String[] KEYS = {"imanity", "item", "id"};
+
+    private ItemTagReader reader;
+    private FakeCraftStack stack;
+
+    private Method copy;
+    private Method getTag;
+    private Method hasKey;
+    private Method get;
+
+    @Setup
+    public void setup() throws Throwable {
+        this.reader = ItemTagReader.of(FakeCraftStack.class, FakeItem.class, FakeCompound.class, itemStack -> null, KEYS);
+        this.stack = FakeCraftStack.tagged("sword");
+
+        this.copy = FakeCraftStack.class.getMethod("asNMSCopy", FakeCraftStack.class);
+        this.getTag = FakeItem.class.getMethod("getTag");
+        this.hasKey = FakeCompound.class.getMethod("hasKey", String.class);
+        this.get = FakeCompound.class.getMethod("get", String.class);
+    }
+
+    @Benchmark
+    public String direct() {
+        return this.reader.read(this.stack);
+    }
+
+    @Benchmark
+    public String copying() throws Exception {
+        String value = null;
+        for (int pass = 0; pass < 2; pass++) {
+            Object compound = this.getTag.invoke(this.copy.invoke(null, this.stack));
+            for (String key : KEYS) {
+                compound = (boolean) this.hasKey.invoke(compound, key) ? this.get.invoke(compound, key) : null;
+            }
+            value = (String) compound;
+        }
+        return value;
+    }
+
+    public static class FakeCraftStack {
+
+        private final FakeItem handle;
+
+        public FakeCraftStack(FakeItem handle) {
+            this.handle = handle;
+        }
+
+        public static FakeCraftStack tagged(String id) {
+            FakeCompound item = new FakeCompound();
+            item.values.put("id", id);
+            FakeCompound imanity = new FakeCompound();
+            imanity.values.put("item", item);
+            FakeCompound tag = new FakeCompound();
+            tag.values.put("imanity", imanity);
+            return new FakeCraftStack(new FakeItem(tag));
+        }
+
+        public static FakeItem asNMSCopy(FakeCraftStack stack) {
+            return new FakeItem(stack.handle.tag == null ? null : stack.handle.tag.copy());
+        }
+
+    }
+
+    public static class FakeItem {
+
+        private final FakeCompound tag;
+
+        public FakeItem(FakeCompound tag) {
+            this.tag = tag;
+        }
+
+        public FakeCompound getTag() {
+            return this.tag;
+        }
+
+    }
+
+    public static class FakeCompound {
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        public boolean hasKey(String key) {
+            return this.values.containsKey(key);
+        }
+
+        public Object get(String key) {
+            return this.values.get(key);
+        }
+
+        public boolean hasKeyOfType(String key, int type) {
+            final Object value = this.values.get(key);
+            return type == 10 ? value instanceof FakeCompound : type == 8 && value instanceof String;
+        }
+
+        public FakeCompound getCompound(String key) {
+            final Object value = this.values.get(key);
+            return value instanceof FakeCompound ? (FakeCompound) value : new FakeCompound();
+        }
+
+        public String getString(String key) {
+            final Object value = this.values.get(key);
+            return value instanceof String ? (String) value : "";
+        }
+
+        private FakeCompound copy() {
+            FakeCompound copy = new FakeCompound();
+            this.values.forEach((key, value) -> copy.values.put(key, value instanceof FakeCompound ? ((FakeCompound) value).copy() : value));
+            return copy;
+        }
+
+    }
+
+}
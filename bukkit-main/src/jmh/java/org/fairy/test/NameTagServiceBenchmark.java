@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.nametag.NameTagAdapter;
+import org.fairy.bukkit.nametag.NameTagInfo;
+import org.fairy.bukkit.nametag.NameTagList;
+import org.fairy.bukkit.nametag.NameTagService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link NameTagService} update for a server full of players, after everything or a few players were refreshed
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameTagServiceBenchmark {
+
+    private static final int TEAMS = 8;
+
+    @Param({"100", "300"})
+    public int players;
+
+    private BenchmarkService service;
+    private int next;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        this.service = new BenchmarkService(this.players);
+        this.service.updateAll();
+        this.service.runUpdate();
+    }
+
+    @Benchmark
+    public int updateAll() {
+        this.service.updateAll();
+        this.service.runUpdate();
+        return this.service.packets;
+    }
+
+    @Benchmark
+    public int refreshThirty() {
+        for (int i = 0; i < 30; i++) {
+            Player player = this.service.playerList.get(this.next++ % this.players);
+            this.service.teams.merge(player.getUniqueId(), 1, (team, one) -> (team + one) % TEAMS);
+            this.service.updateFromThirdSide(player);
+        }
+        this.service.runUpdate();
+        return this.service.packets;
+    }
+
+    private static class BenchmarkService extends NameTagService {
+
+        private final List<Player> playerList = new ArrayList<>();
+        private final Map<UUID, Player> byId = new HashMap<>();
+        private final Map<UUID, Integer> teams = new HashMap<>();
+        private final Map<UUID, NameTagList> lists = new HashMap<>();
+        private final NameTagInfo[] infos = new NameTagInfo[TEAMS];
+        private int packets;
+
+        private BenchmarkService(int players) throws ReflectiveOperationException {
+            Constructor<NameTagInfo> constructor = NameTagInfo.class.getDeclaredConstructor(String.class, String.class);
+            constructor.setAccessible(true);
+            for (int i = 0; i < TEAMS; i++) {
+                this.infos[i] = constructor.newInstance("team-" + i, "");
+            }
+
+            for (int i = 0; i < players; i++) {
+                Player player = player(UUID.randomUUID(), "player-" + i);
+                this.playerList.add(player);
+                this.byId.put(player.getUniqueId(), player);
+                this.teams.put(player.getUniqueId(), i % TEAMS);
+            }
+
+            this.register(new NameTagAdapter("benchmark", 1) {
+                @Override
+                public NameTagInfo fetch(Player receiver, Player target) {
+                    return infos[teams.get(target.getUniqueId())];
+                }
+            });
+        }
+
+        private void runUpdate() {
+            this.packets = 0;
+            this.update();
+        }
+
+        @Override
+        protected Collection<? extends Player> getOnlinePlayers() {
+            return this.playerList;
+        }
+
+        @Override
+        protected Player getPlayer(UUID uuid) {
+            return this.byId.get(uuid);
+        }
+
+        @Override
+        protected NameTagList getNameTagList(Player viewer) {
+            return this.lists.computeIfAbsent(viewer.getUniqueId(), ignored -> new NameTagList());
+        }
+
+        @Override
+        protected void sendMembers(Player viewer, Map<NameTagInfo, List<String>> joins) {
+            this.packets += joins.size();
+        }
+
+    }
+
+    private static Player player(UUID uuid, String name) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[] { Player.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return name;
+                case "isOnline":
+                    return true;
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+}
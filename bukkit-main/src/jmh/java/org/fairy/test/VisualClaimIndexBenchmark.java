@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.World;
+import org.fairy.bukkit.visual.VisualBlockClaim;
+import org.fairy.bukkit.visual.VisualClaimIndex;
+import org.fairy.bukkit.visual.type.VisualType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claim lookup at random blocks through the {@link VisualClaimIndex}, against scanning every claim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VisualClaimIndexBenchmark {
+
+    private static final String WORLD = "world";
+    private static final int LOOKUPS = 1024;
+
+    @Param({"20", "200", "2000"})
+    public int claims;
+
+    private VisualClaimIndex index;
+    private Claim[] scan;
+    private int[] xs;
+    private int[] zs;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        this.index = new VisualClaimIndex();
+        this.scan = new Claim[this.claims];
+        for (int i = 0; i < this.claims; i++) {
+            int x = random.nextInt(20_000) - 10_000;
+            int z = random.nextInt(20_000) - 10_000;
+            this.scan[i] = new Claim(x, z, x + 499, z + 499);
+            this.index.add(WORLD, this.scan[i]);
+        }
+
+        this.xs = new int[LOOKUPS];
+        this.zs = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.xs[i] = random.nextInt(20_000) - 10_000;
+            this.zs[i] = random.nextInt(20_000) - 10_000;
+        }
+    }
+
+    @Benchmark
+    public VisualBlockClaim index() {
+        int i = this.next++ & (LOOKUPS - 1);
+        return this.index.get(WORLD, this.xs[i], this.zs[i]);
+    }
+
+    @Benchmark
+    public VisualBlockClaim linearScan() {
+        int i = this.next++ & (LOOKUPS - 1);
+        int x = this.xs[i];
+        int z = this.zs[i];
+        for (int j = this.scan.length - 1; j >= 0; j--) {
+            Claim claim = this.scan[j];
+            if (x >= claim.minX && x <= claim.maxX && z >= claim.minZ && z <= claim.maxZ) {
+                return claim;
+            }
+        }
+        return null;
+    }
+
+    private static class Claim implements VisualBlockClaim {
+
+        private final int minX, minZ, maxX, maxZ;
+
+        private Claim(int minX, int minZ, int maxX, int maxZ) {
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public World getWorld() {
+            return null;
+        }
+
+        @Override
+        public int getMinX() {
+            return this.minX;
+        }
+
+        @Override
+        public int getMaxX() {
+            return this.maxX;
+        }
+
+        @Override
+        public int getMinY() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxY() {
+            return 256;
+        }
+
+        @Override
+        public int getMinZ() {
+            return this.minZ;
+        }
+
+        @Override
+        public int getMaxZ() {
+            return this.maxZ;
+        }
+
+        @Override
+        public VisualType getType() {
+            return null;
+        }
+
+    }
+
+}
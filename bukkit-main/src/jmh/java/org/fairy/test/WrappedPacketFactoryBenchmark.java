@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.packet.PacketDirection;
+import org.fairy.bukkit.packet.wrapper.WrappedPacket;
+import org.fairy.bukkit.packet.wrapper.WrappedPacketFactory;
+import org.fairy.bukkit.reflection.resolver.ConstructorResolver;
+import org.fairy.bukkit.reflection.wrapper.ConstructorWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapping an incoming packet through {@link PacketDirection#getWrappedFromNMS(Player, byte, Object)},
+ * against the per-packet {@link ConstructorResolver} lookup it replaced
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrappedPacketFactoryBenchmark {
+
+    private static final byte ID = 0x0F;
+
+    // PacketDirection only accepts one registration per JVM
+    private static boolean registered;
+
+    private Map<Byte, Class<? extends WrappedPacket>> wrappers;
+    private Object packet;
+
+    @Setup
+    public void setup() throws Throwable {
+        synchronized (WrappedPacketFactoryBenchmark.class) {
+            if (!registered) {
+                PacketDirection.READ.register(Collections.singletonMap(ID, WrappedPacketFactory.of(Wrapper.class)));
+                registered = true;
+            }
+        }
+
+        this.wrappers = Collections.singletonMap(ID, Wrapper.class);
+        this.packet = new StubPacket();
+    }
+
+    @Benchmark
+    public WrappedPacket factory() {
+        return PacketDirection.READ.getWrappedFromNMS(null, ID, this.packet);
+    }
+
+    @Benchmark
+    public WrappedPacket resolver() {
+        Class<? extends WrappedPacket> wrappedPacketClass = this.wrappers.getOrDefault(ID, null);
+
+        if (wrappedPacketClass == null) {
+            return new WrappedPacket(null, this.packet);
+        }
+
+        ConstructorResolver constructorResolver = new ConstructorResolver(wrappedPacketClass);
+        ConstructorWrapper<? extends WrappedPacket> constructor = constructorResolver.resolveWrapper(new Class[] { Player.class, Object.class });
+
+        if (constructor.exists()) {
+            return constructor.newInstance(null, this.packet);
+        }
+
+        constructor = constructorResolver.resolveWrapper(new Class[] { Object.class });
+
+        if (constructor.exists()) {
+            return constructor.newInstance(this.packet);
+        }
+
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Stands in for an NMS packet, the wrapper only keeps a reference to it
+     */
+    public static final class StubPacket {
+    }
+
+    public static class Wrapper extends WrappedPacket {
+
+        private final Object wrapped;
+
+        public Wrapper(Player player, Object packet) {
+            this.wrapped = packet;
+        }
+
+    }
+
+}
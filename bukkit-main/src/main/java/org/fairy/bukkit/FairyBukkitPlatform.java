@@ -86,6 +86,7 @@ public final class FairyBukkitPlatform extends JavaPlugin implements FairyPlatfo
         if (Imanity.TAB_HANDLER != null) {
             Imanity.TAB_HANDLER.stop();
         }
+        Imanity.stopMovementPipeline();
         this.bootstrap.disable();
     }
 
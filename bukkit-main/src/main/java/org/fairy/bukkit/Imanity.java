@@ -45,7 +45,9 @@ import org.fairy.bukkit.impl.server.ServerImplementation;
 import org.fairy.bukkit.listener.events.Events;
 import org.fairy.bukkit.metadata.Metadata;
 import org.fairy.bukkit.player.movement.MovementListener;
+import org.fairy.bukkit.player.movement.MovementPipeline;
 import org.fairy.bukkit.player.movement.impl.AbstractMovementImplementation;
+import org.fairy.bukkit.player.movement.impl.PipelineMovementImplementation;
 import org.fairy.bukkit.tablist.ImanityTabAdapter;
 import org.fairy.bukkit.tablist.ImanityTabHandler;
 import org.fairy.bukkit.timer.TimerService;
@@ -69,6 +71,7 @@ public final class Imanity {
 
     public static ServerImplementation IMPLEMENTATION;
     private static VisualBlockHandler VISUAL_BLOCK_HANDLER;
+    private static MovementPipeline MOVEMENT_PIPELINE;
 
     public static VisualBlockHandler getVisualBlockHandler() {
         if (VISUAL_BLOCK_HANDLER == null) {
@@ -78,6 +81,22 @@ public final class Imanity {
         return VISUAL_BLOCK_HANDLER;
     }
 
+    public static synchronized MovementPipeline getMovementPipeline() {
+        if (MOVEMENT_PIPELINE == null) {
+            MOVEMENT_PIPELINE = new MovementPipeline();
+            MOVEMENT_PIPELINE.start(Imanity.PLUGIN);
+        }
+
+        return MOVEMENT_PIPELINE;
+    }
+
+    public static synchronized void stopMovementPipeline() {
+        if (MOVEMENT_PIPELINE != null) {
+            MOVEMENT_PIPELINE.stop();
+            MOVEMENT_PIPELINE = null;
+        }
+    }
+
     public static CacheBlockSetHandler getBlockSetHandler(World world) {
         return Metadata.provideForWorld(world).getOrPut(CacheBlockSetHandler.METADATA, () -> new CacheBlockSetHandler(world));
     }
@@ -97,7 +116,7 @@ public final class Imanity {
             plugin = Imanity.PLUGIN;
         }
 
-        AbstractMovementImplementation implementation = Imanity.IMPLEMENTATION.movement(movementListener);
+        AbstractMovementImplementation implementation = new PipelineMovementImplementation(Imanity.getMovementPipeline(), movementListener);
 
         implementation.register(plugin);
         return implementation;
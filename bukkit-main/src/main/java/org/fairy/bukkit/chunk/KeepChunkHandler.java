@@ -28,6 +28,7 @@ import org.bukkit.Chunk;
 import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.fairy.Fairy;
+import org.fairy.bean.InitializeOnMainThread;
 import org.fairy.bean.PostDestroy;
 import org.fairy.bean.PostInitialize;
 import org.fairy.bukkit.Imanity;
@@ -39,6 +40,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Service(name = "keepChunk")
+@InitializeOnMainThread
 public class KeepChunkHandler {
 
     private Set<Long> chunksToKeep;
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.command.impl;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.fairy.bean.Autowired;
+import org.fairy.bean.Component;
+import org.fairy.bukkit.FairyBukkitPlatform;
+import org.fairy.bukkit.command.event.BukkitCommandEvent;
+import org.fairy.command.annotation.Command;
+import org.fairy.command.annotation.CommandHolder;
+import org.fairy.command.annotation.Parameter;
+import org.fairy.timings.TimingRecorder;
+import org.fairy.timings.TimingService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class TimingsCommand implements CommandHolder {
+
+    @Autowired
+    private TimingService timingService;
+
+    @Command(names = "fairy timings", permissionNode = "fairy.timings")
+    public void timings(BukkitCommandEvent event,
+                        @Parameter(name = "action", defaultValue = "report") String action,
+                        @Parameter(name = "format", defaultValue = "json") String format,
+                        @Parameter(name = "minutes", defaultValue = "5") int minutes) {
+        final CommandSender sender = event.getSender();
+        if (!this.timingService.isRecording()) {
+            sender.sendMessage(ChatColor.RED + "Fairy timings are not recording, start the server with -Dfairy.timings.recorder=true");
+            return;
+        }
+
+        final TimingRecorder recorder = this.timingService.getRecorder();
+        switch (action.toLowerCase(Locale.ROOT)) {
+            case "report":
+                for (String line : recorder.report()) {
+                    sender.sendMessage(line);
+                }
+                break;
+            case "export":
+                final TimingRecorder.Format exportFormat = this.format(sender, format);
+                if (exportFormat == null) {
+                    return;
+                }
+
+                try {
+                    final Path file = recorder.export(this.exportFolder(), exportFormat);
+                    sender.sendMessage(ChatColor.GREEN + "Timings exported to " + file);
+                } catch (IOException ex) {
+                    sender.sendMessage(ChatColor.RED + "Failed to export timings: " + ex.getMessage());
+                }
+                break;
+            case "schedule":
+                final TimingRecorder.Format scheduleFormat = this.format(sender, format);
+                if (scheduleFormat == null) {
+                    return;
+                }
+                if (minutes < 1) {
+                    sender.sendMessage(ChatColor.RED + "The export interval must be at least 1 minute");
+                    return;
+                }
+
+                recorder.exportPeriodically(this.exportFolder(), scheduleFormat, minutes, TimeUnit.MINUTES);
+                sender.sendMessage(ChatColor.GREEN + "Timings will be exported every " + minutes + " minutes.");
+                break;
+            case "stop":
+                if (!recorder.isExporting()) {
+                    sender.sendMessage(ChatColor.RED + "Timings are not exported periodically.");
+                    return;
+                }
+
+                recorder.stopExport();
+                sender.sendMessage(ChatColor.GREEN + "Periodic timings export stopped.");
+                break;
+            case "reset":
+                recorder.reset();
+                sender.sendMessage(ChatColor.GREEN + "Timings reset.");
+                break;
+            default:
+                sender.sendMessage(ChatColor.RED + "Usage: /fairy timings <report|export|schedule|stop|reset> [json|csv] [minutes]");
+                break;
+        }
+    }
+
+    private TimingRecorder.Format format(CommandSender sender, String format) {
+        try {
+            return TimingRecorder.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            sender.sendMessage(ChatColor.RED + "Unknown format " + format + ", use json or csv");
+            return null;
+        }
+    }
+
+    private Path exportFolder() {
+        return FairyBukkitPlatform.INSTANCE.getDataFolder().toPath().resolve("timings");
+    }
+
+}
@@ -160,6 +160,7 @@ public class Hologram {
         }
 
         this.location = location;
+        this.hologramHandler.relocateHologram(this);
 
         if (this.isSpawned()) {
 
@@ -43,9 +43,7 @@ import org.fairy.bukkit.metadata.Metadata;
 import org.fairy.metadata.MetadataKey;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class HologramHandler {
 
@@ -56,9 +54,7 @@ public class HologramHandler {
     public static final MetadataKey<HologramHandler> WORLD_METADATA = MetadataKey.create(Fairy.METADATA_PREFIX + "WorldHolograms", HologramHandler.class);
     public static final MetadataKey<RenderedHolograms> HOLOGRAM_METADATA = MetadataKey.create(Fairy.METADATA_PREFIX + "Holograms", RenderedHolograms.class);
     private final World world;
-    private final Map<Integer, Hologram> holograms = new HashMap<>();
-    // Thread Safe
-    private final Map<Integer, Hologram> entityIdToHolograms = new ConcurrentHashMap<>();
+    private final HologramIndex index = new HologramIndex();
 
     public HologramHandler(World world) {
         this.world = world;
@@ -75,7 +71,7 @@ public class HologramHandler {
 
                 final PacketContainer packet = event.getPacket();
                 final Integer entityId = packet.getIntegers().read(0);
-                final Hologram hologram = entityIdToHolograms.get(entityId);
+                final Hologram hologram = index.getByEntityId(entityId);
                 if (hologram == null || hologram.getInteractListener() == null) {
                     return;
                 }
@@ -98,11 +94,11 @@ public class HologramHandler {
     }
 
     protected void registerEntityId(int entityId, Hologram hologram) {
-        this.entityIdToHolograms.put(entityId, hologram);
+        this.index.registerEntityId(entityId, hologram);
     }
 
     protected void unregisterEntityId(int entityId) {
-        this.entityIdToHolograms.remove(entityId);
+        this.index.unregisterEntityId(entityId);
     }
 
     public Hologram addHologram(Location location, String... texts) {
@@ -116,7 +112,11 @@ public class HologramHandler {
     }
 
     public void addHologram(Hologram hologram) {
-        this.holograms.put(hologram.getId(), hologram);
+        this.index.add(hologram);
+    }
+
+    protected void relocateHologram(Hologram hologram) {
+        this.index.relocate(hologram);
     }
 
     public void update(Player player) {
@@ -136,11 +136,31 @@ public class HologramHandler {
     }
 
     public Hologram getHologram(int id) {
-        return this.holograms.get(id);
+        return this.index.get(id);
     }
 
     public Collection<Hologram> getHolograms() {
-        return this.holograms.values();
+        return this.index.values();
+    }
+
+    public void forEachNearHologram(Location location, Consumer<Hologram> consumer) {
+        this.index.forEachNear(location.getX(), location.getZ(), DISTANCE_TO_RENDER, consumer);
+    }
+
+    /**
+     * like {@link #forEachNearHologram(Location, Consumer)}, but skips the holograms already in render distance of the previous position
+     * only valid while {@link #getIndexVersion()} is the same as when the previous position was scanned
+     */
+    public void forEachNearHologram(Location location, double previousX, double previousZ, Consumer<Hologram> consumer) {
+        this.index.forEachNear(location.getX(), location.getZ(), DISTANCE_TO_RENDER, previousX, previousZ, consumer);
+    }
+
+    public int getIndexVersion() {
+        return this.index.getVersion();
+    }
+
+    public boolean isInRenderDistance(Hologram hologram, Location location) {
+        return this.index.isInRange(hologram, location.getX(), location.getZ(), DISTANCE_TO_RENDER);
     }
 
     public RenderedHolograms getRenderedHolograms(Player player) {
@@ -149,6 +169,6 @@ public class HologramHandler {
     }
 
     public void removeHologram(Hologram hologram) {
-        this.holograms.remove(hologram.getId());
+        this.index.remove(hologram);
     }
 }
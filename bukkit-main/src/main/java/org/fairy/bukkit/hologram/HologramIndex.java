@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.hologram;
+
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Holograms of a world bucketed by chunk, so nearby lookups only visit the chunks around a position
+ * Everything except the entity id lookup is main thread only
+ */
+public class HologramIndex {
+
+    private static final int CELL_SHIFT = 4;
+
+    private final Int2ObjectOpenHashMap<Hologram> holograms = new Int2ObjectOpenHashMap<>();
+    private final Int2LongOpenHashMap hologramCells = new Int2LongOpenHashMap();
+    private final Long2ObjectOpenHashMap<List<Hologram>> cells = new Long2ObjectOpenHashMap<>();
+
+    // Bumped whenever a hologram is added, removed or changes cell
+    private int version;
+
+    // Copy on write, read from netty threads on interact
+    private volatile Int2ObjectOpenHashMap<Hologram> entityIds = new Int2ObjectOpenHashMap<>();
+
+    public void add(Hologram hologram) {
+        final Hologram previous = this.holograms.put(hologram.getId(), hologram);
+        if (previous != null) {
+            this.removeFromCell(previous);
+        }
+        this.addToCell(hologram);
+        this.version++;
+    }
+
+    public void remove(Hologram hologram) {
+        if (this.holograms.remove(hologram.getId()) != null) {
+            this.removeFromCell(hologram);
+            this.version++;
+        }
+    }
+
+    /**
+     * move the hologram to the cell of its current location
+     */
+    public void relocate(Hologram hologram) {
+        if (this.holograms.get(hologram.getId()) != hologram) {
+            return;
+        }
+
+        final long key = cellKey(hologram.getX(), hologram.getZ());
+        if (this.hologramCells.get(hologram.getId()) != key) {
+            this.removeFromCell(hologram);
+            this.addToCell(hologram);
+            this.version++;
+        }
+    }
+
+    /**
+     * @return a counter changed by every add, remove or relocation to another cell
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    public Hologram get(int id) {
+        return this.holograms.get(id);
+    }
+
+    public Collection<Hologram> values() {
+        return this.holograms.values();
+    }
+
+    /**
+     * run the consumer for every hologram within the horizontal radius of the position
+     */
+    public void forEachNear(double x, double z, double radius, Consumer<Hologram> consumer) {
+        this.forEachNear(x, z, radius, Double.NaN, Double.NaN, consumer);
+    }
+
+    /**
+     * run the consumer for every hologram within the horizontal radius of the position,
+     * skipping the cells entirely within the same radius of the previous position
+     *
+     * Those cells hold nothing new for a viewer that already received every hologram around the previous position,
+     * as long as the {@link #getVersion() version} didn't change since
+     */
+    public void forEachNear(double x, double z, double radius, double previousX, double previousZ, Consumer<Hologram> consumer) {
+        final double radiusSquared = radius * radius;
+        final int minCellX = floor(x - radius) >> CELL_SHIFT, maxCellX = floor(x + radius) >> CELL_SHIFT;
+        final int minCellZ = floor(z - radius) >> CELL_SHIFT, maxCellZ = floor(z + radius) >> CELL_SHIFT;
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                if (isCellWithin(cellX, cellZ, previousX, previousZ, radiusSquared)) {
+                    continue;
+                }
+
+                final List<Hologram> cell = this.cells.get(cellKey(cellX, cellZ));
+                if (cell == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < cell.size(); i++) {
+                    final Hologram hologram = cell.get(i);
+                    if (distanceSquared(hologram, x, z) <= radiusSquared) {
+                        consumer.accept(hologram);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean isInRange(Hologram hologram, double x, double z, double radius) {
+        return distanceSquared(hologram, x, z) <= radius * radius;
+    }
+
+    public void registerEntityId(int entityId, Hologram hologram) {
+        synchronized (this) {
+            final Int2ObjectOpenHashMap<Hologram> entityIds = new Int2ObjectOpenHashMap<>(this.entityIds);
+            entityIds.put(entityId, hologram);
+            this.entityIds = entityIds;
+        }
+    }
+
+    public void unregisterEntityId(int entityId) {
+        synchronized (this) {
+            if (!this.entityIds.containsKey(entityId)) {
+                return;
+            }
+
+            final Int2ObjectOpenHashMap<Hologram> entityIds = new Int2ObjectOpenHashMap<>(this.entityIds);
+            entityIds.remove(entityId);
+            this.entityIds = entityIds;
+        }
+    }
+
+    public Hologram getByEntityId(int entityId) {
+        return this.entityIds.get(entityId);
+    }
+
+    private void addToCell(Hologram hologram) {
+        final long key = cellKey(hologram.getX(), hologram.getZ());
+        List<Hologram> cell = this.cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>(4);
+            this.cells.put(key, cell);
+        }
+        cell.add(hologram);
+        this.hologramCells.put(hologram.getId(), key);
+    }
+
+    private void removeFromCell(Hologram hologram) {
+        if (!this.hologramCells.containsKey(hologram.getId())) {
+            return;
+        }
+
+        final long key = this.hologramCells.remove(hologram.getId());
+        final List<Hologram> cell = this.cells.get(key);
+        if (cell != null && cell.remove(hologram) && cell.isEmpty()) {
+            this.cells.remove(key);
+        }
+    }
+
+    private static boolean isCellWithin(int cellX, int cellZ, double x, double z, double radiusSquared) {
+        // NaN fails every comparison, so no previous position never skips
+        final double minX = cellX << CELL_SHIFT, maxX = minX + (1 << CELL_SHIFT);
+        final double minZ = cellZ << CELL_SHIFT, maxZ = minZ + (1 << CELL_SHIFT);
+        final double deltaX = Math.max(Math.abs(minX - x), Math.abs(maxX - x));
+        final double deltaZ = Math.max(Math.abs(minZ - z), Math.abs(maxZ - z));
+        return deltaX * deltaX + deltaZ * deltaZ <= radiusSquared;
+    }
+
+    private static double distanceSquared(Hologram hologram, double x, double z) {
+        final double deltaX = hologram.getX() - x;
+        final double deltaZ = hologram.getZ() - z;
+        return deltaX * deltaX + deltaZ * deltaZ;
+    }
+
+    private static int floor(double value) {
+        final int floor = (int) value;
+        return value < floor ? floor - 1 : floor;
+    }
+
+    private static long cellKey(double x, double z) {
+        return cellKey(floor(x) >> CELL_SHIFT, floor(z) >> CELL_SHIFT);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+}
@@ -24,19 +24,31 @@
 
 package org.fairy.bukkit.hologram.player;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.fairy.bukkit.hologram.Hologram;
 import org.fairy.bukkit.hologram.HologramHandler;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
 @Getter
 public class RenderedHolograms {
 
     private String worldName;
-    private final List<Integer> holograms = new ArrayList<>();
+    private final IntSet holograms = new IntOpenHashSet();
+
+    // Position and index version of the last scan, every hologram in render distance of it was rendered
+    @Getter(AccessLevel.NONE)
+    private boolean scanned;
+    @Getter(AccessLevel.NONE)
+    private double scannedX, scannedZ;
+    @Getter(AccessLevel.NONE)
+    private int scannedVersion;
 
     public RenderedHolograms(Player player) {
         this.worldName = player.getWorld().getName();
@@ -53,48 +65,64 @@ public class RenderedHolograms {
             return;
         }
 
-        this.holograms.removeIf(id -> {
-            Hologram hologram = hologramHandler.getHologram(id);
+        final Location location = player.getLocation();
+        final IntIterator iterator = this.holograms.iterator();
+        while (iterator.hasNext()) {
+            Hologram hologram = hologramHandler.getHologram(iterator.nextInt());
 
             if (hologram == null) {
-                return true;
+                iterator.remove();
+                continue;
             }
 
-            if (hologram.distaneTo(player) > HologramHandler.DISTANCE_TO_RENDER) {
+            if (!hologramHandler.isInRenderDistance(hologram, location)) {
                 hologram.removePlayer(player);
-                return true;
+                iterator.remove();
             }
-
-            return false;
-        });
+        }
     }
 
     public void removeHologram(Player player, Hologram hologram) {
         hologram.removePlayer(player);
-        this.holograms.remove((Integer) hologram.getId());
+        this.holograms.remove(hologram.getId());
+        this.scanned = false;
     }
 
     public void reset(Player player, HologramHandler hologramHandler) {
-        this.holograms.forEach(id -> {
-            Hologram hologram = hologramHandler.getHologram(id);
+        final IntIterator iterator = this.holograms.iterator();
+        while (iterator.hasNext()) {
+            Hologram hologram = hologramHandler.getHologram(iterator.nextInt());
             if (hologram == null) {
-                return;
+                continue;
             }
 
             hologram.removePlayer(player);
-        });
+        }
         this.holograms.clear();
+        this.scanned = false;
     }
 
     public void addNearHolograms(Player player, HologramHandler hologramHandler) {
-        hologramHandler.getHolograms()
-                .stream()
-                .filter(hologram -> !this.holograms.contains(hologram.getId()))
-                .filter(hologram -> hologram.distaneTo(player) <= HologramHandler.DISTANCE_TO_RENDER)
-                .forEach(hologram -> {
-                    hologram.spawnPlayer(player);
-                    this.holograms.add(hologram.getId());
-                });
+        final Location location = player.getLocation();
+        final int version = hologramHandler.getIndexVersion();
+        final Consumer<Hologram> spawn = hologram -> {
+            if (this.holograms.add(hologram.getId())) {
+                hologram.spawnPlayer(player);
+            }
+        };
+
+        // only visits holograms in the chunks around the player instead of the whole world,
+        // and once scanned only the chunks not already covered by the previous scan
+        if (this.scanned && this.scannedVersion == version) {
+            hologramHandler.forEachNearHologram(location, this.scannedX, this.scannedZ, spawn);
+        } else {
+            hologramHandler.forEachNearHologram(location, spawn);
+        }
+
+        this.scanned = true;
+        this.scannedX = location.getX();
+        this.scannedZ = location.getZ();
+        this.scannedVersion = version;
     }
 
 }
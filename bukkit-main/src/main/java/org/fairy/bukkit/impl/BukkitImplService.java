@@ -31,6 +31,7 @@ import org.fairy.command.CommandService;
 import org.fairy.bukkit.Imanity;
 
 @Service(name = "bukkit-impl", dependencies = "command")
+@InitializeOnMainThread
 public class BukkitImplService {
 
     private final BeanContext beanContext;
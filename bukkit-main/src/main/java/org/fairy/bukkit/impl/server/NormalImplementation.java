@@ -359,7 +359,7 @@ public class NormalImplementation implements ServerImplementation {
 
     @Override
     public void sendTeam(Player player, String name, String prefix, String suffix, Collection<String> nameSet, int type) {
-        PacketService.send(player, WrappedPacketOutScoreboardTeam.builder()
+        PacketService.queue(player, WrappedPacketOutScoreboardTeam.builder()
                 .name(name)
                 .prefix(prefix)
                 .suffix(suffix)
@@ -370,7 +370,7 @@ public class NormalImplementation implements ServerImplementation {
 
     @Override
     public void sendMember(Player player, String name, Collection<String> players, int type) {
-        PacketService.send(player, WrappedPacketOutScoreboardTeam.builder()
+        PacketService.queue(player, WrappedPacketOutScoreboardTeam.builder()
                 .name(name)
                 .nameSets(players)
                 .action(type)
@@ -27,7 +27,6 @@ package org.fairy.bukkit.listener.events;
 import com.google.common.base.Preconditions;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
@@ -38,7 +37,6 @@ import org.fairy.util.terminable.TerminableConsumer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
@@ -68,6 +66,11 @@ public class EventSubscribeBuilder<T extends Event> {
     private Plugin plugin;
     private TerminableConsumer bindWith;
 
+    /**
+     * The earliest time set by {@link #expireAfter(long, TimeUnit)} in milliseconds, 0 if there is none
+     */
+    private long expireAt;
+
     public EventSubscribeBuilder(Class<T> type) {
         this.eventType = type;
         this.priority = EventPriority.NORMAL;
@@ -90,6 +93,7 @@ public class EventSubscribeBuilder<T extends Event> {
         this.exceptionHandler = original.getExceptionHandler();
         this.plugin = original.getPlugin();
         this.bindWith = original.getBindWith();
+        this.expireAt = original.getExpireAt();
     }
 
     public EventSubscribeBuilder<T> priority(EventPriority priority) {
@@ -115,6 +119,7 @@ public class EventSubscribeBuilder<T extends Event> {
     public EventSubscribeBuilder<T> expireAfter(long duration, @NonNull TimeUnit unit) {
         Preconditions.checkArgument(duration >= 1, "duration < 1");
         long expiry = Math.addExact(System.currentTimeMillis(), unit.toMillis(duration));
+        this.expireAt = this.expireAt == 0 ? expiry : Math.min(this.expireAt, expiry);
         return expireIf((handler, event) -> System.currentTimeMillis() > expiry, ExpiryStage.BEOFORE);
     }
 
@@ -192,22 +197,6 @@ public class EventSubscribeBuilder<T extends Event> {
         return subscription;
     }
 
-    @RequiredArgsConstructor
-    private static class PlayerPredicate<T extends Event> implements Predicate<T> {
-
-        private final UUID uuid;
-        private final Class<PlayerEventRecognizer.Attribute<?>>[] attributes;
-
-        @Override
-        public boolean test(T event) {
-            final Player player = PlayerEventRecognizer.tryRecognize(event, attributes);
-            if (player != null) {
-                return player.getUniqueId().equals(this.uuid);
-            }
-            return false;
-        }
-    }
-
     @Getter
     public class PlayerEventSubscribeBuilder extends EventSubscribeBuilder<T> {
 
@@ -227,15 +216,27 @@ public class EventSubscribeBuilder<T extends Event> {
             return this;
         }
 
+        @Override
+        public EventSubscription<T> build() {
+            if (this.getPlugin() == null) {
+                throw new IllegalArgumentException("No plugin were registered in EventSubscribeBuilder.");
+            }
+
+            return this.build(this.getPlugin());
+        }
+
         @Override
         public EventSubscription<T> build(Plugin plugin) {
             if (this.recognizeAttributes.isEmpty() && !PlayerEventRecognizer.isTypePossible(this.getEventType())) {
                 throw new IllegalStateException("used forPlayer() but type " + this.getEventType().getSimpleName() + " seems to be impossible to get Player!");
             }
-            this.filter(new PlayerPredicate<>(this.player.getUniqueId(), this.recognizeAttributes.toArray(new Class[0])));
 
+            // the shared dispatcher only passes the events recognized for this player
             EventSubscription<T> subscription = new EventSubscription<>(this);
-            subscription.register(plugin);
+            subscription.registerForPlayer(plugin, this.recognizeAttributes.toArray(new Class[0]));
+            if (this.getBindWith() != null) {
+                subscription.bindWith(this.getBindWith());
+            }
 
             if (this.metadata != null) {
                 Events.getSubscriptionList(player).put(metadata, subscription);
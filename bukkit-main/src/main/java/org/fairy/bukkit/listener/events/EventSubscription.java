@@ -24,6 +24,7 @@
 
 package org.fairy.bukkit.listener.events;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.entity.Player;
 import org.bukkit.event.*;
@@ -31,6 +32,7 @@ import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.Plugin;
 import org.fairy.bean.Autowired;
 import org.fairy.bean.Beans;
+import org.fairy.bukkit.player.PlayerEventRecognizer;
 import org.fairy.timings.MCTiming;
 import org.fairy.timings.TimingService;
 import org.fairy.util.terminable.Terminable;
@@ -60,15 +62,21 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
     private final BiPredicate<EventSubscription<T>, T>[] beforeExpiryTest;
     private final BiPredicate<EventSubscription<T>, T>[] midExpiryTest;
     private final BiPredicate<EventSubscription<T>, T>[] postExpiryTest;
+    private final long expireAt;
 
     private final AtomicLong callCount = new AtomicLong(0);
     private final AtomicBoolean active = new AtomicBoolean(true);
     private Plugin plugin;
     private MCTiming timing;
+    @Getter(AccessLevel.NONE)
+    private MCTiming[] listenerTimings;
 
     private final Player activePlayer;
     private final String activeMetadata;
 
+    @Getter(AccessLevel.NONE)
+    private PlayerEventDispatcher dispatcher;
+
     EventSubscription(EventSubscribeBuilder<T> subscribe) {
         this.type = subscribe.getEventType();
         this.priority = subscribe.getPriority();
@@ -83,6 +91,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
         this.beforeExpiryTest = subscribe.getBeforeExpiryTest().toArray(new BiPredicate[0]);
         this.midExpiryTest = subscribe.getMidExpiryTest().toArray(new BiPredicate[0]);
         this.postExpiryTest = subscribe.getPostExpiryTest().toArray(new BiPredicate[0]);
+        this.expireAt = subscribe.getExpireAt();
 
         if (subscribe instanceof EventSubscribeBuilder.PlayerEventSubscribeBuilder) {
             final EventSubscribeBuilder<T>.PlayerEventSubscribeBuilder playerBuilder = (EventSubscribeBuilder<T>.PlayerEventSubscribeBuilder) subscribe;
@@ -99,9 +108,26 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
     }
 
     public void register(Plugin plugin) {
+        this.setupTimings(plugin);
         plugin.getServer().getPluginManager().registerEvent(type, this, priority, this, plugin, false);
+    }
+
+    void registerForPlayer(Plugin plugin, Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes) {
+        this.setupTimings(plugin);
+        this.dispatcher = PlayerEventDispatcher.subscribe(plugin, this, this.activePlayer.getUniqueId(), attributes);
+    }
+
+    private void setupTimings(Plugin plugin) {
         this.plugin = plugin;
         this.timing = TIMING_SERVICE.of(plugin, "EventSubscription - " + this.type.getName());
+
+        // resolved once here, so firing the event never looks up the timings
+        if (TIMING_SERVICE.isEnabled()) {
+            this.listenerTimings = new MCTiming[this.listeners.length];
+            for (int i = 0; i < this.listeners.length; i++) {
+                this.listenerTimings[i] = TIMING_SERVICE.of(plugin, this.listeners[i].getClass().getName(), this.timing);
+            }
+        }
     }
 
     public boolean isActive() {
@@ -110,49 +136,64 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
 
     @Override
     public void execute(Listener listener, Event event) throws EventException {
+        if (this.listenerTimings == null) {
+            this.execute0(listener, event);
+            return;
+        }
+
         try (MCTiming ignored = this.timing.startTiming()) {
-            if (this.handleSubClasses) {
-                if (!this.type.isInstance(event)) {
-                    return;
-                }
-            } else {
-                if (event.getClass() != this.type) {
-                    return;
-                }
-            }
+            this.execute0(listener, event);
+        }
+    }
 
-            if (!this.active.get()) {
-                event.getHandlers().unregister(listener);
+    private void execute0(Listener listener, Event event) {
+        if (this.handleSubClasses) {
+            if (!this.type.isInstance(event)) {
                 return;
             }
-
-            T eventInstance = this.type.cast(event);
-            if (this.testExpiry(ExpiryStage.BEOFORE, listener, eventInstance)) {
+        } else {
+            if (event.getClass() != this.type) {
                 return;
             }
+        }
 
-            try {
+        if (!this.active.get()) {
+            this.unregisterHandler(listener, event);
+            return;
+        }
+
+        T eventInstance = this.type.cast(event);
+        if (this.testExpiry(ExpiryStage.BEOFORE, listener, eventInstance)) {
+            return;
+        }
 
-                for (Predicate<T> filter : this.filters) {
-                    if (!filter.test(eventInstance)) {
-                        return;
-                    }
+        try {
+
+            for (Predicate<T> filter : this.filters) {
+                if (!filter.test(eventInstance)) {
+                    return;
                 }
+            }
 
-                this.testExpiry(ExpiryStage.POST_FILTER, listener, eventInstance);
-                for (BiConsumer<EventSubscription<T>, ? super T> realListener : this.listeners) {
-                    try (MCTiming ignored1 = TIMING_SERVICE.of(this.plugin, realListener.getClass().getName(), this.timing)) {
-                        realListener.accept(this, eventInstance);
-                    }
+            this.testExpiry(ExpiryStage.POST_FILTER, listener, eventInstance);
+            MCTiming[] listenerTimings = this.listenerTimings;
+            for (int i = 0; i < this.listeners.length; i++) {
+                if (listenerTimings == null) {
+                    this.listeners[i].accept(this, eventInstance);
+                    continue;
                 }
 
-                this.callCount.incrementAndGet();
-            } catch (Throwable throwable) {
-                this.exceptionHandler.accept(eventInstance, throwable);
+                try (MCTiming ignored = listenerTimings[i].startTiming()) {
+                    this.listeners[i].accept(this, eventInstance);
+                }
             }
 
-            this.testExpiry(ExpiryStage.POST_EXECUTE, listener, eventInstance);
+            this.callCount.incrementAndGet();
+        } catch (Throwable throwable) {
+            this.exceptionHandler.accept(eventInstance, throwable);
         }
+
+        this.testExpiry(ExpiryStage.POST_EXECUTE, listener, eventInstance);
     }
 
     private boolean testExpiry(ExpiryStage stage, Listener listener, T event) {
@@ -174,7 +215,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
 
         for (BiPredicate<EventSubscription<T>, T> test : tests) {
             if (test.test(this, event)) {
-                event.getHandlers().unregister(listener);
+                this.unregisterHandler(listener, event);
                 this.active.set(false);
                 return true;
             }
@@ -183,6 +224,14 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
         return false;
     }
 
+    private void unregisterHandler(Listener listener, Event event) {
+        if (this.dispatcher != null) {
+            PlayerEventDispatcher.unsubscribe(this.dispatcher, this);
+        } else {
+            event.getHandlers().unregister(listener);
+        }
+    }
+
     @Override
     public void close() throws Exception {
         this.unregister();
@@ -193,7 +242,11 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
             return false;
         }
 
-        unregisterListener(this.type, this);
+        if (this.dispatcher != null) {
+            PlayerEventDispatcher.unsubscribe(this.dispatcher, this);
+        } else {
+            unregisterListener(this.type, this);
+        }
         if (this.activePlayer != null && this.activeMetadata != null) {
             Events.getSubscriptionList(this.activePlayer).remove(this.activeMetadata);
         }
@@ -201,7 +254,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
         return true;
     }
 
-    private static void unregisterListener(Class<? extends Event> eventClass, Listener listener) {
+    static void unregisterListener(Class<? extends Event> eventClass, Listener listener) {
         try {
             // unfortunately we can't cache this reflect call, as the method is static
             Method getHandlerListMethod = eventClass.getMethod("getHandlerList");
@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.listener.events;
+
+import lombok.Value;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.fairy.bukkit.player.PlayerEventRecognizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One bukkit registration per plugin, event type and priority shared by every player bound subscription,
+ * the event is only passed to the subscriptions of the player it was recognized for
+ *
+ * Subscriptions expiring after a duration are still checked on every event the dispatcher receives,
+ * like they were when each of them listened to the event by itself, so they don't wait for their own player.
+ */
+final class PlayerEventDispatcher implements Listener, EventExecutor {
+
+    private static final Map<Key, PlayerEventDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+    private static final Set<Plugin> DISABLE_HOOKS = ConcurrentHashMap.newKeySet();
+
+    static synchronized PlayerEventDispatcher subscribe(Plugin plugin, EventSubscription<?> subscription, UUID uuid, Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes) {
+        Key key = new Key(plugin, subscription.getType(), subscription.getPriority());
+        PlayerEventDispatcher dispatcher = DISPATCHERS.get(key);
+        if (dispatcher == null) {
+            hookDisable(plugin);
+
+            dispatcher = new PlayerEventDispatcher(key);
+            plugin.getServer().getPluginManager().registerEvent(key.getType(), dispatcher, key.getPriority(), dispatcher, plugin, false);
+            DISPATCHERS.put(key, dispatcher);
+        }
+
+        dispatcher.add(subscription, uuid, attributes);
+        return dispatcher;
+    }
+
+    static synchronized void unsubscribe(PlayerEventDispatcher dispatcher, EventSubscription<?> subscription) {
+        if (!dispatcher.remove(subscription)) {
+            return;
+        }
+
+        if (dispatcher.groups.length == 0) {
+            EventSubscription.unregisterListener(dispatcher.key.getType(), dispatcher);
+            DISPATCHERS.remove(dispatcher.key, dispatcher);
+        }
+    }
+
+    /**
+     * Drop the dispatchers of the plugin when it disables, bukkit forgets their registrations
+     * so a re-enabled plugin has to register new ones
+     */
+    private static void hookDisable(Plugin plugin) {
+        if (!DISABLE_HOOKS.add(plugin)) {
+            return;
+        }
+
+        // Registered for the plugin itself, bukkit calls it before unregistering the plugin's listeners
+        Listener listener = new Listener() {};
+        plugin.getServer().getPluginManager().registerEvent(PluginDisableEvent.class, listener, EventPriority.MONITOR, (ignored, event) -> {
+            if (((PluginDisableEvent) event).getPlugin() == plugin) {
+                clear(plugin);
+            }
+        }, plugin, false);
+    }
+
+    static void clear(Plugin plugin) {
+        List<EventSubscription<?>> subscriptions = new ArrayList<>();
+        synchronized (PlayerEventDispatcher.class) {
+            DISABLE_HOOKS.remove(plugin);
+
+            Iterator<PlayerEventDispatcher> iterator = DISPATCHERS.values().iterator();
+            while (iterator.hasNext()) {
+                PlayerEventDispatcher dispatcher = iterator.next();
+                if (dispatcher.key.getPlugin() != plugin) {
+                    continue;
+                }
+
+                iterator.remove();
+                EventSubscription.unregisterListener(dispatcher.key.getType(), dispatcher);
+                for (Group group : dispatcher.groups) {
+                    for (EventSubscription<?>[] playerSubscriptions : group.subscriptions.values()) {
+                        subscriptions.addAll(Arrays.asList(playerSubscriptions));
+                    }
+                }
+                dispatcher.groups = new Group[0];
+            }
+        }
+
+        // Deactivates them and drops their metadata, the dispatcher is already empty
+        for (EventSubscription<?> subscription : subscriptions) {
+            subscription.unregister();
+        }
+    }
+
+    private static void expire(PlayerEventDispatcher dispatcher) {
+        List<EventSubscription<?>> expired = new ArrayList<>();
+        synchronized (PlayerEventDispatcher.class) {
+            long now = System.currentTimeMillis();
+            long nextExpiry = Long.MAX_VALUE;
+            for (Group group : dispatcher.groups) {
+                for (EventSubscription<?>[] subscriptions : group.subscriptions.values()) {
+                    for (EventSubscription<?> subscription : subscriptions) {
+                        long expireAt = subscription.getExpireAt();
+                        if (expireAt == 0) {
+                            continue;
+                        }
+
+                        if (now > expireAt) {
+                            expired.add(subscription);
+                        } else {
+                            nextExpiry = Math.min(nextExpiry, expireAt);
+                        }
+                    }
+                }
+            }
+            dispatcher.nextExpiry = nextExpiry;
+        }
+
+        for (EventSubscription<?> subscription : expired) {
+            subscription.unregister();
+        }
+    }
+
+    private final Key key;
+    private volatile Group[] groups = new Group[0];
+
+    /**
+     * The earliest expiry time of the subscriptions, checked before routing every event
+     */
+    private volatile long nextExpiry = Long.MAX_VALUE;
+
+    private PlayerEventDispatcher(Key key) {
+        this.key = key;
+    }
+
+    @Override
+    public void execute(Listener listener, Event event) throws EventException {
+        if (System.currentTimeMillis() > this.nextExpiry) {
+            expire(this);
+        }
+
+        for (Group group : this.groups) {
+            Player player = PlayerEventRecognizer.tryRecognize(event, group.attributes);
+            if (player == null) {
+                continue;
+            }
+
+            EventSubscription<?>[] subscriptions = group.subscriptions.get(player.getUniqueId());
+            if (subscriptions == null) {
+                continue;
+            }
+
+            for (EventSubscription<?> subscription : subscriptions) {
+                subscription.execute(subscription, event);
+            }
+        }
+    }
+
+    private void add(EventSubscription<?> subscription, UUID uuid, Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes) {
+        Group group = null;
+        for (Group current : this.groups) {
+            if (Arrays.equals(current.attributes, attributes)) {
+                group = current;
+                break;
+            }
+        }
+
+        if (group == null) {
+            group = new Group(attributes);
+            Group[] groups = Arrays.copyOf(this.groups, this.groups.length + 1);
+            groups[groups.length - 1] = group;
+            this.groups = groups;
+        }
+
+        EventSubscription<?>[] subscriptions = group.subscriptions.get(uuid);
+        if (subscriptions == null) {
+            subscriptions = new EventSubscription<?>[] { subscription };
+        } else {
+            subscriptions = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+            subscriptions[subscriptions.length - 1] = subscription;
+        }
+        group.subscriptions.put(uuid, subscriptions);
+
+        if (subscription.getExpireAt() != 0) {
+            this.nextExpiry = Math.min(this.nextExpiry, subscription.getExpireAt());
+        }
+    }
+
+    private boolean remove(EventSubscription<?> subscription) {
+        UUID uuid = subscription.getActivePlayer().getUniqueId();
+
+        for (Group group : this.groups) {
+            EventSubscription<?>[] subscriptions = group.subscriptions.get(uuid);
+            if (subscriptions == null) {
+                continue;
+            }
+
+            int index = -1;
+            for (int i = 0; i < subscriptions.length; i++) {
+                if (subscriptions[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1) {
+                continue;
+            }
+
+            if (subscriptions.length == 1) {
+                group.subscriptions.remove(uuid);
+                if (group.subscriptions.isEmpty()) {
+                    this.groups = Arrays.stream(this.groups)
+                            .filter(other -> other != group)
+                            .toArray(Group[]::new);
+                }
+            } else {
+                EventSubscription<?>[] next = new EventSubscription<?>[subscriptions.length - 1];
+                System.arraycopy(subscriptions, 0, next, 0, index);
+                System.arraycopy(subscriptions, index + 1, next, index, next.length - index);
+                group.subscriptions.put(uuid, next);
+            }
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Subscriptions sharing the same recognize attributes, so the player only has to be recognized once per group
+     */
+    private static final class Group {
+
+        private final Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes;
+        private final Map<UUID, EventSubscription<?>[]> subscriptions = new ConcurrentHashMap<>();
+
+        private Group(Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes) {
+            this.attributes = attributes;
+        }
+
+    }
+
+    @Value
+    private static class Key {
+
+        Plugin plugin;
+        Class<? extends Event> type;
+        EventPriority priority;
+
+    }
+
+}
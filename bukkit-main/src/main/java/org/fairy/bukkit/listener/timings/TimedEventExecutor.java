@@ -59,11 +59,11 @@ public class TimedEventExecutor implements EventExecutor {
 
         String eventName = eventClass.getSimpleName();
         boolean special = "BlockPhysicsEvent".equals(eventName) || "Drain".equals(eventName) || "Fill".equals(eventName);
-        this.timings = TIMING_SERVICE.of(plugin, (special ? "## " : "") + "Event: " + methodName + " (" + eventName + ")");
+        this.timings = TIMING_SERVICE.isEnabled() ? TIMING_SERVICE.of(plugin, (special ? "## " : "") + "Event: " + methodName + " (" + eventName + ")") : null;
     }
 
     public void execute(Listener listener, Event event) throws EventException {
-        if (!event.isAsynchronous() && Imanity.IMPLEMENTATION.isServerThread()) {
+        if (this.timings != null && !event.isAsynchronous() && Imanity.IMPLEMENTATION.isServerThread()) {
             try (MCTiming ignored = this.timings.startTiming()) {
                 this.executor.execute(listener, event);
             }
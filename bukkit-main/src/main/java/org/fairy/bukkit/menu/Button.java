@@ -76,6 +76,17 @@ public abstract class Button {
 		return (true);
 	}
 
+	/**
+	 * Hash of what {@link #getButtonItem(Player)} would display, a new button with the same hash
+	 * as the one already shown in the slot is not rebuilt when the menu renders again
+	 *
+	 * @param player The Player to display on
+	 * @return The content hash, 0 if unknown and the item should always be rebuilt
+	 */
+	public int getContentHash(Player player) {
+		return 0;
+	}
+
 	public boolean shouldUpdate(Player player, int slot, ClickType clickType) {
 		return (false);
 	}
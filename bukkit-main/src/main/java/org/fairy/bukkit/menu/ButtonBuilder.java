@@ -32,6 +32,7 @@ import org.fairy.bukkit.util.items.ItemBuilder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public class ButtonBuilder {
 
@@ -44,6 +45,7 @@ public class ButtonBuilder {
     }
 
     private Function<Player, ItemStack> itemStackFunction;
+    private ToIntFunction<Player> contentHashFunction;
     private final List<CancelConsumer> cancelConsumers;
     private final List<Callback> callbacks;
 
@@ -75,6 +77,11 @@ public class ButtonBuilder {
         return this;
     }
 
+    public ButtonBuilder contentHash(ToIntFunction<Player> function) {
+        this.contentHashFunction = function;
+        return this;
+    }
+
     public ButtonBuilder callback(Callback callback) {
         this.callbacks.add(callback);
         return this;
@@ -97,6 +104,7 @@ public class ButtonBuilder {
 
     public ButtonBuilder cleanup() {
         this.itemStackFunction = null;
+        this.contentHashFunction = null;
         this.cancelConsumers.clear();
         this.callbacks.clear();
         return this;
@@ -113,6 +121,11 @@ public class ButtonBuilder {
                 return itemStackFunction.apply(player);
             }
 
+            @Override
+            public int getContentHash(Player player) {
+                return contentHashFunction != null ? contentHashFunction.applyAsInt(player) : 0;
+            }
+
             @Override
             public void clicked(Player player, int slot, ClickType clickType, int hotbarButton) {
                 for (Callback callback : callbacks) {
@@ -26,8 +26,9 @@ package org.fairy.bukkit.menu;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.Bukkit;
@@ -40,6 +41,7 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.fairy.bukkit.Imanity;
@@ -48,6 +50,7 @@ import org.fairy.bukkit.metadata.Metadata;
 import org.fairy.bukkit.util.BukkitUtil;
 import org.fairy.metadata.MetadataKey;
 import org.fairy.metadata.MetadataMap;
+import org.fairy.task.Task;
 import org.fairy.util.CC;
 import org.fairy.util.Stacktrace;
 import org.fairy.util.terminable.TerminableConsumer;
@@ -55,6 +58,7 @@ import org.fairy.util.terminable.composite.CompositeTerminable;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -63,33 +67,23 @@ import java.util.function.Function;
 public abstract class Menu implements TerminableConsumer {
 
     private static final MetadataKey<Menu> METADATA = MetadataKey.create("imanity:menu", Menu.class);
-    private static final Map<Class<? extends Menu>, List<Menu>> MENU_BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<Class<? extends Menu>, Set<Menu>> MENU_BY_TYPE = new ConcurrentHashMap<>();
 
     private static void addMenu(Menu menu) {
-        List<Menu> list;
-        final Class<? extends Menu> type = menu.getClass();
-        if (MENU_BY_TYPE.containsKey(type)) {
-            list = MENU_BY_TYPE.get(type);
-        } else {
-            list = new ArrayList<>();
-            MENU_BY_TYPE.put(type, list);
-        }
-
-        list.add(menu);
+        MENU_BY_TYPE.compute(menu.getClass(), (type, menus) -> {
+            if (menus == null) {
+                menus = ConcurrentHashMap.newKeySet();
+            }
+            menus.add(menu);
+            return menus;
+        });
     }
 
     private static void removeMenu(Menu menu) {
-        final Class<? extends Menu> type = menu.getClass();
-        if (!MENU_BY_TYPE.containsKey(type)) {
-            return;
-        }
-
-        final List<Menu> list = MENU_BY_TYPE.get(type);
-        list.remove(menu);
-
-        if (list.isEmpty()) {
-            MENU_BY_TYPE.remove(type);
-        }
+        MENU_BY_TYPE.computeIfPresent(menu.getClass(), (type, menus) -> {
+            menus.remove(menu);
+            return menus.isEmpty() ? null : menus;
+        });
     }
 
     public static Menu getMenuByUuid(UUID uuid) {
@@ -98,7 +92,7 @@ public abstract class Menu implements TerminableConsumer {
 
     public static <T extends Menu> List<T> getMenusByType(Class<T> type) {
         List<T> menuList = new ArrayList<>();
-        for (Menu menu : MENU_BY_TYPE.getOrDefault(type, Collections.emptyList())) {
+        for (Menu menu : MENU_BY_TYPE.getOrDefault(type, Collections.emptySet())) {
             menuList.add(type.cast(menu));
         }
         return menuList;
@@ -115,6 +109,26 @@ public abstract class Menu implements TerminableConsumer {
     private int updateCount;
     private Button placeholderButton = Button.placeholder(Material.STAINED_GLASS_PANE, (byte) 15, " ");
 
+    /**
+     * Build button items off the main thread when re-rendering an opened inventory,
+     * only enable it when every {@link Button#getButtonItem(Player)} of the menu is thread safe
+     */
+    private boolean asyncRender;
+
+    // what is currently shown in each slot of the inventory, only touched on main thread
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Button[] renderedButtons;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] renderedHashes;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ItemStack[] renderedItems;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int renderId;
+
     @NotNull
     @Override
     public <T extends AutoCloseable> T bind(@NotNull T terminable) {
@@ -293,6 +307,10 @@ public abstract class Menu implements TerminableConsumer {
         this.player = null;
         this.buttonsMap.clear();
         this.inventory.clear();
+        this.renderId++;
+        this.renderedButtons = null;
+        this.renderedHashes = null;
+        this.renderedItems = null;
     }
 
     private void registerListeners() {
@@ -355,6 +373,11 @@ public abstract class Menu implements TerminableConsumer {
                             }
                         } else {
                             event.setCancelled(cancel);
+                            if (!cancel && slot < this.renderedItems.length) {
+                                // the player may have taken or replaced the item, set it again on next render
+                                this.renderedButtons[slot] = null;
+                                this.renderedItems[slot] = null;
+                            }
                         }
 
                         button.clicked(player, slot, event.getClick(), event.getHotbarButton());
@@ -405,8 +428,6 @@ public abstract class Menu implements TerminableConsumer {
         }
         this.lastAccessMillis = System.currentTimeMillis();
 
-        Map<Integer, Button> previousButtons = firstInitial ? null : ImmutableMap.copyOf(this.buttonsMap);
-
         this.rendering = true;
         this.draw(firstInitial);
         this.rendering = false;
@@ -430,32 +451,82 @@ public abstract class Menu implements TerminableConsumer {
         if (inventory == null) {
             inventory = Bukkit.createInventory(player, size, title);
             recreate = true;
+            this.renderedButtons = new Button[size];
+            this.renderedHashes = new int[size];
+            this.renderedItems = new ItemStack[size];
         }
 
-        for (final Map.Entry<Integer, Button> buttonEntry : this.buttonsMap.int2ObjectEntrySet()) {
-            int slot = buttonEntry.getKey();
+        // a newer render always wins over a pending async one
+        final int renderId = ++this.renderId;
+        final List<PendingSlot> pendingSlots = new ArrayList<>();
+        for (final Int2ObjectMap.Entry<Button> buttonEntry : this.buttonsMap.int2ObjectEntrySet()) {
+            int slot = buttonEntry.getIntKey();
             Button button = buttonEntry.getValue();
-            if (previousButtons == null || previousButtons.get(slot) != button) {
-                inventory.setItem(slot, button.getButtonItem(player));
+            if (this.renderedButtons[slot] == button) {
+                continue;
+            }
+
+            int hash = button.getContentHash(player);
+            if (hash != 0 && this.renderedButtons[slot] != null && this.renderedHashes[slot] == hash) {
+                this.renderedButtons[slot] = button;
+                continue;
             }
+            pendingSlots.add(new PendingSlot(slot, button, hash));
         }
 
-        if (previousButtons != null) {
-            for (int slot : previousButtons.keySet()) {
-                if (!this.buttonsMap.containsKey(slot)) {
-                    inventory.setItem(slot, null);
-                }
+        for (int slot = 0; slot < this.renderedButtons.length; slot++) {
+            if (this.renderedButtons[slot] != null && !this.buttonsMap.containsKey(slot)) {
+                inventory.setItem(slot, null);
+                this.renderedButtons[slot] = null;
+                this.renderedItems[slot] = null;
             }
         }
 
         this.inventory = inventory;
+        if (recreate || !this.asyncRender || pendingSlots.isEmpty()) {
+            this.buildItems(player, pendingSlots);
+            this.applyItems(inventory, pendingSlots);
+        } else {
+            final Player player = this.player;
+            final Inventory renderingInventory = inventory;
+            CompletableFuture.runAsync(() -> this.buildItems(player, pendingSlots), Task.async())
+                    .thenRunAsync(() -> {
+                        if (this.renderId != renderId || this.player != player) {
+                            return;
+                        }
+                        this.applyItems(renderingInventory, pendingSlots);
+                    }, Task.main())
+                    .exceptionally(throwable -> {
+                        Stacktrace.print(throwable);
+                        return null;
+                    });
+        }
+
         if (recreate) {
             this.rerendering = true;
             player.closeInventory();
             player.openInventory(inventory);
             this.rerendering = false;
-        } else {
-            player.updateInventory();
+        }
+        // otherwise the changed slots are sent as SET_SLOT by the open container, no need to resend the whole window
+    }
+
+    private void buildItems(Player player, List<PendingSlot> pendingSlots) {
+        for (PendingSlot pendingSlot : pendingSlots) {
+            pendingSlot.itemStack = pendingSlot.button.getButtonItem(player);
+        }
+    }
+
+    private void applyItems(Inventory inventory, List<PendingSlot> pendingSlots) {
+        for (PendingSlot pendingSlot : pendingSlots) {
+            final int slot = pendingSlot.slot;
+            final ItemStack previous = this.renderedItems[slot];
+            if (previous == null || !previous.equals(pendingSlot.itemStack)) {
+                inventory.setItem(slot, pendingSlot.itemStack);
+                this.renderedItems[slot] = pendingSlot.itemStack;
+            }
+            this.renderedButtons[slot] = pendingSlot.button;
+            this.renderedHashes[slot] = pendingSlot.hash;
         }
     }
 
@@ -504,4 +575,19 @@ public abstract class Menu implements TerminableConsumer {
     public void onClose(final Player player) {
     }
 
+    private static class PendingSlot {
+
+        private final int slot;
+        private final Button button;
+        private final int hash;
+        private ItemStack itemStack;
+
+        private PendingSlot(int slot, Button button, int hash) {
+            this.slot = slot;
+            this.button = button;
+            this.hash = hash;
+        }
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.nametag;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Collects every name tag refresh requested during an update interval
+ * Repeated requests for the same viewer and target collapse into one
+ */
+public class NameTagDirtyMatrix {
+
+    private boolean all;
+    private Set<UUID> targets = new HashSet<>();
+    private Set<UUID> viewers = new HashSet<>();
+    private Map<UUID, Set<UUID>> pairs = new HashMap<>();
+
+    /**
+     * refresh every target for every viewer
+     */
+    public synchronized void markAll() {
+        this.all = true;
+    }
+
+    /**
+     * refresh the target for every viewer
+     */
+    public synchronized void markTarget(UUID target) {
+        if (!this.all) {
+            this.targets.add(target);
+        }
+    }
+
+    /**
+     * refresh every other target for the viewer
+     */
+    public synchronized void markViewer(UUID viewer) {
+        if (!this.all) {
+            this.viewers.add(viewer);
+        }
+    }
+
+    public synchronized void markPair(UUID viewer, UUID target) {
+        if (!this.all) {
+            this.pairs.computeIfAbsent(viewer, ignored -> new HashSet<>()).add(target);
+        }
+    }
+
+    /**
+     * take everything marked so far and start a new interval
+     *
+     * @return the marked refreshes, or null if nothing has been marked
+     */
+    public synchronized Snapshot drain() {
+        if (!this.all && this.targets.isEmpty() && this.viewers.isEmpty() && this.pairs.isEmpty()) {
+            return null;
+        }
+
+        final Snapshot snapshot = new Snapshot(this.all, this.targets, this.viewers, this.pairs);
+        this.all = false;
+        this.targets = new HashSet<>();
+        this.viewers = new HashSet<>();
+        this.pairs = new HashMap<>();
+        return snapshot;
+    }
+
+    public static class Snapshot {
+
+        private final boolean all;
+        private final Set<UUID> targets;
+        private final Set<UUID> viewers;
+        private final Map<UUID, Set<UUID>> pairs;
+
+        private Snapshot(boolean all, Set<UUID> targets, Set<UUID> viewers, Map<UUID, Set<UUID>> pairs) {
+            this.all = all;
+            this.targets = targets;
+            this.viewers = viewers;
+            this.pairs = pairs;
+        }
+
+        /**
+         * @return true if every other target has to be refreshed for the viewer
+         */
+        public boolean isViewerDirty(UUID viewer) {
+            return this.all || this.viewers.contains(viewer);
+        }
+
+        public boolean isDirty(UUID viewer, UUID target) {
+            if (this.all || this.targets.contains(target)) {
+                return true;
+            }
+            if (!viewer.equals(target) && this.viewers.contains(viewer)) {
+                return true;
+            }
+            return this.pairs.getOrDefault(viewer, Collections.emptySet()).contains(target);
+        }
+
+        /**
+         * @return the targets to refresh for a viewer that isn't {@link #isViewerDirty(UUID) dirty} as a whole
+         */
+        public Set<UUID> getTargets(UUID viewer) {
+            final Set<UUID> pairs = this.pairs.get(viewer);
+            if (pairs == null) {
+                return this.targets;
+            }
+            if (this.targets.isEmpty()) {
+                return pairs;
+            }
+
+            final Set<UUID> targets = new HashSet<>(this.targets);
+            targets.addAll(pairs);
+            return targets;
+        }
+
+    }
+
+}
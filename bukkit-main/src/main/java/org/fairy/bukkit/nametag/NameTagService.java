@@ -32,26 +32,27 @@ import org.fairy.*;
 import org.fairy.bean.*;
 import org.fairy.bukkit.Imanity;
 import org.fairy.bukkit.metadata.Metadata;
+import org.fairy.bukkit.packet.PacketService;
 import org.fairy.metadata.MetadataKey;
 import org.fairy.bukkit.nametag.impl.DefaultNameTagAdapter;
 import org.fairy.util.Stacktrace;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 @Service(name = "nametag")
+@InitializeOnMainThread
 public class NameTagService {
 
     protected static MetadataKey<NameTagList> TEAM_INFO_KEY = MetadataKey.create(Fairy.METADATA_PREFIX + "TeamInfo", NameTagList.class);
     private static final int UPDATE_INTERVAL = 2;
 
-    private Map<String, NameTagInfo> registeredTeams;
-    private List<NameTagAdapter> adapters;
-    private Queue<NameTagUpdate> pendingUpdates;
+    private final Map<String, NameTagInfo> registeredTeams = new HashMap<>();
+    private final List<NameTagAdapter> adapters = new LinkedList<>();
+    private final NameTagDirtyMatrix dirtyMatrix = new NameTagDirtyMatrix();
     private ScheduledExecutorService executorService;
 
     @PreInitialize
@@ -72,11 +73,6 @@ public class NameTagService {
     @PostInitialize
     public void init() {
 
-        this.adapters = new LinkedList<>();
-        this.registeredTeams = new HashMap<>();
-
-        this.pendingUpdates = new ConcurrentLinkedQueue<>();
-
         this.executorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
             .setDaemon(true)
             .setNameFormat("Imanity - Name Tag")
@@ -92,15 +88,70 @@ public class NameTagService {
         this.executorService.shutdown();
     }
 
-    private void update() {
+    /**
+     * send every name tag change requested since the last update, runs on the name tag thread
+     */
+    protected void update() {
+
+        final NameTagDirtyMatrix.Snapshot snapshot = this.dirtyMatrix.drain();
+        if (snapshot == null) {
+            return;
+        }
+
+        final Collection<? extends Player> players = this.getOnlinePlayers();
+        for (Player viewer : players) {
+            if (!viewer.isOnline()) {
+                continue;
+            }
+
+            final Map<NameTagInfo, List<String>> joins = new IdentityHashMap<>();
+            if (snapshot.isViewerDirty(viewer.getUniqueId())) {
+                for (Player target : players) {
+                    if (snapshot.isDirty(viewer.getUniqueId(), target.getUniqueId())) {
+                        this.updateForInternal(target, viewer, joins);
+                    }
+                }
+            } else {
+                for (UUID targetId : snapshot.getTargets(viewer.getUniqueId())) {
+                    final Player target = this.getPlayer(targetId);
+                    if (target != null) {
+                        this.updateForInternal(target, viewer, joins);
+                    }
+                }
+            }
+
+            if (joins.isEmpty()) {
+                continue;
+            }
 
-        NameTagUpdate update;
-        while ((update = this.pendingUpdates.poll()) != null) {
-            this.applyUpdate(update);
+            this.sendMembers(viewer, joins);
         }
 
     }
 
+    protected Collection<? extends Player> getOnlinePlayers() {
+        return Imanity.getPlayers();
+    }
+
+    protected Player getPlayer(UUID uuid) {
+        return Bukkit.getPlayer(uuid);
+    }
+
+    /**
+     * @return the teams the viewer was last sent for each name
+     */
+    protected NameTagList getNameTagList(Player viewer) {
+        return Metadata
+                .provideForPlayer(viewer)
+                .getOrPut(TEAM_INFO_KEY, NameTagList::new);
+    }
+
+    protected void sendMembers(Player viewer, Map<NameTagInfo, List<String>> joins) {
+        // one member packet per team instead of one per target
+        joins.forEach((info, names) -> Imanity.IMPLEMENTATION.sendMember(viewer, info.getName(), names, 3));
+        PacketService.flush(viewer);
+    }
+
     public void disconnect(Player player) {
         this.executorService.submit(() -> this.applyDisconnect(player.getName()));
     }
@@ -124,6 +175,7 @@ public class NameTagService {
                     list.removeTeamFor(name);
 
                     Imanity.IMPLEMENTATION.sendMember(other, tagInfo.getName(), Collections.singleton(name), 4);
+                    PacketService.flush(other);
                 }
 
             }
@@ -137,48 +189,22 @@ public class NameTagService {
     }
 
     public void updateFromThirdSide(Player toRefresh) {
-        NameTagUpdate update = new NameTagUpdate(toRefresh);
-
-        this.pendingUpdates.add(update);
+        this.dirtyMatrix.markTarget(toRefresh.getUniqueId());
     }
 
     public void updateFromFirstSide(Player refreshFor) {
-        Imanity.getPlayers().forEach(toRefresh -> {
-            if (refreshFor == toRefresh) {
-                return;
-            }
-
-            this.updateFor(toRefresh, refreshFor);
-        });
+        this.dirtyMatrix.markViewer(refreshFor.getUniqueId());
     }
 
     public void updateFor(Player toRefresh, Player refreshFor) {
-        NameTagUpdate update = new NameTagUpdate(toRefresh, refreshFor);
-
-        this.pendingUpdates.add(update);
+        this.dirtyMatrix.markPair(refreshFor.getUniqueId(), toRefresh.getUniqueId());
     }
 
     public void updateAll() {
-        Imanity.getPlayers().forEach(this::updateFromThirdSide);
-    }
-
-    protected void applyUpdate(NameTagUpdate update) {
-        Player toRefresh = Bukkit.getPlayer(update.getToRefresh());
-        if (toRefresh == null) {
-            return;
-        }
-
-        if (update.getRefreshFor() == null) {
-            Imanity.getPlayers().forEach(refreshFor -> this.updateForInternal(toRefresh, refreshFor));
-        } else {
-            Player refreshFor = Bukkit.getPlayer(update.getRefreshFor());
-            if (refreshFor != null) {
-                this.updateForInternal(toRefresh, refreshFor);
-            }
-        }
+        this.dirtyMatrix.markAll();
     }
 
-    private void updateForInternal(Player toRefresh, Player refreshFor) {
+    private void updateForInternal(Player toRefresh, Player refreshFor, Map<NameTagInfo, List<String>> joins) {
         NameTagInfo info = null;
 
         for (NameTagAdapter adapter : this.adapters) {
@@ -192,12 +218,15 @@ public class NameTagService {
             return;
         }
 
-        NameTagList list = Metadata
-                .provideForPlayer(refreshFor)
-                .getOrPut(TEAM_INFO_KEY, NameTagList::new);
+        NameTagList list = this.getNameTagList(refreshFor);
+
+        // the list holds what the viewer was sent last, skip if the team didn't change
+        if (list.getTeamFor(toRefresh.getName()) == info) {
+            return;
+        }
 
         list.putTeamFor(toRefresh.getName(), info);
-        Imanity.IMPLEMENTATION.sendMember(refreshFor, info.getName(), Collections.singleton(toRefresh.getName()), 3);
+        joins.computeIfAbsent(info, ignored -> new ArrayList<>()).add(toRefresh.getName());
     }
 
     @Nullable
@@ -209,6 +238,7 @@ public class NameTagService {
         for (NameTagInfo tagInfo : this.registeredTeams.values()) {
             this.sendTeam(player, tagInfo, 0);
         }
+        PacketService.flush(player);
     }
 
     protected NameTagInfo getOrCreate(String prefix, String suffix) {
@@ -222,6 +252,7 @@ public class NameTagService {
         this.registeredTeams.put(this.toKey(prefix, suffix), newTeam);
         for (Player player : Imanity.getPlayers()) {
             this.sendTeam(player, newTeam, 0);
+            PacketService.flush(player);
         }
         return newTeam;
     }
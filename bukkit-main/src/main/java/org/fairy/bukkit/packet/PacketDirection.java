@@ -24,13 +24,11 @@
 
 package org.fairy.bukkit.packet;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import org.bukkit.entity.Player;
 import org.fairy.bukkit.packet.type.PacketType;
 import org.fairy.bukkit.packet.wrapper.WrappedPacket;
-import org.fairy.bukkit.reflection.resolver.ConstructorResolver;
-import org.fairy.bukkit.reflection.wrapper.ConstructorWrapper;
+import org.fairy.bukkit.packet.wrapper.WrappedPacketFactory;
+import org.fairy.bukkit.packet.wrapper.WrappedPacketFactoryTable;
 
 import java.util.Map;
 
@@ -39,14 +37,14 @@ public enum PacketDirection {
     READ,
     WRITE;
 
-    private final Multimap<Byte, PacketListener> registeredPacketListeners = HashMultimap.create();
-    private Map<Byte, Class<? extends WrappedPacket>> typeToWrappedPacket;
+    private WrappedPacketFactoryTable factories;
 
-    public void register(Map<Byte, Class<? extends WrappedPacket>> typeToWrappedPacket) {
-        if (this.typeToWrappedPacket != null) {
+    public void register(Map<Byte, WrappedPacketFactory> factories) {
+        if (this.factories != null) {
             throw new IllegalStateException("The Wrapped Packet are already registered!");
         }
-        this.typeToWrappedPacket = typeToWrappedPacket;
+
+        this.factories = new WrappedPacketFactoryTable(factories);
     }
 
     public byte getPacketType(Object packet) {
@@ -65,52 +63,12 @@ public enum PacketDirection {
 
     }
 
-    public boolean isPacketListening(byte id) {
-        return this.registeredPacketListeners.containsKey(id);
-    }
-
     public WrappedPacket getWrappedFromNMS(Player player, byte id, Object packet) {
-
-        Class<? extends WrappedPacket> wrappedPacketClass = this.typeToWrappedPacket.getOrDefault(id, null);
-
-        if (wrappedPacketClass == null) {
-            return new WrappedPacket(player, packet);
-        }
-
-
-        ConstructorResolver constructorResolver = new ConstructorResolver(wrappedPacketClass);
-        ConstructorWrapper<? extends WrappedPacket> constructor = constructorResolver.resolveWrapper(new Class[] { Player.class, Object.class });
-
-        if (constructor.exists()) {
-            return constructor.newInstance(player, packet);
-        }
-
-        constructor = constructorResolver.resolveWrapper(new Class[] { Object.class });
-
-        if (constructor.exists()) {
-            return constructor.newInstance(packet);
-        }
-
-        throw new IllegalArgumentException();
+        return this.factories.create(player, id, packet);
     }
 
     public WrappedPacket getWrappedFromNMS(Player player, byte id) {
-
-        Class<? extends WrappedPacket> wrappedPacketClass = this.typeToWrappedPacket.getOrDefault(id, null);
-
-        if (wrappedPacketClass == null) {
-            return new WrappedPacket(player);
-        }
-
-        return (WrappedPacket)  new ConstructorResolver(wrappedPacketClass)
-                .resolveMatches(
-                        new Class[] { Player.class },
-                        new Class[0])
-                .resolve(
-                        new Object[] { player },
-                        new Object[0]
-                );
-
+        return this.factories.create(player, id);
     }
 
 }
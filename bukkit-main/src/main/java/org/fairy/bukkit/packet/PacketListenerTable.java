@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.packet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Immutable dispatch table from NMS packet class to its listeners.
+ * Registering or unregistering creates a new table, so netty threads can read it without locking
+ */
+public final class PacketListenerTable {
+
+    public static final PacketListenerTable EMPTY = new PacketListenerTable(Collections.emptyMap());
+
+    private final Map<Class<?>, PacketListener[]> listeners;
+
+    private PacketListenerTable(Map<Class<?>, PacketListener[]> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * @return the listeners of the packet type, or null if nothing is listening to it
+     */
+    public PacketListener[] get(Class<?> type) {
+        return this.listeners.get(type);
+    }
+
+    public PacketListenerTable with(PacketListener packetListener) {
+        Class<?>[] types = packetListener.type();
+        for (Class<?> type : types) {
+            if (type == null) {
+                throw new UnsupportedOperationException("There is one packet doesn't exists in current version!");
+            }
+        }
+
+        Map<Class<?>, PacketListener[]> listeners = new IdentityHashMap<>(this.listeners);
+        for (Class<?> type : types) {
+            PacketListener[] current = listeners.get(type);
+            if (current == null) {
+                listeners.put(type, new PacketListener[] { packetListener });
+            } else if (!contains(current, packetListener)) {
+                PacketListener[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = packetListener;
+                listeners.put(type, next);
+            }
+        }
+
+        return new PacketListenerTable(listeners);
+    }
+
+    public PacketListenerTable without(PacketListener packetListener) {
+        Map<Class<?>, PacketListener[]> listeners = new IdentityHashMap<>(this.listeners);
+        for (Map.Entry<Class<?>, PacketListener[]> entry : this.listeners.entrySet()) {
+            PacketListener[] current = entry.getValue();
+            if (!contains(current, packetListener)) {
+                continue;
+            }
+
+            if (current.length == 1) {
+                listeners.remove(entry.getKey());
+                continue;
+            }
+
+            PacketListener[] next = new PacketListener[current.length - 1];
+            int index = 0;
+            for (PacketListener listener : current) {
+                if (listener != packetListener) {
+                    next[index++] = listener;
+                }
+            }
+            listeners.put(entry.getKey(), next);
+        }
+
+        return listeners.isEmpty() ? EMPTY : new PacketListenerTable(listeners);
+    }
+
+    private static boolean contains(PacketListener[] listeners, PacketListener packetListener) {
+        for (PacketListener listener : listeners) {
+            if (listener == packetListener) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -24,9 +24,7 @@
 
 package org.fairy.bukkit.packet;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Multimap;
 import lombok.Getter;
 import org.bukkit.entity.Player;
 import org.fairy.Fairy;
@@ -39,6 +37,7 @@ import org.fairy.bukkit.packet.type.PacketTypeClasses;
 import org.fairy.bukkit.packet.wrapper.PacketContainer;
 import org.fairy.bukkit.packet.wrapper.SendableWrapper;
 import org.fairy.bukkit.packet.wrapper.WrappedPacket;
+import org.fairy.bukkit.packet.wrapper.WrappedPacketFactory;
 import org.fairy.bukkit.packet.wrapper.annotation.AutowiredWrappedPacket;
 import org.fairy.bukkit.reflection.MinecraftReflection;
 import org.fairy.reflect.ReflectLookup;
@@ -46,8 +45,11 @@ import org.fairy.task.Task;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service(name = "packet")
+@InitializeOnMainThread
 public class PacketService {
 
     public static final String CHANNEL_HANDLER = Fairy.METADATA_PREFIX + "ChannelHandler";
@@ -58,11 +60,26 @@ public class PacketService {
     @Autowired
     private BeanContext beanContext;
 
+    /**
+     * Whether packets sent through {@link #queue(Player, SendableWrapper)} are written to the channel in batches,
+     * flushed once by {@link #flush(Player)} or by the end of the tick, instead of being flushed one by one
+     */
+    public static boolean BATCH_PACKETS = Boolean.getBoolean("fairy.packet.batch");
+
     public static void send(Player player, SendableWrapper sendableWrapper) {
         PacketService.INSTANCE.sendPacket(player, sendableWrapper);
     }
 
-    private final Multimap<Class<?>, PacketListener> registeredPacketListeners = HashMultimap.create();
+    public static void queue(Player player, SendableWrapper sendableWrapper) {
+        PacketService.INSTANCE.queuePacket(player, sendableWrapper);
+    }
+
+    public static void flush(Player player) {
+        PacketService.INSTANCE.flushPackets(player);
+    }
+
+    private volatile PacketListenerTable packetListeners = PacketListenerTable.EMPTY;
+    private final Set<Player> pendingFlushes = ConcurrentHashMap.newKeySet();
 
     @Getter
     private INettyInjection nettyInjection;
@@ -100,6 +117,8 @@ public class PacketService {
         Beans.inject(nettyInjection);
         Imanity.getPlayers().forEach(this::inject);
 
+        Task.asyncRepeated(terminable -> this.flushPendingPackets(), 1L);
+
         try {
 
             this.loadWrappers();
@@ -110,8 +129,8 @@ public class PacketService {
     }
 
     private void loadWrappers() throws Throwable {
-        ImmutableMap.Builder<Byte, Class<? extends WrappedPacket>> readBuilder = ImmutableMap.builder();
-        ImmutableMap.Builder<Byte, Class<? extends WrappedPacket>> writeBuilder = ImmutableMap.builder();
+        ImmutableMap.Builder<Byte, WrappedPacketFactory> readBuilder = ImmutableMap.builder();
+        ImmutableMap.Builder<Byte, WrappedPacketFactory> writeBuilder = ImmutableMap.builder();
 
         ReflectLookup reflectLookup = new ReflectLookup(
                 Collections.singleton(PacketService.class.getClassLoader()),
@@ -132,12 +151,13 @@ public class PacketService {
                 Method method = type.getDeclaredMethod("init");
                 method.invoke(null);
 
+                WrappedPacketFactory factory = WrappedPacketFactory.of(type);
                 switch (annotation.direction()) {
                     case READ:
-                        readBuilder.put(annotation.value(), type);
+                        readBuilder.put(annotation.value(), factory);
                         break;
                     case WRITE:
-                        writeBuilder.put(annotation.value(), type);
+                        writeBuilder.put(annotation.value(), factory);
                         break;
                 }
             } catch (NoSuchMethodException ex) {
@@ -156,14 +176,12 @@ public class PacketService {
         this.nettyInjection.unregisterChannels();
     }
 
-    public void registerPacketListener(PacketListener packetListener) {
-        for (Class<?> type : packetListener.type()) {
-            if (type == null) {
-                throw new UnsupportedOperationException("There is one packet doesn't exists in current version!");
-            }
+    public synchronized void registerPacketListener(PacketListener packetListener) {
+        this.packetListeners = this.packetListeners.with(packetListener);
+    }
 
-            this.registeredPacketListeners.put(type, packetListener);
-        }
+    public synchronized void unregisterPacketListener(PacketListener packetListener) {
+        this.packetListeners = this.packetListeners.without(packetListener);
     }
 
     public void inject(Player player) {
@@ -177,7 +195,8 @@ public class PacketService {
     public Object read(Player player, Object packet) {
         Class<?> type = packet.getClass();
 
-        if (!this.registeredPacketListeners.containsKey(type)) {
+        PacketListener[] packetListeners = this.packetListeners.get(type);
+        if (packetListeners == null) {
             return packet;
         }
 
@@ -186,7 +205,7 @@ public class PacketService {
         PacketDto packetDto = new PacketDto(wrappedPacket);
 
         boolean cancelled = false;
-        for (PacketListener packetListener : this.registeredPacketListeners.get(type)) {
+        for (PacketListener packetListener : packetListeners) {
             if (!packetListener.read(player, packetDto)) {
                 cancelled = true;
             }
@@ -198,7 +217,8 @@ public class PacketService {
     public Object write(Player player, Object packet) {
         Class<?> type = packet.getClass();
 
-        if (!this.registeredPacketListeners.containsKey(type)) {
+        PacketListener[] packetListeners = this.packetListeners.get(type);
+        if (packetListeners == null) {
             return packet;
         }
 
@@ -207,7 +227,7 @@ public class PacketService {
         PacketDto packetDto = new PacketDto(wrappedPacket);
 
         boolean cancelled = false;
-        for (PacketListener packetListener : this.registeredPacketListeners.get(type)) {
+        for (PacketListener packetListener : packetListeners) {
             if (!packetListener.write(player, packetDto)) {
                 cancelled = true;
             }
@@ -216,8 +236,45 @@ public class PacketService {
         return cancelled ? null : packetDto.isRefresh() ? ((SendableWrapper) wrappedPacket).asNMSPacket() : packet;
     }
 
-    public void sendPacket(Player player, SendableWrapper packet) {
+    public void queuePacket(Player player, SendableWrapper packet) {
+        if (!BATCH_PACKETS) {
+            this.sendPacket(player, packet);
+            return;
+        }
+
         PacketContainer packetContainer = packet.asPacketContainer();
+        if (!this.nettyInjection.writePacket(player, packetContainer.getMainPacket())) {
+            this.sendPacket(player, packetContainer);
+            return;
+        }
+
+        for (Object extra : packetContainer.getExtraPackets()) {
+            this.nettyInjection.writePacket(player, extra);
+        }
+        this.pendingFlushes.add(player);
+    }
+
+    public void flushPackets(Player player) {
+        if (this.pendingFlushes.remove(player)) {
+            this.nettyInjection.flushPackets(player);
+        }
+    }
+
+    private void flushPendingPackets() {
+        if (this.pendingFlushes.isEmpty()) {
+            return;
+        }
+
+        for (Player player : this.pendingFlushes) {
+            this.flushPackets(player);
+        }
+    }
+
+    public void sendPacket(Player player, SendableWrapper packet) {
+        this.sendPacket(player, packet.asPacketContainer());
+    }
+
+    private void sendPacket(Player player, PacketContainer packetContainer) {
         MinecraftReflection.sendPacket(player, packetContainer.getMainPacket());
 
         for (Object extra : packetContainer.getExtraPackets()) {
@@ -38,4 +38,13 @@ public interface INettyInjection {
 
     byte[] readBytes(Object byteBuffer);
 
+    /**
+     * Write the packet to the channel of the player without flushing it
+     *
+     * @return false if the channel is not available, the packet is not written
+     */
+    boolean writePacket(Player player, Object packet);
+
+    void flushPackets(Player player);
+
 }
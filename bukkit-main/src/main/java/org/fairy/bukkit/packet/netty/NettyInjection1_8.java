@@ -110,11 +110,33 @@ public class NettyInjection1_8 implements INettyInjection {
 
         if (channel == null) {
             channel = MinecraftReflection.getChannel(player);
+            if (channel != null) {
+                this.channelLookup.put(player.getName(), channel);
+            }
         }
 
         return channel;
     }
 
+    @Override
+    public boolean writePacket(Player player, Object packet) {
+        Channel channel = this.getChannel(player);
+        if (channel == null || !channel.isActive()) {
+            return false;
+        }
+
+        channel.write(packet, channel.voidPromise());
+        return true;
+    }
+
+    @Override
+    public void flushPackets(Player player) {
+        Channel channel = this.getChannel(player);
+        if (channel != null) {
+            channel.flush();
+        }
+    }
+
     private List<?> networkManagers;
 
     @Override
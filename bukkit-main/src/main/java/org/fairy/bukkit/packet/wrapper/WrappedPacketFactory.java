@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.packet.wrapper;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A precompiled constructor of a {@link WrappedPacket}, resolved once when wrappers are loaded
+ * so the netty threads never look up constructors reflectively
+ */
+public final class WrappedPacketFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public static WrappedPacketFactory of(Class<? extends WrappedPacket> type) throws Throwable {
+        BiFunction<Player, Object, WrappedPacket> constructor;
+
+        MethodHandle handle = findConstructor(type, Player.class, Object.class);
+        if (handle != null) {
+            constructor = compile(BiFunction.class, handle, "apply");
+        } else {
+            handle = findConstructor(type, Object.class);
+            if (handle == null) {
+                throw new IllegalArgumentException("The type " + type.getName() + " does not have a (Player, Object) or (Object) constructor!");
+            }
+
+            Function<Object, WrappedPacket> packetConstructor = compile(Function.class, handle, "apply");
+            constructor = (player, packet) -> packetConstructor.apply(packet);
+        }
+
+        Function<Player, WrappedPacket> playerConstructor = null;
+        MethodHandle playerHandle = findConstructor(type, Player.class);
+        if (playerHandle != null) {
+            playerConstructor = compile(Function.class, playerHandle, "apply");
+        } else {
+            handle = findConstructor(type);
+            if (handle != null) {
+                Supplier<WrappedPacket> emptyConstructor = compile(Supplier.class, handle, "get");
+                playerConstructor = player -> emptyConstructor.get();
+            }
+        }
+
+        return new WrappedPacketFactory(type, constructor, playerConstructor);
+    }
+
+    private static MethodHandle findConstructor(Class<?> type, Class<?>... parameters) throws IllegalAccessException {
+        try {
+            return LOOKUP.findConstructor(type, MethodType.methodType(void.class, parameters));
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T compile(Class<?> functionalType, MethodHandle handle, String methodName) throws Throwable {
+        MethodType instantiatedType = handle.type();
+        CallSite callSite = LambdaMetafactory.metafactory(
+                LOOKUP,
+                methodName,
+                MethodType.methodType(functionalType),
+                instantiatedType.generic(),
+                handle,
+                instantiatedType
+        );
+        return (T) callSite.getTarget().invoke();
+    }
+
+    @Getter
+    private final Class<? extends WrappedPacket> type;
+    private final BiFunction<Player, Object, WrappedPacket> constructor;
+    private final Function<Player, WrappedPacket> playerConstructor;
+
+    private WrappedPacketFactory(Class<? extends WrappedPacket> type, BiFunction<Player, Object, WrappedPacket> constructor, Function<Player, WrappedPacket> playerConstructor) {
+        this.type = type;
+        this.constructor = constructor;
+        this.playerConstructor = playerConstructor;
+    }
+
+    public WrappedPacket create(Player player, Object packet) {
+        return this.constructor.apply(player, packet);
+    }
+
+    public WrappedPacket create(Player player) {
+        if (this.playerConstructor == null) {
+            throw new IllegalArgumentException("The type " + this.type.getName() + " does not have a (Player) or empty constructor!");
+        }
+        return this.playerConstructor.apply(player);
+    }
+
+}
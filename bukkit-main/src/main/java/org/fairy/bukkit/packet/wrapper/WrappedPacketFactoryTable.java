@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.bukkit.packet.wrapper;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+
+/**
+ * Wrapped packet factories indexed by the unsigned packet id
+ */
+public final class WrappedPacketFactoryTable {
+
+    private final WrappedPacketFactory[] factories;
+
+    public WrappedPacketFactoryTable(Map<Byte, WrappedPacketFactory> factories) {
+        this.factories = new WrappedPacketFactory[256];
+        factories.forEach((id, factory) -> this.factories[id & 0xFF] = factory);
+    }
+
+    public WrappedPacket create(Player player, byte id, Object packet) {
+        WrappedPacketFactory factory = this.factories[id & 0xFF];
+
+        if (factory == null) {
+            return new WrappedPacket(player, packet);
+        }
+
+        return factory.create(player, packet);
+    }
+
+    public WrappedPacket create(Player player, byte id) {
+        WrappedPacketFactory factory = this.factories[id & 0xFF];
+
+        if (factory == null) {
+            return new WrappedPacket(player);
+        }
+
+        return factory.create(player);
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.player.movement;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.fairy.bukkit.Imanity;
+import org.fairy.bukkit.listener.events.EventSubscription;
+import org.fairy.bukkit.listener.events.Events;
+import org.fairy.bukkit.player.movement.impl.AbstractMovementImplementation;
+import org.fairy.bukkit.util.cuboid.Cuboid;
+import org.fairy.bukkit.util.cuboid.CuboidIndex;
+import org.fairy.util.terminable.Terminable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One movement subscription shared by every registered movement listener
+ * What changed is detected once per move against the last block the player was seen in,
+ * and every listener only checks the flags it cares about
+ */
+public class MovementPipeline {
+
+    public static final int CHANGED_POSITION = 1;
+    public static final int CHANGED_BLOCK = 1 << 1;
+    public static final int CHANGED_BLOCK_XZ = 1 << 2;
+    public static final int CHANGED_CHUNK = 1 << 3;
+    public static final int CHANGED_WORLD = 1 << 4;
+
+    private static final AbstractMovementImplementation[] NO_LISTENERS = new AbstractMovementImplementation[0];
+    private static final RegionListener[] NO_REGION_LISTENERS = new RegionListener[0];
+
+    private final Map<UUID, MovementState> states = new ConcurrentHashMap<>();
+    private final CuboidIndex regions = new CuboidIndex();
+
+    private volatile AbstractMovementImplementation[] listeners = NO_LISTENERS;
+    private volatile RegionListener[] regionListeners = NO_REGION_LISTENERS;
+
+    private AbstractMovementImplementation source;
+    private EventSubscription<PlayerQuitEvent> quitSubscription;
+
+    public synchronized void start(Plugin plugin) {
+        if (this.source != null) {
+            return;
+        }
+
+        this.source = Imanity.IMPLEMENTATION.movement(new MovementListener() {
+            @Override
+            public void handleUpdateLocation(Player player, Location from, Location to) {
+                MovementPipeline.this.handleUpdateLocation(player, from, to);
+            }
+
+            @Override
+            public void handleUpdateRotation(Player player, Location from, Location to) {
+                MovementPipeline.this.handleUpdateRotation(player, from, to);
+            }
+        });
+        this.source.register(plugin);
+
+        this.quitSubscription = Events.subscribe(PlayerQuitEvent.class)
+                .listen(event -> this.remove(event.getPlayer()))
+                .build(plugin);
+    }
+
+    public synchronized void stop() {
+        if (this.source == null) {
+            return;
+        }
+
+        this.source.unregister();
+        this.quitSubscription.unregister();
+        this.source = null;
+        this.quitSubscription = null;
+        this.states.clear();
+    }
+
+    public synchronized void register(AbstractMovementImplementation implementation) {
+        final AbstractMovementImplementation[] previous = this.listeners;
+        final AbstractMovementImplementation[] listeners = Arrays.copyOf(previous, previous.length + 1);
+        listeners[previous.length] = implementation;
+        this.listeners = listeners;
+    }
+
+    public synchronized void unregister(AbstractMovementImplementation implementation) {
+        this.listeners = remove(this.listeners, implementation, NO_LISTENERS);
+    }
+
+    /**
+     * Players already standing in the region enter it the next time they change block
+     */
+    public Terminable registerRegion(Cuboid region) {
+        this.regions.add(region);
+        return () -> this.regions.remove(region);
+    }
+
+    public synchronized Terminable registerRegionListener(RegionListener regionListener) {
+        final RegionListener[] previous = this.regionListeners;
+        final RegionListener[] regionListeners = Arrays.copyOf(previous, previous.length + 1);
+        regionListeners[previous.length] = regionListener;
+        this.regionListeners = regionListeners;
+
+        return () -> {
+            synchronized (this) {
+                this.regionListeners = remove(this.regionListeners, regionListener, NO_REGION_LISTENERS);
+            }
+        };
+    }
+
+    /**
+     * @return the regions the player was in at the last block change
+     */
+    public Cuboid[] getRegions(Player player) {
+        final MovementState state = this.states.get(player.getUniqueId());
+        return state != null ? state.regions.clone() : CuboidIndex.NONE;
+    }
+
+    public int getListenerCount() {
+        return this.listeners.length;
+    }
+
+    public void handleUpdateLocation(Player player, Location from, Location to) {
+        final MovementState state = this.states.computeIfAbsent(player.getUniqueId(), ignored -> new MovementState());
+        final World world = to.getWorld();
+        final int x = to.getBlockX();
+        final int y = to.getBlockY();
+        final int z = to.getBlockZ();
+
+        int changes = CHANGED_POSITION;
+        if (state.world != world) {
+            changes |= CHANGED_WORLD | CHANGED_CHUNK | CHANGED_BLOCK_XZ | CHANGED_BLOCK;
+        } else if (x != state.blockX || z != state.blockZ) {
+            changes |= CHANGED_BLOCK_XZ | CHANGED_BLOCK;
+            if (x >> 4 != state.blockX >> 4 || z >> 4 != state.blockZ >> 4) {
+                changes |= CHANGED_CHUNK;
+            }
+        } else if (y != state.blockY) {
+            changes |= CHANGED_BLOCK;
+        }
+
+        state.world = world;
+        state.blockX = x;
+        state.blockY = y;
+        state.blockZ = z;
+
+        for (AbstractMovementImplementation implementation : this.listeners) {
+            implementation.updateLocation(player, from, to, changes);
+        }
+
+        if ((changes & CHANGED_BLOCK) != 0) {
+            this.updateRegions(player, state, world.getName(), x, y, z);
+        }
+    }
+
+    public void handleUpdateRotation(Player player, Location from, Location to) {
+        for (AbstractMovementImplementation implementation : this.listeners) {
+            implementation.getMovementListener().handleUpdateRotation(player, from, to);
+        }
+    }
+
+    private void updateRegions(Player player, MovementState state, String worldName, int x, int y, int z) {
+        final Cuboid[] previous = state.regions;
+        final Cuboid[] current = this.regions.getContaining(worldName, x, y, z);
+        if (previous.length == 0 && current.length == 0) {
+            return;
+        }
+        state.regions = current;
+
+        final RegionListener[] regionListeners = this.regionListeners;
+        for (Cuboid region : previous) {
+            if (!contains(current, region)) {
+                for (RegionListener regionListener : regionListeners) {
+                    regionListener.handleExit(player, region);
+                }
+            }
+        }
+        for (Cuboid region : current) {
+            if (!contains(previous, region)) {
+                for (RegionListener regionListener : regionListeners) {
+                    regionListener.handleEnter(player, region);
+                }
+            }
+        }
+    }
+
+    private void remove(Player player) {
+        final MovementState state = this.states.remove(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
+
+        for (Cuboid region : state.regions) {
+            for (RegionListener regionListener : this.regionListeners) {
+                regionListener.handleExit(player, region);
+            }
+        }
+    }
+
+    private static boolean contains(Cuboid[] regions, Cuboid region) {
+        for (Cuboid other : regions) {
+            if (other == region) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> T[] remove(T[] previous, T element, T[] empty) {
+        for (int i = 0; i < previous.length; i++) {
+            if (previous[i] != element) {
+                continue;
+            }
+            if (previous.length == 1) {
+                return empty;
+            }
+
+            final T[] result = Arrays.copyOf(previous, previous.length - 1);
+            System.arraycopy(previous, i + 1, result, i, previous.length - i - 1);
+            return result;
+        }
+        return previous;
+    }
+
+    /**
+     * Only written by the thread handling the player's movement
+     */
+    private static class MovementState {
+
+        private World world;
+        private int blockX;
+        private int blockY;
+        private int blockZ;
+        private Cuboid[] regions = CuboidIndex.NONE;
+
+    }
+
+}
@@ -22,25 +22,23 @@
  * SOFTWARE.
  */
 
-package org.fairy.bukkit.nametag;
+package org.fairy.bukkit.player.movement;
 
-import lombok.Getter;
 import org.bukkit.entity.Player;
+import org.fairy.bukkit.util.cuboid.Cuboid;
 
-import java.util.UUID;
+/**
+ * Notified when a player crosses the border of a region registered in {@link MovementPipeline}
+ * Exits are called before enters, and every region the player is in is exited on quit
+ */
+public interface RegionListener {
 
-@Getter
-final class NameTagUpdate
-{
-    private UUID toRefresh;
-    private UUID refreshFor;
+    default void handleEnter(Player player, Cuboid region) {
 
-    public NameTagUpdate(final Player toRefresh) {
-        this.toRefresh = toRefresh.getUniqueId();
     }
 
-    public NameTagUpdate(final Player toRefresh, final Player refreshFor) {
-        this.toRefresh = toRefresh.getUniqueId();
-        this.refreshFor = refreshFor.getUniqueId();
+    default void handleExit(Player player, Cuboid region) {
+
     }
+
 }
@@ -29,6 +29,7 @@ import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.fairy.bukkit.player.movement.MovementListener;
+import org.fairy.bukkit.player.movement.MovementPipeline;
 
 @Getter
 public abstract class AbstractMovementImplementation {
@@ -36,6 +37,7 @@ public abstract class AbstractMovementImplementation {
     private MovementListener movementListener;
     private boolean ignoreSameBlock;
     private boolean ignoreSameY;
+    private boolean ignoreSameChunk;
 
     public AbstractMovementImplementation(MovementListener movementListener) {
         this.movementListener = movementListener;
@@ -52,6 +54,13 @@ public abstract class AbstractMovementImplementation {
         return this;
     }
 
+    public AbstractMovementImplementation ignoreSameChunk() {
+        this.ignoreSameBlock = true;
+        this.ignoreSameY = true;
+        this.ignoreSameChunk = true;
+        return this;
+    }
+
     public void register(Plugin plugin) {
 
     }
@@ -78,6 +87,26 @@ public abstract class AbstractMovementImplementation {
         }
     }
 
+    /**
+     * @param changes the CHANGED_ flags of {@link MovementPipeline}, detected once for every listener
+     */
+    public void updateLocation(Player player, Location from, Location to, int changes) {
+        final int required;
+        if (this.ignoreSameChunk) {
+            required = MovementPipeline.CHANGED_CHUNK;
+        } else if (this.ignoreSameY) {
+            required = MovementPipeline.CHANGED_BLOCK_XZ;
+        } else if (this.ignoreSameBlock) {
+            required = MovementPipeline.CHANGED_BLOCK;
+        } else {
+            required = MovementPipeline.CHANGED_POSITION;
+        }
+
+        if ((changes & required) != 0) {
+            this.movementListener.handleUpdateLocation(player, from, to);
+        }
+    }
+
     public void updateRotation(Player player, Location from, Location to) {
         if (from.getYaw() != to.getYaw()
                 || from.getPitch() != to.getPitch()) {
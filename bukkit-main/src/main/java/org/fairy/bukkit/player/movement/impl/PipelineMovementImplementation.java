@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.player.movement.impl;
+
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.fairy.bukkit.Imanity;
+import org.fairy.bukkit.listener.events.EventSubscription;
+import org.fairy.bukkit.listener.events.Events;
+import org.fairy.bukkit.player.movement.MovementListener;
+import org.fairy.bukkit.player.movement.MovementPipeline;
+
+/**
+ * Listens through the shared {@link MovementPipeline} instead of its own subscription
+ */
+public class PipelineMovementImplementation extends AbstractMovementImplementation {
+
+    private final MovementPipeline pipeline;
+    private EventSubscription<PluginDisableEvent> disableSubscription;
+    private boolean registered;
+
+    public PipelineMovementImplementation(MovementPipeline pipeline, MovementListener movementListener) {
+        super(movementListener);
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public void register(Plugin plugin) {
+        if (this.registered) {
+            return;
+        }
+
+        this.registered = true;
+        this.pipeline.register(this);
+        if (plugin != Imanity.PLUGIN) {
+            this.disableSubscription = Events.subscribe(PluginDisableEvent.class)
+                    .filter(event -> event.getPlugin() == plugin)
+                    .listen(event -> this.unregister())
+                    .build(Imanity.PLUGIN);
+        }
+    }
+
+    @Override
+    public void unregister() {
+        if (!this.registered) {
+            return;
+        }
+
+        this.registered = false;
+        this.pipeline.unregister(this);
+        if (this.disableSubscription != null) {
+            this.disableSubscription.unregister();
+            this.disableSubscription = null;
+        }
+    }
+}
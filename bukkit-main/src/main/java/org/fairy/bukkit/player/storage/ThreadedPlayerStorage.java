@@ -39,15 +39,21 @@ import org.fairy.storage.DataClosable;
 import org.fairy.storage.PlayerStorage;
 import org.fairy.bean.Autowired;
 import org.fairy.bean.BeanContext;
+import org.fairy.bean.InitializeOnMainThread;
 import org.fairy.bean.PostInitialize;
+import org.fairy.bean.PreDestroy;
 import org.fairy.bean.ServiceDependency;
 import org.fairy.bukkit.listener.events.Events;
 import org.fairy.bean.details.BeanDetails;
 import org.fairy.task.Task;
+import org.fairy.timings.LatencyHistogram;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Threaded Player Storage
@@ -58,15 +64,25 @@ import java.util.concurrent.ConcurrentHashMap;
  * We want to ensure that player wasn't completely login before data were successfully loaded
  * And it will block authentication until data loaded, Which doesn't block main thread still
  *
+ * Saves of the same Player are coalesced while waiting to be written, with write-behind enabled in the configuration
+ * they are only written in batches on every flush interval, on quit and on shutdown
+ * Writes of different Players run concurrently, a save of the same Player waits for the previous one to be written
+ *
  * To use it you need to create a class extends ThreadedPlayerStorage and made it a Service
  *
  * @param <T> the Data Class
  */
 @ServiceDependency(dependencies = {"storage"})
+@InitializeOnMainThread
 public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private final Map<UUID, PendingSave<T>> pendingSaves = new ConcurrentHashMap<>();
+    // saves being written, guarded by flushLock which is never held while writing
+    private final Map<UUID, PendingSave<T>> writingSaves = new HashMap<>();
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
 
     private ThreadedPlayerStorageConfiguration<T> storageConfiguration;
     private Map<UUID, T> storedObjects;
@@ -154,10 +170,146 @@ public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
 
     @Override
     public CompletableFuture<T> save(UUID uuid, T t) {
-        return Task.supplyAsync(() -> {
-            this.storageConfiguration.saveAsync(uuid, t);
-            return t;
+        final boolean[] created = new boolean[1];
+        final PendingSave<T> pendingSave = this.pendingSaves.compute(uuid, (ignored, previous) -> {
+            if (previous == null) {
+                created[0] = true;
+                return new PendingSave<>(t);
+            }
+            previous.object = t;
+            return previous;
         });
+
+        if (created[0] && !this.storageConfiguration.isWriteBehind()) {
+            Task.runAsync(() -> this.flush(uuid));
+        }
+        return pendingSave.future;
+    }
+
+    /**
+     * write every pending save in one batch, blocks until written
+     */
+    public void flush() {
+        while (!this.pendingSaves.isEmpty()) {
+            final Map<UUID, PendingSave<T>> batch = new HashMap<>();
+            final List<CompletableFuture<T>> writing = new ArrayList<>();
+            synchronized (this.flushLock) {
+                for (UUID uuid : new ArrayList<>(this.pendingSaves.keySet())) {
+                    final PendingSave<T> inFlight = this.writingSaves.get(uuid);
+                    if (inFlight != null) {
+                        // an older save of the Player is still being written, it has to land first
+                        writing.add(inFlight.future);
+                        continue;
+                    }
+
+                    final PendingSave<T> pendingSave = this.pendingSaves.remove(uuid);
+                    if (pendingSave != null) {
+                        batch.put(uuid, pendingSave);
+                        this.writingSaves.put(uuid, pendingSave);
+                    }
+                }
+            }
+
+            this.write(batch);
+            if (writing.isEmpty()) {
+                return;
+            }
+            awaitQuietly(writing);
+        }
+    }
+
+    /**
+     * write the pending save of the UUID if there is one, blocks until written
+     *
+     * @param uuid the UUID
+     */
+    public void flush(UUID uuid) {
+        while (true) {
+            final PendingSave<T> pendingSave;
+            final PendingSave<T> inFlight;
+            synchronized (this.flushLock) {
+                inFlight = this.writingSaves.get(uuid);
+                if (inFlight == null) {
+                    pendingSave = this.pendingSaves.remove(uuid);
+                    if (pendingSave == null) {
+                        return;
+                    }
+                    this.writingSaves.put(uuid, pendingSave);
+                } else {
+                    pendingSave = null;
+                }
+            }
+
+            if (pendingSave != null) {
+                this.write(Collections.singletonMap(uuid, pendingSave));
+                return;
+            }
+            awaitQuietly(Collections.singletonList(inFlight.future));
+        }
+    }
+
+    private void write(Map<UUID, PendingSave<T>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        final Map<UUID, T> objects = new HashMap<>(batch.size());
+        batch.forEach((uuid, pendingSave) -> objects.put(uuid, pendingSave.object));
+
+        final long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            if (objects.size() == 1) {
+                final Map.Entry<UUID, T> entry = objects.entrySet().iterator().next();
+                this.storageConfiguration.saveAsync(entry.getKey(), entry.getValue());
+            } else {
+                this.storageConfiguration.saveAllAsync(objects);
+            }
+        } catch (Throwable throwable) {
+            LOGGER.error("Error occur while saving " + objects.size() + " data to repository " + this.storageConfiguration.getName(), throwable);
+            failure = throwable;
+        }
+
+        synchronized (this.flushLock) {
+            batch.forEach(this.writingSaves::remove);
+        }
+
+        if (failure != null) {
+            final Throwable throwable = failure;
+            batch.forEach((uuid, pendingSave) -> {
+                if (this.storageConfiguration.isWriteBehind()) {
+                    // keep it dirty so the next flush retries it, unless a newer save already replaced it
+                    this.pendingSaves.putIfAbsent(uuid, new PendingSave<>(pendingSave.object));
+                }
+                pendingSave.future.completeExceptionally(throwable);
+            });
+            return;
+        }
+
+        this.saveLatency.record(System.nanoTime() - start);
+        batch.forEach((uuid, pendingSave) -> pendingSave.future.complete(pendingSave.object));
+    }
+
+    private static void awaitQuietly(List<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ignored) {
+            // the writer already logged it, the caller only waits for it to finish
+        }
+    }
+
+    /**
+     * @return latency of each repository write, a write-behind flush counts as one write
+     */
+    public LatencyHistogram getSaveLatency() {
+        return this.saveLatency;
+    }
+
+    /**
+     * @return amount of Players with saves waiting to be written
+     */
+    public int getPendingSaveCount() {
+        return this.pendingSaves.size();
     }
 
     @Override
@@ -169,7 +321,41 @@ public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
 
         Player player = Bukkit.getPlayer(uuid);
         this.onPreUnload(player, t)
-                .thenRun(() -> this.storedObjects.remove(player.getUniqueId()));
+                // also waits for a save already being written, so a rejoin can't load older data
+                .thenCompose(ignored -> Task.runAsync(() -> this.flushOnUnload(uuid)))
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        LOGGER.error("Error occur while flushing data of " + uuid + " to repository " + this.storageConfiguration.getName(), throwable);
+                    }
+                    this.storedObjects.remove(uuid);
+                });
+    }
+
+    private void flushOnUnload(UUID uuid) {
+        final long timeout = this.storageConfiguration.getShutdownFlushTimeout();
+        try {
+            CompletableFuture.runAsync(() -> this.flush(uuid)).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            LOGGER.error("Flushing data of " + uuid + " to repository " + this.storageConfiguration.getName() + " took longer than " + timeout + "ms, it may not be saved.");
+        } catch (Exception ex) {
+            LOGGER.error("Error occur while flushing data of " + uuid + " to repository " + this.storageConfiguration.getName(), ex);
+        }
+    }
+
+    @PreDestroy
+    public final void onPreDestroyStorage() {
+        if (this.storageConfiguration == null || this.pendingSaves.isEmpty()) {
+            return;
+        }
+
+        final long timeout = this.storageConfiguration.getShutdownFlushTimeout();
+        try {
+            CompletableFuture.runAsync(this::flush).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            LOGGER.error("Flushing data to repository " + this.storageConfiguration.getName() + " took longer than " + timeout + "ms, " + this.pendingSaves.size() + " data may not be saved.");
+        } catch (Exception ex) {
+            LOGGER.error("Error occur while flushing data to repository " + this.storageConfiguration.getName(), ex);
+        }
     }
 
     @PostInitialize
@@ -185,6 +371,11 @@ public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
             return;
         }
 
+        if (this.storageConfiguration.isWriteBehind()) {
+            final long interval = this.storageConfiguration.getFlushIntervalTicks();
+            beanDetails.bind(Task.asyncRepeated(terminable -> this.flush(), interval, interval));
+        }
+
         Events.subscribe(AsyncPlayerPreLoginEvent.class)
                 .priority(EventPriority.LOW)
                 .listen(event -> {
@@ -298,4 +489,15 @@ public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
     public List<T> findAll() {
         return Lists.newArrayList(this.storedObjects.values());
     }
+
+    private static class PendingSave<T> {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile T object;
+
+        private PendingSave(T object) {
+            this.object = object;
+        }
+
+    }
 }
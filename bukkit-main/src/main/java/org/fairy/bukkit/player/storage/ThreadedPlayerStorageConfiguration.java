@@ -26,6 +26,7 @@ package org.fairy.bukkit.player.storage;
 
 import org.bukkit.entity.Player;
 
+import java.util.Map;
 import java.util.UUID;
 
 public interface ThreadedPlayerStorageConfiguration<T> {
@@ -36,6 +37,38 @@ public interface ThreadedPlayerStorageConfiguration<T> {
 
     void saveAsync(UUID uuid, T t);
 
+    /**
+     * save every dirty data collected by a write-behind flush at once
+     *
+     * @param objects the data to save by UUID
+     */
+    default void saveAllAsync(Map<UUID, T> objects) {
+        objects.forEach(this::saveAsync);
+    }
+
+    /**
+     * should saves be deferred and flushed in batches every {@link #getFlushIntervalTicks()} instead of written right away
+     *
+     * @return is write-behind
+     */
+    default boolean isWriteBehind() {
+        return false;
+    }
+
+    /**
+     * @return ticks between each write-behind flush
+     */
+    default long getFlushIntervalTicks() {
+        return 20L * 30;
+    }
+
+    /**
+     * @return max milliseconds to wait for pending saves to be flushed on shutdown, or for the saves of a Player on quit
+     */
+    default long getShutdownFlushTimeout() {
+        return 10_000L;
+    }
+
     default String getLoginRejectMessage(UUID uuid, String name, ThreadedPlayerStorage.LoginRejectReason rejectReason) {
         switch (rejectReason) {
             case ERROR:
@@ -26,6 +26,7 @@ package org.fairy.bukkit.player.storage;
 
 import org.fairy.Repository;
 
+import java.util.Map;
 import java.util.UUID;
 
 public abstract class ThreadedPlayerStorageConfigurationRepository<T> implements ThreadedPlayerStorageConfiguration<T> {
@@ -44,6 +45,11 @@ public abstract class ThreadedPlayerStorageConfigurationRepository<T> implements
         this.getRepository().save(t);
     }
 
+    @Override
+    public void saveAllAsync(Map<UUID, T> objects) {
+        this.getRepository().saveAll(objects.values());
+    }
+
     public abstract T create(UUID uuid, String name);
 
     public abstract Repository<T, UUID> getRepository();
@@ -64,8 +64,9 @@ public class Sidebar {
                 player.getName()
         );
 
-        PacketService.send(player, packetA);
-        PacketService.send(player, packetB);
+        PacketService.queue(player, packetA);
+        PacketService.queue(player, packetB);
+        PacketService.flush(player);
 
     }
 
@@ -77,33 +78,39 @@ public class Sidebar {
 
         this.title = title;
 
-        PacketService.send(player, new WrappedPacketOutScoreboardObjective(
+        PacketService.queue(player, new WrappedPacketOutScoreboardObjective(
                 player.getName(),
                 title,
                 WrappedPacketOutScoreboardObjective.HealthDisplayType.INTEGER,
                 WrappedPacketOutScoreboardObjective.Action.CHANGED
         ));
+        PacketService.flush(player);
 
     }
 
     public void setLines(List<String> lines) {
+        this.setLines(lines, true);
+    }
+
+    void setLines(List<String> lines, boolean translate) {
 
         int lineCount = 1;
 
         for (int i = lines.size() - 1; i >= 0; --i) {
-            this.setLine(lineCount, CC.translate(lines.get(i)));
+            this.setLine(lineCount, translate ? CC.translate(lines.get(i)) : lines.get(i));
 
             lineCount++;
         }
 
         for (int i = lines.size(); i < 15; i++) {
             if (teams[lineCount] != null) {
-                this.clear(lineCount);
+                this.clearLine(lineCount);
             }
 
             lineCount++;
         }
 
+        PacketService.flush(player);
     }
 
     private void setLine(int line, String value) {
@@ -146,10 +153,15 @@ public class Sidebar {
 
         teams[line] = value;
 
-        PacketService.send(player, packet);
+        PacketService.queue(player, packet);
     }
 
     public void clear(int line) {
+        this.clearLine(line);
+        PacketService.flush(player);
+    }
+
+    private void clearLine(int line) {
         if (line > 0 && line < 16) {
             if (teams[line] != null) {
 
@@ -164,16 +176,17 @@ public class Sidebar {
 
                 teams[line] = null;
 
-                PacketService.send(player, packetA);
-                PacketService.send(player, packetB);
+                PacketService.queue(player, packetA);
+                PacketService.queue(player, packetB);
             }
         }
     }
 
     public void remove() {
         for (int line = 1; line < 15; line++) {
-            this.clear(line);
+            this.clearLine(line);
         }
+        PacketService.flush(player);
     }
 
     private WrappedPacketOutScoreboardTeam getOrRegisterTeam(int line) {
@@ -201,7 +214,7 @@ public class Sidebar {
             packetB.setAction(0);
             packetB.getNameSet().add(getEntry(line));
 
-            PacketService.send(player, packetA);
+            PacketService.queue(player, packetA);
 
             return packetB;
         }
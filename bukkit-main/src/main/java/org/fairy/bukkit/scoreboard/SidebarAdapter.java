@@ -51,4 +51,15 @@ public interface SidebarAdapter {
 
     default int priority() { return 0; }
 
+    /**
+     *
+     * Only matters when sidebars are rendered async, see {@link SidebarService#ASYNC_RENDER}
+     * Adapters are rendered on main thread unless they opt in, as most read Bukkit state that isn't thread safe
+     *
+     * @return true if getTitle and getLines are safe to be called off main thread
+     */
+    default boolean isAsyncSafe() {
+        return false;
+    }
+
 }
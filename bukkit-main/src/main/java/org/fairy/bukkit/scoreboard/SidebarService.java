@@ -24,6 +24,7 @@
 
 package org.fairy.bukkit.scoreboard;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.fairy.Fairy;
@@ -33,22 +34,38 @@ import org.fairy.bukkit.listener.events.Events;
 import org.fairy.bukkit.metadata.Metadata;
 import org.fairy.task.Task;
 import org.fairy.task.TaskRunnable;
+import org.fairy.timings.LatencyHistogram;
 import org.fairy.util.CC;
 import org.fairy.util.Stacktrace;
-import org.fairy.util.entry.Entry;
 import org.fairy.util.terminable.Terminable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service(name = "sidebar")
+@InitializeOnMainThread
 public class SidebarService implements TaskRunnable {
 
+    /**
+     * Whether adapters are rendered on a worker pool instead of main thread,
+     * only adapters that are {@link SidebarAdapter#isAsyncSafe()} are rendered there, the others still on main thread
+     */
+    public static boolean ASYNC_RENDER = Boolean.getBoolean("fairy.sidebar.async");
+
     private List<SidebarAdapter> adapters;
     private Queue<Runnable> runnableQueue;
     private AtomicBoolean activated;
 
+    private final Map<SidebarAdapter, LatencyHistogram> renderTimes = new ConcurrentHashMap<>();
+    private final Set<UUID> rendering = ConcurrentHashMap.newKeySet();
+    private ExecutorService renderExecutor;
+    private long ticks;
+
     @PreInitialize
     public void preInit() {
         this.adapters = new ArrayList<>();
@@ -69,11 +86,28 @@ public class SidebarService implements TaskRunnable {
 
     @PostInitialize
     public void postInit() {
-        Task.mainRepeated(this, this.getUpdateTick());
+        if (ASYNC_RENDER) {
+            this.renderExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("Imanity - Sidebar %d")
+                    .setUncaughtExceptionHandler((thread, throwable) -> Stacktrace.print(throwable))
+                    .build());
+        }
+
+        // runs every tick, each player is only rendered once every update tick, see tick()
+        Task.mainRepeated(this, 1);
         Events.subscribe(PlayerQuitEvent.class).listen((subscription, event) -> remove(event.getPlayer()));
     }
 
+    @PreDestroy
+    public void stop() {
+        if (this.renderExecutor != null) {
+            this.renderExecutor.shutdown();
+        }
+    }
+
     public void addAdapter(SidebarAdapter adapter) {
+        this.renderTimes.putIfAbsent(adapter, new LatencyHistogram());
         this.adapters.add(adapter);
         this.adapters.sort(Collections.reverseOrder(Comparator.comparingInt(SidebarAdapter::priority)));
         this.activate();
@@ -81,7 +115,7 @@ public class SidebarService implements TaskRunnable {
 
     private void activate() {
         if (activated.compareAndSet(false, true)) {
-            Task.mainRepeated(this, this.getUpdateTick());
+            Task.mainRepeated(this, 1);
         }
     }
 
@@ -121,52 +155,109 @@ public class SidebarService implements TaskRunnable {
     }
 
     private void tick() {
+        // spread players over the update interval so a long interval doesn't render everyone in one tick
+        final int updateTick = Math.max(1, this.getUpdateTick());
+        final int shard = (int) (this.ticks++ % updateTick);
+        final List<SidebarAdapter> adapters = this.renderExecutor != null ? new ArrayList<>(this.adapters) : this.adapters;
+
         for (Player player : Imanity.getPlayers()) {
 
             if (!Fairy.isRunning()) {
                 break;
             }
 
+            if (Math.floorMod(player.getUniqueId().hashCode(), updateTick) != shard) {
+                continue;
+            }
+
             Sidebar board = this.get(player);
             if (board == null) {
                 continue;
             }
 
-            Entry<String, List<String>> entry = this.findAdapter(player);
-            if (entry == null) {
-                board.remove();
+            if (this.renderExecutor == null) {
+                this.apply(player, board, this.render(player, adapters, 0, true));
                 continue;
             }
-            String title = CC.translate(entry.getKey());
-
-            board.setTitle(title);
-
-            List<String> newLines = entry.getValue();
-
-            if (newLines == null || newLines.isEmpty()) {
-                board.remove();
-            } else {
-
-                board.setLines(newLines);
 
+            // still rendering since last time, skip this round
+            if (!this.rendering.add(player.getUniqueId())) {
+                continue;
             }
+
+            CompletableFuture.supplyAsync(() -> this.render(player, adapters, 0, false), this.renderExecutor)
+                    .thenAcceptAsync(rendered -> {
+                        try {
+                            if (rendered != null && rendered.resumeAt != -1) {
+                                rendered = this.render(player, adapters, rendered.resumeAt, true);
+                            }
+                            this.apply(player, board, rendered);
+                        } finally {
+                            this.rendering.remove(player.getUniqueId());
+                        }
+                    }, Task.main())
+                    .exceptionally(throwable -> {
+                        this.rendering.remove(player.getUniqueId());
+                        Stacktrace.print(throwable);
+                        return null;
+                    });
         }
     }
 
-    private Entry<String, List<String>> findAdapter(Player player) {
-        Entry<String, List<String>> entry = null;
+    /**
+     * find the first adapter with a title and lines for the player, starting from the index
+     *
+     * @return the rendered sidebar, null if no adapter matched, or one to resume on main thread
+     */
+    private RenderedSidebar render(Player player, List<SidebarAdapter> adapters, int from, boolean mainThread) {
+        for (int i = from; i < adapters.size(); i++) {
+            SidebarAdapter adapter = adapters.get(i);
+            if (!mainThread && !adapter.isAsyncSafe()) {
+                return new RenderedSidebar(i);
+            }
 
-        for (SidebarAdapter adapter : this.adapters) {
+            long start = System.nanoTime();
             String title = adapter.getTitle(player);
             List<String> list = adapter.getLines(player);
+            this.getRenderTime(adapter).record(System.nanoTime() - start);
+
             if (title != null && !title.isEmpty() &&
                     list != null && !list.isEmpty()) {
-                entry = new Entry<>(title, list);
-                break;
+                List<String> lines = new ArrayList<>(list.size());
+                for (String line : list) {
+                    lines.add(CC.translate(line));
+                }
+                return new RenderedSidebar(CC.translate(title), lines);
             }
         }
 
-        return entry;
+        return null;
+    }
+
+    private void apply(Player player, Sidebar board, RenderedSidebar rendered) {
+        if (!player.isOnline() || this.get(player) != board) {
+            return;
+        }
+
+        if (rendered == null) {
+            board.remove();
+            return;
+        }
+
+        board.setTitle(rendered.title);
+        // lines already translated, setLines only sends the lines that changed
+        board.setLines(rendered.lines, false);
+    }
+
+    /**
+     * @return time spent in getTitle and getLines of the adapter
+     */
+    public LatencyHistogram getRenderTime(SidebarAdapter adapter) {
+        return this.renderTimes.computeIfAbsent(adapter, ignored -> new LatencyHistogram());
+    }
+
+    public Map<SidebarAdapter, LatencyHistogram> getRenderTimes() {
+        return Collections.unmodifiableMap(this.renderTimes);
     }
 
     public void remove(Player player) {
@@ -192,5 +283,24 @@ public class SidebarService implements TaskRunnable {
         });
     }
 
+    private static class RenderedSidebar {
+
+        private final String title;
+        private final List<String> lines;
+        private final int resumeAt;
+
+        private RenderedSidebar(String title, List<String> lines) {
+            this.title = title;
+            this.lines = lines;
+            this.resumeAt = -1;
+        }
+
+        private RenderedSidebar(int resumeAt) {
+            this.title = null;
+            this.lines = null;
+            this.resumeAt = resumeAt;
+        }
+
+    }
 
 }
@@ -44,4 +44,9 @@ public class ExampleSidebarAdapter implements SidebarAdapter {
         }
         return lines;
     }
+
+    @Override
+    public boolean isAsyncSafe() {
+        return true;
+    }
 }
@@ -60,6 +60,7 @@ public class ImanityTabHandler {
     private final ImanityTabAdapter adapter;
     private ScheduledExecutorService thread;
     private IImanityTabImpl implementation;
+    private PacketListener loginListener;
 
     @Autowired
     private PacketService packetService;
@@ -118,11 +119,12 @@ public class ImanityTabHandler {
             this.thread.shutdown();
             this.thread = null;
         }
+        this.unregisterLoginListener();
 
         // To ensure client will display 60 slots on 1.7
         if (Bukkit.getMaxPlayers() < 60) {
 //            this.implementation.registerLoginListener();
-            packetService.registerPacketListener(new PacketListener() {
+            this.loginListener = new PacketListener() {
                 @Override
                 public Class<?>[] type() {
                     return new Class[] { PacketTypeClasses.Server.LOGIN };
@@ -136,7 +138,8 @@ public class ImanityTabHandler {
                     dto.refresh();
                     return true;
                 }
-            });
+            };
+            packetService.registerPacketListener(this.loginListener);
         }
 
         //Start Thread
@@ -169,6 +172,14 @@ public class ImanityTabHandler {
             this.thread.shutdown();
             this.thread = null;
         }
+        this.unregisterLoginListener();
 
     }
+
+    private void unregisterLoginListener() {
+        if (this.loginListener != null) {
+            packetService.unregisterPacketListener(this.loginListener);
+            this.loginListener = null;
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.fairy.bukkit.tablist.util.TabColumn;
 import org.fairy.bukkit.tablist.util.TabEntry;
 import org.fairy.bukkit.util.Skin;
 import org.fairy.bukkit.Imanity;
+import org.fairy.bukkit.packet.PacketService;
 import org.fairy.bukkit.reflection.MinecraftReflection;
 import org.fairy.bukkit.reflection.version.PlayerVersion;
 import org.fairy.util.CC;
@@ -82,6 +83,7 @@ public class ImanityTablist {
             }
             currentEntries.add(tabEntry);
         }
+        PacketService.flush(player);
     }
 
     public void update() {
@@ -131,6 +133,7 @@ public class ImanityTablist {
             this.header = headerNow;
             this.footer = footerNow;
         }
+        PacketService.flush(player);
     }
 
     public TabEntry getEntry(TabColumn column, Integer slot){
@@ -80,7 +80,7 @@ public class NMS1_8TabImpl implements IImanityTabImpl {
         packet.setAction(PlayerInfoAction.ADD_PLAYER);
         packet.getPlayerInfoData().add(new WrappedPlayerInfoData(1, GameMode.SURVIVAL, profile, ChatComponentWrapper.fromText("")));
 
-        PacketService.send(player, packet);
+        PacketService.queue(player, packet);
 
         return new TabEntry(string, profile.getUuid(), "", imanityTablist, Skin.GRAY, column, slot, rawSlot, 0);
     }
@@ -116,7 +116,7 @@ public class NMS1_8TabImpl implements IImanityTabImpl {
             packet.setAction(PlayerInfoAction.UPDATE_DISPLAY_NAME);
             packet.getPlayerInfoData().add(new WrappedPlayerInfoData(tabEntry.getLatency(), GameMode.SURVIVAL, profile, listName));
 
-            PacketService.send(player, packet);
+            PacketService.queue(player, packet);
         }
 
         tabEntry.setText(text);
@@ -135,7 +135,7 @@ public class NMS1_8TabImpl implements IImanityTabImpl {
         packet.setAction(PlayerInfoAction.UPDATE_LATENCY);
         packet.getPlayerInfoData().add(new WrappedPlayerInfoData(latency, GameMode.SURVIVAL, profile, listName));
 
-        PacketService.send(imanityTablist.getPlayer(), packet);
+        PacketService.queue(imanityTablist.getPlayer(), packet);
 
         tabEntry.setLatency(latency);
     }
@@ -163,8 +163,8 @@ public class NMS1_8TabImpl implements IImanityTabImpl {
         WrappedPacketOutPlayerInfo packetRemove = new WrappedPacketOutPlayerInfo(PlayerInfoAction.REMOVE_PLAYER, playerInfoData);
         WrappedPacketOutPlayerInfo packetAdd = new WrappedPacketOutPlayerInfo(PlayerInfoAction.ADD_PLAYER, playerInfoData);
 
-        PacketService.send(imanityTablist.getPlayer(), packetRemove);
-        PacketService.send(imanityTablist.getPlayer(), packetAdd);
+        PacketService.queue(imanityTablist.getPlayer(), packetRemove);
+        PacketService.queue(imanityTablist.getPlayer(), packetAdd);
 
         tabEntry.setTexture(skin);
     }
@@ -182,7 +182,7 @@ public class NMS1_8TabImpl implements IImanityTabImpl {
                 ChatComponentWrapper.fromText(footer)
         );
 
-        PacketService.send(player, packet);
+        PacketService.queue(player, packet);
 
     }
 
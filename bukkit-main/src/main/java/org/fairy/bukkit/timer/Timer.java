@@ -38,6 +38,7 @@ import org.fairy.util.terminable.TerminableConsumer;
 import org.fairy.util.terminable.composite.CompositeTerminable;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
@@ -48,6 +49,7 @@ public abstract class Timer implements Terminable, TerminableConsumer {
     protected static TimerService TIMER_SERVICE;
 
     protected static final IntOpenHashSet COUNTDOWNS;
+    private static final int[] SORTED_COUNTDOWNS;
 
     static {
         COUNTDOWNS = new IntOpenHashSet(ImmutableSet.of(3200,
@@ -71,6 +73,8 @@ public abstract class Timer implements Terminable, TerminableConsumer {
                 2,
                 1,
                 0));
+        SORTED_COUNTDOWNS = COUNTDOWNS.toIntArray();
+        Arrays.sort(SORTED_COUNTDOWNS);
     }
 
     private final long startTime;
@@ -118,6 +122,21 @@ public abstract class Timer implements Terminable, TerminableConsumer {
         return (int) TimeUnit.MILLISECONDS.toSeconds(this.getTimeMillisRemaining());
     }
 
+    /**
+     * @return the next time {@link #tick()} could announce or the timer could elapse
+     */
+    long getNextDueTime() {
+        final int seconds = this.getSecondsRemaining();
+        for (int i = SORTED_COUNTDOWNS.length - 1; i >= 0; i--) {
+            final int countdown = SORTED_COUNTDOWNS[i];
+            if (countdown < seconds) {
+                // seconds remaining drops to the countdown once less than countdown + 1 seconds remain
+                return this.elapsedTime - (countdown + 1) * 1000L + 1;
+            }
+        }
+        return this.elapsedTime + 1;
+    }
+
     public void restart(long startTime) {
         long diff = startTime - this.startTime;
         this.extend(diff);
@@ -137,6 +156,7 @@ public abstract class Timer implements Terminable, TerminableConsumer {
         millis = event.getExtended();
         this.duration += millis;
         this.elapsedTime = this.startTime + this.duration;
+        this.reschedule();
     }
 
     public void setDuration(long duration) {
@@ -153,6 +173,13 @@ public abstract class Timer implements Terminable, TerminableConsumer {
         duration = this.duration + event.getExtended();
         this.duration = duration;
         this.elapsedTime = this.startTime + this.duration;
+        this.reschedule();
+    }
+
+    private void reschedule() {
+        if (TIMER_SERVICE != null) {
+            TIMER_SERVICE.reschedule(this);
+        }
     }
 
     public String getAnnounceMessage(Player player, int seconds) {
@@ -247,6 +274,7 @@ public abstract class Timer implements Terminable, TerminableConsumer {
             this.extend(toExtend, TimerExtendEvent.Reason.UNPAUSE);
 
             this.pauseTime = -1;
+            this.reschedule();
             this.onUnpause();
             return true;
         });
@@ -24,70 +24,201 @@
 
 package org.fairy.bukkit.timer;
 
-import com.google.common.collect.Sets;
+import org.bukkit.entity.Player;
 import org.fairy.ScheduledAtFixedRate;
+import org.fairy.bean.InitializeOnMainThread;
 import org.fairy.bean.PostInitialize;
 import org.fairy.bean.Service;
 import org.fairy.bukkit.timer.event.TimerClearEvent;
+import org.fairy.bukkit.timer.impl.PlayerTimer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Timers are kept in a {@link TimingWheel} and only visited when they could announce or elapse
+ * Timers overriding {@link Timer#onTick()} or how the remaining time is computed are still visited on every run
+ */
 @Service(name = "timer")
+@InitializeOnMainThread
 public class TimerService {
 
+    private static final long WHEEL_RESOLUTION = 100L;
+    private static final List<String> TICKING_METHODS = Collections.unmodifiableList(Arrays.asList(
+            "onTick", "isElapsed", "getTimeMillisRemaining", "getSecondsRemaining"
+    ));
+
+    private static final Map<Class<?>, Class<?>[]> HIERARCHIES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Boolean> TICKING_CLASSES = new ConcurrentHashMap<>();
+
     private Set<Timer> timers;
-    private ReentrantLock lock;
+    private Map<Class<?>, Set<Timer>> timersByClass;
+    private Map<UUID, Set<Timer>> timersByPlayer;
+    private Queue<Operation> operations;
+
+    // main thread only
+    private TimingWheel<Timer> wheel;
+    private Set<Timer> tickingTimers;
 
     @PostInitialize
     public void onPostInitialize() {
-        this.lock = new ReentrantLock();
-        this.timers = Sets.newConcurrentHashSet();
+        this.timers = ConcurrentHashMap.newKeySet();
+        this.timersByClass = new ConcurrentHashMap<>();
+        this.timersByPlayer = new ConcurrentHashMap<>();
+        this.operations = new ConcurrentLinkedQueue<>();
+        this.wheel = new TimingWheel<>(WHEEL_RESOLUTION, System.currentTimeMillis());
+        this.tickingTimers = new HashSet<>();
         this.startScheduler();
     }
 
     protected void add(Timer timer) {
-        this.lock.lock();
-        this.timers.add(timer);
-        this.lock.unlock();
+        if (!this.timers.add(timer)) {
+            return;
+        }
+
+        for (Class<?> type : hierarchyOf(timer.getClass())) {
+            this.timersByClass.computeIfAbsent(type, ignored -> ConcurrentHashMap.newKeySet()).add(timer);
+        }
+        final UUID uuid = playerOf(timer);
+        if (uuid != null) {
+            this.timersByPlayer.compute(uuid, (ignored, set) -> {
+                if (set == null) {
+                    set = ConcurrentHashMap.newKeySet();
+                }
+                set.add(timer);
+                return set;
+            });
+        }
+        this.operations.add(new Operation(timer, Operation.ADD));
     }
 
     protected void clear(Timer timer) {
-        this.lock.lock();
-        this.timers.remove(timer);
-        this.lock.unlock();
+        if (this.unindex(timer)) {
+            this.operations.add(new Operation(timer, Operation.REMOVE));
+        }
+    }
+
+    /**
+     * called when the time the timer elapse at has changed
+     */
+    void reschedule(Timer timer) {
+        if (this.timers != null && this.timers.contains(timer)) {
+            this.operations.add(new Operation(timer, Operation.RESCHEDULE));
+        }
     }
 
     public void clearByTimerClass(Class<? extends Timer> timerClass) {
-        this.lock.lock();
-        this.timers.removeIf(timer -> {
-            if (timerClass.isInstance(timer) && timer.clear()) {
-                return true;
-            }
-            return false;
-        });
-        this.lock.unlock();
+        final Set<Timer> timers = this.timersByClass.get(timerClass);
+        if (timers == null) {
+            return;
+        }
+
+        for (Timer timer : new ArrayList<>(timers)) {
+            timer.clear();
+        }
     }
 
     @ScheduledAtFixedRate(async = false, ticks = 2, delay = 2)
     public void startScheduler() {
-        this.lock.lock();
-        Iterator<Timer> iterator = this.timers.iterator();
+        final long now = System.currentTimeMillis();
+
+        Operation operation;
+        while ((operation = this.operations.poll()) != null) {
+            this.apply(operation, now);
+        }
+
+        final Iterator<Timer> iterator = this.tickingTimers.iterator();
         while (iterator.hasNext()) {
-            Timer timer = iterator.next();
+            final Timer timer = iterator.next();
+            if (!this.timers.contains(timer)) {
+                iterator.remove();
+                continue;
+            }
             if (timer.isPaused()) {
                 continue;
             }
-            timer.tick();
-            if (timer.isElapsed() && timer.elapsed()) {
-                if (!timer.clear(false, TimerClearEvent.Reason.ELAPSED)) {
-                    continue;
-                }
+            if (this.tick(timer)) {
                 iterator.remove();
             }
         }
-        this.lock.unlock();
+
+        this.wheel.advance(now, timer -> {
+            // paused timers leave the wheel until unpaused
+            if (!this.timers.contains(timer) || timer.isPaused()) {
+                return;
+            }
+            if (!this.tick(timer)) {
+                this.wheel.schedule(timer, timer.getNextDueTime());
+            }
+        });
+    }
+
+    /**
+     * @return true if the timer elapsed and got cleared
+     */
+    private boolean tick(Timer timer) {
+        timer.tick();
+        if (timer.isElapsed() && timer.elapsed()) {
+            if (timer.clear(false, TimerClearEvent.Reason.ELAPSED)) {
+                this.unindex(timer);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(Operation operation, long now) {
+        final Timer timer = operation.timer;
+        switch (operation.type) {
+            case Operation.ADD:
+            case Operation.RESCHEDULE:
+                if (!this.timers.contains(timer)) {
+                    return;
+                }
+                if (isTicking(timer.getClass())) {
+                    this.tickingTimers.add(timer);
+                } else {
+                    // visit on the next run so the current second is announced like before
+                    this.wheel.schedule(timer, now);
+                }
+                break;
+            case Operation.REMOVE:
+                this.tickingTimers.remove(timer);
+                this.wheel.cancel(timer);
+                break;
+        }
+    }
+
+    private boolean unindex(Timer timer) {
+        if (!this.timers.remove(timer)) {
+            return false;
+        }
+
+        for (Class<?> type : hierarchyOf(timer.getClass())) {
+            final Set<Timer> timers = this.timersByClass.get(type);
+            if (timers != null) {
+                timers.remove(timer);
+            }
+        }
+        final UUID uuid = playerOf(timer);
+        if (uuid != null) {
+            this.timersByPlayer.computeIfPresent(uuid, (ignored, set) -> {
+                set.remove(timer);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        return true;
     }
 
     public boolean isTimerRunning(Class<? extends Timer> timerClass) {
@@ -95,17 +226,97 @@ public class TimerService {
     }
 
     public <T extends Timer> T getTimer(Class<T> timerClass) {
-        T ret;
-        this.lock.lock();
-        try {
-            ret = timerClass.cast(this.timers
-                    .stream()
-                    .filter(timerClass::isInstance)
-                    .findFirst()
-                    .orElse(null));
-        } finally {
-            this.lock.unlock();
-        }
-        return ret;
+        final Set<Timer> timers = this.timersByClass.get(timerClass);
+        if (timers == null) {
+            return null;
+        }
+
+        for (Timer timer : timers) {
+            return timerClass.cast(timer);
+        }
+        return null;
+    }
+
+    public boolean isTimerRunning(Player player, Class<? extends Timer> timerClass) {
+        return this.getTimer(player, timerClass) != null;
+    }
+
+    public <T extends Timer> T getTimer(Player player, Class<T> timerClass) {
+        final Set<Timer> timers = this.timersByPlayer.get(player.getUniqueId());
+        if (timers == null) {
+            return null;
+        }
+
+        for (Timer timer : timers) {
+            if (timerClass.isInstance(timer)) {
+                return timerClass.cast(timer);
+            }
+        }
+        return null;
+    }
+
+    private static UUID playerOf(Timer timer) {
+        if (timer instanceof PlayerTimer) {
+            final Player player = ((PlayerTimer) timer).getPlayer();
+            return player != null ? player.getUniqueId() : null;
+        }
+        return null;
+    }
+
+    /**
+     * @return every class and interface the type is an instance of, up to {@link Timer}
+     */
+    private static Class<?>[] hierarchyOf(Class<?> type) {
+        return HIERARCHIES.computeIfAbsent(type, ignored -> {
+            final Set<Class<?>> hierarchy = new LinkedHashSet<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hierarchy.add(current);
+                collectInterfaces(current, hierarchy);
+            }
+            return hierarchy.toArray(new Class<?>[0]);
+        });
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> hierarchy) {
+        for (Class<?> interfaceClass : type.getInterfaces()) {
+            if (hierarchy.add(interfaceClass)) {
+                collectInterfaces(interfaceClass, hierarchy);
+            }
+        }
+    }
+
+    /**
+     * @return true if the timer class can't be scheduled by due time because it does work on every tick
+     */
+    private static boolean isTicking(Class<?> type) {
+        return TICKING_CLASSES.computeIfAbsent(type, ignored -> {
+            for (Class<?> current = type; current != null && current != Timer.class; current = current.getSuperclass()) {
+                for (String method : TICKING_METHODS) {
+                    try {
+                        current.getDeclaredMethod(method);
+                        return true;
+                    } catch (NoSuchMethodException ex) {
+                        // not overridden here
+                    }
+                }
+            }
+            return false;
+        });
+    }
+
+    private static class Operation {
+
+        private static final int ADD = 0;
+        private static final int REMOVE = 1;
+        private static final int RESCHEDULE = 2;
+
+        private final Timer timer;
+        private final int type;
+
+        private Operation(Timer timer, int type) {
+            this.timer = timer;
+            this.type = type;
+        }
+
     }
 }
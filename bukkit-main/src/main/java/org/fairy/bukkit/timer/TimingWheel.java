@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.timer;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel, values are only visited once the time they are due has been reached
+ * Each level has 64 slots, every slot of a level spans a whole rotation of the level below
+ * Not thread safe
+ *
+ * @param <T> the scheduled value
+ */
+public class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long resolution;
+    private final Node<T>[][] wheels;
+    private final Map<T, Node<T>> nodes = new IdentityHashMap<>();
+    private long currentTick;
+
+    /**
+     * @param resolution milliseconds per tick of the lowest level
+     * @param now the current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long resolution, long now) {
+        this.resolution = resolution;
+        this.currentTick = now / resolution;
+        this.wheels = new Node[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                this.wheels[level][slot] = Node.sentinel();
+            }
+        }
+    }
+
+    /**
+     * schedule the value, replacing its previous schedule
+     * values due at or before the last advanced time will be visited on the next advance
+     */
+    public void schedule(T value, long dueTime) {
+        Node<T> node = this.nodes.get(value);
+        if (node == null) {
+            node = new Node<>(value);
+            this.nodes.put(value, node);
+        } else {
+            node.unlink();
+        }
+
+        node.tick = Math.max(dueTime / this.resolution, this.currentTick + 1);
+        this.insert(node);
+    }
+
+    public boolean cancel(T value) {
+        final Node<T> node = this.nodes.remove(value);
+        if (node == null) {
+            return false;
+        }
+
+        node.unlink();
+        return true;
+    }
+
+    public boolean contains(T value) {
+        return this.nodes.containsKey(value);
+    }
+
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * move the wheel to the time and visit every value due until then
+     * the consumer may schedule the value again
+     */
+    public void advance(long now, Consumer<T> consumer) {
+        final long targetTick = now / this.resolution;
+        if (this.nodes.isEmpty()) {
+            this.currentTick = Math.max(this.currentTick, targetTick);
+            return;
+        }
+
+        final List<Node<T>> due = new ArrayList<>();
+        while (this.currentTick < targetTick) {
+            this.currentTick++;
+            this.cascade();
+
+            final Node<T> head = this.wheels[0][(int) (this.currentTick & WHEEL_MASK)];
+            while (head.next != head) {
+                final Node<T> node = head.next;
+                node.unlink();
+                this.nodes.remove(node.value);
+                due.add(node);
+            }
+
+            for (Node<T> node : due) {
+                consumer.accept(node.value);
+            }
+            due.clear();
+        }
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            // only cascade a level once every slot below it has been passed
+            if ((this.currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                return;
+            }
+
+            final Node<T> head = this.wheels[level][(int) ((this.currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+            Node<T> node = head.next;
+            head.next = head;
+            head.previous = head;
+            while (node != head) {
+                final Node<T> next = node.next;
+                node.next = null;
+                node.previous = null;
+                this.insert(node);
+                node = next;
+            }
+        }
+    }
+
+    private void insert(Node<T> node) {
+        final long delta = node.tick - this.currentTick;
+        // further than the top level can hold, park it in the top level to be cascaded again
+        final long tick = delta > MAX_DELTA ? this.currentTick + MAX_DELTA : node.tick;
+
+        int level = 0;
+        while (level < LEVELS - 1 && tick - this.currentTick >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+
+        node.link(this.wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)]);
+    }
+
+    private static class Node<T> {
+
+        private final T value;
+        private long tick;
+        private Node<T> previous;
+        private Node<T> next;
+
+        private Node(T value) {
+            this.value = value;
+        }
+
+        private static <T> Node<T> sentinel() {
+            final Node<T> node = new Node<>(null);
+            node.previous = node;
+            node.next = node;
+            return node;
+        }
+
+        private void link(Node<T> head) {
+            this.previous = head.previous;
+            this.next = head;
+            head.previous.next = this;
+            head.previous = this;
+        }
+
+        private void unlink() {
+            if (this.previous == null) {
+                return;
+            }
+
+            this.previous.next = this.next;
+            this.next.previous = this.previous;
+            this.previous = null;
+            this.next = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Areas bucketed by every cell of 4x4 chunks they overlap
+ * Readers never lock, each cell bucket is an immutable array replaced on write, so it must not be modified
+ * An area is identified by its instance, its bounds must not change while it is indexed
+ *
+ * @param <T> the area type
+ */
+public class ChunkCellIndex<T extends ChunkCellIndex.Area> {
+
+    public static final int CELL_SHIFT = 6;
+
+    private final Map<String, Map<Long, T[]>> worlds = new ConcurrentHashMap<>();
+    private final IntFunction<T[]> arrayFactory;
+    private final T[] empty;
+
+    public ChunkCellIndex(IntFunction<T[]> arrayFactory) {
+        this.arrayFactory = arrayFactory;
+        this.empty = arrayFactory.apply(0);
+    }
+
+    public synchronized void add(T area) {
+        final Map<Long, T[]> cells = this.worlds.computeIfAbsent(area.getWorldName(), ignored -> new ConcurrentHashMap<>());
+        for (int cellX = area.getMinX() >> CELL_SHIFT; cellX <= area.getMaxX() >> CELL_SHIFT; cellX++) {
+            for (int cellZ = area.getMinZ() >> CELL_SHIFT; cellZ <= area.getMaxZ() >> CELL_SHIFT; cellZ++) {
+                final long key = cellKey(cellX, cellZ);
+                final T[] previous = cells.getOrDefault(key, this.empty);
+                final T[] bucket = this.arrayFactory.apply(previous.length + 1);
+                System.arraycopy(previous, 0, bucket, 0, previous.length);
+                bucket[previous.length] = area;
+                cells.put(key, bucket);
+            }
+        }
+    }
+
+    public synchronized void remove(T area) {
+        final Map<Long, T[]> cells = this.worlds.get(area.getWorldName());
+        if (cells == null) {
+            return;
+        }
+
+        for (int cellX = area.getMinX() >> CELL_SHIFT; cellX <= area.getMaxX() >> CELL_SHIFT; cellX++) {
+            for (int cellZ = area.getMinZ() >> CELL_SHIFT; cellZ <= area.getMaxZ() >> CELL_SHIFT; cellZ++) {
+                final long key = cellKey(cellX, cellZ);
+                final T[] previous = cells.get(key);
+                final int position = previous != null ? indexOf(previous, area) : -1;
+                if (position == -1) {
+                    continue;
+                }
+                if (previous.length == 1) {
+                    cells.remove(key);
+                    continue;
+                }
+
+                final T[] bucket = this.arrayFactory.apply(previous.length - 1);
+                System.arraycopy(previous, 0, bucket, 0, position);
+                System.arraycopy(previous, position + 1, bucket, position, previous.length - position - 1);
+                cells.put(key, bucket);
+            }
+        }
+        if (cells.isEmpty()) {
+            this.worlds.remove(area.getWorldName());
+        }
+    }
+
+    /**
+     * @return the areas of the cell holding the block in insertion order, an empty array if there is none
+     */
+    public T[] getCell(String worldName, int x, int z) {
+        final Map<Long, T[]> cells = this.worlds.get(worldName);
+        if (cells == null) {
+            return this.empty;
+        }
+
+        final T[] bucket = cells.get(cellKey(x >> CELL_SHIFT, z >> CELL_SHIFT));
+        return bucket != null ? bucket : this.empty;
+    }
+
+    /**
+     * run the consumer for every non empty cell overlapping the area, bounds inclusive
+     * an area spanning several cells is passed once per cell
+     */
+    public void forEachCell(String worldName, int minX, int minZ, int maxX, int maxZ, Consumer<T[]> consumer) {
+        final Map<Long, T[]> cells = this.worlds.get(worldName);
+        if (cells == null) {
+            return;
+        }
+
+        for (int cellX = minX >> CELL_SHIFT; cellX <= maxX >> CELL_SHIFT; cellX++) {
+            for (int cellZ = minZ >> CELL_SHIFT; cellZ <= maxZ >> CELL_SHIFT; cellZ++) {
+                final T[] bucket = cells.get(cellKey(cellX, cellZ));
+                if (bucket != null) {
+                    consumer.accept(bucket);
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.worlds.isEmpty();
+    }
+
+    /**
+     * @return amount of cell buckets held, for memory diagnostics
+     */
+    public int getBucketCount() {
+        int count = 0;
+        for (Map<Long, T[]> cells : this.worlds.values()) {
+            count += cells.size();
+        }
+        return count;
+    }
+
+    private static int indexOf(Object[] bucket, Object area) {
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i] == area) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A rectangle of blocks in a world, bounds inclusive
+     */
+    public interface Area {
+
+        String getWorldName();
+
+        int getMinX();
+
+        int getMinZ();
+
+        int getMaxX();
+
+        int getMaxZ();
+
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.util.cuboid;
+
+import lombok.Getter;
+import org.fairy.bukkit.util.ChunkCellIndex;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Cuboids bucketed by every cell of 4x4 chunks they overlap, see {@link ChunkCellIndex}
+ * Bounds are captured when the cuboid is added, add it again after changing it
+ */
+public class CuboidIndex {
+
+    public static final Cuboid[] NONE = new Cuboid[0];
+
+    private final ChunkCellIndex<Entry> cells = new ChunkCellIndex<>(Entry[]::new);
+    private final Map<Cuboid, Entry> entries = new IdentityHashMap<>();
+
+    public synchronized void add(Cuboid cuboid) {
+        this.remove(cuboid);
+
+        final Entry entry = new Entry(cuboid, cuboid.getWorldName(),
+                Math.min(cuboid.getX1(), cuboid.getX2()), Math.min(cuboid.getY1(), cuboid.getY2()), Math.min(cuboid.getZ1(), cuboid.getZ2()),
+                Math.max(cuboid.getX1(), cuboid.getX2()), Math.max(cuboid.getY1(), cuboid.getY2()), Math.max(cuboid.getZ1(), cuboid.getZ2()));
+        this.cells.add(entry);
+        this.entries.put(cuboid, entry);
+    }
+
+    public synchronized boolean remove(Cuboid cuboid) {
+        final Entry entry = this.entries.remove(cuboid);
+        if (entry == null) {
+            return false;
+        }
+
+        this.cells.remove(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(Cuboid cuboid) {
+        return this.entries.containsKey(cuboid);
+    }
+
+    /**
+     * @return every cuboid containing the block, {@link #NONE} without allocating when there is none
+     */
+    public Cuboid[] getContaining(String worldName, int x, int y, int z) {
+        final Entry[] bucket = this.cells.getCell(worldName, x, z);
+
+        int count = 0;
+        for (Entry entry : bucket) {
+            if (entry.contains(x, y, z)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return NONE;
+        }
+
+        final Cuboid[] result = new Cuboid[count];
+        int index = 0;
+        for (Entry entry : bucket) {
+            if (entry.contains(x, y, z)) {
+                result[index++] = entry.cuboid;
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return this.cells.isEmpty();
+    }
+
+    @Getter
+    private static class Entry implements ChunkCellIndex.Area {
+
+        private final Cuboid cuboid;
+        private final String worldName;
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+        private Entry(Cuboid cuboid, String worldName, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            this.cuboid = cuboid;
+            this.worldName = worldName;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= this.minX && x <= this.maxX
+                    && y >= this.minY && y <= this.maxY
+                    && z >= this.minZ && z <= this.maxZ;
+        }
+
+    }
+
+}
@@ -41,7 +41,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.fairy.bukkit.util.LocaleRV;
-import org.fairy.bukkit.util.nms.NBTEditor;
+import org.fairy.bukkit.util.nms.ItemTagReader;
 import org.fairy.locale.Locales;
 import org.fairy.bukkit.util.items.behaviour.ItemBehaviour;
 import org.fairy.util.StringUtil;
@@ -66,6 +66,7 @@ public final class ImanityItem implements Terminable {
     private static final Map<Plugin, List<ImanityItem>> PLUGIN_TO_ITEMS = new ConcurrentHashMap<>();
     private static final AtomicInteger UNNAMED_ITEM_COUNTER = new AtomicInteger(0);
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final ItemTagReader ITEM_KEY_READER = ItemTagReader.create("imanity", "item", "id");
 
     public static ImanityItemBuilder builder(String id) {
         final Plugin plugin = ImanityItemBuilder.findPlugin(4);
@@ -93,11 +94,7 @@ public final class ImanityItem implements Terminable {
             return null;
         }
 
-        if (!NBTEditor.contains(itemStack, "imanity", "item", "id")) {
-            return null;
-        }
-
-        return NBTEditor.getString(itemStack, "imanity", "item", "id");
+        return ITEM_KEY_READER.read(itemStack);
     }
 
     private Plugin plugin;
@@ -43,6 +43,7 @@ import java.util.List;
 
 @Service(name = "item:localization")
 @ServiceDependency(dependencies = "protocollib", type = @DependencyType(ServiceDependencyType.SUB_DISABLE))
+@InitializeOnMainThread
 public class ItemLocalization {
 
     public static boolean PACKET_BASED_ITEM_LOCALIZATION = false;
@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.util.nms;
+
+import com.google.common.collect.MapMaker;
+import org.fairy.bukkit.reflection.resolver.minecraft.NMSClassResolver;
+import org.fairy.bukkit.reflection.resolver.minecraft.OBCClassResolver;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Reads a string tag of items without copying them
+ * A CraftItemStack is read straight from the NMS item it wraps, any other stack goes through the fallback
+ * and the result is cached by identity for as long as the stack's hash code stays the same
+ */
+public final class ItemTagReader {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final int TAG_COMPOUND = 10;
+    private static final int TAG_STRING = 8;
+
+    /**
+     * Create a reader for the running server, only using the fallback if the NMS accessors couldn't be resolved
+     *
+     * @param keys the path of compounds followed by the key of the string tag
+     */
+    public static ItemTagReader create(String... keys) {
+        final Function<Object, String> fallback = itemStack -> {
+            if (!NBTEditor.contains(itemStack, (Object[]) keys)) {
+                return null;
+            }
+            return NBTEditor.getString(itemStack, (Object[]) keys);
+        };
+
+        try {
+            final Class<?> craftItemStackClass = new OBCClassResolver().resolve("inventory.CraftItemStack");
+            final Class<?> itemStackClass = new NMSClassResolver().resolve("ItemStack");
+            final Class<?> compoundClass = new NMSClassResolver().resolve("NBTTagCompound");
+            return of(craftItemStackClass, itemStackClass, compoundClass, fallback, keys);
+        } catch (Throwable throwable) {
+            return new ItemTagReader(null, null, null, null, null, null, fallback, keys);
+        }
+    }
+
+    /**
+     * @param craftItemStackClass the stack type holding the item in a {@code handle} field
+     * @param itemStackClass the item type with {@code getTag()}
+     * @param compoundClass the compound type with {@code hasKeyOfType(String, int)}, {@code getCompound(String)} and {@code getString(String)}
+     */
+    public static ItemTagReader of(Class<?> craftItemStackClass, Class<?> itemStackClass, Class<?> compoundClass,
+                                   Function<Object, String> fallback, String... keys) throws ReflectiveOperationException {
+        final Field handleField = craftItemStackClass.getDeclaredField("handle");
+        handleField.setAccessible(true);
+
+        return new ItemTagReader(
+                craftItemStackClass,
+                LOOKUP.unreflectGetter(handleField)
+                        .asType(MethodType.methodType(Object.class, Object.class)),
+                unreflect(itemStackClass.getMethod("getTag"))
+                        .asType(MethodType.methodType(Object.class, Object.class)),
+                unreflect(compoundClass.getMethod("hasKeyOfType", String.class, int.class))
+                        .asType(MethodType.methodType(boolean.class, Object.class, String.class, int.class)),
+                unreflect(compoundClass.getMethod("getCompound", String.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, String.class)),
+                unreflect(compoundClass.getMethod("getString", String.class))
+                        .asType(MethodType.methodType(String.class, Object.class, String.class)),
+                fallback,
+                keys
+        );
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        method.setAccessible(true);
+        return LOOKUP.unreflect(method);
+    }
+
+    private final Class<?> craftItemStackClass;
+    private final MethodHandle getHandle;
+    private final MethodHandle getTag;
+    private final MethodHandle hasKeyOfType;
+    private final MethodHandle getCompound;
+    private final MethodHandle getString;
+
+    private final Function<Object, String> fallback;
+    private final ConcurrentMap<Object, CachedTag> cache = new MapMaker().weakKeys().makeMap();
+
+    private final String[] path;
+    private final String key;
+
+    private ItemTagReader(Class<?> craftItemStackClass,
+                          MethodHandle getHandle,
+                          MethodHandle getTag,
+                          MethodHandle hasKeyOfType,
+                          MethodHandle getCompound,
+                          MethodHandle getString,
+                          Function<Object, String> fallback,
+                          String... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key is required");
+        }
+        this.craftItemStackClass = craftItemStackClass;
+        this.getHandle = getHandle;
+        this.getTag = getTag;
+        this.hasKeyOfType = hasKeyOfType;
+        this.getCompound = getCompound;
+        this.getString = getString;
+        this.fallback = fallback;
+        this.path = new String[keys.length - 1];
+        System.arraycopy(keys, 0, this.path, 0, this.path.length);
+        this.key = keys[keys.length - 1];
+    }
+
+    /**
+     * @return whether stacks wrapping an NMS item are read without copying
+     */
+    public boolean isDirect() {
+        return this.craftItemStackClass != null;
+    }
+
+    @Nullable
+    public String read(Object itemStack) {
+        if (itemStack == null) {
+            return null;
+        }
+
+        if (this.craftItemStackClass != null && this.craftItemStackClass.isInstance(itemStack)) {
+            try {
+                return this.readHandle((Object) this.getHandle.invokeExact(itemStack));
+            } catch (Throwable throwable) {
+                throw new IllegalStateException("Failed to read the tag of " + itemStack, throwable);
+            }
+        }
+
+        final int hashCode = itemStack.hashCode();
+        final CachedTag cached = this.cache.get(itemStack);
+        if (cached != null && cached.hashCode == hashCode) {
+            return cached.value;
+        }
+
+        final String value = this.fallback.apply(itemStack);
+        this.cache.put(itemStack, new CachedTag(hashCode, value));
+        return value;
+    }
+
+    private String readHandle(Object handle) throws Throwable {
+        if (handle == null) {
+            return null;
+        }
+
+        Object compound = (Object) this.getTag.invokeExact(handle);
+        if (compound == null) {
+            return null;
+        }
+
+        for (String name : this.path) {
+            if (!(boolean) this.hasKeyOfType.invokeExact(compound, name, TAG_COMPOUND)) {
+                return null;
+            }
+            compound = (Object) this.getCompound.invokeExact(compound, name);
+        }
+
+        if (!(boolean) this.hasKeyOfType.invokeExact(compound, this.key, TAG_STRING)) {
+            return null;
+        }
+        return (String) this.getString.invokeExact(compound, this.key);
+    }
+
+    private static class CachedTag {
+
+        private final int hashCode;
+        private final String value;
+
+        private CachedTag(int hashCode, String value) {
+            this.hashCode = hashCode;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -29,12 +29,14 @@ import org.fairy.bean.PreInitialize;
 import org.fairy.bukkit.Imanity;
 import org.fairy.bean.ComponentHolder;
 import org.fairy.bean.ComponentRegistry;
+import org.fairy.bean.InitializeOnMainThread;
 import org.fairy.bean.Service;
 
 import java.util.LinkedList;
 import java.util.List;
 
 @Service(name = "visibility")
+@InitializeOnMainThread
 public class VisibilityService {
 
     private List<VisibilityAdapter> visibilityAdapters;
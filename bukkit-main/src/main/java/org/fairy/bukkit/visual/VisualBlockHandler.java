@@ -24,8 +24,6 @@
 
 package org.fairy.bukkit.visual;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.base.Predicate;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
@@ -42,8 +40,6 @@ import org.bukkit.util.Vector;
 import org.fairy.bukkit.Imanity;
 import org.fairy.bukkit.player.movement.MovementListener;
 import org.fairy.bukkit.util.BlockPosition;
-import org.fairy.bukkit.util.CoordXZ;
-import org.fairy.bukkit.util.CoordinatePair;
 import org.fairy.bukkit.visual.event.PreHandleVisualClaimEvent;
 import org.fairy.bukkit.visual.event.PreHandleVisualEvent;
 import org.fairy.bukkit.visual.type.VisualType;
@@ -63,26 +59,13 @@ public class VisualBlockHandler implements TaskRunnable {
     private static final Logger LOGGER = LogManager.getLogger(VisualBlockHandler.class);
 
     private final Table<UUID, VisualPosition, VisualBlock> table = HashBasedTable.create();
-    private final LoadingCache<CoordinatePair, Optional<VisualBlockClaim>> claimCache;
-    private final Table<CoordinatePair, CoordXZ, VisualBlockClaim> claimPositionTable;
+    private final VisualClaimIndex claimIndex = new VisualClaimIndex();
     private final Queue<VisualTask> visualTasks = new ConcurrentLinkedQueue<>();
 
     private final VisualBlockGenerator mainGenerator;
     private final Map<AbstractPlugin, List<VisualBlockGenerator>> dynamicVisualGenerator = new ConcurrentHashMap<>();
 
     public VisualBlockHandler() {
-        this.claimPositionTable = HashBasedTable.create();
-        this.claimCache = Caffeine.newBuilder()
-                .maximumSize(8000)
-                .build(coordinatePair -> {
-                    final int chunkX = coordinatePair.getX() >> 4;
-                    final int chunkZ = coordinatePair.getZ() >> 4;
-                    final int posX = coordinatePair.getX() % 16;
-                    final int posZ = coordinatePair.getZ() % 16;
-                    synchronized (claimPositionTable) {
-                        return Optional.ofNullable(claimPositionTable.get(new CoordinatePair(coordinatePair.getWorldName(), chunkX, chunkZ), new CoordXZ((byte) posX, (byte) posZ)));
-                    }
-                });
         Task.asyncRepeated(this, 1L);
         Imanity.registerMovementListener(new MovementListener() {
             @Override
@@ -98,47 +81,20 @@ public class VisualBlockHandler implements TaskRunnable {
 
             final int toX = location.getBlockX();
             final int toZ = location.getBlockZ();
+            final String worldName = location.getWorld().getName();
 
-            final Collection<VisualBlockClaim> claimCache = new HashSet<>();
-
-            for (int x = toX - 7; x < toX + 7; x++) {
-                for (int z = toZ - 7; z < toZ + 7; z++) {
-                    final VisualBlockClaim color = getTeamAt(location.getWorld(), x, z);
-                    PreHandleVisualClaimEvent claimEvent = new PreHandleVisualClaimEvent(player, color);
+            final Collection<VisualBlockClaim> claims = new HashSet<>();
+            this.claimIndex.query(worldName, toX - 7, toZ - 7, toX + 7, toZ + 7, claims);
 
-                    Imanity.callEvent(claimEvent);
+            for (VisualBlockClaim claim : claims) {
+                PreHandleVisualClaimEvent claimEvent = new PreHandleVisualClaimEvent(player, claim);
+                Imanity.callEvent(claimEvent);
 
-                    if (color != null && !claimEvent.isCancelled()) {
-                        claimCache.add(color);
-                    }
+                if (claimEvent.isCancelled()) {
+                    continue;
                 }
-            }
 
-            if (!claimCache.isEmpty()) {
-                final Iterator<VisualBlockClaim> claims = claimCache.iterator();
-                while (claims.hasNext()) {
-
-                    VisualBlockClaim claim = claims.next();
-                    VisualType type = claim.getType();
-
-                    for (final Vector edge : getEdges(claim)) {
-                        if (Math.abs(edge.getBlockX() - toX) > 7) {
-                            continue;
-                        }
-                        if (Math.abs(edge.getBlockZ() - toZ) > 7) {
-                            continue;
-                        }
-                        final Location location2 = edge.toLocation(location.getWorld());
-                        if (location2 == null) {
-                            continue;
-                        }
-                        for (int y = minHeight; y <= maxHeight; y++) {
-                            positions.add(new VisualPosition(location2.getBlockX(), y, location2.getBlockZ(), player.getWorld().getName(), type));
-                        }
-                    }
-
-                    claims.remove();
-                }
+                this.addEdges(claim, worldName, toX - 7, toZ - 7, toX + 7, toZ + 7, minHeight, maxHeight, positions);
             }
         };
 
@@ -169,22 +125,11 @@ public class VisualBlockHandler implements TaskRunnable {
     }
 
     public void cacheClaim(VisualBlockClaim claim) {
-        final World world = claim.getWorld();
-        final int minX = Math.min(claim.getMaxX(), claim.getMinX());
-        final int maxX = Math.max(claim.getMaxX(), claim.getMinX());
-        final int minZ = Math.min(claim.getMaxZ(), claim.getMinZ());
-        final int maxZ = Math.max(claim.getMaxZ(), claim.getMinZ());
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                final CoordinatePair worldPosition = new CoordinatePair(world, x, z);
-                final CoordinatePair chunkPair = new CoordinatePair(world, x >> 4, z >> 4);
-                final CoordXZ chunkPosition = new CoordXZ((byte) (x % 16), (byte) (z % 16));
-                synchronized (claimPositionTable) {
-                    claimPositionTable.put(chunkPair, chunkPosition, claim);
-                }
-                claimCache.invalidate(worldPosition);
-            }
-        }
+        this.claimIndex.add(claim.getWorld().getName(), claim);
+    }
+
+    public boolean uncacheClaim(VisualBlockClaim claim) {
+        return this.claimIndex.remove(claim);
     }
 
     public void clearAll(final Player player, final boolean send) {
@@ -272,22 +217,11 @@ public class VisualBlockHandler implements TaskRunnable {
     }
 
     public VisualBlockClaim getTeamAt(final World world, final int x, final int z) {
-        try {
-            return claimCache.get(new CoordinatePair(world, x, z)).orElse(null);
-        } catch (final Exception exception) {
-            exception.printStackTrace();
-            final int chunkX = x >> 4;
-            final int chunkZ = z >> 4;
-            final byte posX = (byte) (x % 16);
-            final byte posZ = (byte) (z % 16);
-            synchronized (claimPositionTable) {
-                return claimPositionTable.get(new CoordinatePair(world, chunkX, chunkZ), new CoordXZ(posX, posZ));
-            }
-        }
+        return this.claimIndex.get(world.getName(), x, z);
     }
 
     public void handlePositionChanged(final Player player, final Location location) {
-        if (this.claimPositionTable.isEmpty() && this.dynamicVisualGenerator.isEmpty()) {
+        if (this.claimIndex.isEmpty() && this.dynamicVisualGenerator.isEmpty()) {
             return;
         }
 
@@ -341,6 +275,38 @@ public class VisualBlockHandler implements TaskRunnable {
 
     }
 
+    private void addEdges(VisualBlockClaim claim, String worldName, int fromX, int fromZ, int toX, int toZ, int minHeight, int maxHeight, Collection<VisualPosition> positions) {
+        final int minX = Math.min(claim.getMinX(), claim.getMaxX());
+        final int maxX = Math.max(claim.getMinX(), claim.getMaxX());
+        final int minZ = Math.min(claim.getMinZ(), claim.getMaxZ());
+        final int maxZ = Math.max(claim.getMinZ(), claim.getMaxZ());
+        final VisualType type = claim.getType();
+
+        // only walk the part of the outline inside the view window
+        for (int x = Math.max(minX, fromX); x <= Math.min(maxX, toX); x++) {
+            if (minZ >= fromZ && minZ <= toZ) {
+                this.addColumn(x, minZ, worldName, type, minHeight, maxHeight, positions);
+            }
+            if (maxZ >= fromZ && maxZ <= toZ) {
+                this.addColumn(x, maxZ, worldName, type, minHeight, maxHeight, positions);
+            }
+        }
+        for (int z = Math.max(minZ + 1, fromZ); z <= Math.min(maxZ - 1, toZ); z++) {
+            if (minX >= fromX && minX <= toX) {
+                this.addColumn(minX, z, worldName, type, minHeight, maxHeight, positions);
+            }
+            if (maxX >= fromX && maxX <= toX) {
+                this.addColumn(maxX, z, worldName, type, minHeight, maxHeight, positions);
+            }
+        }
+    }
+
+    private void addColumn(int x, int z, String worldName, VisualType type, int minHeight, int maxHeight, Collection<VisualPosition> positions) {
+        for (int y = minHeight; y <= maxHeight; y++) {
+            positions.add(new VisualPosition(x, y, z, worldName, type));
+        }
+    }
+
     public void addVisualTask(Player player, VisualTask task) {
         this.visualTasks.removeIf(otherTask -> otherTask.getPlayer() == player);
         this.visualTasks.add(task);
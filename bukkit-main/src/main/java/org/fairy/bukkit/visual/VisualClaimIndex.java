@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bukkit.visual;
+
+import lombok.Getter;
+import org.fairy.bukkit.util.ChunkCellIndex;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Claim rectangles bucketed by every cell of 4x4 chunks they overlap, see {@link ChunkCellIndex}
+ * When claims overlap the latest cached claim wins
+ */
+public class VisualClaimIndex {
+
+    private final ChunkCellIndex<Entry> cells = new ChunkCellIndex<>(Entry[]::new);
+    private final Map<VisualBlockClaim, Entry> entries = new IdentityHashMap<>();
+
+    public synchronized void add(String worldName, VisualBlockClaim claim) {
+        this.remove(claim);
+
+        final Entry entry = new Entry(claim, worldName,
+                Math.min(claim.getMinX(), claim.getMaxX()),
+                Math.max(claim.getMinX(), claim.getMaxX()),
+                Math.min(claim.getMinZ(), claim.getMaxZ()),
+                Math.max(claim.getMinZ(), claim.getMaxZ()));
+        this.cells.add(entry);
+        this.entries.put(claim, entry);
+    }
+
+    public synchronized boolean remove(VisualBlockClaim claim) {
+        final Entry entry = this.entries.remove(claim);
+        if (entry == null) {
+            return false;
+        }
+
+        this.cells.remove(entry);
+        return true;
+    }
+
+    public VisualBlockClaim get(String worldName, int x, int z) {
+        final Entry[] bucket = this.cells.getCell(worldName, x, z);
+        for (int i = bucket.length - 1; i >= 0; i--) {
+            final Entry entry = bucket[i];
+            if (entry.contains(x, z)) {
+                return entry.claim;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * collect every claim overlapping the area, bounds inclusive
+     */
+    public void query(String worldName, int minX, int minZ, int maxX, int maxZ, Collection<VisualBlockClaim> result) {
+        this.cells.forEachCell(worldName, minX, minZ, maxX, maxZ, bucket -> {
+            for (Entry entry : bucket) {
+                if (entry.intersects(minX, minZ, maxX, maxZ)) {
+                    result.add(entry.claim);
+                }
+            }
+        });
+    }
+
+    public boolean isEmpty() {
+        return this.cells.isEmpty();
+    }
+
+    /**
+     * @return amount of cell buckets held, for memory diagnostics
+     */
+    public int getBucketCount() {
+        return this.cells.getBucketCount();
+    }
+
+    @Getter
+    private static class Entry implements ChunkCellIndex.Area {
+
+        private final VisualBlockClaim claim;
+        private final String worldName;
+        private final int minX, maxX, minZ, maxZ;
+
+        private Entry(VisualBlockClaim claim, String worldName, int minX, int maxX, int minZ, int maxZ) {
+            this.claim = claim;
+            this.worldName = worldName;
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+        }
+
+        private boolean contains(int x, int z) {
+            return x >= this.minX && x <= this.maxX && z >= this.minZ && z <= this.maxZ;
+        }
+
+        private boolean intersects(int minX, int minZ, int maxX, int maxZ) {
+            return this.minX <= maxX && this.maxX >= minX && this.minZ <= maxZ && this.maxZ >= minZ;
+        }
+
+    }
+
+}
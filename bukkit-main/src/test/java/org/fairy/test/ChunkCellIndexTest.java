@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.fairy.bukkit.util.ChunkCellIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkCellIndexTest {
+
+    private static final String WORLD = "world";
+
+    @Test
+    public void removingAnAbsentAreaKeepsTheBucket() {
+        ChunkCellIndex<Box> index = new ChunkCellIndex<>(Box[]::new);
+        Box first = new Box(0, 0, 10, 10);
+        Box second = new Box(5, 5, 20, 20);
+        index.add(first);
+        index.add(second);
+
+        index.remove(new Box(0, 0, 10, 10));
+        index.remove(new Box(0, 0, 300, 300));
+        Assert.assertArrayEquals(new Box[] { first, second }, index.getCell(WORLD, 5, 5));
+
+        index.remove(first);
+        Assert.assertArrayEquals(new Box[] { second }, index.getCell(WORLD, 5, 5));
+        index.remove(first);
+        Assert.assertArrayEquals(new Box[] { second }, index.getCell(WORLD, 5, 5));
+
+        index.remove(second);
+        Assert.assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void removeKeepsTheOrderOfOtherAreas() {
+        ChunkCellIndex<Box> index = new ChunkCellIndex<>(Box[]::new);
+        Box first = new Box(0, 0, 1, 1);
+        Box second = new Box(0, 0, 2, 2);
+        Box third = new Box(0, 0, 3, 3);
+        index.add(first);
+        index.add(second);
+        index.add(third);
+
+        index.remove(second);
+        Assert.assertArrayEquals(new Box[] { first, third }, index.getCell(WORLD, 0, 0));
+        Assert.assertEquals(1, index.getBucketCount());
+    }
+
+    @Test
+    public void areasSpanEveryCellTheyOverlap() {
+        ChunkCellIndex<Box> index = new ChunkCellIndex<>(Box[]::new);
+        Box box = new Box(-1, -1, 63, 63);
+        index.add(box);
+
+        Assert.assertEquals(4, index.getBucketCount());
+        Assert.assertArrayEquals(new Box[] { box }, index.getCell(WORLD, -1, 63));
+        Assert.assertEquals(0, index.getCell(WORLD, 64, 0).length);
+        Assert.assertEquals(0, index.getCell("world_nether", 0, 0).length);
+
+        index.remove(box);
+        Assert.assertEquals(0, index.getBucketCount());
+    }
+
+    private static class Box implements ChunkCellIndex.Area {
+
+        private final int minX, minZ, maxX, maxZ;
+
+        private Box(int minX, int minZ, int maxX, int maxZ) {
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public String getWorldName() {
+            return WORLD;
+        }
+
+        @Override
+        public int getMinX() {
+            return this.minX;
+        }
+
+        @Override
+        public int getMinZ() {
+            return this.minZ;
+        }
+
+        @Override
+        public int getMaxX() {
+            return this.maxX;
+        }
+
+        @Override
+        public int getMaxZ() {
+            return this.maxZ;
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.bukkit.World;
+import org.fairy.bukkit.util.cuboid.Cuboid;
+import org.fairy.bukkit.util.cuboid.CuboidIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class CuboidIndexTest {
+
+    private static final World WORLD = newWorld("world");
+    private static final World NETHER = newWorld("world_nether");
+
+    @Test
+    public void returnsEveryContainingCuboid() {
+        CuboidIndex index = new CuboidIndex();
+        Cuboid outer = new Cuboid(WORLD, -100, 0, -100, 100, 255, 100);
+        Cuboid inner = new Cuboid(WORLD, 5, 60, 5, -5, 70, -5);
+        index.add(outer);
+        index.add(inner);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(outer, inner)), new HashSet<>(Arrays.asList(index.getContaining("world", 0, 64, 0))));
+        Assert.assertArrayEquals(new Cuboid[] { outer }, index.getContaining("world", 0, 71, 0));
+        Assert.assertArrayEquals(new Cuboid[] { outer }, index.getContaining("world", -6, 64, 0));
+        Assert.assertSame(CuboidIndex.NONE, index.getContaining("world", 101, 64, 0));
+        Assert.assertSame(CuboidIndex.NONE, index.getContaining("world_nether", 0, 64, 0));
+    }
+
+    @Test
+    public void removeOnlyDropsThatCuboid() {
+        CuboidIndex index = new CuboidIndex();
+        Cuboid first = new Cuboid(WORLD, 0, 0, 0, 10, 10, 10);
+        Cuboid second = new Cuboid(WORLD, 0, 0, 0, 10, 10, 10);
+        Cuboid other = new Cuboid(NETHER, 0, 0, 0, 10, 10, 10);
+        index.add(first);
+        index.add(second);
+        index.add(other);
+
+        Assert.assertTrue(index.remove(first));
+        Assert.assertFalse(index.remove(first));
+        Assert.assertFalse(index.contains(first));
+        Assert.assertTrue(index.contains(second));
+        Assert.assertArrayEquals(new Cuboid[] { second }, index.getContaining("world", 5, 5, 5));
+        Assert.assertArrayEquals(new Cuboid[] { other }, index.getContaining("world_nether", 5, 5, 5));
+
+        Assert.assertTrue(index.remove(second));
+        Assert.assertTrue(index.remove(other));
+        Assert.assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void addingAgainTakesTheNewBounds() {
+        CuboidIndex index = new CuboidIndex();
+        Cuboid cuboid = new Cuboid(WORLD, 0, 0, 0, 10, 10, 10);
+        index.add(cuboid);
+
+        cuboid.setX1(200);
+        cuboid.setX2(210);
+        index.add(cuboid);
+
+        Assert.assertSame(CuboidIndex.NONE, index.getContaining("world", 5, 5, 5));
+        Assert.assertArrayEquals(new Cuboid[] { cuboid }, index.getContaining("world", 205, 5, 5));
+        Assert.assertTrue(index.remove(cuboid));
+        Assert.assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void lookupsMatchLinearScan() {
+        CuboidIndex index = new CuboidIndex();
+        List<Cuboid> cuboids = new ArrayList<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            int x = random.nextInt(4_000) - 2_000;
+            int y = random.nextInt(200);
+            int z = random.nextInt(4_000) - 2_000;
+            Cuboid cuboid = new Cuboid(WORLD, x, y, z, x + random.nextInt(300), y + random.nextInt(50), z + random.nextInt(300));
+            cuboids.add(cuboid);
+            index.add(cuboid);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            int x = random.nextInt(5_000) - 2_500;
+            int y = random.nextInt(256);
+            int z = random.nextInt(5_000) - 2_500;
+
+            Set<Cuboid> expected = new HashSet<>();
+            for (Cuboid cuboid : cuboids) {
+                if (x >= cuboid.getX1() && x <= cuboid.getX2()
+                        && y >= cuboid.getY1() && y <= cuboid.getY2()
+                        && z >= cuboid.getZ1() && z <= cuboid.getZ2()) {
+                    expected.add(cuboid);
+                }
+            }
+            Assert.assertEquals(expected, new HashSet<>(Arrays.asList(index.getContaining("world", x, y, z))));
+        }
+    }
+
+    private static World newWorld(String name) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class[] { World.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+}
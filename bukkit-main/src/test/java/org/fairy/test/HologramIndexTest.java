@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.Location;
+import org.fairy.bukkit.hologram.Hologram;
+import org.fairy.bukkit.hologram.HologramIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class HologramIndexTest {
+
+    private static final double RADIUS = 60;
+
+    @Test
+    public void findsHologramsWithinRadius() {
+        HologramIndex index = new HologramIndex();
+        Hologram near = hologram(index, 10, 10);
+        Hologram edge = hologram(index, -60, 0);
+        Hologram far = hologram(index, 50, 50);
+
+        Set<Hologram> result = near(index, 0, 0);
+        Assert.assertTrue(result.contains(near));
+        Assert.assertTrue(result.contains(edge));
+        Assert.assertFalse(result.contains(far));
+    }
+
+    @Test
+    public void relocatesAndRemoves() {
+        HologramIndex index = new HologramIndex();
+        Hologram hologram = hologram(index, 0, 0);
+        int version = index.getVersion();
+
+        hologram.getLocation().setX(5);
+        index.relocate(hologram);
+        Assert.assertEquals("Moving inside the same cell keeps the version", version, index.getVersion());
+
+        hologram.getLocation().setX(500);
+        index.relocate(hologram);
+        Assert.assertNotEquals(version, index.getVersion());
+        Assert.assertTrue(near(index, 0, 0).isEmpty());
+        Assert.assertTrue(near(index, 500, 0).contains(hologram));
+
+        index.remove(hologram);
+        Assert.assertNull(index.get(hologram.getId()));
+        Assert.assertTrue(near(index, 500, 0).isEmpty());
+    }
+
+    @Test
+    public void incrementalScanFindsEveryNewHologram() {
+        HologramIndex index = new HologramIndex();
+        Random random = new Random(0);
+        List<Hologram> holograms = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            holograms.add(hologram(index, random.nextInt(1_000) - 500, random.nextInt(1_000) - 500));
+        }
+
+        double x = 0, z = 0;
+        Set<Hologram> rendered = near(index, x, z);
+        for (int step = 0; step < 500; step++) {
+            double nextX = x + random.nextInt(21) - 10, nextZ = z + random.nextInt(21) - 10;
+
+            // what the player keeps after dropping the far holograms, plus the new scan
+            Set<Hologram> next = new HashSet<>();
+            for (Hologram hologram : rendered) {
+                if (index.isInRange(hologram, nextX, nextZ, RADIUS)) {
+                    next.add(hologram);
+                }
+            }
+            index.forEachNear(nextX, nextZ, RADIUS, x, z, next::add);
+
+            Assert.assertEquals(near(index, nextX, nextZ), next);
+            rendered = next;
+            x = nextX;
+            z = nextZ;
+        }
+    }
+
+    private static Hologram hologram(HologramIndex index, double x, double z) {
+        Hologram hologram = new Hologram(new Location(null, x, 64, z), null);
+        index.add(hologram);
+        return hologram;
+    }
+
+    private static Set<Hologram> near(HologramIndex index, double x, double z) {
+        Set<Hologram> result = new HashSet<>();
+        index.forEachNear(x, z, RADIUS, result::add);
+        return result;
+    }
+
+}
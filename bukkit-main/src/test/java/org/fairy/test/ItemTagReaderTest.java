@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.bukkit.util.nms.ItemTagReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class ItemTagReaderTest {
+
+    @Test
+    public void readsWithoutCopying() throws Exception {
+        ItemTagReader reader = reader(itemStack -> null);
+        Assert.assertTrue(reader.isDirect());
+
+        Assert.assertEquals("sword", reader.read(FakeCraftStack.tagged("sword")));
+        Assert.assertNull(reader.read(new FakeCraftStack(new FakeItem(null))));
+        Assert.assertNull(reader.read(new FakeCraftStack(null)));
+
+        FakeCompound wrongType = new FakeCompound();
+        wrongType.values.put("imanity", "not a compound");
+        Assert.assertNull(reader.read(new FakeCraftStack(new FakeItem(wrongType))));
+    }
+
+    @Test
+    public void cachesOtherStacksByIdentity() throws Exception {
+        AtomicInteger fallbackCalls = new AtomicInteger();
+        ItemTagReader reader = reader(itemStack -> {
+            fallbackCalls.incrementAndGet();
+            return ((PlainStack) itemStack).id;
+        });
+
+        PlainStack stack = new PlainStack("bow");
+        Assert.assertEquals("bow", reader.read(stack));
+        Assert.assertEquals("bow", reader.read(stack));
+        Assert.assertEquals(1, fallbackCalls.get());
+
+        // an equal but different stack is not shared
+        Assert.assertEquals("bow", reader.read(new PlainStack("bow")));
+        Assert.assertEquals(2, fallbackCalls.get());
+
+        // changing the stack changes its hash code, so it is read again
+        stack.id = "arrow";
+        Assert.assertEquals("arrow", reader.read(stack));
+        Assert.assertEquals(3, fallbackCalls.get());
+    }
+
+    private static ItemTagReader reader(Function<Object, String> fallback) throws ReflectiveOperationException {
+        return ItemTagReader.of(FakeCraftStack.class, FakeItem.class, FakeCompound.class, fallback, "imanity", "item", "id");
+    }
+
+    public static class FakeCraftStack {
+
+        private final FakeItem handle;
+
+        public FakeCraftStack(FakeItem handle) {
+            this.handle = handle;
+        }
+
+        public static FakeCraftStack tagged(String id) {
+            FakeCompound item = new FakeCompound();
+            item.values.put("id", id);
+            FakeCompound imanity = new FakeCompound();
+            imanity.values.put("item", item);
+            FakeCompound tag = new FakeCompound();
+            tag.values.put("imanity", imanity);
+            return new FakeCraftStack(new FakeItem(tag));
+        }
+
+    }
+
+    public static class FakeItem {
+
+        private final FakeCompound tag;
+
+        public FakeItem(FakeCompound tag) {
+            this.tag = tag;
+        }
+
+        public FakeCompound getTag() {
+            return this.tag;
+        }
+
+    }
+
+    public static class FakeCompound {
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        public boolean hasKeyOfType(String key, int type) {
+            final Object value = this.values.get(key);
+            return type == 10 ? value instanceof FakeCompound : type == 8 && value instanceof String;
+        }
+
+        public FakeCompound getCompound(String key) {
+            final Object value = this.values.get(key);
+            return value instanceof FakeCompound ? (FakeCompound) value : new FakeCompound();
+        }
+
+        public String getString(String key) {
+            final Object value = this.values.get(key);
+            return value instanceof String ? (String) value : "";
+        }
+
+    }
+
+    private static class PlainStack {
+
+        private String id;
+
+        private PlainStack(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PlainStack && ((PlainStack) obj).id.equals(this.id);
+        }
+
+    }
+
+}
@@ -0,0 +1,410 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
+import org.fairy.bukkit.Imanity;
+import org.fairy.bukkit.listener.events.EventSubscription;
+import org.fairy.bukkit.menu.Button;
+import org.fairy.bukkit.menu.Menu;
+import org.fairy.timings.TimingService;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+public class MenuTest {
+
+    private static final int SIZE = 9;
+
+    private static MenuTest current;
+    private static Server previousServer;
+    private static Plugin previousPlugin;
+
+    private final List<Integer> setSlots = new ArrayList<>();
+    private final ItemStack[] contents = new ItemStack[SIZE];
+    private Inventory topInventory;
+
+    @BeforeClass
+    public static void setupServer() throws Exception {
+        TimingService timingService = new TimingService();
+        Field timingType = TimingService.class.getDeclaredField("timingType");
+        timingType.setAccessible(true);
+        timingType.set(timingService, Enum.valueOf(timingType.getType().asSubclass(Enum.class), "EMPTY"));
+
+        Field timings = EventSubscription.class.getDeclaredField("TIMING_SERVICE");
+        timings.setAccessible(true);
+        timings.set(null, timingService);
+
+        // the menu creates its inventory and compares items through the server
+        previousServer = Bukkit.getServer();
+        setServer(newServer());
+        previousPlugin = Imanity.PLUGIN;
+        Imanity.PLUGIN = newPlugin();
+    }
+
+    @Before
+    public void setCurrent() {
+        current = this;
+    }
+
+    @AfterClass
+    public static void restoreServer() throws Exception {
+        setServer(previousServer);
+        Imanity.PLUGIN = previousPlugin;
+    }
+
+    @Test
+    public void onlyChangedSlotsAreSet() {
+        TestMenu menu = new TestMenu();
+        Item first = new Item(Material.STONE, 1);
+        Item second = new Item(Material.DIRT, 2);
+        menu.buttons.put(0, first);
+        menu.buttons.put(1, second);
+        menu.open(this.newPlayer());
+        Assert.assertEquals(2, this.setSlots.size());
+
+        // the same buttons are skipped without being built
+        this.setSlots.clear();
+        menu.render();
+        Assert.assertTrue(this.setSlots.isEmpty());
+        Assert.assertEquals(1, first.builds);
+
+        // a new button building an equal item is built but not set
+        Item unhashed = new Item(Material.DIRT, 0);
+        menu.buttons.put(1, unhashed);
+        menu.render();
+        Assert.assertEquals(1, unhashed.builds);
+        Assert.assertTrue(this.setSlots.isEmpty());
+
+        // a different item is set, and a removed button clears its slot
+        menu.buttons.put(1, new Item(Material.GRASS, 3));
+        menu.buttons.remove(0);
+        menu.render();
+        Assert.assertEquals(2, this.setSlots.size());
+        Assert.assertTrue(this.setSlots.contains(1));
+        Assert.assertNull(this.contents[0]);
+        Assert.assertEquals(Material.GRASS, this.contents[1].getType());
+
+        menu.remove();
+    }
+
+    @Test
+    public void sameContentHashIsNotRebuilt() {
+        TestMenu menu = new TestMenu();
+        menu.buttons.put(0, new Item(Material.STONE, 1));
+        menu.open(this.newPlayer());
+
+        this.setSlots.clear();
+        Item same = new Item(Material.STONE, 1);
+        menu.buttons.put(0, same);
+        menu.render();
+        Assert.assertEquals(0, same.builds);
+        Assert.assertTrue(this.setSlots.isEmpty());
+
+        Item changed = new Item(Material.DIRT, 2);
+        menu.buttons.put(0, changed);
+        menu.render();
+        Assert.assertEquals(1, changed.builds);
+        Assert.assertEquals(1, this.setSlots.size());
+
+        menu.remove();
+    }
+
+    @Test
+    public void clickedSlotIsSetAgain() {
+        TestMenu menu = new TestMenu();
+        Item button = new Item(Material.STONE, 1);
+        menu.buttons.put(0, button);
+        Player player = this.newPlayer();
+        menu.open(player);
+
+        // the player took the item out of an uncancelled slot
+        click(new InventoryClickEvent(new View(player), InventoryType.SlotType.CONTAINER, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL));
+        this.contents[0] = null;
+
+        this.setSlots.clear();
+        menu.render();
+        Assert.assertEquals(1, this.setSlots.size());
+        Assert.assertEquals(Material.STONE, this.contents[0].getType());
+
+        // the same content hash must not skip it either
+        click(new InventoryClickEvent(new View(player), InventoryType.SlotType.CONTAINER, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL));
+        this.contents[0] = null;
+        this.setSlots.clear();
+        menu.buttons.put(0, new Item(Material.STONE, 1));
+        menu.render();
+        Assert.assertEquals(1, this.setSlots.size());
+
+        menu.remove();
+    }
+
+    private Player newPlayer() {
+        UUID uuid = UUID.randomUUID();
+        Player[] holder = new Player[1];
+        holder[0] = proxy(Player.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getOpenInventory":
+                    return this.topInventory != null ? new View(holder[0]) : null;
+                case "openInventory":
+                    this.topInventory = (Inventory) args[0];
+                    return null;
+                case "closeInventory":
+                    this.topInventory = null;
+                    return null;
+                default:
+                    return null;
+            }
+        });
+        return holder[0];
+    }
+
+    private Inventory newInventory(Object holder, int size, String title) {
+        return proxy(Inventory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getHolder":
+                    return holder;
+                case "getSize":
+                    return size;
+                case "getTitle":
+                    return title;
+                case "getItem":
+                    return this.contents[(int) args[0]];
+                case "setItem":
+                    this.setSlots.add((int) args[0]);
+                    this.contents[(int) args[0]] = (ItemStack) args[1];
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static Server newServer() {
+        PluginManager pluginManager = proxy(PluginManager.class, (proxy, method, args) -> {
+            if (method.getName().equals("registerEvent")) {
+                @SuppressWarnings("unchecked")
+                Class<? extends Event> type = (Class<? extends Event>) args[0];
+                handlerList(type).register(new RegisteredListener((Listener) args[1], (EventExecutor) args[3], (EventPriority) args[2], (Plugin) args[4], (Boolean) args[5]));
+            }
+            return null;
+        });
+        // items without meta are all equal
+        ItemFactory itemFactory = (ItemFactory) Proxy.newProxyInstance(ItemFactory.class.getClassLoader(), new Class[] { ItemFactory.class }, (proxy, method, args) -> {
+            if (method.getName().equals("equals")) {
+                return args.length == 1 ? proxy == args[0] : args[0] == args[1];
+            }
+            return null;
+        });
+        Logger logger = Logger.getLogger(MenuTest.class.getName());
+        return proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPluginManager":
+                    return pluginManager;
+                case "getItemFactory":
+                    return itemFactory;
+                case "createInventory":
+                    return current.newInventory(args[0], (int) args[1], (String) args[2]);
+                case "getLogger":
+                    return logger;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static Plugin newPlugin() {
+        return proxy(Plugin.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getServer":
+                    return Bukkit.getServer();
+                case "getName":
+                    return "Test";
+                case "isEnabled":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static void setServer(Server server) throws ReflectiveOperationException {
+        Field field = Bukkit.class.getDeclaredField("server");
+        field.setAccessible(true);
+        field.set(null, server);
+    }
+
+    private static void click(InventoryClickEvent event) {
+        for (RegisteredListener listener : event.getHandlers().getRegisteredListeners()) {
+            try {
+                listener.callEvent(event);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static HandlerList handlerList(Class<? extends Event> type) {
+        try {
+            Method method = type.getMethod("getHandlerList");
+            return (HandlerList) method.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return handler.invoke(proxy, method, args);
+            }
+        });
+    }
+
+    private class View extends InventoryView {
+
+        private final Player player;
+
+        private View(Player player) {
+            this.player = player;
+        }
+
+        @Override
+        public Inventory getTopInventory() {
+            return MenuTest.this.topInventory;
+        }
+
+        @Override
+        public Inventory getBottomInventory() {
+            return null;
+        }
+
+        @Override
+        public HumanEntity getPlayer() {
+            return this.player;
+        }
+
+        @Override
+        public InventoryType getType() {
+            return InventoryType.CHEST;
+        }
+
+    }
+
+    private static class TestMenu extends Menu {
+
+        private final Map<Integer, Button> buttons = new HashMap<>();
+
+        @Override
+        public void draw(boolean firstInitial) {
+            this.clear();
+            this.buttons.forEach(this::set);
+        }
+
+        @Override
+        public int getSize() {
+            return SIZE;
+        }
+
+        @Override
+        public String getTitle() {
+            return "Test";
+        }
+
+    }
+
+    private static class Item extends Button {
+
+        private final Material material;
+        private final int hash;
+        private int builds;
+
+        private Item(Material material, int hash) {
+            this.material = material;
+            this.hash = hash;
+        }
+
+        @Override
+        public ItemStack getButtonItem(Player player) {
+            this.builds++;
+            return new ItemStack(this.material);
+        }
+
+        @Override
+        public int getContentHash(Player player) {
+            return this.hash;
+        }
+
+        @Override
+        public boolean shouldCancel(Player player, int slot, ClickType clickType) {
+            return false;
+        }
+
+    }
+
+}
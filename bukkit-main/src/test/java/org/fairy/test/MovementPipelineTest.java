@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.player.movement.MovementPipeline;
+import org.fairy.bukkit.player.movement.RegionListener;
+import org.fairy.bukkit.util.cuboid.Cuboid;
+import org.fairy.util.terminable.Terminable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public class MovementPipelineTest {
+
+    private static final World WORLD = newWorld("world");
+    private static final World NETHER = newWorld("world_nether");
+
+    @Test
+    public void entersAndExitsRegionsOnBlockChange() {
+        MovementPipeline pipeline = new MovementPipeline();
+        Cuboid spawn = new Cuboid(WORLD, 0, 0, 0, 10, 100, 10);
+        Cuboid center = new Cuboid(WORLD, 4, 0, 4, 6, 100, 6);
+        pipeline.registerRegion(spawn);
+        pipeline.registerRegion(center);
+        List<String> calls = new ArrayList<>();
+        pipeline.registerRegionListener(new Recorder(calls, spawn, center));
+        Player player = newPlayer();
+
+        move(pipeline, player, WORLD, -1, 50, 0);
+        Assert.assertEquals(Collections.emptyList(), calls);
+
+        move(pipeline, player, WORLD, 0, 50, 0);
+        Assert.assertEquals(Collections.singletonList("enter spawn"), calls);
+        Assert.assertArrayEquals(new Cuboid[] { spawn }, pipeline.getRegions(player));
+
+        calls.clear();
+        move(pipeline, player, WORLD, 5, 50, 5);
+        Assert.assertEquals(Collections.singletonList("enter center"), calls);
+
+        calls.clear();
+        move(pipeline, player, WORLD, 5.5, 50, 5.5);
+        Assert.assertEquals(Collections.emptyList(), calls);
+
+        move(pipeline, player, WORLD, 5, 101, 5);
+        Assert.assertEquals(Arrays.asList("exit spawn", "exit center"), calls);
+        Assert.assertEquals(0, pipeline.getRegions(player).length);
+    }
+
+    @Test
+    public void exitsWhenChangingWorld() {
+        MovementPipeline pipeline = new MovementPipeline();
+        Cuboid spawn = new Cuboid(WORLD, 0, 0, 0, 10, 100, 10);
+        pipeline.registerRegion(spawn);
+        List<String> calls = new ArrayList<>();
+        pipeline.registerRegionListener(new Recorder(calls, spawn));
+        Player player = newPlayer();
+
+        move(pipeline, player, WORLD, 5, 50, 5);
+        move(pipeline, player, NETHER, 5, 50, 5);
+        Assert.assertEquals(Arrays.asList("enter spawn", "exit spawn"), calls);
+    }
+
+    @Test
+    public void terminatedRegionsAndListenersAreForgotten() throws Exception {
+        MovementPipeline pipeline = new MovementPipeline();
+        Cuboid spawn = new Cuboid(WORLD, 0, 0, 0, 10, 100, 10);
+        Terminable region = pipeline.registerRegion(spawn);
+        List<String> calls = new ArrayList<>();
+        Terminable listener = pipeline.registerRegionListener(new Recorder(calls, spawn));
+        Player player = newPlayer();
+
+        region.close();
+        move(pipeline, player, WORLD, 5, 50, 5);
+        Assert.assertEquals(0, pipeline.getRegions(player).length);
+
+        pipeline.registerRegion(spawn);
+        listener.close();
+        move(pipeline, player, WORLD, 6, 50, 5);
+        Assert.assertArrayEquals(new Cuboid[] { spawn }, pipeline.getRegions(player));
+        Assert.assertEquals(Collections.emptyList(), calls);
+    }
+
+    private static void move(MovementPipeline pipeline, Player player, World world, double x, double y, double z) {
+        Location to = new Location(world, x, y, z);
+        pipeline.handleUpdateLocation(player, to, to);
+    }
+
+    private static Player newPlayer() {
+        UUID uuid = UUID.randomUUID();
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[] { Player.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static World newWorld(String name) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class[] { World.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static class Recorder implements RegionListener {
+
+        private final List<String> calls;
+        private final Cuboid spawn;
+        private final Cuboid center;
+
+        private Recorder(List<String> calls, Cuboid spawn) {
+            this(calls, spawn, null);
+        }
+
+        private Recorder(List<String> calls, Cuboid spawn, Cuboid center) {
+            this.calls = calls;
+            this.spawn = spawn;
+            this.center = center;
+        }
+
+        @Override
+        public void handleEnter(Player player, Cuboid region) {
+            this.calls.add("enter " + this.name(region));
+        }
+
+        @Override
+        public void handleExit(Player player, Cuboid region) {
+            this.calls.add("exit " + this.name(region));
+        }
+
+        private String name(Cuboid region) {
+            return region == this.spawn ? "spawn" : region == this.center ? "center" : "unknown";
+        }
+
+    }
+
+}
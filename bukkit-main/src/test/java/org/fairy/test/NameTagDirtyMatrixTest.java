@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.bukkit.nametag.NameTagDirtyMatrix;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class NameTagDirtyMatrixTest {
+
+    @Test
+    public void collapsesRequests() {
+        NameTagDirtyMatrix matrix = new NameTagDirtyMatrix();
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+
+        Assert.assertNull(matrix.drain());
+
+        matrix.markTarget(a);
+        matrix.markTarget(a);
+        matrix.markPair(b, c);
+        matrix.markViewer(c);
+        NameTagDirtyMatrix.Snapshot snapshot = matrix.drain();
+
+        Assert.assertTrue(snapshot.isDirty(b, a));
+        Assert.assertTrue(snapshot.isDirty(b, c));
+        Assert.assertFalse(snapshot.isDirty(a, b));
+        Assert.assertTrue(snapshot.isViewerDirty(c));
+        Assert.assertTrue(snapshot.isDirty(c, b));
+        Assert.assertFalse(snapshot.isDirty(c, c));
+        Assert.assertEquals(2, snapshot.getTargets(b).size());
+        Assert.assertNull(matrix.drain());
+
+        matrix.markAll();
+        snapshot = matrix.drain();
+        Assert.assertTrue(snapshot.isViewerDirty(a));
+        Assert.assertTrue(snapshot.isDirty(a, a));
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.nametag.NameTagAdapter;
+import org.fairy.bukkit.nametag.NameTagInfo;
+import org.fairy.bukkit.nametag.NameTagList;
+import org.fairy.bukkit.nametag.NameTagService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class NameTagServiceTest {
+
+    private static final int PLAYERS = 100;
+    private static final int TEAMS = 8;
+
+    @Test
+    public void sendsOnlyChangedTeams() throws Exception {
+        TestService service = new TestService();
+
+        // join wave, every player refreshed 3 times in the interval plus an update all
+        for (Player player : service.players) {
+            for (int i = 0; i < 3; i++) {
+                service.updateFromThirdSide(player);
+            }
+        }
+        service.updateAll();
+        service.runUpdate();
+
+        Assert.assertEquals(PLAYERS * PLAYERS, service.fetches);
+        Assert.assertEquals(PLAYERS * TEAMS, service.packets);
+        Assert.assertEquals(PLAYERS * PLAYERS, service.names);
+
+        // nothing requested, nothing fetched
+        service.runUpdate();
+        Assert.assertEquals(0, service.fetches);
+
+        // 20 players change team, each refreshed twice, 10 more refreshed without any change
+        Set<Integer> newTeams = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            Player player = service.players.get(i);
+            if (i < 20) {
+                int team = (service.teams.get(player.getUniqueId()) + 1) % TEAMS;
+                service.teams.put(player.getUniqueId(), team);
+                newTeams.add(team);
+            }
+            service.updateFromThirdSide(player);
+            service.updateFromThirdSide(player);
+        }
+        service.runUpdate();
+
+        Assert.assertEquals(30 * PLAYERS, service.fetches);
+        Assert.assertEquals(newTeams.size() * PLAYERS, service.packets);
+        Assert.assertEquals(20 * PLAYERS, service.names);
+    }
+
+    @Test
+    public void pairUpdateOnlyReachesTheViewer() throws Exception {
+        TestService service = new TestService();
+        service.updateAll();
+        service.runUpdate();
+
+        Player viewer = service.players.get(0), target = service.players.get(1);
+        service.teams.put(target.getUniqueId(), (service.teams.get(target.getUniqueId()) + 1) % TEAMS);
+        service.updateFor(target, viewer);
+        service.runUpdate();
+
+        Assert.assertEquals(1, service.fetches);
+        Assert.assertEquals(1, service.packets);
+        Assert.assertSame(service.infos[service.teams.get(target.getUniqueId())], service.getList(viewer).getTeamFor(target.getName()));
+        Assert.assertNotSame(service.infos[service.teams.get(target.getUniqueId())], service.getList(service.players.get(2)).getTeamFor(target.getName()));
+    }
+
+    private static class TestService extends NameTagService {
+
+        private final List<Player> players = new ArrayList<>();
+        private final Map<UUID, Player> byId = new HashMap<>();
+        private final Map<UUID, Integer> teams = new HashMap<>();
+        private final Map<UUID, NameTagList> lists = new HashMap<>();
+        private final NameTagInfo[] infos = new NameTagInfo[TEAMS];
+        private int fetches, packets, names;
+
+        private TestService() throws ReflectiveOperationException {
+            Constructor<NameTagInfo> constructor = NameTagInfo.class.getDeclaredConstructor(String.class, String.class);
+            constructor.setAccessible(true);
+            for (int i = 0; i < TEAMS; i++) {
+                this.infos[i] = constructor.newInstance("team-" + i, "");
+            }
+
+            for (int i = 0; i < PLAYERS; i++) {
+                Player player = player(UUID.randomUUID(), "player-" + i);
+                this.players.add(player);
+                this.byId.put(player.getUniqueId(), player);
+                this.teams.put(player.getUniqueId(), i % TEAMS);
+            }
+
+            this.register(new NameTagAdapter("test", 1) {
+                @Override
+                public NameTagInfo fetch(Player receiver, Player target) {
+                    fetches++;
+                    return infos[teams.get(target.getUniqueId())];
+                }
+            });
+        }
+
+        private void runUpdate() {
+            this.reset();
+            this.update();
+        }
+
+        private void reset() {
+            this.fetches = 0;
+            this.packets = 0;
+            this.names = 0;
+        }
+
+        private NameTagList getList(Player viewer) {
+            return this.getNameTagList(viewer);
+        }
+
+        @Override
+        protected Collection<? extends Player> getOnlinePlayers() {
+            return this.players;
+        }
+
+        @Override
+        protected Player getPlayer(UUID uuid) {
+            return this.byId.get(uuid);
+        }
+
+        @Override
+        protected NameTagList getNameTagList(Player viewer) {
+            return this.lists.computeIfAbsent(viewer.getUniqueId(), ignored -> new NameTagList());
+        }
+
+        @Override
+        protected void sendMembers(Player viewer, Map<NameTagInfo, List<String>> joins) {
+            this.packets += joins.size();
+            joins.values().forEach(names -> this.names += names.size());
+        }
+
+    }
+
+    private static Player player(UUID uuid, String name) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[] { Player.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return name;
+                case "isOnline":
+                    return true;
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return name;
+                default:
+                    return null;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.packet.PacketDto;
+import org.fairy.bukkit.packet.PacketListener;
+import org.fairy.bukkit.packet.PacketListenerTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PacketListenerTableTest {
+
+    private static final class PacketA {}
+    private static final class PacketB {}
+
+    @Test
+    public void registersAndUnregisters() {
+        TestListener both = new TestListener(PacketA.class, PacketB.class);
+        TestListener onlyA = new TestListener(PacketA.class);
+
+        PacketListenerTable table = PacketListenerTable.EMPTY.with(both).with(onlyA).with(both);
+        Assert.assertArrayEquals(new PacketListener[] { both, onlyA }, table.get(PacketA.class));
+        Assert.assertArrayEquals(new PacketListener[] { both }, table.get(PacketB.class));
+        Assert.assertNull(table.get(String.class));
+
+        PacketListenerTable removed = table.without(both);
+        Assert.assertArrayEquals(new PacketListener[] { onlyA }, removed.get(PacketA.class));
+        Assert.assertNull(removed.get(PacketB.class));
+
+        // the previous table is left untouched for threads still reading it
+        Assert.assertEquals(2, table.get(PacketA.class).length);
+
+        Assert.assertSame(PacketListenerTable.EMPTY, removed.without(onlyA));
+    }
+
+    @Test
+    public void rejectsMissingPacketTypes() {
+        try {
+            PacketListenerTable.EMPTY.with(new TestListener(PacketA.class, null));
+            Assert.fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Test
+    public void registersWhilePacketsFlow() throws Exception {
+        final int readers = 4;
+        final int listeners = 2000;
+
+        TestListener permanent = new TestListener(PacketA.class);
+        Holder holder = new Holder();
+        holder.register(permanent);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(readers);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(readers);
+        AtomicLong dispatched = new AtomicLong();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            futures.add(executorService.submit(() -> {
+                started.countDown();
+                PacketDto packetDto = null;
+                while (running.get()) {
+                    PacketListener[] packetListeners = holder.table.get(PacketA.class);
+                    Assert.assertNotNull(packetListeners);
+
+                    boolean found = false;
+                    for (PacketListener packetListener : packetListeners) {
+                        Assert.assertNotNull(packetListener);
+                        packetListener.read(null, packetDto);
+                        found |= packetListener == permanent;
+                    }
+                    Assert.assertTrue(found);
+                    dispatched.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        started.await();
+        List<TestListener> registered = new ArrayList<>();
+        for (int i = 0; i < listeners; i++) {
+            TestListener listener = new TestListener(PacketA.class, PacketB.class);
+            holder.register(listener);
+            registered.add(listener);
+
+            if (i % 2 == 1) {
+                holder.unregister(registered.remove(0));
+            }
+        }
+        running.set(false);
+
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        Assert.assertEquals(registered.size() + 1, holder.table.get(PacketA.class).length);
+        Assert.assertEquals(registered.size(), holder.table.get(PacketB.class).length);
+        Assert.assertTrue(dispatched.get() > 0);
+        Assert.assertTrue(permanent.reads.get() >= dispatched.get());
+    }
+
+    /**
+     * Mirrors how PacketService publishes the table
+     */
+    private static final class Holder {
+
+        private volatile PacketListenerTable table = PacketListenerTable.EMPTY;
+
+        synchronized void register(PacketListener packetListener) {
+            this.table = this.table.with(packetListener);
+        }
+
+        synchronized void unregister(PacketListener packetListener) {
+            this.table = this.table.without(packetListener);
+        }
+
+    }
+
+    private static final class TestListener implements PacketListener {
+
+        private final Class<?>[] types;
+        private final AtomicLong reads = new AtomicLong();
+
+        private TestListener(Class<?>... types) {
+            this.types = types;
+        }
+
+        @Override
+        public Class<?>[] type() {
+            return this.types;
+        }
+
+        @Override
+        public boolean read(Player player, PacketDto packetDto) {
+            this.reads.incrementAndGet();
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerToggleSneakEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
+import org.fairy.bukkit.listener.events.EventSubscribeBuilder;
+import org.fairy.bukkit.listener.events.EventSubscription;
+import org.fairy.timings.TimingService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class PlayerEventDispatcherTest {
+
+    private static final Plugin PLUGIN = newPlugin();
+    private static final Player FIRST = newPlayer();
+    private static final Player SECOND = newPlayer();
+
+    @BeforeClass
+    public static void setupTimings() throws Exception {
+        TimingService timingService = new TimingService();
+        Field timingType = TimingService.class.getDeclaredField("timingType");
+        timingType.setAccessible(true);
+        timingType.set(timingService, Enum.valueOf(timingType.getType().asSubclass(Enum.class), "EMPTY"));
+
+        Field field = EventSubscription.class.getDeclaredField("TIMING_SERVICE");
+        field.setAccessible(true);
+        field.set(null, timingService);
+    }
+
+    @After
+    public void unregisterAll() {
+        HandlerList.unregisterAll(PLUGIN);
+    }
+
+    @Test
+    public void sharesOneRegistrationAndRoutesByPlayer() {
+        List<Player> firstCalls = new ArrayList<>();
+        List<Player> secondCalls = new ArrayList<>();
+        EventSubscription<PlayerToggleSneakEvent> first = subscribe(FIRST, firstCalls);
+        EventSubscription<PlayerToggleSneakEvent> second = subscribe(SECOND, secondCalls);
+
+        Assert.assertEquals(1, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+
+        call(new PlayerToggleSneakEvent(FIRST, true));
+        call(new PlayerToggleSneakEvent(SECOND, true));
+        call(new PlayerToggleSneakEvent(SECOND, false));
+        Assert.assertEquals(1, firstCalls.size());
+        Assert.assertEquals(2, secondCalls.size());
+
+        Assert.assertTrue(first.unregister());
+        Assert.assertEquals(1, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+        call(new PlayerToggleSneakEvent(FIRST, true));
+        Assert.assertEquals(1, firstCalls.size());
+
+        // the last subscription leaving unregisters the shared listener
+        Assert.assertTrue(second.unregister());
+        Assert.assertEquals(0, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+    @Test
+    public void expiresOnEventsOfOtherPlayers() throws InterruptedException {
+        List<Player> firstCalls = new ArrayList<>();
+        EventSubscription<PlayerToggleSneakEvent> first = new EventSubscribeBuilder<>(PlayerToggleSneakEvent.class)
+                .expireAfter(1, TimeUnit.MILLISECONDS)
+                .forPlayer(FIRST)
+                .listen(event -> firstCalls.add(event.getPlayer()))
+                .build(PLUGIN);
+        EventSubscription<PlayerToggleSneakEvent> second = subscribe(SECOND, new ArrayList<>());
+
+        Thread.sleep(5L);
+        call(new PlayerToggleSneakEvent(SECOND, true));
+
+        Assert.assertFalse(first.isActive());
+        Assert.assertTrue(second.isActive());
+        Assert.assertTrue(firstCalls.isEmpty());
+
+        second.unregister();
+        Assert.assertEquals(0, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+    @Test
+    public void clearsDispatchersWhenPluginDisables() {
+        List<Player> firstCalls = new ArrayList<>();
+        EventSubscription<PlayerToggleSneakEvent> first = subscribe(FIRST, firstCalls);
+
+        call(new PluginDisableEvent(PLUGIN));
+
+        Assert.assertFalse(first.isActive());
+        Assert.assertEquals(0, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+
+        // a re-enabled plugin registers a new dispatcher
+        EventSubscription<PlayerToggleSneakEvent> again = subscribe(FIRST, firstCalls);
+        Assert.assertEquals(1, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+        call(new PlayerToggleSneakEvent(FIRST, true));
+        Assert.assertEquals(1, firstCalls.size());
+        again.unregister();
+    }
+
+    private static EventSubscription<PlayerToggleSneakEvent> subscribe(Player player, List<Player> calls) {
+        return new EventSubscribeBuilder<>(PlayerToggleSneakEvent.class)
+                .forPlayer(player)
+                .listen(event -> calls.add(event.getPlayer()))
+                .build(PLUGIN);
+    }
+
+    private static void call(Event event) {
+        for (RegisteredListener listener : event.getHandlers().getRegisteredListeners()) {
+            try {
+                listener.callEvent(event);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static HandlerList handlerList(Class<? extends Event> type) {
+        try {
+            Method method = type.getMethod("getHandlerList");
+            return (HandlerList) method.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Player newPlayer() {
+        UUID uuid = UUID.randomUUID();
+        return proxy(Player.class, (proxy, method, args) -> {
+            if (method.getName().equals("getUniqueId")) {
+                return uuid;
+            }
+            return null;
+        });
+    }
+
+    private static Plugin newPlugin() {
+        PluginManager pluginManager = proxy(PluginManager.class, (proxy, method, args) -> {
+            if (method.getName().equals("registerEvent")) {
+                @SuppressWarnings("unchecked")
+                Class<? extends Event> type = (Class<? extends Event>) args[0];
+                handlerList(type).register(new RegisteredListener((Listener) args[1], (EventExecutor) args[3], (EventPriority) args[2], (Plugin) args[4], (Boolean) args[5]));
+            }
+            return null;
+        });
+        Logger logger = Logger.getLogger(PlayerEventDispatcherTest.class.getName());
+        Server server = proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPluginManager":
+                    return pluginManager;
+                case "getLogger":
+                    return logger;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+        if (Bukkit.getServer() == null) {
+            // server events ask the server for the primary thread when constructed
+            Bukkit.setServer(server);
+        }
+        return proxy(Plugin.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getServer":
+                    return server;
+                case "getName":
+                    return "Test";
+                case "isEnabled":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return handler.invoke(proxy, method, args);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.player.storage.ThreadedPlayerStorage;
+import org.fairy.bukkit.player.storage.ThreadedPlayerStorageConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class ThreadedPlayerStorageTest {
+
+    private static final UUID FIRST = UUID.randomUUID();
+    private static final UUID SECOND = UUID.randomUUID();
+
+    @Test
+    public void coalescesSavesUntilFlush() throws Exception {
+        Configuration configuration = new Configuration();
+        Storage storage = new Storage(configuration);
+
+        CompletableFuture<String> first = storage.save(FIRST, "first-1");
+        Assert.assertSame(first, storage.save(FIRST, "first-2"));
+        CompletableFuture<String> second = storage.save(SECOND, "second-1");
+
+        Assert.assertEquals(2, storage.getPendingSaveCount());
+        Assert.assertTrue(configuration.writes.isEmpty());
+
+        storage.flush();
+
+        Assert.assertEquals(0, storage.getPendingSaveCount());
+        Assert.assertEquals(1, configuration.batches.size());
+        Map<UUID, String> expected = new HashMap<>();
+        expected.put(FIRST, "first-2");
+        expected.put(SECOND, "second-1");
+        Assert.assertEquals(expected, configuration.batches.get(0));
+        Assert.assertEquals("first-2", first.get());
+        Assert.assertEquals("second-1", second.get());
+    }
+
+    @Test
+    public void slowWriteDoesNotBlockOtherPlayers() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.block(FIRST);
+        Storage storage = new Storage(configuration);
+
+        storage.save(FIRST, "first-1");
+        CompletableFuture<Void> firstFlush = CompletableFuture.runAsync(() -> storage.flush(FIRST));
+        Assert.assertTrue(configuration.writing.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = storage.save(SECOND, "second-1");
+        CompletableFuture.runAsync(() -> storage.flush(SECOND)).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("second-1", second.get(0, TimeUnit.SECONDS));
+        Assert.assertFalse(firstFlush.isDone());
+
+        configuration.release.countDown();
+        firstFlush.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(2, configuration.writes.size());
+    }
+
+    @Test
+    public void savesOfSamePlayerAreWrittenInOrder() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.block(FIRST);
+        Storage storage = new Storage(configuration);
+
+        storage.save(FIRST, "first-1");
+        CompletableFuture<Void> firstFlush = CompletableFuture.runAsync(() -> storage.flush(FIRST));
+        Assert.assertTrue(configuration.writing.await(5, TimeUnit.SECONDS));
+
+        // the newer save must wait for the older write instead of racing it
+        CompletableFuture<String> newer = storage.save(FIRST, "first-2");
+        CompletableFuture<Void> newerFlush = CompletableFuture.runAsync(storage::flush);
+        try {
+            newerFlush.get(100, TimeUnit.MILLISECONDS);
+            Assert.fail("The newer save was written while the older one was still being written");
+        } catch (TimeoutException ignored) {
+        }
+        Assert.assertTrue(configuration.writes.isEmpty());
+
+        configuration.release.countDown();
+        firstFlush.get(5, TimeUnit.SECONDS);
+        newerFlush.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("first-2", newer.get(0, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("first-1", "first-2"), configuration.writes);
+    }
+
+    @Test
+    public void failedWriteBehindStaysDirty() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.failures = 1;
+        Storage storage = new Storage(configuration);
+
+        CompletableFuture<String> failed = storage.save(FIRST, "first-1");
+        storage.flush();
+
+        try {
+            failed.get(0, TimeUnit.SECONDS);
+            Assert.fail("The write failed");
+        } catch (ExecutionException ignored) {
+        }
+        Assert.assertEquals(1, storage.getPendingSaveCount());
+
+        storage.flush();
+        Assert.assertEquals(0, storage.getPendingSaveCount());
+        Assert.assertEquals(Collections.singletonList("first-1"), configuration.writes);
+    }
+
+    private static class Storage extends ThreadedPlayerStorage<String> {
+
+        private Storage(Configuration configuration) throws ReflectiveOperationException {
+            // set directly instead of through @PostInitialize, which subscribes to the login events
+            Field field = ThreadedPlayerStorage.class.getDeclaredField("storageConfiguration");
+            field.setAccessible(true);
+            field.set(this, configuration);
+        }
+
+        @Override
+        protected ThreadedPlayerStorageConfiguration<String> buildStorageConfiguration() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    private static class Configuration implements ThreadedPlayerStorageConfiguration<String> {
+
+        private final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        private final List<Map<UUID, String>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile UUID blocked;
+        private volatile int failures;
+
+        private void block(UUID uuid) {
+            this.blocked = uuid;
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public String loadAsync(UUID uuid, String name) {
+            return null;
+        }
+
+        @Override
+        public void saveAsync(UUID uuid, String value) {
+            if (this.failures > 0) {
+                this.failures--;
+                throw new IllegalStateException("Repository unavailable");
+            }
+
+            if (uuid.equals(this.blocked) && this.writing.getCount() > 0) {
+                this.writing.countDown();
+                try {
+                    this.release.await();
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            this.writes.add(value);
+        }
+
+        @Override
+        public void saveAllAsync(Map<UUID, String> objects) {
+            this.batches.add(new HashMap<>(objects));
+            ThreadedPlayerStorageConfiguration.super.saveAllAsync(objects);
+        }
+
+        @Override
+        public boolean isWriteBehind() {
+            return true;
+        }
+
+        @Override
+        public boolean shouldUnloadOnQuit(Player player) {
+            return false;
+        }
+
+    }
+
+}
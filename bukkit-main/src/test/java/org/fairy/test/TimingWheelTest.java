@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.bukkit.timer.TimingWheel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TimingWheelTest {
+
+    private static final long RESOLUTION = 100L;
+
+    @Test
+    public void visitsOnceWhenDue() {
+        final long now = 1_000_000L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(RESOLUTION, now);
+        Random random = new Random(0);
+
+        Map<Integer, Long> dueTimes = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            // up to 30 days, further than the top level can hold
+            long due = now + (long) (random.nextDouble() * (i % 10 == 0 ? 30L * 24 * 3600 * 1000 : 600_000L));
+            dueTimes.put(i, due);
+            wheel.schedule(i, due);
+        }
+
+        Assert.assertTrue(wheel.cancel(0));
+        dueTimes.remove(0);
+
+        long[] previous = {now};
+        while (wheel.size() > 0) {
+            long advanceTo = previous[0] + 1 + random.nextInt(60_000);
+            wheel.advance(advanceTo, value -> {
+                // anything due before the next tick is visited on the next advance
+                long dueTick = Math.max(dueTimes.remove(value) / RESOLUTION, now / RESOLUTION + 1);
+                Assert.assertTrue("visited too early", dueTick <= advanceTo / RESOLUTION);
+                Assert.assertTrue("visited too late", dueTick > previous[0] / RESOLUTION);
+            });
+            previous[0] = advanceTo;
+        }
+        Assert.assertTrue(dueTimes.isEmpty());
+    }
+
+    @Test
+    public void rescheduleFromConsumer() {
+        TimingWheel<String> wheel = new TimingWheel<>(RESOLUTION, 0);
+        wheel.schedule("a", 0);
+
+        int[] visits = {0};
+        for (long now = 100; now <= 1000; now += 100) {
+            wheel.advance(now, value -> {
+                visits[0]++;
+                wheel.schedule(value, 0);
+            });
+        }
+        Assert.assertEquals(10, visits[0]);
+    }
+
+    @Test
+    public void fiftyThousandTimersAreVisitedOnce() {
+        int timers = 50_000;
+        long now = System.currentTimeMillis();
+        TimingWheel<Integer> wheel = new TimingWheel<>(RESOLUTION, now);
+        Random random = new Random(1);
+
+        // cooldown-like timers due between 1 second and 10 minutes, each one is visited once when due
+        for (int i = 0; i < timers; i++) {
+            wheel.schedule(i, now + 1000 + random.nextInt(600_000));
+        }
+
+        int[] visits = {0};
+        // one scheduler run every 100ms for 10 minutes of simulated time, ticking every timer would be 300M visits
+        for (long time = now + RESOLUTION; time <= now + 601_000; time += RESOLUTION) {
+            wheel.advance(time, value -> visits[0]++);
+        }
+
+        Assert.assertEquals(timers, visits[0]);
+        Assert.assertEquals(0, wheel.size());
+    }
+
+}
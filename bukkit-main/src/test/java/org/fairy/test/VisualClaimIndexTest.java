@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.bukkit.World;
+import org.fairy.bukkit.visual.VisualBlockClaim;
+import org.fairy.bukkit.visual.VisualClaimIndex;
+import org.fairy.bukkit.visual.type.VisualType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class VisualClaimIndexTest {
+
+    private static final String WORLD = "world";
+
+    @Test
+    public void latestClaimWins() {
+        VisualClaimIndex index = new VisualClaimIndex();
+        Claim outer = new Claim(-100, -100, 100, 100);
+        Claim inner = new Claim(-5, -5, 5, 5);
+        index.add(WORLD, outer);
+        index.add(WORLD, inner);
+
+        Assert.assertSame(inner, index.get(WORLD, 0, 0));
+        Assert.assertSame(inner, index.get(WORLD, -5, 5));
+        Assert.assertSame(outer, index.get(WORLD, -6, 0));
+        Assert.assertSame(outer, index.get(WORLD, -100, -100));
+        Assert.assertNull(index.get(WORLD, 101, 0));
+        Assert.assertNull(index.get("world_nether", 0, 0));
+
+        Assert.assertTrue(index.remove(inner));
+        Assert.assertSame(outer, index.get(WORLD, 0, 0));
+        Assert.assertTrue(index.remove(outer));
+        Assert.assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void queryOnlyReturnsOverlappingClaims() {
+        VisualClaimIndex index = new VisualClaimIndex();
+        Claim left = new Claim(-40, 0, -10, 20);
+        Claim right = new Claim(10, 0, 40, 20);
+        index.add(WORLD, left);
+        index.add(WORLD, right);
+
+        Set<VisualBlockClaim> result = new HashSet<>();
+        index.query(WORLD, -7, 3, 7, 17, result);
+        Assert.assertTrue(result.isEmpty());
+
+        index.query(WORLD, -17, 3, -3, 17, result);
+        Assert.assertEquals(1, result.size());
+        Assert.assertTrue(result.contains(left));
+    }
+
+    @Test
+    public void largeClaimsOnlyTakeTheirCells() {
+        VisualClaimIndex index = new VisualClaimIndex();
+        Claim claim = new Claim(0, 0, 499, 499);
+        index.add(WORLD, claim);
+
+        // 500 blocks span 8 cells of 64 blocks on each axis
+        Assert.assertEquals(64, index.getBucketCount());
+        Assert.assertTrue(index.remove(claim));
+        Assert.assertEquals(0, index.getBucketCount());
+    }
+
+    @Test
+    public void lookupsMatchLinearScan() {
+        VisualClaimIndex index = new VisualClaimIndex();
+        List<Claim> claims = new ArrayList<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            int x = random.nextInt(4_000) - 2_000;
+            int z = random.nextInt(4_000) - 2_000;
+            Claim claim = new Claim(x, z, x + random.nextInt(500), z + random.nextInt(500));
+            claims.add(claim);
+            index.add(WORLD, claim);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            int x = random.nextInt(5_000) - 2_500;
+            int z = random.nextInt(5_000) - 2_500;
+
+            Claim expected = null;
+            for (int j = claims.size() - 1; j >= 0; j--) {
+                Claim claim = claims.get(j);
+                if (x >= claim.minX && x <= claim.maxX && z >= claim.minZ && z <= claim.maxZ) {
+                    expected = claim;
+                    break;
+                }
+            }
+            Assert.assertSame(expected, index.get(WORLD, x, z));
+        }
+    }
+
+    private static class Claim implements VisualBlockClaim {
+
+        private final int minX, minZ, maxX, maxZ;
+
+        private Claim(int minX, int minZ, int maxX, int maxZ) {
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public World getWorld() {
+            return null;
+        }
+
+        @Override
+        public int getMinX() {
+            return this.minX;
+        }
+
+        @Override
+        public int getMaxX() {
+            return this.maxX;
+        }
+
+        @Override
+        public int getMinY() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxY() {
+            return 256;
+        }
+
+        @Override
+        public int getMinZ() {
+            return this.minZ;
+        }
+
+        @Override
+        public int getMaxZ() {
+            return this.maxZ;
+        }
+
+        @Override
+        public VisualType getType() {
+            return null;
+        }
+
+    }
+
+}
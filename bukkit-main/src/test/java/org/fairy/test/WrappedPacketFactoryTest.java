@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.fairy.test;
+
+import org.bukkit.entity.Player;
+import org.fairy.bukkit.packet.wrapper.WrappedPacket;
+import org.fairy.bukkit.packet.wrapper.WrappedPacketFactory;
+import org.fairy.bukkit.packet.wrapper.WrappedPacketFactoryTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+public class WrappedPacketFactoryTest {
+
+    private static final Player PLAYER = (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[] { Player.class }, (proxy, method, args) -> null);
+    private static final Object PACKET = new Object();
+
+    @Test
+    public void prefersPlayerAndPacketConstructor() throws Throwable {
+        WrappedPacketFactory factory = WrappedPacketFactory.of(Full.class);
+
+        Full wrapper = (Full) factory.create(PLAYER, PACKET);
+        Assert.assertSame(PLAYER, wrapper.createdPlayer);
+        Assert.assertSame(PACKET, wrapper.createdPacket);
+
+        wrapper = (Full) factory.create(PLAYER);
+        Assert.assertSame(PLAYER, wrapper.createdPlayer);
+        Assert.assertNull(wrapper.createdPacket);
+    }
+
+    @Test
+    public void fallsBackToPacketAndEmptyConstructors() throws Throwable {
+        WrappedPacketFactory factory = WrappedPacketFactory.of(PacketOnly.class);
+
+        PacketOnly wrapper = (PacketOnly) factory.create(PLAYER, PACKET);
+        Assert.assertSame(PACKET, wrapper.createdPacket);
+        Assert.assertSame(PacketOnly.class, factory.create(PLAYER).getClass());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsWithoutPacketConstructor() throws Throwable {
+        WrappedPacketFactory.of(PlayerOnly.class);
+    }
+
+    @Test
+    public void rejectsPlayerCreationWithoutPlayerConstructor() throws Throwable {
+        WrappedPacketFactory factory = WrappedPacketFactory.of(PacketOnlyWithoutEmpty.class);
+
+        Assert.assertSame(PacketOnlyWithoutEmpty.class, factory.create(PLAYER, PACKET).getClass());
+        try {
+            factory.create(PLAYER);
+            Assert.fail("The type has no (Player) or empty constructor");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void tableLooksUpByUnsignedId() throws Throwable {
+        Map<Byte, WrappedPacketFactory> factories = new HashMap<>();
+        factories.put((byte) 0x02, WrappedPacketFactory.of(Full.class));
+        factories.put((byte) 0xF0, WrappedPacketFactory.of(PacketOnly.class));
+        WrappedPacketFactoryTable table = new WrappedPacketFactoryTable(factories);
+
+        Assert.assertSame(Full.class, table.create(PLAYER, (byte) 0x02, PACKET).getClass());
+        Assert.assertSame(PacketOnly.class, table.create(PLAYER, (byte) 0xF0, PACKET).getClass());
+        Assert.assertSame(PacketOnly.class, table.create(PLAYER, (byte) 0xF0).getClass());
+        Assert.assertSame(WrappedPacket.class, table.create(null, (byte) 0x03, null).getClass());
+    }
+
+    // Wrappers never hand the fake packet to WrappedPacket, which would resolve NMS packet classes
+
+    public static class Full extends WrappedPacket {
+
+        private final Player createdPlayer;
+        private final Object createdPacket;
+
+        public Full(Player player, Object packet) {
+            this.createdPlayer = player;
+            this.createdPacket = packet;
+        }
+
+        public Full(Player player) {
+            this(player, null);
+        }
+
+    }
+
+    public static class PacketOnly extends WrappedPacket {
+
+        private final Object createdPacket;
+
+        public PacketOnly(Object packet) {
+            this.createdPacket = packet;
+        }
+
+        public PacketOnly() {
+            this(null);
+        }
+
+    }
+
+    public static class PacketOnlyWithoutEmpty extends WrappedPacket {
+
+        public PacketOnlyWithoutEmpty(Object packet) {
+        }
+
+    }
+
+    public static class PlayerOnly extends WrappedPacket {
+
+        public PlayerOnly(Player player) {
+        }
+
+    }
+
+}
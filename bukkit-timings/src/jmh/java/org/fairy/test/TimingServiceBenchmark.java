@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.timings.MCTiming;
+import org.fairy.timings.TimingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of timing instrumentation for a subscription with a few listeners
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimingServiceBenchmark {
+
+    private static final String[] LISTENERS = {
+            "org.fairy.test.ListenerA$$Lambda$1",
+            "org.fairy.test.ListenerB$$Lambda$2",
+            "org.fairy.test.ListenerC$$Lambda$3"
+    };
+
+    @Param({"false", "true"})
+    public boolean recording;
+
+    private TimingService timingService;
+    private MCTiming parent;
+    private MCTiming[] resolved;
+    private Map<String, MCTiming> legacyCache;
+
+    @Setup
+    public void setup() {
+        TimingService.USE_FAIRY_TIMINGS = this.recording;
+        try {
+            this.timingService = new TimingService();
+            this.timingService.preInit();
+        } finally {
+            TimingService.USE_FAIRY_TIMINGS = false;
+        }
+
+        this.parent = this.timingService.of(null, "EventSubscription - PlayerMoveEvent");
+        this.resolved = new MCTiming[LISTENERS.length];
+        for (int i = 0; i < LISTENERS.length; i++) {
+            this.resolved[i] = this.timingService.of(null, LISTENERS[i], this.parent);
+        }
+        this.legacyCache = new HashMap<>();
+    }
+
+    /**
+     * The lookup every event used to do, a global lock and a lowercased name per listener
+     */
+    @Benchmark
+    public void lookupPerEvent(Blackhole blackhole) {
+        for (String name : LISTENERS) {
+            MCTiming timing;
+            synchronized (this.legacyCache) {
+                String lowerKey = name.toLowerCase();
+                timing = this.legacyCache.get(lowerKey);
+                if (timing == null) {
+                    timing = this.timingService.of(null, name, this.parent);
+                    this.legacyCache.put(lowerKey, timing);
+                }
+            }
+            try (MCTiming ignored = timing.startTiming()) {
+                blackhole.consume(name);
+            }
+        }
+    }
+
+    @Benchmark
+    public void resolvedHandles(Blackhole blackhole) {
+        for (int i = 0; i < this.resolved.length; i++) {
+            try (MCTiming ignored = this.resolved[i].startTiming()) {
+                blackhole.consume(LISTENERS[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void skippedWhenDisabled(Blackhole blackhole) {
+        boolean enabled = this.timingService.isEnabled();
+        for (int i = 0; i < LISTENERS.length; i++) {
+            if (enabled) {
+                try (MCTiming ignored = this.resolved[i].startTiming()) {
+                    blackhole.consume(LISTENERS[i]);
+                }
+                continue;
+            }
+            blackhole.consume(LISTENERS[i]);
+        }
+    }
+
+}
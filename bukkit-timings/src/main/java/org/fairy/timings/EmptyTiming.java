@@ -28,7 +28,10 @@ package org.fairy.timings;
 import org.fairy.timings.MCTiming;
 
 class EmptyTiming extends MCTiming {
-    EmptyTiming() {
+
+    static final EmptyTiming INSTANCE = new EmptyTiming();
+
+    private EmptyTiming() {
         super();
     }
 
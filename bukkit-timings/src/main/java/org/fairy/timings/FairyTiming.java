@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.timings;
+
+import lombok.Getter;
+
+/**
+ * Timing recorded by the {@link TimingRecorder}, used when no server timings implementation is available
+ */
+@Getter
+public class FairyTiming extends MCTiming {
+
+    private final String plugin;
+    private final String name;
+    private final FairyTiming parent;
+    private final int depth;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final ThreadLocal<long[]> state = ThreadLocal.withInitial(() -> new long[2]);
+
+    FairyTiming(String plugin, String name, MCTiming parent) {
+        this.plugin = plugin;
+        this.name = name;
+        this.parent = parent instanceof FairyTiming ? (FairyTiming) parent : null;
+        this.depth = this.parent != null ? this.parent.depth + 1 : 0;
+    }
+
+    @Override
+    public MCTiming startTiming() {
+        long[] state = this.state.get();
+        // only the outermost call is recorded when the same timing is started again on the thread
+        if (state[1]++ == 0) {
+            state[0] = System.nanoTime();
+        }
+        return this;
+    }
+
+    @Override
+    public void stopTiming() {
+        long[] state = this.state.get();
+        if (state[1] == 0) {
+            return;
+        }
+
+        if (--state[1] == 0) {
+            this.histogram.record(System.nanoTime() - state[0]);
+        }
+    }
+
+    public String getPath() {
+        return this.parent != null ? this.parent.getPath() + " > " + this.name : this.name;
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.timings;
+
+import lombok.Getter;
+import org.fairy.util.Stacktrace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects every {@link FairyTiming} and turns them into reports or JSON / CSV exports
+ */
+public class TimingRecorder {
+
+    public static final TimingRecorder INSTANCE = new TimingRecorder();
+
+    private final Queue<FairyTiming> timings = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService exportExecutor;
+    private ScheduledFuture<?> exportTask;
+
+    private TimingRecorder() {
+    }
+
+    FairyTiming newTiming(String plugin, String name, MCTiming parent) {
+        FairyTiming timing = new FairyTiming(plugin, name, parent);
+        this.timings.add(timing);
+        return timing;
+    }
+
+    /**
+     * @return a snapshot of every timing that recorded at least once, children directly follow their parent
+     */
+    public List<Entry> snapshot() {
+        List<FairyTiming> timings = new ArrayList<>(this.timings);
+        timings.sort(Comparator.comparing(FairyTiming::getPath));
+
+        List<Entry> entries = new ArrayList<>(timings.size());
+        for (FairyTiming timing : timings) {
+            LatencyHistogram histogram = timing.getHistogram();
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+
+            entries.add(new Entry(
+                    timing.getPlugin(),
+                    timing.getPath(),
+                    timing.getName(),
+                    timing.getDepth(),
+                    count,
+                    histogram.getTotal(),
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(95),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getMax()
+            ));
+        }
+        return entries;
+    }
+
+    /**
+     * @return human readable lines, one per timing and indented by nesting
+     */
+    public List<String> report() {
+        List<Entry> entries = this.snapshot();
+        List<String> lines = new ArrayList<>(entries.size() + 1);
+        lines.add("Timings (" + entries.size() + ") - count / avg / p95 / p99 / max in ms");
+
+        for (Entry entry : entries) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < entry.getDepth(); i++) {
+                builder.append("  ");
+            }
+            builder.append(entry.getName())
+                    .append(": ").append(entry.getCount())
+                    .append(" / ").append(millis(entry.getAverage()))
+                    .append(" / ").append(millis(entry.getP95()))
+                    .append(" / ").append(millis(entry.getP99()))
+                    .append(" / ").append(millis(entry.getMax()));
+            lines.add(builder.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Write the current snapshot into the folder with a timestamped file name
+     *
+     * @return the written file
+     */
+    public Path export(Path folder, Format format) throws IOException {
+        Files.createDirectories(folder);
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        Path file = folder.resolve("timings-" + timestamp + "." + format.getExtension());
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            format.write(this.snapshot(), writer);
+        }
+        return file;
+    }
+
+    /**
+     * Export into the folder every period on a background thread, replacing the previous schedule
+     */
+    public synchronized void exportPeriodically(Path folder, Format format, long period, TimeUnit unit) {
+        this.stopExport();
+        if (this.exportExecutor == null) {
+            this.exportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fairy-timings-export");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        this.exportTask = this.exportExecutor.scheduleAtFixedRate(() -> {
+            try {
+                this.export(folder, format);
+            } catch (IOException e) {
+                Stacktrace.print(e);
+            }
+        }, period, period, unit);
+    }
+
+    public synchronized void stopExport() {
+        if (this.exportTask != null) {
+            this.exportTask.cancel(false);
+            this.exportTask = null;
+        }
+    }
+
+    /**
+     * Stop the periodic export and its thread, a later {@link #exportPeriodically} starts a new one
+     */
+    public synchronized void shutdown() {
+        this.stopExport();
+        if (this.exportExecutor != null) {
+            this.exportExecutor.shutdown();
+            this.exportExecutor = null;
+        }
+    }
+
+    public synchronized boolean isExporting() {
+        return this.exportTask != null;
+    }
+
+    public void reset() {
+        for (FairyTiming timing : this.timings) {
+            timing.getHistogram().reset();
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0D);
+    }
+
+    @Getter
+    public static class Entry {
+
+        private final String plugin;
+        private final String path;
+        private final String name;
+        private final int depth;
+        private final long count;
+        private final long total;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+
+        private Entry(String plugin, String path, String name, int depth, long count, long total, long p50, long p95, long p99, long max) {
+            this.plugin = plugin;
+            this.path = path;
+            this.name = name;
+            this.depth = depth;
+            this.count = count;
+            this.total = total;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getAverage() {
+            return this.total / this.count;
+        }
+
+    }
+
+    @Getter
+    public enum Format {
+        JSON("json") {
+            @Override
+            void write(List<Entry> entries, Writer writer) throws IOException {
+                writer.write("[\n");
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    writer.write("  {\"plugin\": " + quote(entry.getPlugin())
+                            + ", \"path\": " + quote(entry.getPath())
+                            + ", \"depth\": " + entry.getDepth()
+                            + ", \"count\": " + entry.getCount()
+                            + ", \"totalNanos\": " + entry.getTotal()
+                            + ", \"p50Nanos\": " + entry.getP50()
+                            + ", \"p95Nanos\": " + entry.getP95()
+                            + ", \"p99Nanos\": " + entry.getP99()
+                            + ", \"maxNanos\": " + entry.getMax()
+                            + "}" + (i + 1 < entries.size() ? "," : "") + "\n");
+                }
+                writer.write("]\n");
+            }
+        },
+        CSV("csv") {
+            @Override
+            void write(List<Entry> entries, Writer writer) throws IOException {
+                writer.write("plugin,path,depth,count,total_ns,p50_ns,p95_ns,p99_ns,max_ns\n");
+                for (Entry entry : entries) {
+                    writer.write(csv(entry.getPlugin()) + "," + csv(entry.getPath()) + "," + entry.getDepth()
+                            + "," + entry.getCount() + "," + entry.getTotal()
+                            + "," + entry.getP50() + "," + entry.getP95() + "," + entry.getP99()
+                            + "," + entry.getMax() + "\n");
+                }
+            }
+        };
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        abstract void write(List<Entry> entries, Writer writer) throws IOException;
+
+        private static String quote(String value) {
+            if (value == null) {
+                return "null";
+            }
+            StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        builder.append("\\\"");
+                        break;
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    case '\r':
+                        builder.append("\\r");
+                        break;
+                    case '\t':
+                        builder.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            builder.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                        } else {
+                            builder.append(c);
+                        }
+                        break;
+                }
+            }
+            return builder.append('"').toString();
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+    }
+
+}
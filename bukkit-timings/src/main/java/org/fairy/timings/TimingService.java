@@ -24,22 +24,32 @@
 
 package org.fairy.timings;
 
+import lombok.Value;
 import org.bukkit.plugin.Plugin;
+import org.fairy.bean.PreDestroy;
 import org.fairy.bean.PreInitialize;
 import org.fairy.bean.Service;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service(name = "timings")
 public class TimingService {
 
+    /**
+     * Set to true to record with the {@link TimingRecorder} instead of the server timings implementation
+     */
+    public static boolean USE_FAIRY_TIMINGS = Boolean.getBoolean("fairy.timings.recorder");
+
     private TimingType timingType;
-    private final Map<String, MCTiming> timingCache = new HashMap<>(0);
+    private final Map<Object, MCTiming> timingCache = new ConcurrentHashMap<>();
 
     @PreInitialize
     public void preInit() {
+        if (timingType == null && USE_FAIRY_TIMINGS) {
+            timingType = TimingType.FAIRY;
+        }
         if (timingType == null) {
             try {
                 Class<?> clazz = Class.forName("co.aikar.timings.Timing");
@@ -60,6 +70,30 @@ public class TimingService {
         }
     }
 
+    @PreDestroy
+    public void preDestroy() {
+        // the scheduled export thread must not outlive the plugin
+        TimingRecorder.INSTANCE.shutdown();
+    }
+
+    /**
+     * @return false if no timings implementation is available or preInit hasn't run yet, every timing is then a no-op
+     */
+    public boolean isEnabled() {
+        return timingType != null && timingType != TimingType.EMPTY;
+    }
+
+    /**
+     * @return true if timings are recorded by the {@link TimingRecorder}
+     */
+    public boolean isRecording() {
+        return timingType == TimingType.FAIRY;
+    }
+
+    public TimingRecorder getRecorder() {
+        return TimingRecorder.INSTANCE;
+    }
+
     @SuppressWarnings("WeakerAccess")
     public MCTiming ofStart(Plugin plugin, String name) {
         return ofStart(plugin, name, null);
@@ -77,20 +111,25 @@ public class TimingService {
 
     @SuppressWarnings("WeakerAccess")
     public MCTiming of(Plugin plugin, String name, MCTiming parent) {
+        if (!this.isEnabled()) {
+            return EmptyTiming.INSTANCE;
+        }
 
-        MCTiming timing;
-        if (timingType.useCache()) {
-            synchronized (timingCache) {
-                String lowerKey = name.toLowerCase();
-                timing = timingCache.get(lowerKey);
-                if (timing == null) {
-                    timing = timingType.newTiming(plugin, name, parent);
-                    timingCache.put(lowerKey, timing);
-                }
-            }
-            return timing;
+        // spigot timings only have a name, so plugins and parents share the same handler
+        Object key = timingType == TimingType.SPIGOT ? name.toLowerCase() : new TimingKey(plugin, name, parent);
+        MCTiming timing = timingCache.get(key);
+        if (timing == null) {
+            timing = timingCache.computeIfAbsent(key, ignored -> timingType.newTiming(plugin, name, parent));
         }
+        return timing;
+    }
+
+    @Value
+    private static class TimingKey {
+
+        Plugin plugin;
+        String name;
+        MCTiming parent;
 
-        return timingType.newTiming(plugin, name, parent);
     }
 }
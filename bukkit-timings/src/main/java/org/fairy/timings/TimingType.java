@@ -29,7 +29,7 @@ import org.bukkit.plugin.Plugin;
 import java.lang.reflect.InvocationTargetException;
 
 enum TimingType {
-    SPIGOT(true) {
+    SPIGOT() {
         @Override
         MCTiming newTiming(Plugin plugin, String command, MCTiming parent) {
             return new SpigotCustomTiming(command);
@@ -47,26 +47,19 @@ enum TimingType {
             try {
                 return new Minecraft18Timing(plugin, command, parent);
             } catch (InvocationTargetException | IllegalAccessException e) {
-                return new EmptyTiming();
+                return EmptyTiming.INSTANCE;
             }
         }
     },
+    FAIRY() {
+        @Override
+        MCTiming newTiming(Plugin plugin, String command, MCTiming parent) {
+            return TimingRecorder.INSTANCE.newTiming(plugin != null ? plugin.getName() : null, command, parent);
+        }
+    },
     EMPTY();
 
-    private final boolean useCache;
-
-    public boolean useCache() {
-        return useCache;
-    }
-
-    TimingType() {
-        this(false);
-    }
-    TimingType(boolean useCache) {
-        this.useCache = useCache;
-    }
-
     MCTiming newTiming(Plugin plugin, String command, MCTiming parent) {
-        return new EmptyTiming();
+        return EmptyTiming.INSTANCE;
     }
 }
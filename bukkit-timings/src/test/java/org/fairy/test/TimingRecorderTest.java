@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.timings.MCTiming;
+import org.fairy.timings.TimingRecorder;
+import org.fairy.timings.TimingService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TimingRecorderTest {
+
+    @Test
+    public void recordsNestedTimings() {
+        TimingService timingService = this.timingService();
+        Assert.assertTrue(timingService.isRecording());
+
+        MCTiming parent = timingService.of(null, "recorder-parent");
+        MCTiming child = timingService.of(null, "recorder-child", parent);
+        for (int i = 0; i < 100; i++) {
+            try (MCTiming ignored = parent.startTiming()) {
+                // reentrant start of the same timing must only be counted once
+                parent.startTiming();
+                child.startTiming().stopTiming();
+                parent.stopTiming();
+            }
+        }
+
+        List<TimingRecorder.Entry> entries = timingService.getRecorder().snapshot().stream()
+                .filter(entry -> entry.getPath().startsWith("recorder-parent"))
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("recorder-parent", entries.get(0).getPath());
+        Assert.assertEquals(100, entries.get(0).getCount());
+        Assert.assertEquals("recorder-parent > recorder-child", entries.get(1).getPath());
+        Assert.assertEquals(1, entries.get(1).getDepth());
+        Assert.assertEquals(100, entries.get(1).getCount());
+        Assert.assertTrue(entries.get(0).getP50() <= entries.get(0).getMax());
+    }
+
+    @Test
+    public void exportsSnapshot() throws Exception {
+        TimingService timingService = this.timingService();
+        timingService.of(null, "recorder-export").startTiming().stopTiming();
+
+        Path folder = Files.createTempDirectory("fairy-timings");
+        Path json = timingService.getRecorder().export(folder, TimingRecorder.Format.JSON);
+        Path csv = timingService.getRecorder().export(folder.resolve("csv"), TimingRecorder.Format.CSV);
+
+        Assert.assertTrue(new String(Files.readAllBytes(json), StandardCharsets.UTF_8).contains("\"path\": \"recorder-export\""));
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        Assert.assertTrue(lines.get(0).startsWith("plugin,path,depth,count"));
+        Assert.assertTrue(lines.stream().anyMatch(line -> line.startsWith(",\"recorder-export\",0,1,")));
+    }
+
+    @Test
+    public void escapesJsonStrings() throws Exception {
+        TimingService timingService = this.timingService();
+        timingService.of(null, "recorder-escape \\ \" \n \u0001").startTiming().stopTiming();
+
+        Path json = timingService.getRecorder().export(Files.createTempDirectory("fairy-timings"), TimingRecorder.Format.JSON);
+
+        String content = new String(Files.readAllBytes(json), StandardCharsets.UTF_8);
+        Assert.assertTrue(content.contains("\"path\": \"recorder-escape \\\\ \\\" \\n \\u0001\""));
+    }
+
+    @Test
+    public void exportsPeriodicallyUntilShutdown() throws Exception {
+        TimingService timingService = this.timingService();
+        timingService.of(null, "recorder-periodic").startTiming().stopTiming();
+        TimingRecorder recorder = timingService.getRecorder();
+
+        Path folder = Files.createTempDirectory("fairy-timings");
+        recorder.exportPeriodically(folder, TimingRecorder.Format.CSV, 10, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(recorder.isExporting());
+        try {
+            long deadline = System.currentTimeMillis() + 5_000L;
+            while (!this.hasFiles(folder) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            Assert.assertTrue(this.hasFiles(folder));
+        } finally {
+            timingService.preDestroy();
+        }
+
+        Assert.assertFalse(recorder.isExporting());
+    }
+
+    private boolean hasFiles(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.findAny().isPresent();
+        }
+    }
+
+    private TimingService timingService() {
+        TimingService.USE_FAIRY_TIMINGS = true;
+        try {
+            TimingService timingService = new TimingService();
+            timingService.preInit();
+            return timingService;
+        } finally {
+            TimingService.USE_FAIRY_TIMINGS = false;
+        }
+    }
+
+}
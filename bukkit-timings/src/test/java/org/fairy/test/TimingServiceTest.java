@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.timings.MCTiming;
+import org.fairy.timings.TimingService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+public class TimingServiceTest {
+
+    @Test
+    public void emptyTimingsAreShared() throws Exception {
+        // the server api on the test classpath ships timings, the empty type is what servers without any get
+        TimingService timingService = new TimingService();
+        Field timingType = TimingService.class.getDeclaredField("timingType");
+        timingType.setAccessible(true);
+        timingType.set(timingService, Enum.valueOf(timingType.getType().asSubclass(Enum.class), "EMPTY"));
+
+        Assert.assertFalse(timingService.isEnabled());
+        MCTiming parent = timingService.of(null, "EventSubscription - PlayerMoveEvent");
+        Assert.assertSame(parent, timingService.of(null, "listener", parent));
+        Assert.assertSame(parent, parent.startTiming());
+    }
+
+    @Test
+    public void timingsAreCachedPerKey() {
+        TimingService timingService = this.timingService();
+        Assert.assertTrue(timingService.isEnabled());
+
+        MCTiming parent = timingService.of(null, "service-parent");
+        MCTiming child = timingService.of(null, "service-child", parent);
+
+        Assert.assertSame(parent, timingService.of(null, "service-parent"));
+        Assert.assertSame(child, timingService.of(null, "service-child", parent));
+        Assert.assertNotSame(child, timingService.of(null, "service-child"));
+        Assert.assertNotSame(parent, timingService.of(null, "Service-Parent"));
+    }
+
+    @Test
+    public void disabledBeforePreInit() {
+        TimingService timingService = new TimingService();
+
+        Assert.assertFalse(timingService.isEnabled());
+        Assert.assertSame(timingService.of(null, "before-init"), timingService.of(null, "other"));
+    }
+
+    private TimingService timingService() {
+        TimingService.USE_FAIRY_TIMINGS = true;
+        try {
+            TimingService timingService = new TimingService();
+            timingService.preInit();
+            return timingService;
+        } finally {
+            TimingService.USE_FAIRY_TIMINGS = false;
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.imanity.frameworktest;
+
+import org.fairy.bean.Autowired;
+import org.fairy.bean.BeanContext;
+import org.fairy.bean.BeanPlan;
+import org.fairy.bean.PostInitialize;
+import org.fairy.bean.details.BeanDetails;
+import org.fairy.bean.details.GenericBeanDetails;
+import org.fairy.bean.details.SimpleBeanDetails;
+import org.fairy.reflect.Reflect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of injecting and calling lifecycle methods through a {@link BeanPlan},
+ * against the reflective lookup and {@link Field#set}/{@link Method#invoke} it replaced
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeanPlanBenchmark {
+
+    private BeanContext beanContext;
+    private Target target;
+    private BeanDetails details;
+    private BeanPlan.LifecycleMethod postInitialize;
+    private Method postInitializeMethod;
+
+    @Setup
+    public void setup() {
+        this.beanContext = new BeanContext();
+        this.beanContext.registerBean(new SimpleBeanDetails(new Dependency(), "dependency", Dependency.class));
+
+        this.target = new Target();
+        this.details = new GenericBeanDetails(Target.class, this.target, "target");
+        this.postInitialize = BeanPlan.of(Target.class).getLifecycleMethods(PostInitialize.class).get(0);
+        this.postInitializeMethod = this.postInitialize.getMethod();
+    }
+
+    @Benchmark
+    public Target inject() {
+        this.beanContext.injectBeans(this.target);
+        return this.target;
+    }
+
+    @Benchmark
+    public Object lifecycle() throws Exception {
+        return this.postInitialize.invoke(this.target, this.details);
+    }
+
+    @Benchmark
+    public Target reflectiveInject() throws Exception {
+        for (Field field : Reflect.getDeclaredFields(this.target.getClass())) {
+            int modifiers = field.getModifiers();
+            if (field.getAnnotation(Autowired.class) == null || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                continue;
+            }
+
+            field.setAccessible(true);
+            field.set(this.target, this.beanContext.getBean(field.getType()));
+        }
+        return this.target;
+    }
+
+    @Benchmark
+    public Object reflectiveLifecycle() throws Exception {
+        return this.postInitializeMethod.invoke(this.target, this.details);
+    }
+
+    public static final class Dependency {
+    }
+
+    public static final class Target {
+
+        @Autowired
+        private Dependency dependency;
+
+        private Object postInitialized;
+
+        @PostInitialize
+        private void postInit(BeanDetails beanDetails) {
+            this.postInitialized = beanDetails;
+        }
+
+    }
+
+}
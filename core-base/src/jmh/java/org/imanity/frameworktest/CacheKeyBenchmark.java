@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.imanity.frameworktest;
+
+import org.fairy.cache.script.SpringELParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of cache key expressions, interpreted against compiled per method
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheKeyBenchmark {
+
+    @Param({"'test-' + #args[0]", "'test-' + #args[0].getId()"})
+    private String expression;
+
+    private SpringELParser parser;
+    private Method method;
+    private Object[] arguments;
+
+    @Setup
+    public void setup() throws Exception {
+        this.parser = new SpringELParser();
+        this.method = Keys.class.getDeclaredMethod("byDummy", Dummy.class);
+        this.arguments = new Object[] {new Dummy(42)};
+    }
+
+    @Benchmark
+    public String interpreted() throws Exception {
+        return this.parser.getElValue(this.expression, null, this.arguments, null, false, String.class);
+    }
+
+    @Benchmark
+    public String compiled() throws Exception {
+        return this.parser.getElValue(this.method, this.expression, null, this.arguments, null, false, String.class);
+    }
+
+    public static final class Dummy {
+
+        private final int id;
+
+        public Dummy(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return this.id;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(this.id);
+        }
+
+    }
+
+    public static final class Keys {
+
+        public long byDummy(Dummy dummy) {
+            return dummy.getId();
+        }
+
+    }
+
+}
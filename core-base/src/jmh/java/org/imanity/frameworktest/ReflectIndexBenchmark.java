@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.imanity.frameworktest;
+
+import org.fairy.bean.Autowired;
+import org.fairy.bean.Bean;
+import org.fairy.bean.Service;
+import org.fairy.reflect.ReflectIndex;
+import org.fairy.reflect.ReflectLookup;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Startup lookup of the compile-time reflect index against Reflections classpath scanning,
+ * over a synthetic jar with a few thousand classes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReflectIndexBenchmark {
+
+    private static final String PACKAGE = "org.imanity.frameworktest.synthetic";
+    private static final int CLASSES = 3000;
+
+    private File jar;
+    private URL[] urls;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.jar = File.createTempFile("fairy-synthetic", ".jar");
+        this.urls = new URL[] {this.jar.toURI().toURL()};
+
+        ReflectIndex.Builder builder = new ReflectIndex.Builder()
+                .annotation(Service.class.getName())
+                .annotation(Bean.class.getName())
+                .annotation(Autowired.class.getName())
+                .packageName(PACKAGE);
+
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(this.jar))) {
+            for (int i = 0; i < CLASSES; i++) {
+                String className = PACKAGE + ".Synthetic" + i;
+                boolean service = i % 30 == 0, bean = i % 100 == 0, autowired = i % 50 == 0;
+
+                out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+                out.write(generateClass(className, service, bean, autowired));
+                out.closeEntry();
+
+                if (service) {
+                    builder.type(Service.class.getName(), className);
+                }
+                if (bean) {
+                    builder.method(Bean.class.getName(), className, "create");
+                }
+                if (autowired) {
+                    builder.field(Autowired.class.getName(), className, "wired");
+                }
+            }
+
+            out.putNextEntry(new JarEntry(ReflectIndex.RESOURCE));
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            builder.write(writer);
+            writer.flush();
+            out.closeEntry();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.jar.delete();
+    }
+
+    @Benchmark
+    public int index() throws Exception {
+        return this.lookup(true);
+    }
+
+    @Benchmark
+    public int scanning() throws Exception {
+        return this.lookup(false);
+    }
+
+    private int lookup(boolean useIndex) throws Exception {
+        // Fresh class loader every time so class loading is paid for on both paths
+        try (URLClassLoader classLoader = new URLClassLoader(this.urls, ReflectIndexBenchmark.class.getClassLoader())) {
+            ReflectLookup lookup = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton(PACKAGE), useIndex);
+
+            return lookup.findAnnotatedClasses(Service.class).size()
+                    + lookup.findAnnotatedStaticMethods(Bean.class).size()
+                    + lookup.findAnnotatedStaticFields(Autowired.class).size();
+        }
+    }
+
+    private static byte[] generateClass(String className, boolean service, boolean bean, boolean autowired) {
+        String internalName = className.replace('.', '/');
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, "java/lang/Object", null);
+
+        if (service) {
+            AnnotationVisitor annotation = writer.visitAnnotation("Lorg/fairy/bean/Service;", true);
+            annotation.visit("name", "synthetic" + className);
+            annotation.visitEnd();
+        }
+
+        FieldVisitor field = writer.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "wired", "Ljava/lang/Object;", null, null);
+        if (autowired) {
+            field.visitAnnotation("Lorg/fairy/bean/Autowired;", true).visitEnd();
+        }
+        field.visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "create", "()Ljava/lang/Object;", null, null);
+        if (bean) {
+            method.visitAnnotation("Lorg/fairy/bean/Bean;", true).visitEnd();
+        }
+        method.visitCode();
+        method.visitTypeInsn(Opcodes.NEW, "java/lang/Object");
+        method.visitInsn(Opcodes.DUP);
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+}
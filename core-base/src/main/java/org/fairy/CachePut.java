@@ -48,6 +48,16 @@ public @interface CachePut {
 
     boolean forever() default false;
 
+    /**
+     * Reset the lifetime whenever the cached object is read, instead of only when it is written.
+     */
+    boolean expireAfterAccess() default false;
+
+    /**
+     * Weight of the cached object against the maximum weight of its cache manager.
+     */
+    int weight() default 1;
+
     /**
      * Prevent to store value if one of argument were null
      *
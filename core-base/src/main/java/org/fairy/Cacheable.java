@@ -42,8 +42,8 @@ public @interface Cacheable {
     /**
      * Time units of object lifetime.
      *
-     * <p>The minimum unit you can use is a second. We simply can't cache for
-     * less than a second, because cache is being cleaned every second.
+     * <p>With {@link org.fairy.cache.manager.CacheManagerConcurrentMap} the minimum unit
+     * you can use is a second, because that cache is being cleaned every second.
      */
     TimeUnit unit() default TimeUnit.MINUTES;
 
@@ -52,6 +52,16 @@ public @interface Cacheable {
      */
     boolean forever() default false;
 
+    /**
+     * Reset the lifetime whenever the cached object is read, instead of only when it is written.
+     */
+    boolean expireAfterAccess() default false;
+
+    /**
+     * Weight of the cached object against the maximum weight of its cache manager.
+     */
+    int weight() default 1;
+
     /**
      * Storing the key of the cacheable
      *
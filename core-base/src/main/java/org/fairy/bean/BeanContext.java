@@ -44,12 +44,19 @@ import org.fairy.util.AccessUtil;
 import org.fairy.util.NonNullArrayList;
 import org.fairy.util.SimpleTiming;
 import org.fairy.util.Utility;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class BeanContext {
@@ -58,6 +65,13 @@ public class BeanContext {
     public static BeanContext INSTANCE;
     public static final int PLUGIN_LISTENER_PRIORITY = 100;
 
+    /**
+     * Construct Services and call their lifecycle methods in parallel per dependency level,
+     * off by default since most services expect to be initialized on the main thread
+     */
+    public static boolean PARALLEL_INITIALIZATION = Boolean.getBoolean("fairy.bean.parallelInitialization");
+    private static ForkJoinPool INITIALIZATION_POOL;
+
     /**
      * Logging
      */
@@ -191,7 +205,12 @@ public class BeanContext {
         this.beanByType.put(beanDetails.getType(), beanDetails);
         this.beanByName.put(beanDetails.getName(), beanDetails);
         if (sort) {
-            this.sortedBeans.add(beanDetails);
+            this.lock.writeLock().lock();
+            try {
+                this.sortedBeans.add(beanDetails);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
         }
 
         return beanDetails;
@@ -211,8 +230,11 @@ public class BeanContext {
         this.beanByName.remove(beanDetails.getName());
 
         this.lock.writeLock().lock();
-        this.sortedBeans.remove(beanDetails);
-        this.lock.writeLock().unlock();
+        try {
+            this.sortedBeans.remove(beanDetails);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
 
         final ImmutableList.Builder<BeanDetails> builder = ImmutableList.builder();
 
@@ -282,50 +304,27 @@ public class BeanContext {
      */
 
     public void injectAutowired(Field field, Object instance) throws ReflectiveOperationException {
-        Class<?> type = field.getType();
-        boolean optional = false, beanHolder = false;
-        if (type == Optional.class) {
-            optional = true;
-            type = Utility.sneaky(() -> Reflect.getParameter(field, 0));
-            if (type == null) {
-                return;
-            }
-        } else if (type == BeanHolder.class) {
-            beanHolder = true;
+        this.injectAutowired(new BeanPlan.AutowiredField(field), instance);
+    }
 
-            type = Utility.sneaky(() -> Reflect.getParameter(field, 0));
-            if (type == null) {
-                return;
-            }
-        }
-        Object objectToInject = this.getBean(type);
-        if (optional) {
-            objectToInject = Optional.ofNullable(objectToInject);
-        } else if (beanHolder) {
-            objectToInject = new BeanHolder<>(objectToInject);
+    public void injectAutowired(BeanPlan.AutowiredField autowiredField, Object instance) {
+        Class<?> type = autowiredField.getBeanType();
+        if (type == null) {
+            return;
         }
 
+        Object objectToInject = autowiredField.wrap(this.getBean(type));
         if (objectToInject != null) {
-            AccessUtil.setAccessible(field);
-            Reflect.setField(instance, field, objectToInject);
+            autowiredField.set(instance, objectToInject);
         } else {
-            LOGGER.error("The Autowired field " + field.toString() + " trying to wired with type " + type.getSimpleName() + " but couldn't find any matching Service! (or not being registered)");
+            LOGGER.error("The Autowired field " + autowiredField.getField().toString() + " trying to wired with type " + type.getSimpleName() + " but couldn't find any matching Service! (or not being registered)");
         }
     }
 
     public void injectBeans(Object instance) {
         try {
-            Collection<Field> fields = Reflect.getDeclaredFields(instance.getClass());
-
-            for (Field field : fields) {
-                int modifiers = field.getModifiers();
-                Autowired annotation = field.getAnnotation(Autowired.class);
-
-                if (annotation == null || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
-                    continue;
-                }
-
-                this.injectAutowired(field, instance);
+            for (BeanPlan.AutowiredField autowiredField : BeanPlan.of(instance.getClass()).getAutowiredFields()) {
+                this.injectAutowired(autowiredField, instance);
             }
         } catch (Throwable throwable) {
             LOGGER.error("Error while injecting beans for " + instance.getClass().getSimpleName(), throwable);
@@ -399,6 +398,7 @@ public class BeanContext {
         try (SimpleTiming ignored = logTiming("Reflect Lookup building")) {
             reflectLookup = new ReflectLookup(Collections.singleton(classLoader), classPaths);
         }
+        log("Reflect Lookup for %s is using %s", scanName, reflectLookup.isIndexed() ? "compile-time index" : "classpath scanning");
 
         // Scanning through the JAR to see every Service Bean can be registered
         List<BeanDetails> beanDetailsList;
@@ -470,15 +470,27 @@ public class BeanContext {
         }
 
         // Load Beans in Dependency Tree Order
+        List<List<BeanDetails>> levels;
         try (SimpleTiming ignored = logTiming("Initializing Beans")) {
-            beanDetailsList = this.loadInOrder(beanDetailsList);
+            levels = this.loadInOrder(beanDetailsList);
+            beanDetailsList = levels.stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toCollection(NonNullArrayList::new));
         } catch (Throwable throwable) {
             LOGGER.error("An error occurs while handling loadInOrder()", throwable);
+            levels = beanDetailsList.stream()
+                    .map(Collections::singletonList)
+                    .collect(Collectors.toList());
         }
 
         // Unregistering Beans that returns false in shouldInitialize
         try (SimpleTiming ignored = logTiming("Unregistering Disabled Beans")) {
-            this.sortedBeans.addAll(beanDetailsList);
+            this.lock.writeLock().lock();
+            try {
+                this.sortedBeans.addAll(beanDetailsList);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
 
             for (BeanDetails beanDetails : ImmutableList.copyOf(beanDetailsList)) {
                 if (!beanDetailsList.contains(beanDetails)) {
@@ -504,12 +516,17 @@ public class BeanContext {
 
         // Call @PreInitialize methods for bean
         try (SimpleTiming ignored = logTiming("Call @PreInitialize")) {
-            this.call(PreInitialize.class, beanDetailsList);
+            levels = this.retainLevels(levels, beanDetailsList);
+            this.callInLevels(PreInitialize.class, levels);
         }
 
         // Scan Components
         try (SimpleTiming ignored = logTiming("Scanning Components")) {
-            beanDetailsList.addAll(ComponentRegistry.scanComponents(this, reflectLookup));
+            List<ComponentBeanDetails> components = ComponentRegistry.scanComponents(this, reflectLookup);
+
+            beanDetailsList.addAll(components);
+            levels = new ArrayList<>(levels);
+            levels.add(new ArrayList<>(components));
         }
 
         // Inject @Autowired fields for beans
@@ -540,7 +557,7 @@ public class BeanContext {
 
         // Call @PostInitialize
         try (SimpleTiming ignored = logTiming("Call @PostInitialize")) {
-            this.call(PostInitialize.class, beanDetailsList);
+            this.callInLevels(PostInitialize.class, this.retainLevels(levels, beanDetailsList));
         }
 
     }
@@ -555,7 +572,124 @@ public class BeanContext {
         }
     }
 
-    private List<BeanDetails> loadInOrder(List<BeanDetails> beanDetailsList) {
+    /**
+     * Call annotated methods level by level, beans in the same level may be called in parallel
+     */
+    public void callInLevels(Class<? extends Annotation> annotation, List<? extends Collection<BeanDetails>> levels) {
+        for (Collection<BeanDetails> level : levels) {
+            try {
+                this.runLevel(level, beanDetails -> {
+                    try {
+                        beanDetails.call(annotation);
+                    } catch (Throwable throwable) {
+                        LOGGER.error(throwable);
+                    }
+                });
+            } catch (Throwable throwable) {
+                LOGGER.error(throwable);
+            }
+        }
+    }
+
+    private List<List<BeanDetails>> retainLevels(List<List<BeanDetails>> levels, Collection<BeanDetails> beanDetailsList) {
+        Set<BeanDetails> retain = new HashSet<>(beanDetailsList);
+        List<List<BeanDetails>> result = new ArrayList<>(levels.size());
+
+        for (List<BeanDetails> level : levels) {
+            List<BeanDetails> retained = new ArrayList<>(level.size());
+            for (BeanDetails beanDetails : level) {
+                if (retain.contains(beanDetails)) {
+                    retained.add(beanDetails);
+                }
+            }
+
+            if (!retained.isEmpty()) {
+                result.add(retained);
+            }
+        }
+        return result;
+    }
+
+    private boolean isParallel(BeanDetails beanDetails) {
+        return PARALLEL_INITIALIZATION
+                && beanDetails instanceof ServiceBeanDetails
+                && !beanDetails.getType().isAnnotationPresent(InitializeOnMainThread.class);
+    }
+
+    private static synchronized ForkJoinPool initializationPool() {
+        if (INITIALIZATION_POOL == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            INITIALIZATION_POOL = new ForkJoinPool(
+                    Math.max(2, Runtime.getRuntime().availableProcessors()),
+                    pool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("fairy-bean-initializer-" + threadCount.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    null,
+                    false
+            );
+        }
+        return INITIALIZATION_POOL;
+    }
+
+    /**
+     * Run the consumer for every bean in one dependency level
+     *
+     * Parallel beans are handed to the initialization pool, while the others run on the current thread in between,
+     * the method returns once the whole level completed and rethrows the first failure
+     */
+    private void runLevel(Collection<BeanDetails> level, Consumer<BeanDetails> consumer) throws Throwable {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        List<BeanDetails> mainThread = new ArrayList<>();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        for (BeanDetails beanDetails : level) {
+            if (level.size() > 1 && this.isParallel(beanDetails)) {
+                tasks.add(initializationPool().submit(() -> {
+                    Thread thread = Thread.currentThread();
+                    ClassLoader previous = thread.getContextClassLoader();
+
+                    thread.setContextClassLoader(contextClassLoader);
+                    try {
+                        consumer.accept(beanDetails);
+                    } finally {
+                        thread.setContextClassLoader(previous);
+                    }
+                }));
+            } else {
+                mainThread.add(beanDetails);
+            }
+        }
+
+        Throwable failure = null;
+        for (BeanDetails beanDetails : mainThread) {
+            try {
+                consumer.accept(beanDetails);
+            } catch (Throwable throwable) {
+                if (failure == null) {
+                    failure = throwable;
+                }
+            }
+        }
+
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<List<BeanDetails>> loadInOrder(List<BeanDetails> beanDetailsList) throws Throwable {
         Map<String, BeanDetails> unloaded = new HashMap<>();
         for (BeanDetails beanDetails : beanDetailsList) {
             unloaded.put(beanDetails.getName(), beanDetails);
@@ -611,45 +745,105 @@ public class BeanContext {
             }
         }
 
-        // Continually loop until all dependency found and loaded
-        List<BeanDetails> sorted = new NonNullArrayList<>();
-
-        while (!unloaded.isEmpty()) {
-            Iterator<Map.Entry<String, BeanDetails>> iterator = unloaded.entrySet().iterator();
+        // Remove Services depending on something that is never going to be loaded
+        boolean changed = true;
+        while (changed) {
+            changed = false;
 
+            Iterator<BeanDetails> iterator = unloaded.values().iterator();
             while (iterator.hasNext()) {
-                Map.Entry<String, BeanDetails> entry = iterator.next();
-                BeanDetails beanDetails = entry.getValue();
-                boolean missingDependencies = false;
-
-                for (Map.Entry<ServiceDependencyType, List<String>> dependencyEntry : beanDetails.getDependencyEntries()) {
-                    final ServiceDependencyType type = dependencyEntry.getKey();
-                    for (String dependency : dependencyEntry.getValue()) {
-                        BeanDetails dependencyDetails = this.getBeanByName(dependency);
-                        if (dependencyDetails != null && dependencyDetails.getInstance() != null) {
-                            continue;
-                        }
+                BeanDetails beanDetails = iterator.next();
+                String unsatisfied = this.findUnsatisfiedDependency(beanDetails, unloaded);
 
-                        if (type == ServiceDependencyType.SUB && !unloaded.containsKey(dependency)) {
-                            continue;
-                        }
+                if (unsatisfied != null) {
+                    LOGGER.error("Couldn't find the dependency " + unsatisfied + " for " + beanDetails.getName() + "!");
+                    iterator.remove();
+                    changed = true;
+                }
+            }
+        }
 
-                        missingDependencies = true;
-                    }
+        // Compute dependency levels once, every bean only depends on beans in the levels before it
+        Map<String, Set<String>> pendingDependencies = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (BeanDetails beanDetails : unloaded.values()) {
+            Set<String> pending = new HashSet<>();
+            for (String dependency : beanDetails.getAllDependencies()) {
+                if (unloaded.containsKey(dependency) && !dependency.equals(beanDetails.getName())) {
+                    pending.add(dependency);
+                    dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(beanDetails.getName());
                 }
+            }
+            pendingDependencies.put(beanDetails.getName(), pending);
+        }
 
-                if (!missingDependencies) {
-                    if (beanDetails instanceof ServiceBeanDetails) {
-                        ((ServiceBeanDetails) beanDetails).build(this);
-                    }
+        List<List<BeanDetails>> levels = new ArrayList<>();
+        List<BeanDetails> current = new ArrayList<>();
+        for (BeanDetails beanDetails : unloaded.values()) {
+            if (pendingDependencies.get(beanDetails.getName()).isEmpty()) {
+                current.add(beanDetails);
+            }
+        }
 
-                    sorted.add(beanDetails);
-                    iterator.remove();
+        int loaded = 0;
+        while (!current.isEmpty()) {
+            levels.add(current);
+            loaded += current.size();
+
+            List<BeanDetails> next = new ArrayList<>();
+            for (BeanDetails beanDetails : current) {
+                for (String dependent : dependents.getOrDefault(beanDetails.getName(), Collections.emptyList())) {
+                    Set<String> pending = pendingDependencies.get(dependent);
+                    if (pending.remove(beanDetails.getName()) && pending.isEmpty()) {
+                        next.add(unloaded.get(dependent));
+                    }
                 }
             }
+            current = next;
         }
 
-        return sorted;
+        if (loaded < unloaded.size()) {
+            List<String> circular = pendingDependencies.entrySet().stream()
+                    .filter(entry -> !entry.getValue().isEmpty())
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .collect(Collectors.toList());
+            LOGGER.error("Beans " + String.join(", ", circular) + " are part of or depend on a circular dependency, skipping them!");
+        }
+
+        log("Initializing %d beans in %d dependency levels", loaded, levels.size());
+
+        // Build Services level by level
+        for (List<BeanDetails> level : levels) {
+            this.runLevel(level, beanDetails -> {
+                if (beanDetails instanceof ServiceBeanDetails) {
+                    ((ServiceBeanDetails) beanDetails).build(this);
+                }
+            });
+        }
+
+        return levels;
+    }
+
+    @Nullable
+    private String findUnsatisfiedDependency(BeanDetails beanDetails, Map<String, BeanDetails> unloaded) {
+        for (Map.Entry<ServiceDependencyType, List<String>> dependencyEntry : beanDetails.getDependencyEntries()) {
+            if (dependencyEntry.getKey() == ServiceDependencyType.SUB) {
+                continue;
+            }
+
+            for (String dependency : dependencyEntry.getValue()) {
+                if (unloaded.containsKey(dependency)) {
+                    continue;
+                }
+
+                BeanDetails dependencyDetails = this.getBeanByName(dependency);
+                if (dependencyDetails == null || dependencyDetails.getInstance() == null) {
+                    return dependency;
+                }
+            }
+        }
+        return null;
     }
 
     public List<String> findClassPaths(Class<?> plugin) {
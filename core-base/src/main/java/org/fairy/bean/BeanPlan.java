@@ -0,0 +1,320 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.bean;
+
+import lombok.Getter;
+import org.fairy.bean.details.BeanDetails;
+import org.fairy.reflect.ImanityReflectException;
+import org.fairy.reflect.Reflect;
+import org.fairy.util.Utility;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Precompiled plan of a bean type
+ *
+ * Lifecycle methods and @Autowired fields are resolved once per type and turned into {@link MethodHandle} invokers,
+ * so creating bean details and injecting beans doesn't go through reflection lookups again.
+ */
+public class BeanPlan {
+
+    @SuppressWarnings("unchecked")
+    private static final Class<? extends Annotation>[] LIFECYCLE_ANNOTATIONS = new Class[] {
+            PreInitialize.class, PostInitialize.class,
+            PreDestroy.class, PostDestroy.class,
+            ShouldInitialize.class
+    };
+
+    private static final MethodType LIFECYCLE_TYPE = MethodType.methodType(Object.class, Object.class, BeanDetails.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<BeanPlan> PLANS = new ClassValue<BeanPlan>() {
+        @Override
+        protected BeanPlan computeValue(Class<?> type) {
+            return new BeanPlan(type);
+        }
+    };
+
+    public static BeanPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    @Getter
+    private final Class<?> type;
+    @Getter
+    private final Map<Class<? extends Annotation>, String> disallowAnnotations;
+    @Getter
+    private final Map<Class<? extends Annotation>, Collection<Method>> annotatedMethods;
+    private final Map<Class<? extends Annotation>, List<Method>> methods;
+    private final Map<Class<? extends Annotation>, List<LifecycleMethod>> lifecycleMethods;
+
+    /**
+     * Whether the plan is the shared one from {@link #of(Class)} and can no longer be changed
+     */
+    @Getter
+    private boolean shared;
+    private volatile List<AutowiredField> autowiredFields;
+
+    private BeanPlan(Class<?> type) {
+        this.type = type;
+        this.disallowAnnotations = new HashMap<>();
+        this.methods = new HashMap<>();
+        this.lifecycleMethods = new HashMap<>();
+        this.annotatedMethods = Collections.unmodifiableMap(this.methods);
+
+        this.loadAnnotations(Utility.getSuperAndInterfaces(type));
+        this.shared = true;
+    }
+
+    private BeanPlan(BeanPlan plan) {
+        this.type = plan.type;
+        this.disallowAnnotations = new HashMap<>(plan.disallowAnnotations);
+        this.methods = new HashMap<>();
+        this.lifecycleMethods = new HashMap<>();
+        this.annotatedMethods = Collections.unmodifiableMap(this.methods);
+        this.autowiredFields = plan.autowiredFields;
+
+        plan.lifecycleMethods.forEach((annotation, methods) -> {
+            for (LifecycleMethod method : methods) {
+                this.add(annotation, method);
+            }
+        });
+    }
+
+    /**
+     * Copy the plan so more classes or methods can be loaded into it without touching the shared plan
+     *
+     * @return the copy
+     */
+    public BeanPlan copy() {
+        return new BeanPlan(this);
+    }
+
+    /**
+     * Load the @DisallowAnnotation and lifecycle methods declared by the classes
+     *
+     * @param superClasses the classes to load
+     */
+    public void loadAnnotations(Collection<Class<?>> superClasses) {
+        this.checkNotShared();
+        for (Class<?> superClass : superClasses) {
+            DisallowAnnotation disallowAnnotation = superClass.getAnnotation(DisallowAnnotation.class);
+            if (disallowAnnotation != null) {
+                for (Class<? extends Annotation> annotation : disallowAnnotation.value()) {
+                    this.disallowAnnotations.put(annotation, superClass.getName());
+                }
+            }
+        }
+
+        for (Class<?> superClass : superClasses) {
+            if (superClass.isInterface()) {
+                continue;
+            }
+
+            for (Method method : superClass.getDeclaredMethods()) {
+                this.loadMethod(method);
+            }
+        }
+    }
+
+    /**
+     * Load the method if it's annotated with a lifecycle annotation
+     *
+     * @param method the method
+     */
+    public void loadMethod(Method method) {
+        this.checkNotShared();
+        for (Class<? extends Annotation> annotation : LIFECYCLE_ANNOTATIONS) {
+            if (method.getAnnotation(annotation) != null) {
+                if (this.disallowAnnotations.containsKey(annotation)) {
+                    String className = this.disallowAnnotations.get(annotation);
+                    throw new IllegalArgumentException("The annotation " + annotation.getSimpleName() + " is disallowed by class " + className + ", But it used in method " + method.toString());
+                }
+
+                int parameterCount = method.getParameterCount();
+                if (parameterCount > 0) {
+                    if (parameterCount != 1 || !BeanDetails.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                        throw new IllegalArgumentException("The method " + method.toString() + " used annotation " + annotation.getSimpleName() + " but doesn't have matches parameters! you can only use either no parameter or one parameter with ServerData type on annotated " + annotation.getSimpleName() + "!");
+                    }
+                }
+
+                if (annotation == ShouldInitialize.class && method.getReturnType() != boolean.class) {
+                    throw new IllegalArgumentException("The method " + method.toString() + " used annotation " + annotation.getSimpleName() + " but doesn't have matches return type! you can only use boolean as return type on annotated " + annotation.getSimpleName() + "!");
+                }
+                method.setAccessible(true);
+
+                this.add(annotation, new LifecycleMethod(method));
+                break;
+            }
+        }
+    }
+
+    private void add(Class<? extends Annotation> annotation, LifecycleMethod method) {
+        this.lifecycleMethods.computeIfAbsent(annotation, ignored -> new ArrayList<>()).add(method);
+        this.methods.computeIfAbsent(annotation, ignored -> new ArrayList<>()).add(method.getMethod());
+    }
+
+    private void checkNotShared() {
+        if (this.shared) {
+            throw new IllegalStateException("The plan of " + this.type.getName() + " is shared, copy() it before loading more annotations");
+        }
+    }
+
+    public List<LifecycleMethod> getLifecycleMethods(Class<? extends Annotation> annotation) {
+        return this.lifecycleMethods.getOrDefault(annotation, Collections.emptyList());
+    }
+
+    public boolean hasLifecycleMethods(Class<? extends Annotation> annotation) {
+        return this.lifecycleMethods.containsKey(annotation);
+    }
+
+    /**
+     * The @Autowired instance fields of the type, resolved on first use
+     *
+     * @return the fields
+     */
+    public List<AutowiredField> getAutowiredFields() {
+        List<AutowiredField> fields = this.autowiredFields;
+        if (fields == null) {
+            fields = new ArrayList<>();
+            for (Field field : Reflect.getDeclaredFields(this.type)) {
+                int modifiers = field.getModifiers();
+                if (field.getAnnotation(Autowired.class) == null || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+
+                try {
+                    fields.add(new AutowiredField(field));
+                } catch (ReflectiveOperationException ex) {
+                    throw new ImanityReflectException("Unable to access @Autowired field " + field, ex);
+                }
+            }
+            this.autowiredFields = fields = Collections.unmodifiableList(fields);
+        }
+        return fields;
+    }
+
+    @Getter
+    public static class LifecycleMethod {
+
+        private final Method method;
+        private final MethodHandle handle;
+
+        public LifecycleMethod(Method method) {
+            this.method = method;
+
+            try {
+                MethodHandle handle = Reflect.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                if (method.getParameterCount() == 0) {
+                    handle = MethodHandles.dropArguments(handle, 1, BeanDetails.class);
+                }
+
+                this.handle = handle.asType(LIFECYCLE_TYPE);
+            } catch (IllegalAccessException ex) {
+                throw new ImanityReflectException("Unable to access lifecycle method " + method, ex);
+            }
+        }
+
+        public Object invoke(Object instance, BeanDetails beanDetails) throws InvocationTargetException {
+            try {
+                return (Object) this.handle.invokeExact(instance, beanDetails);
+            } catch (Throwable throwable) {
+                throw new InvocationTargetException(throwable);
+            }
+        }
+
+    }
+
+    @Getter
+    public static class AutowiredField {
+
+        private final Field field;
+        private final MethodHandle setter;
+
+        /**
+         * The bean type to look up, null if it couldn't be resolved
+         */
+        @Nullable
+        private final Class<?> beanType;
+        private final boolean optional;
+        private final boolean beanHolder;
+
+        public AutowiredField(Field field) throws ReflectiveOperationException {
+            this.field = field;
+
+            Class<?> type = field.getType();
+            this.optional = type == Optional.class;
+            this.beanHolder = type == BeanHolder.class;
+            if (this.optional || this.beanHolder) {
+                type = Utility.sneaky(() -> Reflect.getParameter(field, 0));
+            }
+            this.beanType = type;
+
+            MethodHandle setter = Reflect.lookup().unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            this.setter = setter.asType(SETTER_TYPE);
+        }
+
+        /**
+         * Wrap the bean for the field type
+         *
+         * @param bean the bean, nullable
+         * @return the object to be injected, null if there is nothing to inject
+         */
+        @Nullable
+        public Object wrap(@Nullable Object bean) {
+            if (this.optional) {
+                return Optional.ofNullable(bean);
+            } else if (this.beanHolder) {
+                return new BeanHolder<>(bean);
+            }
+            return bean;
+        }
+
+        public void set(@Nullable Object instance, Object value) {
+            try {
+                this.setter.invokeExact(instance, value);
+            } catch (Throwable throwable) {
+                throw new ImanityReflectException("Unable to inject @Autowired field " + this.field, throwable);
+            }
+        }
+
+    }
+
+}
@@ -37,13 +37,13 @@ public class ComponentRegistry {
 
     private static final EntryArrayList<Class<?>, ComponentHolder> COMPONENT_HOLDERS = new EntryArrayList<>();
 
-    public static void registerComponentHolder(ComponentHolder componentHolder) {
+    public static synchronized void registerComponentHolder(ComponentHolder componentHolder) {
         for (Class<?> type : componentHolder.type()) {
             COMPONENT_HOLDERS.add(type, componentHolder);
         }
     }
 
-    public static ComponentHolder getComponentHolder(Class<?> type) {
+    public static synchronized ComponentHolder getComponentHolder(Class<?> type) {
 
         for (Entry<Class<?>, ComponentHolder> entry : COMPONENT_HOLDERS) {
             if (entry.getKey().isAssignableFrom(type)) {
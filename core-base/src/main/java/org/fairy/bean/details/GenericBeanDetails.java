@@ -29,7 +29,6 @@ import lombok.Setter;
 import lombok.SneakyThrows;
 import org.fairy.bean.*;
 import org.fairy.plugin.AbstractPlugin;
-import org.fairy.util.Utility;
 import org.fairy.util.terminable.composite.CompositeClosingException;
 import org.fairy.util.terminable.composite.CompositeTerminable;
 import org.jetbrains.annotations.NotNull;
@@ -45,17 +44,12 @@ import java.util.concurrent.ConcurrentHashMap;
 @Setter
 public class GenericBeanDetails implements BeanDetails {
 
-    private static final Class<? extends Annotation>[] ANNOTATIONS = new Class[] {
-            PreInitialize.class, PostInitialize.class,
-            PreDestroy.class, PostDestroy.class,
-            ShouldInitialize.class
-    };
-
     private String name;
 
     private ActivationStage stage;
     private Map<Class<? extends Annotation>, String> disallowAnnotations;
     private Map<Class<? extends Annotation>, Collection<Method>> annotatedMethods;
+    private BeanPlan plan;
 
     private AbstractPlugin plugin;
 
@@ -106,69 +100,31 @@ public class GenericBeanDetails implements BeanDetails {
 
     @SneakyThrows
     public void loadAnnotations() {
-        this.annotatedMethods = new HashMap<>();
-        this.disallowAnnotations = new HashMap<>();
-
-        this.loadAnnotations(Utility.getSuperAndInterfaces(this.type));
+        this.plan = BeanPlan.of(this.type);
+        this.annotatedMethods = this.plan.getAnnotatedMethods();
+        this.disallowAnnotations = this.plan.getDisallowAnnotations();
     }
 
     public void loadAnnotations(Collection<Class<?>> superClasses) {
-        for (Class<?> type : superClasses) {
-            DisallowAnnotation disallowAnnotation = type.getAnnotation(DisallowAnnotation.class);
-            if (disallowAnnotation != null) {
-                for (Class<? extends Annotation> annotation : disallowAnnotation.value()) {
-                    this.disallowAnnotations.put(annotation, type.getName());
-                }
-            }
-        }
-
-        for (Class<?> type : superClasses) {
-            if (type.isInterface()) {
-                continue;
-            }
-
-            for (Method method : type.getDeclaredMethods()) {
-                this.loadMethod(method);
-            }
-        }
+        this.ownPlan().loadAnnotations(superClasses);
     }
 
     public void loadMethod(Method method) {
-        for (Class<? extends Annotation> annotation : ANNOTATIONS) {
-            if (method.getAnnotation(annotation) != null) {
-                if (this.disallowAnnotations.containsKey(annotation)) {
-                    String className = this.disallowAnnotations.get(annotation);
-                    throw new IllegalArgumentException("The annotation " + annotation.getSimpleName() + " is disallowed by class " + className + ", But it used in method " + method.toString());
-                }
-
-                int parameterCount = method.getParameterCount();
-                if (parameterCount > 0) {
-                    if (parameterCount != 1 || !BeanDetails.class.isAssignableFrom(method.getParameterTypes()[0])) {
-                        throw new IllegalArgumentException("The method " + method.toString() + " used annotation " + annotation.getSimpleName() + " but doesn't have matches parameters! you can only use either no parameter or one parameter with ServerData type on annotated " + annotation.getSimpleName() + "!");
-                    }
-                }
-
-                if (annotation == ShouldInitialize.class && method.getReturnType() != boolean.class) {
-                    throw new IllegalArgumentException("The method " + method.toString() + " used annotation " + annotation.getSimpleName() + " but doesn't have matches return type! you can only use boolean as return type on annotated " + annotation.getSimpleName() + "!");
-                }
-                method.setAccessible(true);
-
-                if (this.annotatedMethods.containsKey(annotation)) {
-                    this.annotatedMethods.get(annotation).add(method);
-                } else {
-                    List<Method> methods = new LinkedList<>();
-                    methods.add(method);
+        this.ownPlan().loadMethod(method);
+    }
 
-                    this.annotatedMethods.put(annotation, methods);
-                }
-                break;
-            }
+    private BeanPlan ownPlan() {
+        if (this.plan == null || this.plan.isShared()) {
+            this.plan = (this.plan == null ? BeanPlan.of(this.type) : this.plan).copy();
+            this.annotatedMethods = this.plan.getAnnotatedMethods();
+            this.disallowAnnotations = this.plan.getDisallowAnnotations();
         }
+        return this.plan;
     }
 
     @Override
     public boolean shouldInitialize() throws InvocationTargetException, IllegalAccessException  {
-        if (this.annotatedMethods == null) {
+        if (this.plan == null) {
             return true;
         }
 
@@ -176,19 +132,9 @@ public class GenericBeanDetails implements BeanDetails {
             throw new NullPointerException("The Instance of bean details for " + this.type.getName() + " is null.");
         }
 
-        if (this.annotatedMethods.containsKey(ShouldInitialize.class)) {
-            for (Method method : this.annotatedMethods.get(ShouldInitialize.class)) {
-                boolean result;
-
-                if (method.getParameterCount() == 1) {
-                    result = (boolean) method.invoke(instance, this);
-                } else {
-                    result = (boolean) method.invoke(instance);
-                }
-
-                if (!result) {
-                    return false;
-                }
+        for (BeanPlan.LifecycleMethod method : this.plan.getLifecycleMethods(ShouldInitialize.class)) {
+            if (!((boolean) method.invoke(instance, this))) {
+                return false;
             }
         }
 
@@ -201,16 +147,12 @@ public class GenericBeanDetails implements BeanDetails {
             throw new NullPointerException("The Instance of bean details for " + this.type.getName() + " is null.");
         }
 
-        if (this.annotatedMethods.containsKey(annotation)) {
-            for (Method method : this.annotatedMethods.get(annotation)) {
+        if (this.plan != null) {
+            for (BeanPlan.LifecycleMethod method : this.plan.getLifecycleMethods(annotation)) {
                 try {
-                    if (method.getParameterCount() == 1) {
-                        method.invoke(instance, this);
-                    } else {
-                        method.invoke(instance);
-                    }
-                } catch (Throwable throwable) {
-                    throwable.printStackTrace();
+                    method.invoke(instance, this);
+                } catch (InvocationTargetException ex) {
+                    ex.getCause().printStackTrace();
                 }
             }
         }
@@ -31,6 +31,7 @@ import org.fairy.bean.BeanContext;
 import org.fairy.bean.DependencyType;
 import org.fairy.bean.ServiceDependency;
 import org.fairy.bean.ServiceDependencyType;
+import org.fairy.util.Utility;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Parameter;
@@ -74,10 +75,21 @@ public class ServiceBeanDetails extends DependenciesBeanDetails {
         }
     }
 
+    @Override
+    public void loadAnnotations() {
+        super.loadAnnotations();
+
+        this.loadDependencies(Utility.getSuperAndInterfaces(this.getType()));
+    }
+
     @Override
     public void loadAnnotations(Collection<Class<?>> superClasses) {
         super.loadAnnotations(superClasses);
 
+        this.loadDependencies(superClasses);
+    }
+
+    private void loadDependencies(Collection<Class<?>> superClasses) {
         for (Class<?> type : superClasses) {
             for (ServiceDependency dependency : type.getAnnotationsByType(ServiceDependency.class)) {
                 this.addDependencies(dependency.type().value(), dependency.dependencies());
@@ -35,13 +35,26 @@ public class CacheWrapper<T> {
 
     private long expireTime;
 
+    private final boolean expireAfterAccess;
+
+    private final int weight;
+
     public CacheWrapper(T cacheObject, long expireTime) {
+        this(cacheObject, expireTime, false, 1);
+    }
+
+    public CacheWrapper(T cacheObject, long expireTime, boolean expireAfterAccess, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("The weight of a cached object must be positive, but was " + weight);
+        }
         if (cacheObject == null) {
             new Throwable().printStackTrace();
         }
         this.lastLoadTime = System.currentTimeMillis();
         this.cacheObject = cacheObject;
         this.expireTime = expireTime;
+        this.expireAfterAccess = expireAfterAccess;
+        this.weight = weight;
     }
 
     public boolean isExpired() {
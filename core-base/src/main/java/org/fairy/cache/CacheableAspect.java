@@ -42,13 +42,16 @@ import org.fairy.cache.impl.CacheKeyAbstract;
 import org.fairy.cache.impl.CacheKeyMethod;
 import org.fairy.cache.impl.CacheKeyString;
 import org.fairy.cache.manager.CacheManager;
-import org.fairy.cache.manager.CacheManagerConcurrentMap;
+import org.fairy.cache.manager.CacheManagerCaffeine;
 import org.fairy.cache.script.AbstractScriptParser;
 import org.fairy.util.Stacktrace;
 import org.fairy.cache.script.SpringELParser;
 import org.intellij.lang.annotations.Language;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 
@@ -89,9 +92,8 @@ public class CacheableAspect {
                 .build()
         );
 
-        this.defaultCacheManager = new CacheManagerConcurrentMap();
-        this.defaultCacheManager.init(this)
-        ;
+        this.defaultCacheManager = new CacheManagerCaffeine();
+        this.defaultCacheManager.init(this);
 
         this.cacheManagers = new ConcurrentHashMap<>(0);
         this.scriptParser = new SpringELParser();
@@ -106,9 +108,7 @@ public class CacheableAspect {
 
     }
 
-    // TODO: Performance check, is this key reader efficient?
-
-    private String readAnnotationKey(JoinPoint point, String value, boolean preventNull) {
+    private String readAnnotationKey(JoinPoint point, Method method, String value, boolean preventNull) {
         if (value == null || value.isEmpty()) {
             return "";
         }
@@ -124,7 +124,7 @@ public class CacheableAspect {
         }
 
         try {
-            return this.scriptParser.getDefinedCacheKey(value, point.getTarget(), point.getArgs(), null, false);
+            return this.scriptParser.getElValue(method, value, point.getTarget(), args, null, false, String.class);
         } catch (Exception ex) {
             LOGGER.error(ex.getMessage(), ex);
         }
@@ -143,7 +143,7 @@ public class CacheableAspect {
                 } catch (Throwable throwable) {
                     throw new RuntimeException("Something wrong while creating Cache Manager instance for " + type.getName() + "!", throwable);
                 }
-                cacheManager.init(this);
+                cacheManager.init(this, annotation);
                 this.cacheManagers.put(type, cacheManager);
             }
         }
@@ -156,17 +156,38 @@ public class CacheableAspect {
         Class<?> parentClass = method.getDeclaringClass();
 
         if (key != null && !key.isEmpty()) {
-            return new CacheKeyString(parentClass, key);
+            return new CacheKeyString(parentClass, method, key);
         }
 
         return new CacheKeyMethod(parentClass, point);
     }
 
+    /**
+     * Evict the explicit keys cached by methods of the type, for services after batch writes
+     *
+     * @param type the class declaring the cached methods
+     * @param keys the evaluated key strings
+     */
+    public void evictAll(Class<?> type, Collection<String> keys) {
+        List<CacheKeyAbstract> cacheKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            cacheKeys.add(new CacheKeyString(type, key));
+        }
+        this.getCacheManager(type).evictAll(cacheKeys);
+    }
+
+    /**
+     * Flush every entry cached by the method
+     */
+    public void flush(Method method) {
+        this.getCacheManager(method.getDeclaringClass()).flush(method);
+    }
+
     @SneakyThrows
-    public boolean checkCondition(@Language("SpEL") String condition, Object target, Object[] arguments, Object retVal, boolean hasRetVal) {
+    public boolean checkCondition(Method method, @Language("SpEL") String condition, Object target, Object[] arguments, Object retVal, boolean hasRetVal) {
         boolean result = true;
         if (arguments != null && arguments.length > 0 && condition != null && condition.length() > 0) {
-            result = this.scriptParser.getElValue(condition, target, arguments, retVal, hasRetVal, Boolean.class);
+            result = this.scriptParser.getElValue(method, condition, target, arguments, retVal, hasRetVal, Boolean.class);
         }
         return result;
     }
@@ -176,7 +197,7 @@ public class CacheableAspect {
         final Method method = ((MethodSignature) point.getSignature()).getMethod();
 
         final Cacheable annotation = method.getAnnotation(Cacheable.class);
-        CacheKeyAbstract key = this.toKey(point, readAnnotationKey(point, annotation.key(), annotation.preventArgumentNull()));
+        CacheKeyAbstract key = this.toKey(point, readAnnotationKey(point, method, annotation.key(), annotation.preventArgumentNull()));
         @Language("SpEL") String condition = annotation.condition();
 
         CacheManager manager = this.getCacheManager(method.getDeclaringClass());
@@ -188,11 +209,11 @@ public class CacheableAspect {
 
         Object result = point.proceed();
 
-        if (condition.length() != 0 && !this.checkCondition(condition, point.getTarget(), point.getArgs(), result, true)) {
+        if (condition.length() != 0 && !this.checkCondition(method, condition, point.getTarget(), point.getArgs(), result, true)) {
             return result;
         }
 
-        wrapper = new CacheWrapper<>(result, annotation.forever() ? 0L : annotation.unit().toMillis(annotation.lifetime()));
+        wrapper = new CacheWrapper<>(result, annotation.forever() ? 0L : annotation.unit().toMillis(annotation.lifetime()), annotation.expireAfterAccess(), annotation.weight());
         manager.cache(key, wrapper);
         return result;
     }
@@ -202,7 +223,7 @@ public class CacheableAspect {
         final Method method = ((MethodSignature) point.getSignature()).getMethod();
 
         final CachePut annotation = method.getAnnotation(CachePut.class);
-        CacheKeyAbstract key = this.toKey(point, readAnnotationKey(point, annotation.value(), annotation.preventArgumentNull()));
+        CacheKeyAbstract key = this.toKey(point, readAnnotationKey(point, method, annotation.value(), annotation.preventArgumentNull()));
         @Language("SpEL") String condition = annotation.condition();
 
         CacheManager manager = this.getCacheManager(method.getDeclaringClass());
@@ -212,11 +233,11 @@ public class CacheableAspect {
         }
         Object result = point.proceed();
 
-        if (condition.length() != 0 && !this.checkCondition(condition, point.getTarget(), point.getArgs(), result, true)) {
+        if (condition.length() != 0 && !this.checkCondition(method, condition, point.getTarget(), point.getArgs(), result, true)) {
             return result;
         }
 
-        CacheWrapper<?> wrapper = new CacheWrapper<>(result, annotation.forever() ? 0L : annotation.unit().toMillis(annotation.lifetime()));
+        CacheWrapper<?> wrapper = new CacheWrapper<>(result, annotation.forever() ? 0L : annotation.unit().toMillis(annotation.lifetime()), annotation.expireAfterAccess(), annotation.weight());
         manager.cache(key, wrapper);
         return result;
     }
@@ -227,11 +248,11 @@ public class CacheableAspect {
     public void evict(JoinPoint point) {
         Method method = ((MethodSignature) point.getSignature()).getMethod();
         CacheEvict annotation = method.getAnnotation(CacheEvict.class);
-        String keyString = this.readAnnotationKey(point, annotation.value(), annotation.preventArgumentNull());
+        String keyString = this.readAnnotationKey(point, method, annotation.value(), annotation.preventArgumentNull());
         @Language("JavaScript") String condition = annotation.condition();
 
         if (condition.length() > 0) {
-            boolean conditionResult = this.checkCondition(condition, point.getTarget(), point.getArgs(), null, false);
+            boolean conditionResult = this.checkCondition(method, condition, point.getTarget(), point.getArgs(), null, false);
 
             if (!conditionResult) {
                 return;
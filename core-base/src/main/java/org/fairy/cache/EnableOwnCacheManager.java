@@ -25,7 +25,7 @@
 package org.fairy.cache;
 
 import org.fairy.cache.manager.CacheManager;
-import org.fairy.cache.manager.CacheManagerConcurrentMap;
+import org.fairy.cache.manager.CacheManagerCaffeine;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -36,6 +36,12 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface EnableOwnCacheManager {
 
-    Class<? extends CacheManager> value() default CacheManagerConcurrentMap.class;
+    Class<? extends CacheManager> value() default CacheManagerCaffeine.class;
+
+    /**
+     * The maximum total weight of entries in this cache manager,
+     * non-positive to use {@link CacheManagerCaffeine#DEFAULT_MAXIMUM_WEIGHT}
+     */
+    long maximumWeight() default -1L;
 
 }
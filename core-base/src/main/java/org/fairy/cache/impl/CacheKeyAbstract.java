@@ -25,6 +25,9 @@
 package org.fairy.cache.impl;
 
 import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
 
 public abstract class CacheKeyAbstract {
 
@@ -35,6 +38,14 @@ public abstract class CacheKeyAbstract {
         this.parentClass = parentClass;
     }
 
+    /**
+     * @return the method that produced this key, used for indexing only
+     */
+    @Nullable
+    public Method getMethod() {
+        return null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -29,22 +29,28 @@ import org.aspectj.lang.reflect.MethodSignature;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Objects;
 
 public class CacheKeyMethod extends CacheKeyAbstract {
 
     private final Method method;
     private final Object[] arguments;
+    private final int hashCode;
 
     public CacheKeyMethod(Class<?> parentClass, final JoinPoint point) {
         super(parentClass);
         this.method = ((MethodSignature) point.getSignature()).getMethod();
         this.arguments = point.getArgs();
+        this.hashCode = 31 * (31 * parentClass.hashCode() + this.method.hashCode()) + Arrays.deepHashCode(this.arguments);
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(this.method);
+        return this.hashCode;
     }
 
     @Override
@@ -54,7 +60,8 @@ public class CacheKeyMethod extends CacheKeyAbstract {
             equals = true;
         } else if (object instanceof CacheKeyMethod) {
             CacheKeyMethod key = (CacheKeyMethod) object;
-            equals = key.method.equals(this.method)
+            equals = key.hashCode == this.hashCode
+                    && key.method.equals(this.method)
                     && Arrays.deepEquals(key.arguments, this.arguments);
         } else {
             equals = false;
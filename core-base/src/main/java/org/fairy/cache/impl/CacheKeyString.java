@@ -24,18 +24,33 @@
 
 package org.fairy.cache.impl;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
 import java.util.Objects;
 import java.util.StringJoiner;
 
 public class CacheKeyString extends CacheKeyAbstract {
 
     private final String key;
+    @Nullable
+    private final Method method;
 
     public CacheKeyString(Class<?> parentClass, String key) {
+        this(parentClass, null, key);
+    }
+
+    public CacheKeyString(Class<?> parentClass, @Nullable Method method, String key) {
         super(parentClass);
+        this.method = method;
         this.key = key;
     }
 
+    @Override
+    public @Nullable Method getMethod() {
+        return this.method;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.cache.manager;
+
+import org.fairy.cache.impl.CacheKeyAbstract;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes of cached keys by parent class and by method,
+ * so evict and flush only touch the matching entries
+ *
+ * Updates for a single key are expected to be serialized by the owning cache.
+ */
+public class CacheKeyIndex {
+
+    private final Map<CacheKeyAbstract, CacheKeyAbstract> indexed = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<CacheKeyAbstract>> byParentClass = new ConcurrentHashMap<>();
+    private final Map<Method, Set<CacheKeyAbstract>> byMethod = new ConcurrentHashMap<>();
+
+    public void add(CacheKeyAbstract key) {
+        CacheKeyAbstract previous = this.indexed.put(key, key);
+        if (previous != null) {
+            this.unindex(previous);
+        }
+
+        add(this.byParentClass, key.getParentClass(), key);
+        if (key.getMethod() != null) {
+            add(this.byMethod, key.getMethod(), key);
+        }
+    }
+
+    public void remove(CacheKeyAbstract key) {
+        CacheKeyAbstract previous = this.indexed.remove(key);
+        if (previous != null) {
+            this.unindex(previous);
+        }
+    }
+
+    public void clear() {
+        this.indexed.clear();
+        this.byParentClass.clear();
+        this.byMethod.clear();
+    }
+
+    /**
+     * @return keys with the parent class or a sub class of it
+     */
+    public Collection<CacheKeyAbstract> findByParentClass(Class<?> parentClass) {
+        List<CacheKeyAbstract> keys = new ArrayList<>();
+        for (Map.Entry<Class<?>, Set<CacheKeyAbstract>> entry : this.byParentClass.entrySet()) {
+            if (parentClass.isAssignableFrom(entry.getKey())) {
+                keys.addAll(entry.getValue());
+            }
+        }
+        return keys;
+    }
+
+    public Collection<CacheKeyAbstract> findByMethod(Method method) {
+        Set<CacheKeyAbstract> keys = this.byMethod.get(method);
+        return keys != null ? new ArrayList<>(keys) : Collections.emptyList();
+    }
+
+    private void unindex(CacheKeyAbstract key) {
+        remove(this.byParentClass, key.getParentClass(), key);
+        if (key.getMethod() != null) {
+            remove(this.byMethod, key.getMethod(), key);
+        }
+    }
+
+    private static <K> void add(Map<K, Set<CacheKeyAbstract>> index, K indexKey, CacheKeyAbstract key) {
+        index.compute(indexKey, (ignored, keys) -> {
+            if (keys == null) {
+                keys = ConcurrentHashMap.newKeySet();
+            }
+            keys.add(key);
+            return keys;
+        });
+    }
+
+    private static <K> void remove(Map<K, Set<CacheKeyAbstract>> index, K indexKey, CacheKeyAbstract key) {
+        index.computeIfPresent(indexKey, (ignored, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+}
@@ -28,13 +28,20 @@ import org.aspectj.lang.JoinPoint;
 import org.fairy.cache.CacheWrapper;
 import org.fairy.cache.impl.CacheKeyAbstract;
 import org.fairy.cache.CacheableAspect;
+import org.fairy.cache.EnableOwnCacheManager;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Map;
 
 public interface CacheManager {
     void init(CacheableAspect cacheableAspect);
 
+    default void init(CacheableAspect cacheableAspect, @Nullable EnableOwnCacheManager annotation) {
+        this.init(cacheableAspect);
+    }
+
     void clean();
 
     Map<CacheKeyAbstract, CacheWrapper<?>> getAsMap();
@@ -47,5 +54,9 @@ public interface CacheManager {
 
     void evict(JoinPoint point, String keyString);
 
+    void evictAll(Collection<? extends CacheKeyAbstract> keys);
+
     void flush(Class<?> parentClass);
+
+    void flush(Method method);
 }
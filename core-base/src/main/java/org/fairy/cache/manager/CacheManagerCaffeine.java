@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.cache.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.google.common.collect.ImmutableMap;
+import org.aspectj.lang.JoinPoint;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.fairy.cache.CacheWrapper;
+import org.fairy.cache.CacheableAspect;
+import org.fairy.cache.EnableOwnCacheManager;
+import org.fairy.cache.impl.CacheKeyAbstract;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache manager backed by Caffeine
+ *
+ * Entries are evicted by W-TinyLFU once the total weight exceeds the maximum weight,
+ * and expire through Caffeine's timer wheel instead of a periodic full scan.
+ */
+public class CacheManagerCaffeine implements CacheManager {
+
+    public static long DEFAULT_MAXIMUM_WEIGHT = Long.getLong("fairy.cache.maximumWeight", 100_000L);
+
+    private transient Cache<CacheKeyAbstract, CacheWrapper<?>> cache;
+    private final CacheKeyIndex index = new CacheKeyIndex();
+
+    private CacheableAspect cacheableAspect;
+
+    @Override
+    public void init(CacheableAspect cacheableAspect) {
+        this.init(cacheableAspect, null);
+    }
+
+    @Override
+    public void init(CacheableAspect cacheableAspect, @Nullable EnableOwnCacheManager annotation) {
+        this.cacheableAspect = cacheableAspect;
+
+        long maximumWeight = annotation != null && annotation.maximumWeight() > 0 ? annotation.maximumWeight() : DEFAULT_MAXIMUM_WEIGHT;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((CacheKeyAbstract key, CacheWrapper<?> wrapper) -> wrapper.getWeight())
+                .expireAfter(new Expiry<CacheKeyAbstract, CacheWrapper<?>>() {
+                    @Override
+                    public long expireAfterCreate(@NonNull CacheKeyAbstract key, @NonNull CacheWrapper<?> value, long currentTime) {
+                        return lifetime(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(@NonNull CacheKeyAbstract key, @NonNull CacheWrapper<?> value, long currentTime, @NonNegative long currentDuration) {
+                        return lifetime(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(@NonNull CacheKeyAbstract key, @NonNull CacheWrapper<?> value, long currentTime, @NonNegative long currentDuration) {
+                        return value.isExpireAfterAccess() ? lifetime(value) : currentDuration;
+                    }
+                })
+                .removalListener((CacheKeyAbstract key, CacheWrapper<?> value, RemovalCause cause) -> {
+                    // Notified asynchronously, so the key may have been cached again in the meantime.
+                    // Writes index the key while holding its entry, checking absence the same way keeps both in step.
+                    if (key != null) {
+                        this.cache.asMap().computeIfAbsent(key, absent -> {
+                            this.index.remove(absent);
+                            return null;
+                        });
+                    }
+                })
+                .scheduler(Scheduler.forScheduledExecutorService(CacheableAspect.CLEANER_SERVICE))
+                .build();
+    }
+
+    private static long lifetime(CacheWrapper<?> wrapper) {
+        return wrapper.getExpireTime() > 0 ? TimeUnit.MILLISECONDS.toNanos(wrapper.getExpireTime()) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void clean() {
+        this.cache.cleanUp();
+    }
+
+    @Override
+    public Map<CacheKeyAbstract, CacheWrapper<?>> getAsMap() {
+        return ImmutableMap.copyOf(this.cache.asMap());
+    }
+
+    @Override
+    public <T> Collection<T> findByType(Class<T> type) {
+        Set<T> results = new HashSet<>();
+        for (CacheWrapper<?> wrapper : this.cache.asMap().values()) {
+            Object object = wrapper.get();
+            if (type.isInstance(object)) {
+                results.add((T) object);
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public CacheWrapper<?> find(CacheKeyAbstract key) {
+        return this.cache.getIfPresent(key);
+    }
+
+    @Override
+    public void cache(CacheKeyAbstract key, CacheWrapper<?> wrapper) throws Throwable {
+        this.cache.asMap().compute(key, (ignored, previous) -> {
+            this.index.add(key);
+            return wrapper;
+        });
+    }
+
+    @Override
+    public void evict(JoinPoint point, String keyString) {
+        this.cache.invalidate(this.cacheableAspect.toKey(point, keyString));
+    }
+
+    @Override
+    public void evictAll(Collection<? extends CacheKeyAbstract> keys) {
+        this.cache.invalidateAll(keys);
+    }
+
+    @Override
+    public void flush(Class<?> parentClass) {
+        if (parentClass == null) {
+            this.cache.invalidateAll();
+            return;
+        }
+        this.cache.invalidateAll(this.index.findByParentClass(parentClass));
+    }
+
+    @Override
+    public void flush(Method method) {
+        this.cache.invalidateAll(this.index.findByMethod(method));
+    }
+
+}
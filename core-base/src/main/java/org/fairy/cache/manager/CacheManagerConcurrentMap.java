@@ -30,6 +30,7 @@ import org.fairy.cache.CacheWrapper;
 import org.fairy.cache.impl.CacheKeyAbstract;
 import org.fairy.cache.CacheableAspect;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -41,6 +42,8 @@ public class CacheManagerConcurrentMap implements CacheManager {
 
     private transient ConcurrentMap<CacheKeyAbstract, CacheWrapper<?>> cache;
 
+    private final CacheKeyIndex index = new CacheKeyIndex();
+
     private CacheableAspect cacheableAspect;
 
     @Override
@@ -51,7 +54,11 @@ public class CacheManagerConcurrentMap implements CacheManager {
 
     @Override
     public void clean() {
-        this.cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        for (Map.Entry<CacheKeyAbstract, CacheWrapper<?>> entry : this.cache.entrySet()) {
+            if (entry.getValue().isExpired()) {
+                this.remove(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     @Override
@@ -76,36 +83,66 @@ public class CacheManagerConcurrentMap implements CacheManager {
     public CacheWrapper<?> find(CacheKeyAbstract key) {
         CacheWrapper<?> wrapper = this.cache.get(key);
         if (wrapper != null && wrapper.isExpired()) {
-            this.cache.remove(key);
+            this.remove(key, wrapper);
             return null;
         }
+        if (wrapper != null && wrapper.isExpireAfterAccess()) {
+            wrapper.setLastLoadTime(System.currentTimeMillis());
+        }
 
         return wrapper;
     }
 
     @Override
     public void cache(CacheKeyAbstract key, CacheWrapper<?> wrapper) throws Throwable {
-        this.cache.put(key, wrapper);
+        this.cache.compute(key, (ignored, previous) -> {
+            this.index.add(key);
+            return wrapper;
+        });
     }
 
     @Override
     public void evict(JoinPoint point, String keyString) {
-        for (final CacheKeyAbstract key : this.cache.keySet()) {
-            if (!key.equals(this.cacheableAspect.toKey(point, keyString))) {
-                continue;
-            }
-            this.cache.remove(key);
+        this.remove(this.cacheableAspect.toKey(point, keyString));
+    }
+
+    @Override
+    public void evictAll(Collection<? extends CacheKeyAbstract> keys) {
+        for (CacheKeyAbstract key : keys) {
+            this.remove(key);
         }
     }
 
     @Override
     public void flush(Class<?> parentClass) {
-        for (final CacheKeyAbstract key : this.cache.keySet()) {
-            if (parentClass != null && !parentClass.isAssignableFrom(key.getParentClass())) {
-                continue;
-            }
-            this.cache.remove(key);
+        if (parentClass == null) {
+            this.cache.clear();
+            this.index.clear();
+            return;
         }
+        this.evictAll(this.index.findByParentClass(parentClass));
+    }
+
+    @Override
+    public void flush(Method method) {
+        this.evictAll(this.index.findByMethod(method));
+    }
+
+    private void remove(CacheKeyAbstract key) {
+        this.cache.computeIfPresent(key, (ignored, wrapper) -> {
+            this.index.remove(key);
+            return null;
+        });
+    }
+
+    private void remove(CacheKeyAbstract key, CacheWrapper<?> expected) {
+        this.cache.computeIfPresent(key, (ignored, wrapper) -> {
+            if (wrapper != expected) {
+                return wrapper;
+            }
+            this.index.remove(key);
+            return null;
+        });
     }
 
 }
@@ -50,6 +50,14 @@ public abstract class AbstractScriptParser {
     public abstract <T> T getElValue(String exp, Object target, Object[] arguments, Object retVal, boolean hasRetVal,
                                      Class<T> valueType) throws Exception;
 
+    /**
+     * Evaluate an expression declared on the annotated method, parsers may compile it once per method
+     */
+    public <T> T getElValue(Method method, String exp, Object target, Object[] arguments, Object retVal, boolean hasRetVal,
+                            Class<T> valueType) throws Exception {
+        return this.getElValue(exp, target, arguments, retVal, hasRetVal, valueType);
+    }
+
     public abstract void addFunction(String name, Method method);
 
 }
@@ -24,24 +24,33 @@
 
 package org.fairy.cache.script;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.fairy.cache.CacheUtil;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.lang.reflect.Method;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Spring EL表达式解析处理
  *
- *
+ * Expressions evaluated through a {@link Method} are compiled once per method,
+ * plain argument keys such as {@code #args[0]} or {@code 'prefix' + #args[0]} skip SpEL entirely.
  */
 public class SpringELParser extends AbstractScriptParser {
 
+    private static final Logger LOGGER = LogManager.getLogger(SpringELParser.class);
+
     /**
      * # 号
      */
@@ -52,10 +61,26 @@ public class SpringELParser extends AbstractScriptParser {
      */
     private static final String apostrophe = "'";
 
+    private static final Pattern ARGUMENT_PATTERN = Pattern.compile("^\\s*(?:'([^']*)'\\s*\\+\\s*)?#args\\[(\\d+)]\\s*$");
+
     private final ExpressionParser parser = new SpelExpressionParser();
 
+    private final ExpressionParser compilingParser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, SpringELParser.class.getClassLoader()));
+
     private final ConcurrentHashMap<String, Expression> expCache = new ConcurrentHashMap<String, Expression>();
 
+    /**
+     * Compiled expressions of each method, held by the declaring class so they don't keep it from unloading
+     */
+    private final ClassValue<ConcurrentHashMap<Method, ConcurrentHashMap<String, CompiledExpression>>> methodCache = new ClassValue<ConcurrentHashMap<Method, ConcurrentHashMap<String, CompiledExpression>>>() {
+        @Override
+        protected ConcurrentHashMap<Method, ConcurrentHashMap<String, CompiledExpression>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final ThreadLocal<ArgumentContext> contexts = ThreadLocal.withInitial(ArgumentContext::new);
+
     private static Method hash = null;
 
     private static Method empty = null;
@@ -94,26 +119,173 @@ public class SpringELParser extends AbstractScriptParser {
                 return (T) keySpEL;
             }
         }
-        StandardEvaluationContext context = new StandardEvaluationContext();
-
-        context.registerFunction(HASH, hash);
-        context.registerFunction(EMPTY, empty);
-        Iterator<Map.Entry<String, Method>> it = funcs.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<String, Method> entry = it.next();
-            context.registerFunction(entry.getKey(), entry.getValue());
-        }
-        context.setVariable(TARGET, target);
-        context.setVariable(ARGS, arguments);
-        if (hasRetVal) {
-            context.setVariable(RET_VAL, retVal);
-        }
         Expression expression = expCache.get(keySpEL);
         if (null == expression) {
             expression = parser.parseExpression(keySpEL);
             expCache.put(keySpEL, expression);
         }
-        return expression.getValue(context, valueType);
+        return this.evaluate(expression, target, arguments, retVal, valueType);
+    }
+
+    @Override
+    public <T> T getElValue(Method method, String keySpEL, Object target, Object[] arguments, Object retVal, boolean hasRetVal,
+                            Class<T> valueType) throws Exception {
+        ConcurrentHashMap<String, CompiledExpression> expressions = this.methodCache.get(method.getDeclaringClass()).computeIfAbsent(method, ignored -> new ConcurrentHashMap<>(2));
+
+        CompiledExpression expression = expressions.get(keySpEL);
+        if (expression == null) {
+            expression = expressions.computeIfAbsent(keySpEL, this::compile);
+        }
+        return valueType.cast(expression.getValue(method, keySpEL, target, arguments, retVal, valueType));
+    }
+
+    private CompiledExpression compile(String keySpEL) {
+        // 如果不是表达式，直接返回字符串
+        if (keySpEL.indexOf(POUND) == -1 && keySpEL.indexOf(apostrophe) == -1) {
+            return new LiteralExpression(keySpEL);
+        }
+
+        Matcher matcher = ARGUMENT_PATTERN.matcher(keySpEL);
+        if (matcher.matches()) {
+            return new ArgumentExpression(matcher.group(1), Integer.parseInt(matcher.group(2)));
+        }
+
+        return new SpelExpression(this.compilingParser.parseExpression(keySpEL));
+    }
+
+    private <T> T evaluate(Expression expression, Object target, Object[] arguments, Object retVal, Class<T> valueType) {
+        ArgumentContext context = this.contexts.get();
+
+        // Expressions may call back into cached methods on the same thread
+        Object previousTarget = context.target;
+        Object[] previousArguments = context.arguments;
+        Object previousRetVal = context.retVal;
+
+        context.target = target;
+        context.arguments = arguments;
+        context.retVal = retVal;
+        try {
+            return expression.getValue(context, valueType);
+        } finally {
+            context.target = previousTarget;
+            context.arguments = previousArguments;
+            context.retVal = previousRetVal;
+        }
+    }
+
+    private interface CompiledExpression {
+
+        Object getValue(Method method, String keySpEL, Object target, Object[] arguments, Object retVal, Class<?> valueType) throws Exception;
+
+    }
+
+    private final class LiteralExpression implements CompiledExpression {
+
+        private final String value;
+
+        // only parsed once a non String value such as a condition is asked for
+        private volatile SpelExpression expression;
+
+        private LiteralExpression(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object getValue(Method method, String keySpEL, Object target, Object[] arguments, Object retVal, Class<?> valueType) {
+            if (valueType == String.class) {
+                return this.value;
+            }
+
+            SpelExpression expression = this.expression;
+            if (expression == null) {
+                expression = new SpelExpression(compilingParser.parseExpression(keySpEL));
+                this.expression = expression;
+            }
+            return expression.getValue(method, keySpEL, target, arguments, retVal, valueType);
+        }
+
+    }
+
+    private final class ArgumentExpression implements CompiledExpression {
+
+        private final String prefix;
+        private final int index;
+
+        private ArgumentExpression(String prefix, int index) {
+            this.prefix = prefix;
+            this.index = index;
+        }
+
+        @Override
+        public Object getValue(Method method, String keySpEL, Object target, Object[] arguments, Object retVal, Class<?> valueType) throws Exception {
+            if (this.index >= arguments.length || valueType != String.class) {
+                // Let SpEL produce the usual conversion or index errors
+                return SpringELParser.this.getElValue(keySpEL, target, arguments, retVal, true, valueType);
+            }
+
+            Object argument = arguments[this.index];
+            if (this.prefix != null) {
+                return this.prefix + argument;
+            }
+            return argument == null ? null : argument.toString();
+        }
+
+    }
+
+    private final class SpelExpression implements CompiledExpression {
+
+        private volatile Expression expression;
+
+        private SpelExpression(Expression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        public Object getValue(Method method, String keySpEL, Object target, Object[] arguments, Object retVal, Class<?> valueType) {
+            try {
+                return evaluate(this.expression, target, arguments, retVal, valueType);
+            } catch (SpelEvaluationException ex) {
+                if (ex.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+                    throw ex;
+                }
+
+                // Argument types changed after compiling, stay interpreted from now on
+                LOGGER.warn("Couldn't run compiled expression " + keySpEL + " on " + method + ", falling back to interpreted mode.");
+                this.expression = parser.parseExpression(keySpEL);
+                return evaluate(this.expression, target, arguments, retVal, valueType);
+            }
+        }
+
+    }
+
+    /**
+     * Evaluation context reused by each thread, resolving arguments and functions without copying them into variables
+     */
+    private final class ArgumentContext extends StandardEvaluationContext {
+
+        private Object target;
+        private Object[] arguments;
+        private Object retVal;
+
+        @Override
+        public Object lookupVariable(String name) {
+            switch (name) {
+                case TARGET:
+                    return this.target;
+                case ARGS:
+                    return this.arguments;
+                case RET_VAL:
+                    return this.retVal;
+                case HASH:
+                    return hash;
+                case EMPTY:
+                    return empty;
+                default:
+                    Method function = funcs.get(name);
+                    return function != null ? function : super.lookupVariable(name);
+            }
+        }
+
     }
 
 }
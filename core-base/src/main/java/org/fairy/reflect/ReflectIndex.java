@@ -0,0 +1,326 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.reflect;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compile-time index of annotated types, methods and fields.
+ *
+ * The index is generated into {@link #RESOURCE} by the bean index annotation processor,
+ * so {@link ReflectLookup} can resolve annotated members without scanning the whole jar.
+ */
+public class ReflectIndex {
+
+    public static final String RESOURCE = "META-INF/fairy/reflect.index";
+    public static final int VERSION = 1;
+
+    private static final String KIND_VERSION = "version";
+    private static final String KIND_ANNOTATION = "annotation";
+    private static final String KIND_PACKAGE = "package";
+    private static final String KIND_TYPE = "type";
+    private static final String KIND_METHOD = "method";
+    private static final String KIND_FIELD = "field";
+
+    /**
+     * Read every index visible to the class loaders
+     *
+     * @param classLoaders the class loaders to search index resources and load classes from
+     * @param packages the packages being looked up
+     * @return the index, or null if no index covers every package so the lookup has to fall back to scanning
+     */
+    @Nullable
+    public static ReflectIndex read(Collection<ClassLoader> classLoaders, Collection<String> packages) {
+        if (packages.isEmpty()) {
+            return null;
+        }
+
+        ReflectIndex index = new ReflectIndex(classLoaders, packages);
+        Set<URL> visited = new HashSet<>();
+
+        try {
+            for (ClassLoader classLoader : classLoaders) {
+                Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+                while (resources.hasMoreElements()) {
+                    URL url = resources.nextElement();
+                    if (visited.add(url)) {
+                        index.load(url);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+
+        if (visited.isEmpty() || !index.covers(packages)) {
+            return null;
+        }
+        return index;
+    }
+
+    private final Collection<ClassLoader> classLoaders;
+    private final Collection<String> packages;
+
+    private final Set<String> indexedPackages;
+    private Set<String> indexedAnnotations;
+
+    private final Map<String, Set<String>> types;
+    private final Map<String, Map<String, Set<String>>> methods;
+    private final Map<String, Map<String, Set<String>>> fields;
+
+    private ReflectIndex(Collection<ClassLoader> classLoaders, Collection<String> packages) {
+        this.classLoaders = classLoaders;
+        this.packages = packages;
+
+        this.indexedPackages = new HashSet<>();
+        this.types = new HashMap<>();
+        this.methods = new HashMap<>();
+        this.fields = new HashMap<>();
+    }
+
+    public boolean isIndexed(Class<? extends Annotation> annotation) {
+        return this.indexedAnnotations != null && this.indexedAnnotations.contains(annotation.getName());
+    }
+
+    public Set<Class<?>> findAnnotatedClasses(Class<? extends Annotation> annotation) {
+        Set<Class<?>> result = new HashSet<>();
+        for (String className : this.types.getOrDefault(annotation.getName(), Collections.emptySet())) {
+            Class<?> type = this.loadClass(className);
+            if (type != null && isAnnotated(type, annotation, new HashSet<>())) {
+                result.add(type);
+            }
+        }
+        return result;
+    }
+
+    public Set<Method> findAnnotatedMethods(Class<? extends Annotation> annotation) {
+        Set<Method> result = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : this.methods.getOrDefault(annotation.getName(), Collections.emptyMap()).entrySet()) {
+            Class<?> type = this.loadClass(entry.getKey());
+            if (type == null) {
+                continue;
+            }
+
+            for (Method method : type.getDeclaredMethods()) {
+                if (entry.getValue().contains(method.getName()) && method.isAnnotationPresent(annotation)) {
+                    result.add(method);
+                }
+            }
+        }
+        return result;
+    }
+
+    public Set<Field> findAnnotatedFields(Class<? extends Annotation> annotation) {
+        Set<Field> result = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : this.fields.getOrDefault(annotation.getName(), Collections.emptyMap()).entrySet()) {
+            Class<?> type = this.loadClass(entry.getKey());
+            if (type == null) {
+                continue;
+            }
+
+            for (Field field : type.getDeclaredFields()) {
+                if (entry.getValue().contains(field.getName()) && field.isAnnotationPresent(annotation)) {
+                    result.add(field);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether the type carries the annotation directly or through a composed annotation
+     */
+    private static boolean isAnnotated(Class<?> type, Class<? extends Annotation> annotation, Set<Class<?>> visited) {
+        if (type.isAnnotationPresent(annotation)) {
+            return true;
+        }
+
+        for (Annotation declared : type.getDeclaredAnnotations()) {
+            Class<? extends Annotation> annotationType = declared.annotationType();
+            if (visited.add(annotationType) && isAnnotated(annotationType, annotation, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load(URL url) throws IOException {
+        Set<String> annotations = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split(" ");
+                switch (parts[0]) {
+                    case KIND_VERSION:
+                        if (Integer.parseInt(parts[1]) != VERSION) {
+                            throw new IllegalArgumentException("Unsupported reflect index version " + parts[1] + " in " + url);
+                        }
+                        break;
+                    case KIND_ANNOTATION:
+                        annotations.add(parts[1]);
+                        break;
+                    case KIND_PACKAGE:
+                        this.indexedPackages.add(parts[1]);
+                        break;
+                    case KIND_TYPE:
+                        if (this.isScanned(parts[2])) {
+                            this.types.computeIfAbsent(parts[1], k -> new HashSet<>()).add(parts[2]);
+                        }
+                        break;
+                    case KIND_METHOD:
+                        if (this.isScanned(parts[2])) {
+                            this.methods.computeIfAbsent(parts[1], k -> new HashMap<>())
+                                    .computeIfAbsent(parts[2], k -> new HashSet<>())
+                                    .add(parts[3]);
+                        }
+                        break;
+                    case KIND_FIELD:
+                        if (this.isScanned(parts[2])) {
+                            this.fields.computeIfAbsent(parts[1], k -> new HashMap<>())
+                                    .computeIfAbsent(parts[2], k -> new HashSet<>())
+                                    .add(parts[3]);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        // Only trust annotations that every index on the class path has recorded
+        if (this.indexedAnnotations == null) {
+            this.indexedAnnotations = annotations;
+        } else {
+            this.indexedAnnotations.retainAll(annotations);
+        }
+    }
+
+    private boolean covers(Collection<String> packages) {
+        for (String packageName : packages) {
+            boolean covered = false;
+            for (String indexed : this.indexedPackages) {
+                // An index only covers its own package and the packages below it
+                if (packageName.equals(indexed) || packageName.startsWith(indexed + ".")) {
+                    covered = true;
+                    break;
+                }
+            }
+
+            if (!covered) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isScanned(String className) {
+        for (String packageName : this.packages) {
+            if (className.startsWith(packageName + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private Class<?> loadClass(String className) {
+        for (ClassLoader classLoader : this.classLoaders) {
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError ignored) {
+                // Try next class loader
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builder for index resources, used by the annotation processor at compile time
+     */
+    public static class Builder {
+
+        private final Set<String> annotations = new TreeSet<>();
+        private final Set<String> packages = new TreeSet<>();
+        private final Set<String> entries = new TreeSet<>();
+
+        public Builder annotation(String annotation) {
+            this.annotations.add(annotation);
+            return this;
+        }
+
+        public Builder packageName(String packageName) {
+            this.packages.add(packageName);
+            return this;
+        }
+
+        public Builder type(String annotation, String className) {
+            this.entries.add(KIND_TYPE + " " + annotation + " " + className);
+            return this;
+        }
+
+        public Builder method(String annotation, String className, String methodName) {
+            this.entries.add(KIND_METHOD + " " + annotation + " " + className + " " + methodName);
+            return this;
+        }
+
+        public Builder field(String annotation, String className, String fieldName) {
+            this.entries.add(KIND_FIELD + " " + annotation + " " + className + " " + fieldName);
+            return this;
+        }
+
+        public void write(Writer writer) throws IOException {
+            writer.write("# Generated by Fairy, do not edit\n");
+            writer.write(KIND_VERSION + " " + VERSION + "\n");
+            for (String annotation : this.annotations) {
+                writer.write(KIND_ANNOTATION + " " + annotation + "\n");
+            }
+            for (String packageName : this.packages) {
+                writer.write(KIND_PACKAGE + " " + packageName + "\n");
+            }
+            for (String entry : this.entries) {
+                writer.write(entry + "\n");
+            }
+        }
+
+    }
+
+}
@@ -25,6 +25,7 @@
 package org.fairy.reflect;
 
 import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
 import org.reflections.Reflections;
 import org.reflections.scanners.FieldAnnotationsScanner;
 import org.reflections.scanners.MethodAnnotationsScanner;
@@ -44,49 +45,87 @@ public class ReflectLookup {
     private final Map<Class<? extends Annotation>, ReflectFieldLookupCache> cacheAnnotatedFields;
     private final Map<Class<? extends Annotation>, ReflectMethodLookupCache> cacheAnnotatedMethods;
 
-    private final Reflections reflections;
+    private final Collection<ClassLoader> classLoaders;
+    private final Collection<String> packages;
+
+    /**
+     * The compile-time index, null if there is no index covering the packages
+     */
+    @Nullable
+    private final ReflectIndex index;
+    private Reflections reflections;
 
     public ReflectLookup(Collection<ClassLoader> classLoaders, Collection<String> packages) {
-        this.reflections = new Reflections(
-                classLoaders,
-                packages,
-                new TypeAnnotationsScanner(),
-                new FieldAnnotationsScanner(),
-                new MethodAnnotationsScanner(),
-                new SubTypesScanner(false)
-        );
+        this(classLoaders, packages, true);
+    }
+
+    public ReflectLookup(Collection<ClassLoader> classLoaders, Collection<String> packages, boolean useIndex) {
+        this.classLoaders = classLoaders;
+        this.packages = packages;
+        this.index = useIndex ? ReflectIndex.read(classLoaders, packages) : null;
 
         this.cacheAnnotatedClasses = new ConcurrentHashMap<>();
         this.cacheAnnotatedFields = new ConcurrentHashMap<>();
         this.cacheAnnotatedMethods = new ConcurrentHashMap<>();
     }
 
+    public boolean isIndexed() {
+        return this.index != null;
+    }
+
+    private boolean isIndexed(Class<? extends Annotation> annotation) {
+        return this.index != null && this.index.isIndexed(annotation);
+    }
+
+    /**
+     * Classpath scanning is only done when an annotation wasn't indexed at compile time
+     */
+    private synchronized Reflections reflections() {
+        if (this.reflections == null) {
+            this.reflections = new Reflections(
+                    this.classLoaders,
+                    this.packages,
+                    new TypeAnnotationsScanner(),
+                    new FieldAnnotationsScanner(),
+                    new MethodAnnotationsScanner(),
+                    new SubTypesScanner(false)
+            );
+        }
+        return this.reflections;
+    }
+
     public Set<Class<?>> findAnnotatedClasses(Class<? extends Annotation> annotation) {
-        return this.cacheAnnotatedClasses.computeIfAbsent(annotation, aClass -> this.reflections.getTypesAnnotatedWith(annotation));
+        return this.cacheAnnotatedClasses.computeIfAbsent(annotation, aClass -> this.isIndexed(annotation)
+                ? this.index.findAnnotatedClasses(annotation)
+                : this.reflections().getTypesAnnotatedWith(annotation));
     }
 
     public Collection<Method> findAnnotatedStaticMethods(Class<? extends Annotation> annotation) {
-        return this.cacheAnnotatedMethods
-                .computeIfAbsent(annotation, aClass -> new ReflectMethodLookupCache(this.reflections.getMethodsAnnotatedWith(annotation)))
-                .getStaticMethods();
+        return this.findMethodLookupCache(annotation).getStaticMethods();
     }
 
     public Collection<Method> findAnnotatedInstanceMethods(Class<? extends Annotation> annotation, Class<?> instanceClass) {
-        return this.cacheAnnotatedMethods
-                .computeIfAbsent(annotation, aClass -> new ReflectMethodLookupCache(this.reflections.getMethodsAnnotatedWith(annotation)))
-                .getMethod(instanceClass);
+        return this.findMethodLookupCache(annotation).getMethod(instanceClass);
     }
 
     public Collection<Field> findAnnotatedInstanceFields(Class<? extends Annotation> annotation, Class<?> instanceClass) {
-        return this.cacheAnnotatedFields
-                .computeIfAbsent(annotation, aClass -> new ReflectFieldLookupCache(this.reflections.getFieldsAnnotatedWith(annotation)))
-                .getFields(instanceClass);
+        return this.findFieldLookupCache(annotation).getFields(instanceClass);
     }
 
     public Collection<Field> findAnnotatedStaticFields(Class<? extends Annotation> annotation) {
-        return this.cacheAnnotatedFields
-                .computeIfAbsent(annotation, aClass -> new ReflectFieldLookupCache(this.reflections.getFieldsAnnotatedWith(annotation)))
-                .getStaticFields();
+        return this.findFieldLookupCache(annotation).getStaticFields();
+    }
+
+    private ReflectMethodLookupCache findMethodLookupCache(Class<? extends Annotation> annotation) {
+        return this.cacheAnnotatedMethods.computeIfAbsent(annotation, aClass -> new ReflectMethodLookupCache(this.isIndexed(annotation)
+                ? this.index.findAnnotatedMethods(annotation)
+                : this.reflections().getMethodsAnnotatedWith(annotation)));
+    }
+
+    private ReflectFieldLookupCache findFieldLookupCache(Class<? extends Annotation> annotation) {
+        return this.cacheAnnotatedFields.computeIfAbsent(annotation, aClass -> new ReflectFieldLookupCache(this.isIndexed(annotation)
+                ? this.index.findAnnotatedFields(annotation)
+                : this.reflections().getFieldsAnnotatedWith(annotation)));
     }
 
     private static class ReflectFieldLookupCache {
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.imanity.frameworktest;
+
+import org.fairy.bean.*;
+import org.fairy.bean.details.GenericBeanDetails;
+import org.fairy.bean.details.SimpleBeanDetails;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Optional;
+
+/**
+ * Injection and lifecycle calls through the precompiled {@link BeanPlan}
+ */
+public class BeanPlanTest {
+
+    private static BeanContext beanContext;
+
+    @BeforeClass
+    public static void setup() {
+        beanContext = new BeanContext();
+        beanContext.registerBean(new SimpleBeanDetails(new Dependency(), "dependency", Dependency.class));
+    }
+
+    @Test
+    public void injectsFields() {
+        Target target = new Target();
+        beanContext.injectBeans(target);
+
+        MatcherAssert.assertThat(target.dependency, CoreMatchers.notNullValue());
+        MatcherAssert.assertThat(target.optional.isPresent(), CoreMatchers.is(true));
+        MatcherAssert.assertThat(target.holder.contains(), CoreMatchers.is(true));
+        MatcherAssert.assertThat(target.finalDependency, CoreMatchers.nullValue());
+    }
+
+    @Test
+    public void callsLifecycleMethods() throws Exception {
+        Target target = new Target();
+        GenericBeanDetails details = new GenericBeanDetails(Target.class, target, "target");
+
+        MatcherAssert.assertThat(details.shouldInitialize(), CoreMatchers.is(true));
+        details.call(PreInitialize.class);
+        details.call(PostInitialize.class);
+
+        MatcherAssert.assertThat(target.preInitialized, CoreMatchers.is(1));
+        MatcherAssert.assertThat(target.postInitialized, CoreMatchers.sameInstance(details));
+    }
+
+    @Test
+    public void plansAreBuiltOncePerClass() throws Exception {
+        BeanPlan plan = BeanPlan.of(Target.class);
+        MatcherAssert.assertThat(BeanPlan.of(Target.class), CoreMatchers.sameInstance(plan));
+
+        // the final field is never injected
+        MatcherAssert.assertThat(plan.getAutowiredFields().size(), CoreMatchers.is(3));
+
+        Target target = new Target();
+        GenericBeanDetails details = new GenericBeanDetails(Target.class, target, "target");
+        for (BeanPlan.LifecycleMethod lifecycleMethod : plan.getLifecycleMethods(PreInitialize.class)) {
+            lifecycleMethod.invoke(target, details);
+        }
+        MatcherAssert.assertThat(target.preInitialized, CoreMatchers.is(1));
+        MatcherAssert.assertThat(plan.hasLifecycleMethods(PreDestroy.class), CoreMatchers.is(false));
+    }
+
+    @Test
+    public void loadMethodDoesNotChangeTheSharedPlan() throws Exception {
+        Extended extended = new Extended();
+        GenericBeanDetails details = new GenericBeanDetails(Base.class, extended, "base");
+        details.loadMethod(Extended.class.getDeclaredMethod("preDestroy"));
+
+        details.call(PreDestroy.class);
+        MatcherAssert.assertThat(extended.destroyed, CoreMatchers.is(true));
+        MatcherAssert.assertThat(details.getAnnotatedMethods().get(PreDestroy.class).size(), CoreMatchers.is(1));
+        MatcherAssert.assertThat(BeanPlan.of(Base.class).hasLifecycleMethods(PreDestroy.class), CoreMatchers.is(false));
+    }
+
+    public static final class Dependency {
+    }
+
+    public static class Base {
+    }
+
+    public static final class Extended extends Base {
+
+        private boolean destroyed;
+
+        @PreDestroy
+        private void preDestroy() {
+            this.destroyed = true;
+        }
+
+    }
+
+    public static final class Target {
+
+        @Autowired
+        private Dependency dependency;
+
+        @Autowired
+        private Optional<Dependency> optional;
+
+        @Autowired
+        private BeanHolder<Dependency> holder;
+
+        @Autowired
+        private final Dependency finalDependency = null;
+
+        private int preInitialized;
+        private Object postInitialized;
+
+        @PreInitialize
+        private void preInit() {
+            this.preInitialized++;
+        }
+
+        @PostInitialize
+        private void postInit(org.fairy.bean.details.BeanDetails beanDetails) {
+            this.postInitialized = beanDetails;
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.imanity.frameworktest;
+
+import org.fairy.cache.script.SpringELParser;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+/**
+ * Cache key and condition expressions compiled per method, checked against the interpreted evaluation
+ */
+public class CacheKeyExpressionTest {
+
+    @Test
+    public void argumentKey() throws Exception {
+        SpringELParser parser = new SpringELParser();
+        Method method = Keys.class.getDeclaredMethod("byId", int.class);
+
+        for (int id : new int[] {42, 7, 42}) {
+            Object[] arguments = new Object[] {id};
+            MatcherAssert.assertThat(parser.getElValue(method, "'test-' + #args[0]", null, arguments, null, false, String.class), CoreMatchers.equalTo("test-" + id));
+            MatcherAssert.assertThat(parser.getElValue(method, "#args[0]", null, arguments, null, false, String.class), CoreMatchers.equalTo(String.valueOf(id)));
+            MatcherAssert.assertThat(parser.getElValue(method, "'test-' + #args[0]", null, arguments, null, false, String.class),
+                    CoreMatchers.equalTo(parser.getElValue("'test-' + #args[0]", null, arguments, null, false, String.class)));
+        }
+    }
+
+    @Test
+    public void compiledKey() throws Exception {
+        SpringELParser parser = new SpringELParser();
+        Method method = Keys.class.getDeclaredMethod("byDummy", CacheableTest.ImanityDummy.class);
+
+        for (int id : new int[] {42, 7, 42}) {
+            Object[] arguments = new Object[] {new CacheableTest.ImanityDummy(id)};
+            MatcherAssert.assertThat(parser.getElValue(method, "'test-' + #args[0].getId()", null, arguments, null, false, String.class), CoreMatchers.equalTo("test-" + id));
+        }
+    }
+
+    @Test
+    public void literalKey() throws Exception {
+        SpringELParser parser = new SpringELParser();
+        Method method = Keys.class.getDeclaredMethod("byId", int.class);
+
+        MatcherAssert.assertThat(parser.getElValue(method, "plain", null, new Object[] {42}, null, false, String.class), CoreMatchers.equalTo("plain"));
+    }
+
+    @Test
+    public void compiledCondition() throws Exception {
+        SpringELParser parser = new SpringELParser();
+        Method method = Keys.class.getDeclaredMethod("byId", int.class);
+
+        for (int i = 0; i < 3; i++) {
+            MatcherAssert.assertThat(parser.getElValue(method, "#args[0] > 10", null, new Object[]{42}, null, false, Boolean.class), CoreMatchers.is(true));
+            MatcherAssert.assertThat(parser.getElValue(method, "#args[0] > 10", null, new Object[]{5}, null, false, Boolean.class), CoreMatchers.is(false));
+        }
+    }
+
+    @Test
+    public void literalCondition() throws Exception {
+        SpringELParser parser = new SpringELParser();
+        Method method = Keys.class.getDeclaredMethod("byId", int.class);
+
+        for (int i = 0; i < 3; i++) {
+            MatcherAssert.assertThat(parser.getElValue(method, "true", null, new Object[] {42}, null, false, Boolean.class), CoreMatchers.is(true));
+            MatcherAssert.assertThat(parser.getElValue(method, "T(org.imanity.frameworktest.CacheKeyExpressionTest$Keys).FLAG", null, new Object[] {42}, null, false, Boolean.class), CoreMatchers.is(true));
+        }
+        // the same literal still reads as a plain string key
+        MatcherAssert.assertThat(parser.getElValue(method, "true", null, new Object[] {42}, null, false, String.class), CoreMatchers.equalTo("true"));
+    }
+
+    @Test
+    public void sameExpressionOnDifferentMethods() throws Exception {
+        SpringELParser parser = new SpringELParser();
+        Method byId = Keys.class.getDeclaredMethod("byId", int.class);
+        Method byDummy = Keys.class.getDeclaredMethod("byDummy", CacheableTest.ImanityDummy.class);
+
+        MatcherAssert.assertThat(parser.getElValue(byId, "#args[0].toString()", null, new Object[] {42}, null, false, String.class), CoreMatchers.equalTo("42"));
+        MatcherAssert.assertThat(parser.getElValue(byDummy, "#args[0].toString()", null, new Object[] {"dummy"}, null, false, String.class), CoreMatchers.equalTo("dummy"));
+    }
+
+    public static final class Keys {
+
+        public static final boolean FLAG = true;
+
+        public long byId(int id) {
+            return id;
+        }
+
+        public long byDummy(CacheableTest.ImanityDummy dummy) {
+            return dummy.getId();
+        }
+
+    }
+
+}
@@ -29,13 +29,19 @@ import org.hamcrest.MatcherAssert;
 import org.fairy.CacheEvict;
 import org.fairy.CachePut;
 import org.fairy.Cacheable;
+import org.fairy.cache.CacheableAspect;
 import org.fairy.cache.EnableOwnCacheManager;
+import org.fairy.cache.manager.CacheManager;
+import org.fairy.cache.manager.CacheManagerConcurrentMap;
 import org.junit.Test;
 import org.springframework.util.Assert;
 
+import java.lang.reflect.Method;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 public class CacheableTest {
@@ -137,6 +143,135 @@ public class CacheableTest {
         imanity.test((String) null);
     }
 
+    @Test
+    public void boundedByMaximumWeight() {
+        Bounded bounded = new Bounded();
+        for (int i = 0; i < 1000; i++) {
+            MatcherAssert.assertThat(bounded.square(i), CoreMatchers.equalTo((long) i * i));
+        }
+
+        CacheManager cacheManager = CacheableAspect.INSTANCE.getCacheManager(Bounded.class);
+        cacheManager.clean();
+        MatcherAssert.assertThat(cacheManager.getAsMap().size() <= 10, CoreMatchers.is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveWeight() {
+        new Bounded().weightless(1);
+    }
+
+    @Test
+    public void cachesByArguments() {
+        Bounded bounded = new Bounded();
+        long first = bounded.random(1, "a");
+
+        MatcherAssert.assertThat(bounded.random(1, "a"), CoreMatchers.equalTo(first));
+        MatcherAssert.assertThat(bounded.random(1, "b"), CoreMatchers.not(first));
+        MatcherAssert.assertThat(bounded.random(2, "a"), CoreMatchers.not(first));
+    }
+
+    @Test
+    public void evictsAllKeys() {
+        Batch batch = new Batch();
+        long first = batch.get(1), second = batch.get(2), third = batch.get(3);
+
+        CacheableAspect.INSTANCE.evictAll(Batch.class, Arrays.asList("batch-1", "batch-2"));
+
+        MatcherAssert.assertThat(batch.get(1), CoreMatchers.not(first));
+        MatcherAssert.assertThat(batch.get(2), CoreMatchers.not(second));
+        MatcherAssert.assertThat(batch.get(3), CoreMatchers.equalTo(third));
+    }
+
+    @Test
+    public void flushesByMethod() throws Exception {
+        this.flushesByMethod(new Batch(), Batch.class);
+        this.flushesByMethod(new LegacyBatch(), LegacyBatch.class);
+    }
+
+    @Test
+    public void flushesAfterRecaching() throws Exception {
+        Batch batch = new Batch();
+        Method first = Batch.class.getDeclaredMethod("first", int.class);
+
+        batch.first(2);
+        CacheableAspect.INSTANCE.flush(first);
+        long cached = batch.first(2);
+
+        // Removal of the flushed entry is notified asynchronously, it must not drop the new entry from the index
+        ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+        MatcherAssert.assertThat(batch.first(2), CoreMatchers.equalTo(cached));
+
+        CacheableAspect.INSTANCE.flush(first);
+        MatcherAssert.assertThat(batch.first(2), CoreMatchers.not(cached));
+    }
+
+    private void flushesByMethod(Object batch, Class<?> type) throws Exception {
+        Method first = type.getDeclaredMethod("first", int.class);
+        Method second = type.getDeclaredMethod("second", int.class);
+        long firstValue = (long) first.invoke(batch, 1);
+        long secondValue = (long) second.invoke(batch, 1);
+
+        CacheableAspect.INSTANCE.flush(first);
+
+        MatcherAssert.assertThat(first.invoke(batch, 1), CoreMatchers.not(firstValue));
+        MatcherAssert.assertThat(second.invoke(batch, 1), CoreMatchers.equalTo(secondValue));
+    }
+
+    @EnableOwnCacheManager
+    private static final class Batch {
+
+        @Cacheable(key = "'batch-' + #args[0]")
+        public long get(int id) {
+            return RANDOM.nextLong();
+        }
+
+        @Cacheable
+        public long first(int id) {
+            return RANDOM.nextLong();
+        }
+
+        @Cacheable
+        public long second(int id) {
+            return RANDOM.nextLong();
+        }
+
+    }
+
+    @EnableOwnCacheManager(CacheManagerConcurrentMap.class)
+    private static final class LegacyBatch {
+
+        @Cacheable
+        public long first(int id) {
+            return RANDOM.nextLong();
+        }
+
+        @Cacheable
+        public long second(int id) {
+            return RANDOM.nextLong();
+        }
+
+    }
+
+    @EnableOwnCacheManager(maximumWeight = 10)
+    private static final class Bounded {
+
+        @Cacheable
+        public long square(int value) {
+            return (long) value * value;
+        }
+
+        @Cacheable(expireAfterAccess = true)
+        public long random(int id, String name) {
+            return RANDOM.nextLong();
+        }
+
+        @Cacheable(weight = 0)
+        public long weightless(int id) {
+            return RANDOM.nextLong();
+        }
+
+    }
+
     @EnableOwnCacheManager
     private static final class Imanity {
 
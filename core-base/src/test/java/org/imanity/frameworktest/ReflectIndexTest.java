@@ -0,0 +1,247 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.imanity.frameworktest;
+
+import org.fairy.bean.Autowired;
+import org.fairy.bean.Bean;
+import org.fairy.bean.Service;
+import org.fairy.reflect.ReflectIndex;
+import org.fairy.reflect.ReflectLookup;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Member;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+
+/**
+ * Compile-time reflect index against classpath scanning,
+ * over a synthetic jar with a few thousand classes.
+ */
+public class ReflectIndexTest {
+
+    private static final String PACKAGE = "org.imanity.frameworktest.synthetic";
+    private static final String COMPOSED = PACKAGE + ".ComposedService";
+    private static final String COMPOSED_USER = PACKAGE + ".ComposedUser";
+    private static final int CLASSES = 3000;
+
+    private static File jar;
+
+    @BeforeClass
+    public static void createJar() throws Exception {
+        jar = File.createTempFile("fairy-synthetic", ".jar");
+        ReflectIndex.Builder builder = new ReflectIndex.Builder()
+                .annotation(Service.class.getName())
+                .annotation(Bean.class.getName())
+                .annotation(Autowired.class.getName())
+                .packageName(PACKAGE);
+
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (int i = 0; i < CLASSES; i++) {
+                String className = PACKAGE + ".Synthetic" + i;
+                boolean service = i % 30 == 0, bean = i % 100 == 0, autowired = i % 50 == 0;
+
+                out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+                out.write(generateClass(className, service, bean, autowired));
+                out.closeEntry();
+
+                if (service) {
+                    builder.type(Service.class.getName(), className);
+                }
+                if (bean) {
+                    builder.method(Bean.class.getName(), className, "create");
+                }
+                if (autowired) {
+                    builder.field(Autowired.class.getName(), className, "wired");
+                }
+            }
+
+            // A composed annotation carrying @Service, and a class only annotated with it
+            out.putNextEntry(new JarEntry(COMPOSED.replace('.', '/') + ".class"));
+            out.write(generateComposedAnnotation(COMPOSED));
+            out.closeEntry();
+            out.putNextEntry(new JarEntry(COMPOSED_USER.replace('.', '/') + ".class"));
+            out.write(generateComposedUser(COMPOSED_USER, COMPOSED));
+            out.closeEntry();
+            builder.type(Service.class.getName(), COMPOSED);
+            builder.type(Service.class.getName(), COMPOSED_USER);
+
+            out.putNextEntry(new JarEntry(ReflectIndex.RESOURCE));
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            builder.write(writer);
+            writer.flush();
+            out.closeEntry();
+        }
+    }
+
+    @AfterClass
+    public static void deleteJar() {
+        jar.delete();
+    }
+
+    @Test
+    public void indexMatchesScanning() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, ReflectIndexTest.class.getClassLoader())) {
+            ReflectLookup indexed = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton(PACKAGE));
+            ReflectLookup scanned = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton(PACKAGE), false);
+
+            MatcherAssert.assertThat(indexed.isIndexed(), CoreMatchers.is(true));
+            MatcherAssert.assertThat(scanned.isIndexed(), CoreMatchers.is(false));
+
+            MatcherAssert.assertThat(names(indexed.findAnnotatedClasses(Service.class), Class::getName), CoreMatchers.equalTo(names(scanned.findAnnotatedClasses(Service.class), Class::getName)));
+            MatcherAssert.assertThat(names(indexed.findAnnotatedStaticMethods(Bean.class), ReflectIndexTest::memberName), CoreMatchers.equalTo(names(scanned.findAnnotatedStaticMethods(Bean.class), ReflectIndexTest::memberName)));
+            MatcherAssert.assertThat(names(indexed.findAnnotatedStaticFields(Autowired.class), ReflectIndexTest::memberName), CoreMatchers.equalTo(names(scanned.findAnnotatedStaticFields(Autowired.class), ReflectIndexTest::memberName)));
+            MatcherAssert.assertThat(indexed.findAnnotatedClasses(Service.class).size(), CoreMatchers.equalTo(CLASSES / 30 + 2));
+        }
+    }
+
+    @Test
+    public void indexResolvesComposedAnnotations() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, ReflectIndexTest.class.getClassLoader())) {
+            ReflectLookup indexed = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton(PACKAGE));
+            Set<String> names = names(indexed.findAnnotatedClasses(Service.class), Class::getName);
+
+            MatcherAssert.assertThat(names, CoreMatchers.hasItems(COMPOSED, COMPOSED_USER));
+        }
+    }
+
+    @Test
+    public void fallbackWithoutCoveringIndex() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, ReflectIndexTest.class.getClassLoader())) {
+            ReflectLookup lookup = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton("org.imanity.frameworktest.missing"));
+
+            MatcherAssert.assertThat(lookup.isIndexed(), CoreMatchers.is(false));
+        }
+    }
+
+    @Test
+    public void parentPackageIsNotCovered() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, ReflectIndexTest.class.getClassLoader())) {
+            // The parent package holds classes the index has never seen
+            ReflectLookup parent = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton("org.imanity.frameworktest"));
+            ReflectLookup child = new ReflectLookup(Collections.singleton(classLoader), Collections.singleton(PACKAGE + ".child"));
+
+            MatcherAssert.assertThat(parent.isIndexed(), CoreMatchers.is(false));
+            MatcherAssert.assertThat(child.isIndexed(), CoreMatchers.is(true));
+        }
+    }
+
+    private static String memberName(Member member) {
+        return member.getDeclaringClass().getName() + "#" + member.getName();
+    }
+
+    private static <T> Set<String> names(Collection<T> collection, Function<T, String> function) {
+        return collection.stream()
+                .map(function)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static byte[] generateComposedAnnotation(String className) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ANNOTATION | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, className.replace('.', '/'), null, "java/lang/Object", new String[] {"java/lang/annotation/Annotation"});
+
+        AnnotationVisitor retention = writer.visitAnnotation("Ljava/lang/annotation/Retention;", true);
+        retention.visitEnum("value", "Ljava/lang/annotation/RetentionPolicy;", "RUNTIME");
+        retention.visitEnd();
+
+        AnnotationVisitor service = writer.visitAnnotation("Lorg/fairy/bean/Service;", true);
+        service.visit("name", "composed");
+        service.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateComposedUser(String className, String annotationName) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className.replace('.', '/'), null, "java/lang/Object", null);
+        writer.visitAnnotation("L" + annotationName.replace('.', '/') + ";", true).visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateClass(String className, boolean service, boolean bean, boolean autowired) {
+        String internalName = className.replace('.', '/');
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, "java/lang/Object", null);
+
+        if (service) {
+            AnnotationVisitor annotation = writer.visitAnnotation("Lorg/fairy/bean/Service;", true);
+            annotation.visit("name", "synthetic" + className);
+            annotation.visitEnd();
+        }
+
+        FieldVisitor field = writer.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "wired", "Ljava/lang/Object;", null, null);
+        if (autowired) {
+            field.visitAnnotation("Lorg/fairy/bean/Autowired;", true).visitEnd();
+        }
+        field.visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "create", "()Ljava/lang/Object;", null, null);
+        if (bean) {
+            method.visitAnnotation("Lorg/fairy/bean/Bean;", true).visitEnd();
+        }
+        method.visitCode();
+        method.visitTypeInsn(Opcodes.NEW, "java/lang/Object");
+        method.visitInsn(Opcodes.DUP);
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+}
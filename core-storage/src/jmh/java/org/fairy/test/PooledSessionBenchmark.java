@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import com.google.common.collect.ImmutableMap;
+import org.fairy.Repository;
+import org.fairy.RepositoryType;
+import org.fairy.mysql.config.AbstractSqlRepositoryProvider;
+import org.fairy.mysql.connection.AbstractConnectionFactory;
+import org.fairy.mysql.connection.hikari.HikariConnectionFactory;
+import org.fairy.mysql.pojo.statement.MySqlStatementBuilder;
+import org.fairy.mysql.pojo.statement.SqlStatementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A save followed by a find from several threads through a Hikari pool over H2,
+ * with sessions serialized on the repository against running on separate pooled connections
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PooledSessionBenchmark {
+
+	private static final int THREADS = 8;
+	private static final int IDS = 400;
+
+	@Param({"false", "true"})
+	public boolean concurrentSessions;
+
+	private Path folder;
+	private PooledProvider provider;
+	private Repository<Stats, String> repository;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.folder = Files.createTempDirectory("fairy-h2");
+		this.provider = new PooledProvider(this.folder.resolve("pooled"));
+		this.provider.setConcurrentSessions(this.concurrentSessions);
+		this.provider.build();
+
+		this.repository = this.provider.buildRepository(Stats.class, "stats");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		this.provider.close();
+		try (Stream<Path> paths = Files.walk(this.folder)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (IOException ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		}
+	}
+
+	@Benchmark
+	@Threads(THREADS)
+	public Optional<Stats> saveAndFind() {
+		final int kills = ThreadLocalRandom.current().nextInt(IDS);
+		final String id = "stats-" + kills;
+		this.repository.save(new Stats(id, kills));
+		return this.repository.findById(id);
+	}
+
+	/**
+	 * H2 behind a Hikari pool, so sessions can run on separate connections
+	 */
+	private static final class PooledProvider extends AbstractSqlRepositoryProvider {
+
+		private final Path path;
+
+		private PooledProvider(Path path) {
+			super("benchmark-pooled");
+			this.path = path;
+		}
+
+		@Override
+		public AbstractConnectionFactory createFactory() {
+			return new HikariConnectionFactory() {
+				@Override
+				public RepositoryType type() {
+					return RepositoryType.H2;
+				}
+
+				@Override
+				public String defaultPort() {
+					return "";
+				}
+
+				@Override
+				public void configureDatabase(String address, String port, String databaseName, String username, String password) {
+				}
+
+				@Override
+				public void init() {
+					super.init();
+					this.config.setDriverClassName("org.h2.Driver");
+					this.config.setJdbcUrl("jdbc:h2:" + path.toAbsolutePath() + ";mode=MySQL");
+					this.config.setMaximumPoolSize(THREADS);
+				}
+
+				@Override
+				public SqlStatementBuilder builder() {
+					return new MySqlStatementBuilder();
+				}
+			};
+		}
+
+		@Override
+		public Class<? extends AbstractConnectionFactory> factoryClass() {
+			return HikariConnectionFactory.class;
+		}
+
+		@Override
+		public RepositoryType type() {
+			return RepositoryType.H2;
+		}
+
+		@Override
+		public Map<String, String> getDefaultOptions() {
+			return ImmutableMap.of();
+		}
+
+		@Override
+		public void registerOptions(Map<String, String> map) {
+		}
+
+	}
+
+	@Table(name = "pooled_stats")
+	public static class Stats {
+
+		@Id
+		@Column(name = "uuid")
+		public String uuid;
+
+		@Column(name = "kills")
+		public int kills;
+
+		public Stats() {
+		}
+
+		public Stats(String uuid, int kills) {
+			this.uuid = uuid;
+			this.kills = kills;
+		}
+
+	}
+
+}
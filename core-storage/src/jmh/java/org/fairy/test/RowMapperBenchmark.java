@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.fairy.test;
+
+import org.fairy.mysql.connection.file.H2ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping H2 result sets into pojos through Query.results
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RowMapperBenchmark {
+
+	private static final int ROWS = 100_000;
+
+	private H2ConnectionFactory db;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.db = new H2ConnectionFactory(Files.createTempDirectory("fairy-h2").resolve("rows"), true);
+		this.db.createTable(Score.class);
+
+		for (int i = 0; i < ROWS; i++) {
+			this.db.insert(new Score("player-" + i, "Player" + i, i % 100, i % 37, i * 60L, i / 7.0D));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		this.db.shutdown();
+	}
+
+	@Benchmark
+	public List<Score> results() {
+		return this.db.query().results(Score.class);
+	}
+
+	@Table(name = "scores")
+	public static class Score {
+
+		@Id
+		@Column(name = "uuid")
+		public String uuid;
+
+		@Column(name = "name")
+		public String name;
+
+		@Column(name = "kills")
+		public int kills;
+
+		@Column(name = "deaths")
+		public int deaths;
+
+		@Column(name = "playtime")
+		public long playtime;
+
+		@Column(name = "ratio")
+		public double ratio;
+
+		public Score() {
+		}
+
+		public Score(String uuid, String name, int kills, int deaths, long playtime, double ratio) {
+			this.uuid = uuid;
+			this.name = name;
+			this.kills = kills;
+			this.deaths = deaths;
+			this.playtime = playtime;
+			this.ratio = ratio;
+		}
+
+	}
+
+}
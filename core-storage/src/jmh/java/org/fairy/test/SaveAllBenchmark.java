@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.fairy.test;
+
+import org.fairy.Repository;
+import org.fairy.mysql.config.file.SimpleFileRepositoryProvider;
+import org.fairy.mysql.connection.file.H2ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Saving the same rows to H2 one by one, against a batched saveAll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SaveAllBenchmark {
+
+	private static final int ROWS = 2000;
+
+	private Path folder;
+	private Provider provider;
+	private Repository<Profile, String> repository;
+	private List<Profile> profiles;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.folder = Files.createTempDirectory("fairy-h2");
+		this.provider = new Provider(this.folder.resolve("batch"));
+		this.provider.build();
+
+		this.repository = this.provider.buildRepository(Profile.class, "profiles");
+		this.profiles = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			this.profiles.add(new Profile("profile-" + i, i));
+		}
+		// every invocation updates existing rows
+		this.repository.saveAll(this.profiles);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		this.provider.close();
+		try (Stream<Path> paths = Files.walk(this.folder)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (IOException ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		}
+	}
+
+	@Benchmark
+	public void saveLoop() {
+		for (Profile profile : this.profiles) {
+			this.repository.save(profile);
+		}
+	}
+
+	@Benchmark
+	public void saveAll() {
+		this.repository.saveAll(this.profiles);
+	}
+
+	private static final class Provider extends SimpleFileRepositoryProvider {
+
+		private final Path path;
+
+		private Provider(Path path) {
+			super("benchmark");
+			this.path = path;
+		}
+
+		@Override
+		public Path path() {
+			return this.path;
+		}
+
+		@Override
+		public H2ConnectionFactory createFactory() {
+			return new H2ConnectionFactory(this.path(), true);
+		}
+
+	}
+
+	@Table(name = "batch_profiles")
+	public static class Profile {
+
+		@Id
+		@Column(name = "uuid")
+		public String uuid;
+
+		@Column(name = "coins")
+		public int coins;
+
+		public Profile() {
+		}
+
+		public Profile(String uuid, int coins) {
+			this.uuid = uuid;
+			this.coins = coins;
+		}
+
+	}
+
+}
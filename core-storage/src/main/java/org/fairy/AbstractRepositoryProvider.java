@@ -28,28 +28,35 @@ import com.google.common.collect.Sets;
 
 import java.io.Serializable;
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public abstract class AbstractRepositoryProvider implements RepositoryProvider {
 
     private final String id;
     private final Set<Repository<?, ?>> repositories;
     private final ReentrantLock lock;
+    private final ReentrantReadWriteLock schemaLock;
 
     public AbstractRepositoryProvider(String id) {
         this.id = id;
         this.repositories = Sets.newConcurrentHashSet();
         this.lock = new ReentrantLock();
+        this.schemaLock = new ReentrantReadWriteLock();
     }
 
     @Override
     public final void build() {
         this.lock.lock();
-
-        this.build0();
-        this.repositories.forEach(Repository::init);
-
-        this.lock.unlock();
+        this.schemaLock.writeLock().lock();
+        try {
+            this.build0();
+            this.repositories.forEach(Repository::init);
+        } finally {
+            this.schemaLock.writeLock().unlock();
+            this.lock.unlock();
+        }
     }
 
     public abstract void build0();
@@ -74,4 +81,9 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider {
     public ReentrantLock getIOLock() {
         return this.lock;
     }
+
+    @Override
+    public ReadWriteLock getSchemaLock() {
+        return this.schemaLock;
+    }
 }
@@ -26,8 +26,15 @@ package org.fairy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
 import lombok.Getter;
 import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.codecs.Codec;
+import org.bson.codecs.CollectibleCodec;
 import org.fairy.bean.Autowired;
 import org.fairy.bean.JacksonService;
 import org.fairy.mongo.AbstractMongoRepositoryProvider;
@@ -83,7 +90,27 @@ public class MongoRepository<T, ID extends Serializable> extends AbstractReposit
 
     @Override
     public <S extends T> Iterable<S> saveAll(Iterable<S> pojoIterable) {
-        this.run(() -> pojoIterable.forEach(pojo -> this.collection.save(pojo)));
+        Codec<T> codec = this.collection.getCodecRegistry().get(this.type());
+        if (!(codec instanceof CollectibleCodec)) {
+            this.run(() -> pojoIterable.forEach(pojo -> this.collection.save(pojo)));
+            return pojoIterable;
+        }
+
+        CollectibleCodec<T> collectibleCodec = (CollectibleCodec<T>) codec;
+        ReplaceOptions options = new ReplaceOptions().upsert(true);
+        List<WriteModel<T>> models = new ArrayList<>();
+        for (S pojo : pojoIterable) {
+            BsonValue id = collectibleCodec.getDocumentId(pojo);
+            if (id == null || id.isNull()) {
+                models.add(new InsertOneModel<>(pojo));
+            } else {
+                models.add(new ReplaceOneModel<>(Filters.eq(this.queryId(), id), pojo, options));
+            }
+        }
+
+        if (!models.isEmpty()) {
+            this.run(() -> this.collection.bulkWrite(models));
+        }
         return pojoIterable;
     }
 
@@ -129,6 +156,14 @@ public class MongoRepository<T, ID extends Serializable> extends AbstractReposit
         this.run(() -> this.collection.removeById(id));
     }
 
+    @Override
+    public void deleteAllById(List<ID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        this.run(() -> this.collection.deleteMany(this.collection.createIdInQuery(ids)));
+    }
+
     @Override
     public <Q> void deleteByQuery(String query, Q value) {
         this.run(() -> this.collection.deleteMany(Filters.eq(query, value)));
@@ -57,6 +57,10 @@ public interface Repository<T, ID extends Serializable> {
 
     void deleteById(ID id);
 
+    default void deleteAllById(List<ID> ids) {
+        ids.forEach(this::deleteById);
+    }
+
     <Q> void deleteByQuery(String query, Q value);
 
     void deleteAll();
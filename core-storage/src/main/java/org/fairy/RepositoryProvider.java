@@ -32,6 +32,7 @@ import org.fairy.providers.MongoRepositoryProvider;
 import java.io.Serializable;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public interface RepositoryProvider extends AutoCloseable {
@@ -79,6 +80,14 @@ public interface RepositoryProvider extends AutoCloseable {
      */
     ReentrantLock getIOLock();
 
+    /**
+     * get Schema Lock for the repository, concurrent sessions share the read lock
+     * while rebuilding the provider or creating tables holds the write lock
+     *
+     * @return the schema lock
+     */
+    ReadWriteLock getSchemaLock();
+
     Map<String, String> getDefaultOptions();
 
     default void verify(Map<String, String> map) {
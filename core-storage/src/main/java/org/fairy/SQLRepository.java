@@ -24,6 +24,7 @@
 
 package org.fairy;
 
+import com.google.common.collect.Lists;
 import org.apache.logging.log4j.LogManager;
 import org.fairy.mysql.Session;
 import org.fairy.mysql.config.AbstractSqlRepositoryProvider;
@@ -31,8 +32,10 @@ import org.fairy.mysql.connection.AbstractConnectionFactory;
 import org.fairy.mysql.pojo.Transaction;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -48,8 +51,20 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
 
     public void init() {
         this.repositoryProvider.getIOLock().lock();
-        this.getFactory().createTable(this.type());
-        this.repositoryProvider.getIOLock().unlock();
+        this.repositoryProvider.getSchemaLock().writeLock().lock();
+        try {
+            this.getFactory().createTable(this.type());
+        } finally {
+            this.repositoryProvider.getSchemaLock().writeLock().unlock();
+            this.repositoryProvider.getIOLock().unlock();
+        }
+    }
+
+    private Lock sessionLock() {
+        if (this.repositoryProvider.isConcurrentSessions()) {
+            return this.repositoryProvider.getSchemaLock().readLock();
+        }
+        return this.repositoryProvider.getIOLock();
     }
 
     public <R> R supplySession(Function<Session, R> sessionConsumer) {
@@ -57,7 +72,8 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
 
         Transaction transaction = null;
 
-        this.repositoryProvider.getIOLock().lock();
+        Lock lock = this.sessionLock();
+        lock.lock();
         try {
             transaction = this.getFactory().startTransaction();
 
@@ -71,7 +87,7 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
             }
             LogManager.getLogger().error(throwable);
         } finally {
-            this.repositoryProvider.getIOLock().unlock();
+            lock.unlock();
         }
 
         return result;
@@ -80,7 +96,8 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
     public void runSession(Consumer<Session> sessionConsumer) {
         Transaction transaction = null;
 
-        this.repositoryProvider.getIOLock().lock();
+        Lock lock = this.sessionLock();
+        lock.lock();
         try {
             transaction = this.getFactory().startTransaction();
 
@@ -94,7 +111,7 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
             }
             LogManager.getLogger().error(throwable);
         } finally {
-            this.repositoryProvider.getIOLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -104,6 +121,15 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
         return pojo;
     }
 
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> pojoIterable) {
+        List<S> pojos = Lists.newArrayList(pojoIterable);
+        if (!pojos.isEmpty()) {
+            this.runSession(session -> session.upsertAll(pojos, this.repositoryProvider.getBatchSize()));
+        }
+        return pojoIterable;
+    }
+
     @Override
     public Optional<T> findById(ID id) {
         return Optional.ofNullable(this.supplySession(session -> session.find(this.type(), id)));
@@ -136,7 +162,15 @@ public class SQLRepository<T, ID extends Serializable> extends AbstractRepositor
 
     @Override
     public void deleteById(ID id) {
-        this.runSession(session -> session.delete(id));
+        this.deleteAllById(Collections.singletonList(id));
+    }
+
+    @Override
+    public void deleteAllById(List<ID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        this.runSession(session -> session.query().deleteAllById(this.type(), ids, this.repositoryProvider.getBatchSize()));
     }
 
     @Override
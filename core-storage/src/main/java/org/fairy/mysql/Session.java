@@ -30,6 +30,7 @@ import org.fairy.mysql.connection.AbstractConnectionFactory;
 import org.fairy.mysql.pojo.Query;
 import org.fairy.mysql.pojo.Transaction;
 
+import java.util.Collection;
 import java.util.List;
 
 @AllArgsConstructor
@@ -128,6 +129,13 @@ public class Session implements AutoCloseable {
         return this.query().upsert(row);
     }
 
+    /**
+     * Upsert rows in JDBC batches of batchSize.
+     */
+    public Query upsertAll(Collection<?> rows, int batchSize) {
+        return this.query().upsertAll(rows, batchSize);
+    }
+
     /**
      * Create a query and specify which table it operates on.
      */
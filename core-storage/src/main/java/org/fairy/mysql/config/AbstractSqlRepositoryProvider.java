@@ -25,6 +25,7 @@
 package org.fairy.mysql.config;
 
 import lombok.Getter;
+import lombok.Setter;
 import org.fairy.*;
 import org.fairy.mysql.connection.AbstractConnectionFactory;
 import org.fairy.util.Utility;
@@ -34,9 +35,27 @@ import java.sql.SQLException;
 
 public abstract class AbstractSqlRepositoryProvider extends AbstractRepositoryProvider {
 
+    public static boolean CONCURRENT_SESSIONS = !Boolean.getBoolean("fairy.storage.serializeSessions");
+    public static int DEFAULT_BATCH_SIZE = Integer.getInteger("fairy.storage.batchSize", 500);
+
     @Getter
     private AbstractConnectionFactory factory;
 
+    /**
+     * Whether sessions run on their own connections in parallel,
+     * otherwise every session of this provider is serialized by the IO lock
+     */
+    @Getter
+    @Setter
+    private boolean concurrentSessions = CONCURRENT_SESSIONS;
+
+    /**
+     * The number of statements sent per JDBC batch by saveAll and deleteAllById
+     */
+    @Getter
+    @Setter
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     public AbstractSqlRepositoryProvider(String id) {
         super(id);
     }
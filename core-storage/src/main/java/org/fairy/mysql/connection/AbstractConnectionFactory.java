@@ -37,6 +37,8 @@ import java.util.List;
 
 public abstract class AbstractConnectionFactory {
 
+    private volatile SqlStatementBuilder statementBuilder;
+
     public abstract RepositoryType type();
 
     public abstract void init();
@@ -47,6 +49,23 @@ public abstract class AbstractConnectionFactory {
 
     public abstract SqlStatementBuilder builder();
 
+    /**
+     * The statement builder shared by queries of this factory, so its generated sql is cached
+     */
+    public SqlStatementBuilder statementBuilder() {
+        SqlStatementBuilder statementBuilder = this.statementBuilder;
+        if (statementBuilder == null) {
+            synchronized (this) {
+                statementBuilder = this.statementBuilder;
+                if (statementBuilder == null) {
+                    statementBuilder = this.builder();
+                    this.statementBuilder = statementBuilder;
+                }
+            }
+        }
+        return statementBuilder;
+    }
+
     public abstract Connection connection() throws SQLException;
 
     public Session session(Transaction transaction) {
@@ -143,7 +162,13 @@ public abstract class AbstractConnectionFactory {
     @SneakyThrows
     public Transaction startTransaction() {
         Transaction trans = new Transaction();
-        trans.setConnection(this.connection());
+        Connection connection = this.connection();
+        try {
+            trans.setConnection(connection);
+        } catch (Throwable throwable) {
+            connection.close();
+            throw throwable;
+        }
         return trans;
     }
 
@@ -75,7 +75,7 @@ public class H2ConnectionFactory extends FileConnectionFactory {
     }
 
     @Override
-    public void connect() throws SQLException {
+    public synchronized void connect() throws SQLException {
         if (this.connection != null && !this.connection.isClosed()) {
             return;
         }
@@ -101,10 +101,15 @@ public class H2ConnectionFactory extends FileConnectionFactory {
 
     @Override
     public Connection connection() throws SQLException {
-        if (this.connection == null || this.connection.isClosed()) {
-            this.connect();
+        NonClosableConnection connection;
+        synchronized (this) {
+            if (this.connection == null || this.connection.isClosed()) {
+                this.connect();
+            }
+            connection = this.connection;
         }
 
-        return this.connection;
+        connection.acquire();
+        return connection;
     }
 }
\ No newline at end of file
@@ -33,11 +33,14 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static net.bytebuddy.matcher.ElementMatchers.*;
 
 /**
  * A wrapper around a {@link Connection} which blocks usage of the default {@link #close()} method.
+ *
+ * As the connection is shared, each borrower {@link #acquire() acquires} it and releases it again on {@link #close()}.
  */
 public abstract class NonClosableConnection implements Connection {
 
@@ -77,6 +80,7 @@ public abstract class NonClosableConnection implements Connection {
     }
 
     protected final Connection delegate;
+    private final ReentrantLock lock = new ReentrantLock();
 
     protected NonClosableConnection(Connection delegate) {
         this.delegate = delegate;
@@ -89,9 +93,19 @@ public abstract class NonClosableConnection implements Connection {
         this.delegate.close();
     }
 
+    /**
+     * Serialize usage of the connection until the current thread {@link #close() closes} it.
+     */
+    public final void acquire() {
+        this.lock.lock();
+    }
+
     @Override
     public final void close() throws SQLException {
-        // do nothing
+        // only release the connection to the next borrower
+        if (this.lock.isHeldByCurrentThread()) {
+            this.lock.unlock();
+        }
     }
 
     @Override
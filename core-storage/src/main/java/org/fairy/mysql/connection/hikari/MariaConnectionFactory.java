@@ -42,9 +42,9 @@ public class MariaConnectionFactory extends HikariConnectionFactory {
     @Override
     public void configureDatabase(String address, String port, String databaseName, String username, String password) {
         this.config.setDataSourceClassName("org.mariadb.jdbc.MariaDbDataSource");
-        this.config.addDataSourceProperty("serverName", address);
-        this.config.addDataSourceProperty("port", port);
-        this.config.addDataSourceProperty("databaseName", databaseName);
+        // MariaDbDataSource has no setters for driver options, so the prepared statement cache is configured on the url
+        this.config.addDataSourceProperty("url", "jdbc:mariadb://" + address + ":" + port + "/" + databaseName
+                + "?cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&useServerPrepStmts=true");
         this.config.setUsername(username);
         this.config.setPassword(password);
     }
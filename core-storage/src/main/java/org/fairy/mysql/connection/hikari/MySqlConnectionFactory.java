@@ -45,6 +45,12 @@ public class MySqlConnectionFactory extends HikariConnectionFactory {
         this.config.setJdbcUrl("jdbc:mysql://" + address + ":" + port + "/" + databaseName);
         this.config.setUsername(username);
         this.config.setPassword(password);
+
+        // let the driver reuse prepared statements on pooled connections
+        this.config.addDataSourceProperty("cachePrepStmts", "true");
+        this.config.addDataSourceProperty("prepStmtCacheSize", "250");
+        this.config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        this.config.addDataSourceProperty("useServerPrepStmts", "true");
     }
 
     @Override
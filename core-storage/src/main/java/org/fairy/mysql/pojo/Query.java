@@ -28,6 +28,8 @@ import lombok.Getter;
 import org.fairy.mysql.ImanitySqlException;
 import org.fairy.mysql.connection.AbstractConnectionFactory;
 import org.fairy.mysql.pojo.info.PojoInfo;
+import org.fairy.mysql.pojo.info.RowMapper;
+import org.fairy.mysql.pojo.info.StandardPojoInfo;
 import org.fairy.mysql.pojo.statement.SqlStatementBuilder;
 import org.fairy.mysql.util.SQLUtil;
 import org.intellij.lang.annotations.Language;
@@ -35,7 +37,9 @@ import org.intellij.lang.annotations.Language;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -65,7 +69,7 @@ public class Query {
 
 	public Query(AbstractConnectionFactory factory) {
 		this.factory = factory;
-		this.sqlStatementBuilder = factory.builder();
+		this.sqlStatementBuilder = factory.statementBuilder();
 		this.wheres = new ArrayList<>();
 	}
 
@@ -186,6 +190,7 @@ public class Query {
 		try {
 			if (sql == null) {
 				sql = sqlStatementBuilder.getSelectSql(this, clazz);
+				args = sqlStatementBuilder.getSelectArgs(this, clazz);
 			}
 
 			Connection localCon;
@@ -247,6 +252,7 @@ public class Query {
 		try {
 			if (sql == null) {
 				sql = sqlStatementBuilder.getSelectSql(this, clazz);
+				args = sqlStatementBuilder.getSelectArgs(this, clazz);
 			}
 
 			Connection localCon;
@@ -275,6 +281,14 @@ public class Query {
 
 			} else {
 				PojoInfo pojoInfo = sqlStatementBuilder.getPojoInfo(clazz);
+				if (pojoInfo instanceof StandardPojoInfo) {
+					RowMapper<T> rowMapper = ((StandardPojoInfo) pojoInfo).getRowMapper(clazz, sqlStatementBuilder, metaData);
+					while (rs.next()) {
+						out.add(rowMapper.map(rs));
+					}
+					return out;
+				}
+
 				while (rs.next()) {
 					T row = clazz.getDeclaredConstructor().newInstance();
 
@@ -356,6 +370,32 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Upsert rows in JDBC batches of batchSize, preparing the upsert statement once
+	 * per row class.
+	 */
+	public Query upsertAll(Collection<?> rows, int batchSize) {
+
+		Map<Class<?>, List<Object>> rowsByClass = new LinkedHashMap<>();
+		for (Object row : rows) {
+			rowsByClass.computeIfAbsent(row.getClass(), ignored -> new ArrayList<>()).add(row);
+		}
+
+		int affected = 0;
+		for (List<Object> classRows : rowsByClass.values()) {
+			List<Object[]> batchArgs = new ArrayList<>(classRows.size());
+			for (Object row : classRows) {
+				batchArgs.add(sqlStatementBuilder.getUpsertArgs(this, row));
+			}
+
+			sql = sqlStatementBuilder.getUpsertSql(this, classRows.get(0));
+			affected += executeBatch0(batchArgs, batchSize);
+		}
+		rowsAffected = affected;
+
+		return this;
+	}
+
 	/**
 	 * Update a row in a table. It will match an existing row based on the primary
 	 * key.
@@ -398,21 +438,7 @@ public class Query {
 				state = localCon.prepareStatement(sql);
 			}
 
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					Object arg = args[i];
-
-					/*
-					 * The purpose of this is to allow List args to be inserted into JDBC array
-					 * fields. Postgres JDBC drivers do not handle this correctly.
-					 */
-					if (arg != null && List.class.isAssignableFrom(arg.getClass())) {
-						arg = ((List<?>) arg).toArray();
-					}
-
-					state.setObject(i + 1, arg);
-				}
-			}
+			bindArgs(state, args);
 
 			rowsAffected = state.executeUpdate();
 
@@ -432,6 +458,90 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Execute the sql once for each set of arguments using JDBC batches, sending
+	 * batchSize statements per round trip. Run it inside a transaction to make the
+	 * batches atomic. To see how the command did, call .rowsAffected().
+	 */
+	public Query executeBatch(List<Object[]> batchArgs, int batchSize) {
+		rowsAffected = executeBatch0(batchArgs, batchSize);
+		return this;
+	}
+
+	private int executeBatch0(List<Object[]> batchArgs, int batchSize) {
+
+		Connection con = null;
+		PreparedStatement state = null;
+		int affected = 0;
+
+		try {
+
+			Connection localCon;
+			if (transaction == null) {
+				localCon = factory.connection();
+				con = localCon; // con gets closed below if non-null
+			} else {
+				localCon = transaction.getConnection();
+			}
+
+			state = localCon.prepareStatement(sql);
+
+			int pending = 0;
+			for (Object[] batch : batchArgs) {
+				bindArgs(state, batch);
+				state.addBatch();
+
+				if (++pending >= batchSize) {
+					affected += sumAffected(state.executeBatch());
+					pending = 0;
+				}
+			}
+
+			if (pending > 0) {
+				affected += sumAffected(state.executeBatch());
+			}
+
+		} catch (SQLException | IllegalArgumentException e) {
+			ImanitySqlException dbe = new ImanitySqlException(e);
+			dbe.setSql(sql);
+			throw dbe;
+		} finally {
+			close(state);
+			close(con);
+		}
+
+		return affected;
+	}
+
+	private static int sumAffected(int[] results) {
+		int affected = 0;
+		for (int result : results) {
+			// drivers may report Statement.SUCCESS_NO_INFO for batched rows
+			if (result > 0) {
+				affected += result;
+			}
+		}
+		return affected;
+	}
+
+	private void bindArgs(PreparedStatement state, Object[] args) throws SQLException {
+		if (args != null) {
+			for (int i = 0; i < args.length; i++) {
+				Object arg = args[i];
+
+				/*
+				 * The purpose of this is to allow List args to be inserted into JDBC array
+				 * fields. Postgres JDBC drivers do not handle this correctly.
+				 */
+				if (arg != null && List.class.isAssignableFrom(arg.getClass())) {
+					arg = ((List<?>) arg).toArray();
+				}
+
+				state.setObject(i + 1, arg);
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private void populateGeneratedKeys(PreparedStatement state, Object generatedKeyReceiver,
 			String[] generatedKeyNames) {
@@ -552,6 +662,23 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Delete rows of the type by primary key in JDBC batches of batchSize. The
+	 * table is taken from the .table() method or the @Table annotation.
+	 */
+	public Query deleteAllById(Class<?> type, Collection<?> ids, int batchSize) {
+		PojoInfo pojoInfo = sqlStatementBuilder.getPojoInfo(type);
+		sql = sqlStatementBuilder.getDeleteByIdSql(this, type);
+		Property property = pojoInfo.getProperty(pojoInfo.getPrimaryKeyName());
+
+		List<Object[]> batchArgs = new ArrayList<>(ids.size());
+		for (Object id : ids) {
+			batchArgs.add(new Object[] {pojoInfo.toReadableValue(property, id)});
+		}
+
+		return executeBatch(batchArgs, batchSize);
+	}
+
 	/**
 	 * Delete multiple rows in a table. Be sure to specify the table with the
 	 * .table() method and limit the rows to delete using the .where() method.
@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.mysql.pojo.info;
+
+import org.fairy.mysql.ImanitySqlException;
+import org.fairy.mysql.pojo.Property;
+import org.fairy.mysql.pojo.statement.SqlStatementBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps rows of one result set shape into pojos, with the column to property binding
+ * and the accessors resolved once instead of per row and column.
+ */
+public final class RowMapper<T> {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private final MethodHandle constructor;
+	private final ColumnBinding[] bindings;
+
+	RowMapper(StandardPojoInfo pojoInfo, Class<T> type, SqlStatementBuilder sqlStatementBuilder, ResultSetMetaData metaData) throws SQLException, ReflectiveOperationException {
+		Constructor<T> declaredConstructor = type.getDeclaredConstructor();
+		declaredConstructor.setAccessible(true);
+		this.constructor = LOOKUP.unreflectConstructor(declaredConstructor).asType(MethodType.methodType(Object.class));
+
+		List<ColumnBinding> bindings = new ArrayList<>();
+		for (int i = 1; i <= metaData.getColumnCount(); i++) {
+			Property property = pojoInfo.getPropertyMap().get(metaData.getColumnLabel(i).toUpperCase());
+			if (property == null) {
+				continue;
+			}
+			bindings.add(binding(pojoInfo, sqlStatementBuilder, property, i, metaData.getColumnTypeName(i)));
+		}
+		this.bindings = bindings.toArray(new ColumnBinding[0]);
+	}
+
+	/**
+	 * The cache key of a result set shape, column labels and type names in order
+	 */
+	static String shape(ResultSetMetaData metaData) throws SQLException {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 1; i <= metaData.getColumnCount(); i++) {
+			builder.append(metaData.getColumnLabel(i)).append(':').append(metaData.getColumnTypeName(i)).append(',');
+		}
+		return builder.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	public T map(ResultSet resultSet) throws SQLException {
+		Object row;
+		try {
+			row = this.constructor.invokeExact();
+		} catch (Throwable throwable) {
+			throw new ImanitySqlException(throwable);
+		}
+
+		for (ColumnBinding binding : this.bindings) {
+			binding.apply(row, resultSet);
+		}
+		return (T) row;
+	}
+
+	private static ColumnBinding binding(StandardPojoInfo pojoInfo, SqlStatementBuilder sqlStatementBuilder, Property property, int index, String columnTypeName) throws ReflectiveOperationException {
+		MethodHandle setter;
+		Class<?> valueType;
+		if (property.getWriteMethod() != null) {
+			property.getWriteMethod().setAccessible(true);
+			setter = LOOKUP.unreflect(property.getWriteMethod());
+			valueType = property.getWriteMethod().getParameterTypes()[0];
+		} else {
+			setter = LOOKUP.unreflectSetter(property.getField());
+			valueType = property.getField().getType();
+		}
+
+		if (property.getSerializer() == null && !property.isEnumField() && valueType.isPrimitive() && !sqlStatementBuilder.isConverted(columnTypeName)) {
+			setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+			if (valueType == int.class) {
+				return new IntBinding(property, index, setter);
+			} else if (valueType == long.class) {
+				return new LongBinding(property, index, setter);
+			} else if (valueType == double.class) {
+				return new DoubleBinding(property, index, setter);
+			} else if (valueType == float.class) {
+				return new FloatBinding(property, index, setter);
+			} else if (valueType == boolean.class) {
+				return new BooleanBinding(property, index, setter);
+			}
+		}
+
+		setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return new ObjectBinding(pojoInfo, sqlStatementBuilder, property, index, columnTypeName, setter);
+	}
+
+	private abstract static class ColumnBinding {
+
+		protected final Property property;
+		protected final int index;
+		protected final MethodHandle setter;
+
+		private ColumnBinding(Property property, int index, MethodHandle setter) {
+			this.property = property;
+			this.index = index;
+			this.setter = setter;
+		}
+
+		void apply(Object row, ResultSet resultSet) throws SQLException {
+			try {
+				this.apply0(row, resultSet);
+			} catch (SQLException | ImanitySqlException ex) {
+				throw ex;
+			} catch (Throwable throwable) {
+				throw new ImanitySqlException("Could not set value into pojo. Property: " + this.property.getName(), throwable);
+			}
+		}
+
+		abstract void apply0(Object row, ResultSet resultSet) throws Throwable;
+
+	}
+
+	private static final class IntBinding extends ColumnBinding {
+
+		private IntBinding(Property property, int index, MethodHandle setter) {
+			super(property, index, setter);
+		}
+
+		@Override
+		void apply0(Object row, ResultSet resultSet) throws Throwable {
+			int value = resultSet.getInt(this.index);
+			if (!resultSet.wasNull()) {
+				this.setter.invokeExact(row, value);
+			}
+		}
+
+	}
+
+	private static final class LongBinding extends ColumnBinding {
+
+		private LongBinding(Property property, int index, MethodHandle setter) {
+			super(property, index, setter);
+		}
+
+		@Override
+		void apply0(Object row, ResultSet resultSet) throws Throwable {
+			long value = resultSet.getLong(this.index);
+			if (!resultSet.wasNull()) {
+				this.setter.invokeExact(row, value);
+			}
+		}
+
+	}
+
+	private static final class DoubleBinding extends ColumnBinding {
+
+		private DoubleBinding(Property property, int index, MethodHandle setter) {
+			super(property, index, setter);
+		}
+
+		@Override
+		void apply0(Object row, ResultSet resultSet) throws Throwable {
+			double value = resultSet.getDouble(this.index);
+			if (!resultSet.wasNull()) {
+				this.setter.invokeExact(row, value);
+			}
+		}
+
+	}
+
+	private static final class FloatBinding extends ColumnBinding {
+
+		private FloatBinding(Property property, int index, MethodHandle setter) {
+			super(property, index, setter);
+		}
+
+		@Override
+		void apply0(Object row, ResultSet resultSet) throws Throwable {
+			float value = resultSet.getFloat(this.index);
+			if (!resultSet.wasNull()) {
+				this.setter.invokeExact(row, value);
+			}
+		}
+
+	}
+
+	private static final class BooleanBinding extends ColumnBinding {
+
+		private BooleanBinding(Property property, int index, MethodHandle setter) {
+			super(property, index, setter);
+		}
+
+		@Override
+		void apply0(Object row, ResultSet resultSet) throws Throwable {
+			boolean value = resultSet.getBoolean(this.index);
+			if (!resultSet.wasNull()) {
+				this.setter.invokeExact(row, value);
+			}
+		}
+
+	}
+
+	/**
+	 * Columns going through the statement builder conversion, serializers or enum lookup
+	 */
+	private static final class ObjectBinding extends ColumnBinding {
+
+		private final StandardPojoInfo pojoInfo;
+		private final SqlStatementBuilder sqlStatementBuilder;
+		private final String columnTypeName;
+
+		private ObjectBinding(StandardPojoInfo pojoInfo, SqlStatementBuilder sqlStatementBuilder, Property property, int index, String columnTypeName, MethodHandle setter) {
+			super(property, index, setter);
+			this.pojoInfo = pojoInfo;
+			this.sqlStatementBuilder = sqlStatementBuilder;
+			this.columnTypeName = columnTypeName;
+		}
+
+		@Override
+		void apply0(Object row, ResultSet resultSet) throws Throwable {
+			Object value = this.sqlStatementBuilder.convertValue(resultSet.getObject(this.index), this.columnTypeName);
+			if (value != null) {
+				value = this.pojoInfo.toPojoValue(this.property, value);
+			}
+			this.setter.invokeExact(row, value);
+		}
+
+	}
+
+}
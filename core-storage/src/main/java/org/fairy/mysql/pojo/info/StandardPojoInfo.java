@@ -24,6 +24,8 @@
 
 package org.fairy.mysql.pojo.info;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.fairy.ObjectSerializer;
@@ -33,6 +35,7 @@ import org.fairy.mysql.ColumnOrder;
 import org.fairy.mysql.ImanitySqlException;
 import org.fairy.mysql.pojo.CustomSerialize;
 import org.fairy.mysql.pojo.Property;
+import org.fairy.mysql.pojo.statement.SqlStatementBuilder;
 import org.fairy.util.AccessUtil;
 
 import javax.persistence.*;
@@ -41,10 +44,13 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("rawtypes")
 @Getter
@@ -54,6 +60,11 @@ public class StandardPojoInfo implements PojoInfo {
 	@Autowired
 	private static SerializerFactory SERIALIZER_FACTORY;
 
+	/**
+	 * The maximum count of cached select sql per pojo, order by clauses are part of the key so they aren't limited by the columns
+	 */
+	public static int MAXIMUM_SELECT_SQL = Integer.getInteger("fairy.sql.maximumSelectSql", 256);
+
 	private Map<String, Property> propertyMap = new LinkedHashMap<>();
 	private String table;
 
@@ -72,8 +83,20 @@ public class StandardPojoInfo implements PojoInfo {
 	private String[] updateColumnNames;
 	private int updateSqlArgCount;
 
+	private String deleteSql;
+
 	private String selectColumns;
 
+	@Setter(AccessLevel.NONE)
+	private final Map<String, String> selectSqlCache = Caffeine.newBuilder()
+			.maximumSize(MAXIMUM_SELECT_SQL)
+			.executor(Runnable::run)
+			.<String, String>build()
+			.asMap();
+
+	@Getter(AccessLevel.NONE)
+	private final Map<String, RowMapper<?>> rowMappers = new ConcurrentHashMap<>();
+
 	public StandardPojoInfo(Class<?> type) {
 
 		try {
@@ -244,6 +267,38 @@ public class StandardPojoInfo implements PojoInfo {
 		return value;
 	}
 
+	/**
+	 * The reverse of {@link #toReadableValue(Property, Object)}, for a non null column value
+	 */
+	public Object toPojoValue(Property prop, Object value) {
+		if (prop.getSerializer() != null) {
+			value = prop.getSerializer().deserialize(value);
+
+		} else if (prop.isEnumField()) {
+			value = getEnumConst(prop.getEnumClass(), prop.getEnumType(), value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get the row mapper of this pojo for the shape of a result set, creating it on first use
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> RowMapper<T> getRowMapper(Class<T> type, SqlStatementBuilder sqlStatementBuilder, ResultSetMetaData metaData) throws SQLException {
+		String shape = RowMapper.shape(metaData);
+		RowMapper<?> rowMapper = this.rowMappers.get(shape);
+		if (rowMapper == null) {
+			try {
+				rowMapper = new RowMapper<>(this, type, sqlStatementBuilder, metaData);
+			} catch (ReflectiveOperationException ex) {
+				throw new ImanitySqlException(ex);
+			}
+			this.rowMappers.put(shape, rowMapper);
+		}
+		return (RowMapper<T>) rowMapper;
+	}
+
 	public Object getValue(Object pojo, String name) {
 
 		try {
@@ -288,12 +343,7 @@ public class StandardPojoInfo implements PojoInfo {
 		}
 
 		if (value != null) {
-			if (prop.getSerializer() != null) {
-				value = prop.getSerializer().deserialize(value);
-				
-			} else if (prop.isEnumField()) {
-				value = getEnumConst(prop.getEnumClass(), prop.getEnumType(), value);
-			}
+			value = this.toPojoValue(prop, value);
 		}
 
 		if (prop.getWriteMethod() != null) {
@@ -92,11 +92,16 @@ public class MySqlStatementBuilder extends StandardSqlStatementBuilder {
 
 	@Override
 	public Object convertValue(Object value, String columnTypeName) {
-		if ("TINYINT".equalsIgnoreCase(columnTypeName)) {
-			value = (int) value == 1;
+		if (value instanceof Number && this.isConverted(columnTypeName)) {
+			value = ((Number) value).intValue() == 1;
 		}
 
 		return value;
 	}
 
+	@Override
+	public boolean isConverted(String columnTypeName) {
+		return "TINYINT".equalsIgnoreCase(columnTypeName);
+	}
+
 }
@@ -36,16 +36,26 @@ public interface SqlStatementBuilder {
 	public Object[] getUpdateArgs(Query query, Object row);
 	
 	public String getDeleteSql(Query query, Object row);
+	public String getDeleteByIdSql(Query query, Class<?> rowClass);
 	public Object[] getDeleteArgs(Query query, Object row);
 
 	public String getUpsertSql(Query query, Object row);
 	public Object[] getUpsertArgs(Query query, Object row);
 	
 	public String getSelectSql(Query query, Class<?> rowClass);
+	public Object[] getSelectArgs(Query query, Class<?> rowClass);
 	public String getCreateTableSql(Class<?> clazz);
 	
 	public PojoInfo getPojoInfo(Class<?> rowClass);
 
 	public Object convertValue(Object value, String columnTypeName);
 
+	/**
+	 * @return whether {@link #convertValue(Object, String)} may change values of the column type,
+	 * such columns are never read with the typed result set getters
+	 */
+	public default boolean isConverted(String columnTypeName) {
+		return true;
+	}
+
 }
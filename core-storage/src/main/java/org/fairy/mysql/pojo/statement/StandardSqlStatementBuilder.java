@@ -45,21 +45,30 @@ import java.util.concurrent.ConcurrentHashMap;
 public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 
 	private static final Logger LOGGER = LogManager.getLogger(StandardSqlStatementBuilder.class);
-	private static final ConcurrentHashMap<Class<?>, StandardPojoInfo> POJOS = new ConcurrentHashMap<>();
+
+	/**
+	 * Generated sql is specific to the dialect of this builder, so pojo infos are not shared between builders
+	 */
+	private final ConcurrentHashMap<Class<?>, StandardPojoInfo> pojos = new ConcurrentHashMap<>();
 
 	public StandardPojoInfo getPojoInfo(Class<?> rowClass) {
-		StandardPojoInfo pi = POJOS.get(rowClass);
+		StandardPojoInfo pi = pojos.get(rowClass);
 		if (pi == null) {
-			pi = new StandardPojoInfo(rowClass);
-			POJOS.put(rowClass, pi);
-			
-			makeInsertSql(pi);
-			makeUpsertSql(pi);
-			makeUpdateSql(pi);
-			makeSelectColumns(pi);
+			pi = pojos.computeIfAbsent(rowClass, this::createPojoInfo);
 		}
 		return pi;
 	}
+
+	private StandardPojoInfo createPojoInfo(Class<?> rowClass) {
+		StandardPojoInfo pi = new StandardPojoInfo(rowClass);
+
+		makeInsertSql(pi);
+		makeUpsertSql(pi);
+		makeUpdateSql(pi);
+		makeDeleteSql(pi);
+		makeSelectColumns(pi);
+		return pi;
+	}
 	
 	
 	@Override
@@ -166,6 +175,17 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 	public void makeUpsertSql(StandardPojoInfo pojoInfo) {
 	}
 
+	public void makeDeleteSql(StandardPojoInfo pojoInfo) {
+		if (pojoInfo.getPrimaryKeyName() == null) {
+			return;
+		}
+		pojoInfo.setDeleteSql(makeDeleteSql(pojoInfo.getTable(), pojoInfo.getPrimaryKeyName()));
+	}
+
+	private String makeDeleteSql(String table, String primaryKeyName) {
+		return "delete from " + table + " where " + primaryKeyName + "=?";
+	}
+
 	private void makeSelectColumns(StandardPojoInfo pojoInfo) {
 		if (pojoInfo.getPropertyMap().isEmpty()) {
 			// this applies if the rowClass is a Map
@@ -183,49 +203,68 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 	@Override
 	public String getSelectSql(Query query, Class<?> rowClass) {
 
-		// unlike insert and update, this needs to be done dynamically
-		// and can't be precalculated because of the where and order by
+		// unlike insert and update, this can't be precalculated because of the where
+		// and order by, but where lists are bound as arguments so their sql is cached
 		
 		StandardPojoInfo pojoInfo = getPojoInfo(rowClass);
-		String columns = pojoInfo.getSelectColumns();
 		
+		String table = query.getTable();
+		if (table == null) {
+			table = pojoInfo.getTable();
+		}
+		String orderBy = query.getOrderBy();
+
 		String where = query.getWhere();
-		if (where == null) {
+		if (where != null) {
 			if (query.getWheres().size() > 0) {
-				where = "";
-				Iterator<Where> iterator = query.getWheres().iterator();
-
-				while (iterator.hasNext()) {
-
-					Where whereObj = iterator.next();
+				LOGGER.error(new IllegalArgumentException("There is where statement specified but Where list also not empty!"));
+			}
+			return makeSelectSql(pojoInfo, table, where, orderBy);
+		}
 
-					Object value;
-					Property property = pojoInfo.getProperty(whereObj.getProperty());
-					if (property != null) {
-						value = pojoInfo.toReadableValue(property, whereObj.getValue());
-					} else {
-						value = whereObj.getValue().toString();
-					}
+		StringBuilder key = new StringBuilder(table).append('|').append(orderBy);
+		for (Where whereObj : query.getWheres()) {
+			key.append('|').append(whereObj.getProperty());
+		}
 
-					where += whereObj.getProperty() + "=\'" + value.toString() + "\'";
+		final String selectTable = table;
+		return pojoInfo.getSelectSqlCache().computeIfAbsent(key.toString(), ignored -> {
+			String whereList = null;
+			if (query.getWheres().size() > 0) {
+				StringBuilder buf = new StringBuilder();
+				Iterator<Where> iterator = query.getWheres().iterator();
+				while (iterator.hasNext()) {
+					buf.append(iterator.next().getProperty()).append("=?");
 					if (iterator.hasNext()) {
-						where += ",";
+						buf.append(" and ");
 					}
 				}
+				whereList = buf.toString();
 			}
-		} else if (query.getWheres().size() > 0) {
-			LOGGER.error(new IllegalArgumentException("There is where statement specified but Where list also not empty!"));
+			return makeSelectSql(pojoInfo, selectTable, whereList, orderBy);
+		});
+	}
+
+	@Override
+	public Object[] getSelectArgs(Query query, Class<?> rowClass) {
+		if (query.getWhere() != null || query.getWheres().isEmpty()) {
+			return query.getArgs();
 		}
 
-		String table = query.getTable();
-		if (table == null) {
-			table = pojoInfo.getTable();
+		StandardPojoInfo pojoInfo = getPojoInfo(rowClass);
+		Object[] args = new Object[query.getWheres().size()];
+		for (int i = 0; i < args.length; i++) {
+			Where whereObj = query.getWheres().get(i);
+			Property property = pojoInfo.getProperty(whereObj.getProperty());
+			args[i] = property != null ? pojoInfo.toReadableValue(property, whereObj.getValue()) : whereObj.getValue();
 		}
-		String orderBy = query.getOrderBy();
-		
+		return args;
+	}
+
+	private String makeSelectSql(StandardPojoInfo pojoInfo, String table, String where, String orderBy) {
 		StringBuilder out = new StringBuilder();
 		out.append("select ");
-		out.append(columns);
+		out.append(pojoInfo.getSelectColumns());
 		out.append(" from ");
 		out.append(table);
 		if (where != null) {
@@ -337,22 +376,30 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 		return value;
 	}
 
+	@Override
+	public boolean isConverted(String columnTypeName) {
+		return false;
+	}
+
 	@Override
 	public String getDeleteSql(Query query, Object row) {
+		return getDeleteByIdSql(query, row.getClass());
+	}
+
+	@Override
+	public String getDeleteByIdSql(Query query, Class<?> rowClass) {
 		
-		StandardPojoInfo pojoInfo = getPojoInfo(row.getClass());
-		
+		StandardPojoInfo pojoInfo = getPojoInfo(rowClass);
+		if (pojoInfo.getPrimaryKeyName() == null) {
+			throw new ImanitySqlException("No primary key specified in the row. Use the @Id annotation.");
+		}
+
 		String table = query.getTable();  
 		if (table == null) {
-			table = pojoInfo.getTable();
-			if (table == null) {
-				throw new ImanitySqlException("You must specify a table name");
-			}
+			return pojoInfo.getDeleteSql();
 		}
 		
-		String primaryKeyName = pojoInfo.getPrimaryKeyName();
-		
-		return "delete from " + table + " where " + primaryKeyName + "=?";
+		return makeDeleteSql(table, pojoInfo.getPrimaryKeyName());
 	}
 
 
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.mysql.config.AbstractSqlRepositoryProvider;
+import org.fairy.mysql.connection.file.H2ConnectionFactory;
+import org.fairy.mysql.pojo.info.RowMapper;
+import org.fairy.mysql.pojo.info.StandardPojoInfo;
+import org.fairy.mysql.pojo.statement.MySqlStatementBuilder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rows mapped through the cached row mapper of each result set shape
+ */
+public class RowMapperTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private static final int ROWS = 1_000;
+
+	@Test
+	public void mapsSavedRows() throws Exception {
+		AbstractSqlRepositoryProvider provider = new H2TestProvider(this.folder.getRoot().toPath().resolve("rows"));
+		provider.build();
+
+		List<Score> scores = scores();
+		provider.buildRepository(Score.class, "scores").saveAll(scores);
+
+		// Twice, the second time through the cached mapper
+		for (int round = 0; round < 2; round++) {
+			List<Score> actual = provider.getFactory().query().results(Score.class);
+
+			Assert.assertEquals(ROWS, actual.size());
+			for (Score score : actual) {
+				Assert.assertEquals(scores.get(Integer.parseInt(score.uuid.substring("player-".length()))), score);
+			}
+		}
+
+		provider.close();
+	}
+
+	@Test
+	public void convertsTinyintLikeReflectivePath() throws Exception {
+		H2ConnectionFactory db = new H2ConnectionFactory(this.folder.getRoot().toPath().resolve("flags"), true);
+		MySqlStatementBuilder builder = new MySqlStatementBuilder();
+		StandardPojoInfo pojoInfo = (StandardPojoInfo) builder.getPojoInfo(Flag.class);
+
+		try (Connection connection = db.connection(); Statement statement = connection.createStatement()) {
+			statement.execute("create table flags (id int primary key, active tinyint)");
+			statement.execute("insert into flags values (1, 1), (2, 0), (3, 2)");
+
+			try (ResultSet resultSet = statement.executeQuery("select * from flags order by id")) {
+				RowMapper<Flag> rowMapper = pojoInfo.getRowMapper(Flag.class, builder, resultSet.getMetaData());
+				List<Boolean> active = new ArrayList<>();
+				while (resultSet.next()) {
+					active.add(rowMapper.map(resultSet).active);
+				}
+
+				// Only 1 is true for the MySQL builder, a typed getBoolean would also accept 2
+				Assert.assertEquals(Arrays.asList(true, false, false), active);
+			}
+		}
+
+		db.shutdown();
+	}
+
+	private static List<Score> scores() {
+		List<Score> scores = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			scores.add(new Score("player-" + i, "Player" + i, i % 100, i / 100, i * 60L, i / 7.0D));
+		}
+		return scores;
+	}
+
+	@Table(name = "flags")
+	public static class Flag {
+
+		@Id
+		@Column(name = "id")
+		public int id;
+
+		@Column(name = "active")
+		public boolean active;
+
+	}
+
+	@Table(name = "scores")
+	public static class Score {
+
+		@Id
+		@Column(name = "uuid")
+		public String uuid;
+
+		@Column(name = "name")
+		public String name;
+
+		@Column(name = "kills")
+		public int kills;
+
+		@Column(name = "deaths")
+		public int deaths;
+
+		@Column(name = "playtime")
+		public long playtime;
+
+		@Column(name = "ratio")
+		public double ratio;
+
+		public Score() {
+		}
+
+		public Score(String uuid, String name, int kills, int deaths, long playtime, double ratio) {
+			this.uuid = uuid;
+			this.name = name;
+			this.kills = kills;
+			this.deaths = deaths;
+			this.playtime = playtime;
+			this.ratio = ratio;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Score score = (Score) o;
+			return kills == score.kills && deaths == score.deaths && playtime == score.playtime
+					&& Double.compare(score.ratio, ratio) == 0 && uuid.equals(score.uuid) && name.equals(score.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return uuid.hashCode();
+		}
+
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.Repository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SQLRepositoryBatchTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private static final int ROWS = 2000;
+
+	@Test
+	public void saveAndDeleteAll() throws Exception {
+		H2TestProvider provider = new H2TestProvider(this.folder.getRoot().toPath().resolve("batch"));
+		provider.setBatchSize(128);
+		provider.build();
+
+		Repository<Profile, String> repository = provider.buildRepository(Profile.class, "profiles");
+
+		repository.saveAll(profiles(0));
+		Assert.assertEquals(ROWS, repository.count());
+
+		// saving again updates the existing rows
+		repository.saveAll(profiles(1));
+		Assert.assertEquals(ROWS, repository.count());
+		Assert.assertEquals(1, repository.findById("profile-10").get().coins);
+
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < ROWS / 2; i++) {
+			ids.add("profile-" + i);
+		}
+		repository.deleteAllById(ids);
+		Assert.assertEquals(ROWS / 2, repository.count());
+		Assert.assertFalse(repository.findById("profile-10").isPresent());
+
+		repository.deleteById("profile-" + (ROWS - 1));
+		Assert.assertEquals(ROWS / 2 - 1, repository.count());
+
+		provider.close();
+	}
+
+	private static List<Profile> profiles(int coins) {
+		List<Profile> profiles = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			profiles.add(new Profile("profile-" + i, coins));
+		}
+		return profiles;
+	}
+
+	@Table(name = "batch_profiles")
+	public static class Profile {
+
+		@Id
+		@Column(name = "uuid")
+		public String uuid;
+
+		@Column(name = "coins")
+		public int coins;
+
+		public Profile() {
+		}
+
+		public Profile(String uuid, int coins) {
+			this.uuid = uuid;
+			this.coins = coins;
+		}
+
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import com.google.common.collect.ImmutableMap;
+import org.fairy.Repository;
+import org.fairy.RepositoryType;
+import org.fairy.mysql.config.AbstractSqlRepositoryProvider;
+import org.fairy.mysql.connection.AbstractConnectionFactory;
+import org.fairy.mysql.connection.hikari.HikariConnectionFactory;
+import org.fairy.mysql.pojo.statement.MySqlStatementBuilder;
+import org.fairy.mysql.pojo.statement.SqlStatementBuilder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SQLRepositoryConcurrencyTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private static final int THREADS = 8;
+	private static final int OPERATIONS = 500;
+
+	@Test
+	public void sharedConnection() throws Exception {
+		this.run(new H2TestProvider(this.folder.getRoot().toPath().resolve("shared")));
+	}
+
+	@Test
+	public void pooledConnections() throws Exception {
+		this.run(new PooledProvider(this.folder.getRoot().toPath().resolve("pooled")));
+	}
+
+	private void run(AbstractSqlRepositoryProvider provider) throws Exception {
+		provider.setConcurrentSessions(true);
+		provider.build();
+
+		Repository<Stats, String> repository = provider.buildRepository(Stats.class, "stats");
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int threadId = thread;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < OPERATIONS; i++) {
+					String id = threadId + "-" + (i % 50);
+					repository.save(new Stats(id, i));
+
+					Optional<Stats> stats = repository.findById(id);
+					Assert.assertTrue(stats.isPresent());
+					Assert.assertEquals(i, stats.get().kills);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(THREADS * 50, repository.count());
+		provider.close();
+	}
+
+	/**
+	 * H2 behind a Hikari pool, so sessions can run on separate connections
+	 */
+	private static final class PooledProvider extends AbstractSqlRepositoryProvider {
+
+		private final Path path;
+
+		private PooledProvider(Path path) {
+			super("test-pooled");
+			this.path = path;
+		}
+
+		@Override
+		public AbstractConnectionFactory createFactory() {
+			return new HikariConnectionFactory() {
+				@Override
+				public RepositoryType type() {
+					return RepositoryType.H2;
+				}
+
+				@Override
+				public String defaultPort() {
+					return "";
+				}
+
+				@Override
+				public void configureDatabase(String address, String port, String databaseName, String username, String password) {
+				}
+
+				@Override
+				public void init() {
+					super.init();
+					this.config.setDriverClassName("org.h2.Driver");
+					this.config.setJdbcUrl("jdbc:h2:" + path.toAbsolutePath() + ";mode=MySQL");
+					this.config.setMaximumPoolSize(THREADS);
+				}
+
+				@Override
+				public SqlStatementBuilder builder() {
+					return new MySqlStatementBuilder();
+				}
+			};
+		}
+
+		@Override
+		public Class<? extends AbstractConnectionFactory> factoryClass() {
+			return HikariConnectionFactory.class;
+		}
+
+		@Override
+		public RepositoryType type() {
+			return RepositoryType.H2;
+		}
+
+		@Override
+		public Map<String, String> getDefaultOptions() {
+			return ImmutableMap.of();
+		}
+
+		@Override
+		public void registerOptions(Map<String, String> map) {
+		}
+
+	}
+
+	@Table(name = "concurrency_stats")
+	public static class Stats {
+
+		@Id
+		@Column(name = "uuid")
+		public String uuid;
+
+		@Column(name = "kills")
+		public int kills;
+
+		public Stats() {
+		}
+
+		public Stats(String uuid, int kills) {
+			this.uuid = uuid;
+			this.kills = kills;
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.fairy.test;
+
+import org.fairy.mysql.connection.file.H2ConnectionFactory;
+import org.fairy.mysql.pojo.Query;
+import org.fairy.mysql.pojo.info.StandardPojoInfo;
+import org.fairy.mysql.pojo.statement.SqlStatementBuilder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Arrays;
+import java.util.List;
+
+public class StatementCacheTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void reusesGeneratedSql() throws Exception {
+		H2ConnectionFactory db = new H2ConnectionFactory(this.folder.getRoot().toPath().resolve("statements"), true);
+		SqlStatementBuilder builder = db.statementBuilder();
+		Assert.assertSame(builder, db.query().getSqlStatementBuilder());
+
+		String first = builder.getSelectSql(db.query().whereQuery("name", "bob").whereQuery("level", 1), Row.class);
+		String second = builder.getSelectSql(db.query().whereQuery("name", "alice").whereQuery("level", 2), Row.class);
+		Assert.assertSame(first, second);
+		Assert.assertEquals("select id,name,level from statementtest where name=? and level=?", first);
+
+		Assert.assertSame(builder.getDeleteByIdSql(db.query(), Row.class), builder.getDeleteByIdSql(db.query(), Row.class));
+	}
+
+	@Test
+	public void boundsSelectSqlCache() throws Exception {
+		H2ConnectionFactory db = new H2ConnectionFactory(this.folder.getRoot().toPath().resolve("statements"), true);
+		SqlStatementBuilder builder = db.statementBuilder();
+		StandardPojoInfo pojoInfo = (StandardPojoInfo) builder.getPojoInfo(Row.class);
+
+		for (int i = 0; i < StandardPojoInfo.MAXIMUM_SELECT_SQL * 4; i++) {
+			builder.getSelectSql(db.query().whereQuery("name", "bob").orderBy("level limit " + i), Row.class);
+		}
+
+		Assert.assertTrue(pojoInfo.getSelectSqlCache().size() <= StandardPojoInfo.MAXIMUM_SELECT_SQL);
+	}
+
+	@Test
+	public void bindsWhereValues() throws Exception {
+		H2ConnectionFactory db = new H2ConnectionFactory(this.folder.getRoot().toPath().resolve("statements"), true);
+		db.createTable(Row.class);
+
+		db.insert(new Row(1, "bob", 1));
+		db.insert(new Row(2, "bob", 2));
+		db.insert(new Row(3, "o'brien", 2));
+
+		List<Row> rows = db.query().whereQuery("name", "bob").whereQuery("level", 2).results(Row.class);
+		Assert.assertEquals(1, rows.size());
+		Assert.assertEquals(2, rows.get(0).id);
+
+		// values are bound, not inlined, so quotes need no escaping
+		Row row = db.query().whereQuery("name", "o'brien").first(Row.class);
+		Assert.assertEquals(3, row.id);
+
+		Query delete = db.query();
+		delete.deleteAllById(Row.class, Arrays.asList(1L, 3L), 10);
+		Assert.assertEquals(1, db.query().results(Row.class).size());
+
+		db.shutdown();
+	}
+
+	@Table(name = "statementtest")
+	public static class Row {
+		@Id
+		public long id;
+		@Column
+		public String name;
+		@Column
+		public int level;
+
+		public Row() {
+		}
+
+		public Row(long id, String name, int level) {
+			this.id = id;
+			this.name = name;
+			this.level = level;
+		}
+	}
+
+}
@@ -26,20 +26,24 @@ package org.fairy.test;
 
 import org.fairy.mysql.connection.file.H2ConnectionFactory;
 import org.fairy.mysql.pojo.Transaction;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.persistence.*;
-import java.io.File;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class TestAll {
 
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void debug() {
 
-		H2ConnectionFactory factory = new H2ConnectionFactory(new File("./h2test").toPath().toAbsolutePath(), true);
+		H2ConnectionFactory factory = new H2ConnectionFactory(this.folder.getRoot().toPath().resolve("h2test"), true);
 		
 		// db.setSqlMaker(new PostgresMaker()); // set this to match your sql flavor		
 		
@@ -25,22 +25,26 @@
 package org.fairy.test;
 
 import org.fairy.mysql.connection.file.H2ConnectionFactory;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.persistence.Column;
 import javax.persistence.Table;
-import java.io.File;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.junit.Assert.fail;
 
 public class TestSelect {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
 	
 	@Test
 	public void test() {
 		
-		H2ConnectionFactory db = new H2ConnectionFactory(new File("./h2test").toPath().toAbsolutePath(), true);
+		H2ConnectionFactory db = new H2ConnectionFactory(this.folder.getRoot().toPath().resolve("h2test"), true);
 		
 		db.query().sql("drop table if exists selecttest").execute();
 		